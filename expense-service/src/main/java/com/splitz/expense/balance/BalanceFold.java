@@ -0,0 +1,109 @@
+package com.splitz.expense.balance;
+
+import com.splitz.expense.money.Money;
+import java.math.BigDecimal;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Sums signed per-user amounts in {@code long} minor units. Switches to {@link BigDecimal} for the
+ * rest of the fold if an amount does not fit the scale or a sum would overflow.
+ *
+ * <p>Sums live in an open-addressing table of parallel primitive arrays, so adding an amount boxes
+ * nothing and allocates nothing per user; only the table itself is allocated, doubling as it fills.
+ */
+public final class BalanceFold {
+
+  private static final int INITIAL_CAPACITY = 16;
+
+  private final int scale;
+  // Linear probing over slots; kept at most half full
+  private long[] userIds = new long[INITIAL_CAPACITY];
+  private long[] sums = new long[INITIAL_CAPACITY];
+  private boolean[] used = new boolean[INITIAL_CAPACITY];
+  private int size;
+  private Map<Long, BigDecimal> decimalSums;
+
+  public BalanceFold(int scale) {
+    this.scale = scale;
+  }
+
+  public void add(Long userId, BigDecimal amount) {
+    accumulate(userId, amount, false);
+  }
+
+  public void subtract(Long userId, BigDecimal amount) {
+    accumulate(userId, amount, true);
+  }
+
+  public Map<Long, BigDecimal> toMap() {
+    if (decimalSums != null) {
+      return decimalSums;
+    }
+    Map<Long, BigDecimal> result = new HashMap<>();
+    for (int slot = 0; slot < used.length; slot++) {
+      if (used[slot]) {
+        result.put(userIds[slot], Money.toDecimal(sums[slot], scale));
+      }
+    }
+    return result;
+  }
+
+  private void accumulate(Long userId, BigDecimal amount, boolean negate) {
+    if (decimalSums == null && userId != null) {
+      try {
+        long value = Money.toMinor(amount, scale);
+        int slot = slotOf(userId);
+        sums[slot] =
+            negate ? Math.subtractExact(sums[slot], value) : Math.addExact(sums[slot], value);
+        return;
+      } catch (ArithmeticException e) {
+        // Carried on below in BigDecimal
+      }
+    }
+    if (decimalSums == null) {
+      decimalSums = toMap();
+    }
+    decimalSums.merge(userId, negate ? amount.negate() : amount, BigDecimal::add);
+  }
+
+  /** Slot holding the sum of {@code userId}, claimed with a zero sum for a new user. */
+  private int slotOf(long userId) {
+    int mask = used.length - 1;
+    int slot = hash(userId) & mask;
+    while (used[slot]) {
+      if (userIds[slot] == userId) {
+        return slot;
+      }
+      slot = (slot + 1) & mask;
+    }
+    if (2 * (size + 1) > used.length) {
+      grow();
+      return slotOf(userId);
+    }
+    used[slot] = true;
+    userIds[slot] = userId;
+    size++;
+    return slot;
+  }
+
+  private void grow() {
+    long[] oldUserIds = userIds;
+    long[] oldSums = sums;
+    boolean[] oldUsed = used;
+    userIds = new long[oldUsed.length * 2];
+    sums = new long[oldUsed.length * 2];
+    used = new boolean[oldUsed.length * 2];
+    size = 0;
+    for (int slot = 0; slot < oldUsed.length; slot++) {
+      if (oldUsed[slot]) {
+        sums[slotOf(oldUserIds[slot])] = oldSums[slot];
+      }
+    }
+  }
+
+  // Fibonacci hashing: spreads sequential ids over the high bits
+  private static int hash(long userId) {
+    return (int) ((userId * 0x9E3779B97F4A7C15L) >>> 32);
+  }
+}
@@ -0,0 +1,12 @@
+package com.splitz.expense.balance;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.Map;
+
+/** Turns per-member balances (positive = owed money) into a list of transfers that settles them. */
+public interface DebtSimplifier {
+  SimplificationStrategy getStrategy();
+
+  List<Transfer> simplify(Map<Long, BigDecimal> balances);
+}
@@ -0,0 +1,27 @@
+package com.splitz.expense.balance;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+import org.springframework.stereotype.Component;
+
+/** Looks up the {@link DebtSimplifier} registered for a {@link SimplificationStrategy}. */
+@Component
+public class DebtSimplifierRegistry {
+
+  private final Map<SimplificationStrategy, DebtSimplifier> simplifiers;
+
+  public DebtSimplifierRegistry(List<DebtSimplifier> simplifierList) {
+    this.simplifiers =
+        simplifierList.stream().collect(Collectors.toMap(DebtSimplifier::getStrategy, s -> s));
+  }
+
+  public List<Transfer> simplify(SimplificationStrategy strategy, Map<Long, BigDecimal> balances) {
+    DebtSimplifier simplifier = simplifiers.get(strategy);
+    if (simplifier == null) {
+      throw new IllegalArgumentException("Unsupported simplification strategy: " + strategy);
+    }
+    return simplifier.simplify(balances);
+  }
+}
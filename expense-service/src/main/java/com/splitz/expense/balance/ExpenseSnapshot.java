@@ -0,0 +1,45 @@
+package com.splitz.expense.balance;
+
+import com.splitz.expense.model.Expense;
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Immutable copy of the balance-relevant parts of an {@link Expense}. Taken before an expense is
+ * modified so the old contribution can be reversed after the entity has been mutated in place.
+ */
+public record ExpenseSnapshot(Long groupId, Long paidBy, BigDecimal amount, List<Share> shares) {
+
+  public record Share(Long userId, BigDecimal amount) {}
+
+  public static ExpenseSnapshot of(Expense expense) {
+    return new ExpenseSnapshot(
+        expense.getGroup().getId(),
+        expense.getPaidBy(),
+        expense.getAmount(),
+        expense.getSplits().stream()
+            .map(split -> new Share(split.getUserId(), split.getShareAmount()))
+            .toList());
+  }
+
+  /** Per-user effect of this expense on group balances: payer +amount, each participant -share. */
+  public Map<Long, BigDecimal> balanceDeltas() {
+    Map<Long, BigDecimal> deltas = new TreeMap<>();
+    deltas.merge(paidBy, amount, BigDecimal::add);
+    for (Share share : shares) {
+      deltas.merge(share.userId(), share.amount().negate(), BigDecimal::add);
+    }
+    return deltas;
+  }
+
+  /** Per-pair effect of this expense: every participant other than the payer owes the payer. */
+  public PairwiseDeltas pairwiseDeltas() {
+    PairwiseDeltas deltas = new PairwiseDeltas();
+    for (Share share : shares) {
+      deltas.add(paidBy, share.userId(), share.amount());
+    }
+    return deltas;
+  }
+}
@@ -0,0 +1,188 @@
+package com.splitz.expense.balance;
+
+import com.splitz.expense.money.Money;
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+import org.springframework.stereotype.Component;
+
+/**
+ * Builds a settle-up plan by repeatedly matching the largest creditor with the largest debtor. Runs
+ * on {@code long} minor units with primitive index heaps; balances that do not fit take the {@link
+ * BigDecimal} path instead.
+ */
+@Component
+public class GreedyDebtSimplifier implements DebtSimplifier {
+
+  @Override
+  public SimplificationStrategy getStrategy() {
+    return SimplificationStrategy.GREEDY;
+  }
+
+  @Override
+  public List<Transfer> simplify(Map<Long, BigDecimal> balances) {
+    long[] userIds = new long[balances.size()];
+    long[] amounts = new long[balances.size()];
+    int i = 0;
+    try {
+      for (Map.Entry<Long, BigDecimal> entry : balances.entrySet()) {
+        userIds[i] = entry.getKey();
+        amounts[i] = Money.toMinor(entry.getValue(), Money.BALANCE_SCALE);
+        i++;
+      }
+    } catch (ArithmeticException e) {
+      return simplifyDecimal(balances);
+    }
+    return simplifyMinor(userIds, amounts, Money.BALANCE_SCALE);
+  }
+
+  /** Minor-unit greedy over parallel arrays; {@code amounts} is consumed. */
+  public static List<Transfer> simplifyMinor(long[] userIds, long[] amounts, int scale) {
+    int n = amounts.length;
+    long[] credit = new long[n];
+    long[] debt = new long[n];
+    IndexHeap creditors = new IndexHeap(credit, n);
+    IndexHeap debtors = new IndexHeap(debt, n);
+    for (int i = 0; i < n; i++) {
+      if (amounts[i] > 0) {
+        credit[i] = amounts[i];
+        creditors.push(i);
+      } else if (amounts[i] < 0) {
+        debt[i] = -amounts[i];
+        debtors.push(i);
+      }
+    }
+
+    List<Transfer> transfers = new ArrayList<>();
+    while (!creditors.isEmpty() && !debtors.isEmpty()) {
+      int creditor = creditors.peek();
+      int debtor = debtors.peek();
+      long settled = Math.min(credit[creditor], debt[debtor]);
+
+      transfers.add(
+          new Transfer(userIds[debtor], userIds[creditor], Money.toDecimal(settled, scale)));
+
+      credit[creditor] -= settled;
+      debt[debtor] -= settled;
+      creditors.updateTop();
+      debtors.updateTop();
+    }
+    return transfers;
+  }
+
+  /** Reference implementation on {@link BigDecimal}. */
+  public static List<Transfer> simplifyDecimal(Map<Long, BigDecimal> balances) {
+    List<Transfer> transfers = new ArrayList<>();
+
+    PriorityQueue<UserBalance> creditors =
+        new PriorityQueue<>((a, b) -> b.amount.compareTo(a.amount));
+    PriorityQueue<UserBalance> debtors =
+        new PriorityQueue<>((a, b) -> a.amount.compareTo(b.amount));
+
+    balances.forEach(
+        (userId, balance) -> {
+          if (balance.compareTo(BigDecimal.ZERO) > 0) {
+            creditors.add(new UserBalance(userId, balance));
+          } else if (balance.compareTo(BigDecimal.ZERO) < 0) {
+            debtors.add(new UserBalance(userId, balance));
+          }
+        });
+
+    while (!creditors.isEmpty() && !debtors.isEmpty()) {
+      UserBalance creditor = creditors.poll();
+      UserBalance debtor = debtors.poll();
+
+      BigDecimal amountToSettle = creditor.amount.min(debtor.amount.abs());
+      transfers.add(new Transfer(debtor.userId, creditor.userId, amountToSettle));
+
+      creditor.amount = creditor.amount.subtract(amountToSettle);
+      debtor.amount = debtor.amount.add(amountToSettle);
+
+      if (creditor.amount.compareTo(BigDecimal.ZERO) > 0) {
+        creditors.add(creditor);
+      }
+      if (debtor.amount.compareTo(BigDecimal.ZERO) < 0) {
+        debtors.add(debtor);
+      }
+    }
+
+    return transfers;
+  }
+
+  /** Binary max-heap of indices ordered by {@code keys[index]}, ties broken by lower index. */
+  private static final class IndexHeap {
+
+    private final long[] keys;
+    private final int[] heap;
+    private int size;
+
+    IndexHeap(long[] keys, int capacity) {
+      this.keys = keys;
+      this.heap = new int[capacity];
+    }
+
+    boolean isEmpty() {
+      return size == 0;
+    }
+
+    int peek() {
+      return heap[0];
+    }
+
+    void push(int index) {
+      int pos = size++;
+      heap[pos] = index;
+      while (pos > 0) {
+        int parent = (pos - 1) >>> 1;
+        if (!before(heap[pos], heap[parent])) {
+          break;
+        }
+        swap(pos, parent);
+        pos = parent;
+      }
+    }
+
+    /** Restores the heap after the key of the top element decreased, removing it at zero. */
+    void updateTop() {
+      if (keys[heap[0]] == 0) {
+        heap[0] = heap[--size];
+      }
+      int pos = 0;
+      while (true) {
+        int left = 2 * pos + 1;
+        if (left >= size) {
+          return;
+        }
+        int child = left + 1 < size && before(heap[left + 1], heap[left]) ? left + 1 : left;
+        if (!before(heap[child], heap[pos])) {
+          return;
+        }
+        swap(pos, child);
+        pos = child;
+      }
+    }
+
+    private boolean before(int a, int b) {
+      return keys[a] > keys[b] || (keys[a] == keys[b] && a < b);
+    }
+
+    private void swap(int i, int j) {
+      int tmp = heap[i];
+      heap[i] = heap[j];
+      heap[j] = tmp;
+    }
+  }
+
+  private static class UserBalance {
+
+    Long userId;
+    BigDecimal amount;
+
+    UserBalance(Long userId, BigDecimal amount) {
+      this.userId = userId;
+      this.amount = amount;
+    }
+  }
+}
@@ -0,0 +1,18 @@
+package com.splitz.expense.balance;
+
+/**
+ * Where {@code GET /groups/{id}/balances} reads per-member balances from. Selected with {@code
+ * expense.balances.group-source}.
+ */
+public enum GroupBalanceSource {
+  /** The {@code group_member_balances} table maintained on every write. */
+  MATERIALIZED,
+  /** One aggregate query that sums paid, owed and settled amounts per member in the database. */
+  AGGREGATE,
+  /** The group's balance checkpoint plus an aggregate over only the rows written after it. */
+  CHECKPOINT,
+  /** The latest running balance of each member's account in the {@code ledger_entries} journal. */
+  LEDGER,
+  /** Hydrates every expense, split and settlement of the group and folds them in memory. */
+  ENTITIES
+}
@@ -0,0 +1,29 @@
+package com.splitz.expense.balance;
+
+import java.math.BigDecimal;
+
+/** Per-member sums of a group as returned by the aggregate balance query. */
+public record MemberBalanceTotals(
+    Long userId, BigDecimal paid, BigDecimal owed, BigDecimal settledOut, BigDecimal settledIn) {
+
+  /** Maps a {@code (user_id, paid, owed, settled_out, settled_in)} row. */
+  public static MemberBalanceTotals fromRow(Object[] row) {
+    return new MemberBalanceTotals(
+        ((Number) row[0]).longValue(),
+        toBigDecimal(row[1]),
+        toBigDecimal(row[2]),
+        toBigDecimal(row[3]),
+        toBigDecimal(row[4]));
+  }
+
+  public BigDecimal balance() {
+    return paid.subtract(owed).add(settledOut).subtract(settledIn);
+  }
+
+  private static BigDecimal toBigDecimal(Object value) {
+    if (value == null) {
+      return BigDecimal.ZERO;
+    }
+    return value instanceof BigDecimal decimal ? decimal : new BigDecimal(value.toString());
+  }
+}
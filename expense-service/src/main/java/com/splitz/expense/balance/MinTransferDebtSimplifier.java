@@ -0,0 +1,147 @@
+package com.splitz.expense.balance;
+
+import com.splitz.expense.money.Money;
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+/**
+ * Finds a settle-up plan with the fewest transfers. Members are split into as many zero-sum subsets
+ * as possible, since a subset of {@code k} members settles with {@code k - 1} transfers; the
+ * partition is found with a DP over member bitmasks and each subset is then settled greedily.
+ *
+ * <p>The DP is exponential in the number of members with a non-zero balance, so larger groups,
+ * balances that do not fit minor units and runs over the time budget fall back to {@link
+ * GreedyDebtSimplifier}.
+ */
+@Component
+@RequiredArgsConstructor
+public class MinTransferDebtSimplifier implements DebtSimplifier {
+
+  /** Deadline is checked once per this many subsets. */
+  private static final int DEADLINE_CHECK_MASK = 0xFFF;
+
+  /** Tables are {@code 9 * 2^n} bytes, so the configured limit is capped here. */
+  private static final int MAX_EXACT_MEMBERS = 24;
+
+  private final GreedyDebtSimplifier greedy;
+
+  @Value("${expense.balances.min-transfers.max-members:20}")
+  private int maxMembers = 20;
+
+  @Value("${expense.balances.min-transfers.time-budget-ms:100}")
+  private long timeBudgetMillis = 100;
+
+  @Override
+  public SimplificationStrategy getStrategy() {
+    return SimplificationStrategy.MIN_TRANSFERS;
+  }
+
+  @Override
+  public List<Transfer> simplify(Map<Long, BigDecimal> balances) {
+    long[] userIds = new long[balances.size()];
+    long[] amounts = new long[balances.size()];
+    int n = 0;
+    try {
+      for (Map.Entry<Long, BigDecimal> entry : balances.entrySet()) {
+        long amount = Money.toMinor(entry.getValue(), Money.BALANCE_SCALE);
+        if (amount != 0) {
+          userIds[n] = entry.getKey();
+          amounts[n] = amount;
+          n++;
+        }
+      }
+    } catch (ArithmeticException e) {
+      return greedy.simplify(balances);
+    }
+    if (n > Math.min(maxMembers, MAX_EXACT_MEMBERS)) {
+      return GreedyDebtSimplifier.simplifyMinor(
+          trim(userIds, n), trim(amounts, n), Money.BALANCE_SCALE);
+    }
+
+    int[] subsets;
+    try {
+      subsets = partition(amounts, n, System.nanoTime() + timeBudgetMillis * 1_000_000L);
+    } catch (ArithmeticException e) {
+      subsets = null;
+    }
+    if (subsets == null) {
+      return GreedyDebtSimplifier.simplifyMinor(
+          trim(userIds, n), trim(amounts, n), Money.BALANCE_SCALE);
+    }
+
+    List<Transfer> transfers = new ArrayList<>();
+    for (int subset : subsets) {
+      int size = Integer.bitCount(subset);
+      long[] subsetIds = new long[size];
+      long[] subsetAmounts = new long[size];
+      int k = 0;
+      for (int rest = subset; rest != 0; rest &= rest - 1) {
+        int i = Integer.numberOfTrailingZeros(rest);
+        subsetIds[k] = userIds[i];
+        subsetAmounts[k] = amounts[i];
+        k++;
+      }
+      transfers.addAll(
+          GreedyDebtSimplifier.simplifyMinor(subsetIds, subsetAmounts, Money.BALANCE_SCALE));
+    }
+    return transfers;
+  }
+
+  /**
+   * Splits members {@code 0..n-1} into the largest number of disjoint zero-sum subsets, returned as
+   * bitmasks. Returns {@code null} when the balances do not sum to zero or the deadline passes.
+   */
+  static int[] partition(long[] amounts, int n, long deadlineNanos) {
+    int full = (1 << n) - 1;
+    long[] sums = new long[full + 1];
+    byte[] best = new byte[full + 1];
+    for (int mask = 1; mask <= full; mask++) {
+      if ((mask & DEADLINE_CHECK_MASK) == 0 && System.nanoTime() > deadlineNanos) {
+        return null;
+      }
+      int low = Integer.numberOfTrailingZeros(mask);
+      sums[mask] = Math.addExact(sums[mask & (mask - 1)], amounts[low]);
+      int subsets = 0;
+      for (int rest = mask; rest != 0; rest &= rest - 1) {
+        subsets = Math.max(subsets, best[mask ^ Integer.lowestOneBit(rest)]);
+      }
+      best[mask] = (byte) (sums[mask] == 0 ? subsets + 1 : subsets);
+    }
+    if (sums[full] != 0) {
+      return null;
+    }
+
+    // Walk back down from the full set; every zero-sum mask on the way closes one subset
+    int[] result = new int[best[full]];
+    int count = 0;
+    int mask = full;
+    int current = 0;
+    while (mask != 0) {
+      int target = sums[mask] == 0 ? best[mask] - 1 : best[mask];
+      int bit = Integer.lowestOneBit(mask);
+      for (int rest = mask; rest != 0; rest &= rest - 1) {
+        if (best[mask ^ Integer.lowestOneBit(rest)] == target) {
+          bit = Integer.lowestOneBit(rest);
+          break;
+        }
+      }
+      mask ^= bit;
+      current |= bit;
+      if (sums[mask] == 0) {
+        result[count++] = current;
+        current = 0;
+      }
+    }
+    return result;
+  }
+
+  private static long[] trim(long[] values, int length) {
+    return length == values.length ? values : Arrays.copyOf(values, length);
+  }
+}
@@ -0,0 +1,40 @@
+package com.splitz.expense.balance;
+
+import java.math.BigDecimal;
+import java.util.Collections;
+import java.util.Map;
+import java.util.TreeMap;
+
+/** Accumulates "debtor owes creditor" amounts into signed deltas per canonical {@link UserPair}. */
+public final class PairwiseDeltas {
+
+  private final Map<UserPair, BigDecimal> deltas = new TreeMap<>();
+
+  public PairwiseDeltas add(Long creditorId, Long debtorId, BigDecimal amount) {
+    if (creditorId.equals(debtorId)) {
+      return this;
+    }
+    UserPair pair = UserPair.of(creditorId, debtorId);
+    deltas.merge(pair, creditorId.equals(pair.userA()) ? amount : amount.negate(), BigDecimal::add);
+    return this;
+  }
+
+  public PairwiseDeltas addAll(PairwiseDeltas other) {
+    other.deltas.forEach((pair, delta) -> deltas.merge(pair, delta, BigDecimal::add));
+    return this;
+  }
+
+  public PairwiseDeltas subtract(PairwiseDeltas other) {
+    other.deltas.forEach((pair, delta) -> deltas.merge(pair, delta.negate(), BigDecimal::add));
+    return this;
+  }
+
+  public PairwiseDeltas negate() {
+    deltas.replaceAll((pair, delta) -> delta.negate());
+    return this;
+  }
+
+  public Map<UserPair, BigDecimal> asMap() {
+    return Collections.unmodifiableMap(deltas);
+  }
+}
@@ -0,0 +1,9 @@
+package com.splitz.expense.balance;
+
+/** Algorithms available for turning group balances into a settle-up plan. */
+public enum SimplificationStrategy {
+  /** Repeatedly matches the largest creditor with the largest debtor. */
+  GREEDY,
+  /** Fewest possible transfers for small groups, greedy above the configured size. */
+  MIN_TRANSFERS
+}
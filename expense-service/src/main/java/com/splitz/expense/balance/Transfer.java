@@ -0,0 +1,6 @@
+package com.splitz.expense.balance;
+
+import java.math.BigDecimal;
+
+/** One payment of a settle-up plan: {@code from} pays {@code amount} to {@code to}. */
+public record Transfer(Long from, Long to, BigDecimal amount) {}
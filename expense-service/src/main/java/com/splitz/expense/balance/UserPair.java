@@ -0,0 +1,19 @@
+package com.splitz.expense.balance;
+
+/**
+ * Unordered pair of users in canonical order ({@code userA < userB}). Balances stored against a
+ * pair are always from {@code userA}'s point of view: positive means {@code userB} owes {@code
+ * userA}.
+ */
+public record UserPair(Long userA, Long userB) implements Comparable<UserPair> {
+
+  public static UserPair of(Long first, Long second) {
+    return first < second ? new UserPair(first, second) : new UserPair(second, first);
+  }
+
+  @Override
+  public int compareTo(UserPair other) {
+    int cmp = userA.compareTo(other.userA);
+    return cmp != 0 ? cmp : userB.compareTo(other.userB);
+  }
+}
@@ -2,6 +2,7 @@ package com.splitz.expense.calculator;
 
 import com.splitz.expense.dto.SplitRequest;
 import com.splitz.expense.model.SplitType;
+import com.splitz.expense.money.Money;
 import java.math.BigDecimal;
 import java.math.RoundingMode;
 import java.util.ArrayList;
@@ -37,4 +38,29 @@ public class AdjustmentSplitStrategy implements SplitStrategy {
     }
     return results;
   }
+
+  @Override
+  public long[] calculateMinor(long totalMinor, List<SplitRequest> splitRequests, int scale) {
+    long[] shares = new long[splitRequests.size()];
+    long totalAdjustment = 0;
+    for (int i = 0; i < shares.length; i++) {
+      BigDecimal adjustment = splitRequests.get(i).getSplitValue();
+      shares[i] = adjustment != null ? Money.toMinor(adjustment, scale) : 0;
+      totalAdjustment = Math.addExact(totalAdjustment, shares[i]);
+    }
+    if (totalAdjustment != 0) {
+      throw new InvalidSplitCalculationException("Adjustments must sum to zero");
+    }
+
+    long baseShare = Money.divideHalfUp(totalMinor, shares.length);
+    for (int i = 0; i < shares.length; i++) {
+      shares[i] = Math.addExact(baseShare, shares[i]);
+    }
+    return shares;
+  }
+
+  @Override
+  public BigDecimal splitValue(SplitRequest splitRequest) {
+    return splitRequest.getSplitValue() != null ? splitRequest.getSplitValue() : BigDecimal.ZERO;
+  }
 }
@@ -2,9 +2,11 @@ package com.splitz.expense.calculator;
 
 import com.splitz.expense.dto.SplitRequest;
 import com.splitz.expense.model.SplitType;
+import com.splitz.expense.money.Money;
 import java.math.BigDecimal;
 import java.math.RoundingMode;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.List;
 import org.springframework.stereotype.Component;
 
@@ -27,4 +29,16 @@ public class EqualSplitStrategy implements SplitStrategy {
     }
     return results;
   }
+
+  @Override
+  public long[] calculateMinor(long totalMinor, List<SplitRequest> splitRequests, int scale) {
+    long[] shares = new long[splitRequests.size()];
+    Arrays.fill(shares, Money.divideHalfUp(totalMinor, shares.length));
+    return shares;
+  }
+
+  @Override
+  public BigDecimal splitValue(SplitRequest splitRequest) {
+    return null;
+  }
 }
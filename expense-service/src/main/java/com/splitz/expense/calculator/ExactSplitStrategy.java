@@ -2,6 +2,7 @@ package com.splitz.expense.calculator;
 
 import com.splitz.expense.dto.SplitRequest;
 import com.splitz.expense.model.SplitType;
+import com.splitz.expense.money.Money;
 import java.math.BigDecimal;
 import java.util.ArrayList;
 import java.util.List;
@@ -35,4 +36,24 @@ public class ExactSplitStrategy implements SplitStrategy {
 
     return results;
   }
+
+  @Override
+  public long[] calculateMinor(long totalMinor, List<SplitRequest> splitRequests, int scale) {
+    long[] shares = new long[splitRequests.size()];
+    long sum = 0;
+    for (int i = 0; i < shares.length; i++) {
+      BigDecimal splitValue = splitRequests.get(i).getSplitValue();
+      if (splitValue == null) {
+        throw new InvalidSplitCalculationException("Split value is required for EXACT split");
+      }
+      shares[i] = Money.toMinor(splitValue, scale);
+      sum = Math.addExact(sum, shares[i]);
+    }
+
+    if (sum != totalMinor) {
+      throw new InvalidSplitCalculationException("Sum of splits must equal total amount");
+    }
+
+    return shares;
+  }
 }
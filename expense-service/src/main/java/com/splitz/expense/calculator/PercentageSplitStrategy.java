@@ -2,6 +2,7 @@ package com.splitz.expense.calculator;
 
 import com.splitz.expense.dto.SplitRequest;
 import com.splitz.expense.model.SplitType;
+import com.splitz.expense.money.Money;
 import java.math.BigDecimal;
 import java.math.RoundingMode;
 import java.util.ArrayList;
@@ -37,4 +38,29 @@ public class PercentageSplitStrategy implements SplitStrategy {
     }
     return results;
   }
+
+  @Override
+  public long[] calculateMinor(long totalMinor, List<SplitRequest> splitRequests, int scale) {
+    int valueScale = 0;
+    for (SplitRequest sr : splitRequests) {
+      if (sr.getSplitValue() == null) {
+        throw new InvalidSplitCalculationException("Percentage required");
+      }
+      valueScale = Math.max(valueScale, sr.getSplitValue().scale());
+    }
+
+    // Percentages as integers scaled by 10^valueScale, so 100% is 100 * 10^valueScale
+    long hundredPercent = Math.multiplyExact(100L, Money.pow10(valueScale));
+    long[] shares = new long[splitRequests.size()];
+    long totalPercentage = 0;
+    for (int i = 0; i < shares.length; i++) {
+      long percentage = Money.toMinor(splitRequests.get(i).getSplitValue(), valueScale);
+      totalPercentage = Math.addExact(totalPercentage, percentage);
+      shares[i] = Money.multiplyDivideHalfUp(totalMinor, percentage, hundredPercent);
+    }
+    if (totalPercentage != hundredPercent) {
+      throw new InvalidSplitCalculationException("Percentage must sum to 100");
+    }
+    return shares;
+  }
 }
@@ -30,4 +30,17 @@ public class RemainderHandler {
               first.splitValue()));
     }
   }
+
+  /** Minor-unit variant of {@link #handle(BigDecimal, List)}; adjusts {@code shares} in place. */
+  public void handle(long totalMinor, long[] shares) {
+    if (shares.length == 0) {
+      return;
+    }
+
+    long sum = 0;
+    for (long share : shares) {
+      sum = Math.addExact(sum, share);
+    }
+    shares[0] = Math.addExact(shares[0], Math.subtractExact(totalMinor, sum));
+  }
 }
@@ -2,6 +2,7 @@ package com.splitz.expense.calculator;
 
 import com.splitz.expense.dto.SplitRequest;
 import com.splitz.expense.model.SplitType;
+import com.splitz.expense.money.Money;
 import java.math.BigDecimal;
 import java.math.RoundingMode;
 import java.util.ArrayList;
@@ -35,4 +36,28 @@ public class SharesSplitStrategy implements SplitStrategy {
     }
     return results;
   }
+
+  @Override
+  public long[] calculateMinor(long totalMinor, List<SplitRequest> splitRequests, int scale) {
+    int valueScale = 0;
+    for (SplitRequest sr : splitRequests) {
+      if (sr.getSplitValue() == null || sr.getSplitValue().compareTo(BigDecimal.ZERO) <= 0) {
+        throw new InvalidSplitCalculationException("Positive shares required");
+      }
+      valueScale = Math.max(valueScale, sr.getSplitValue().scale());
+    }
+
+    long[] weights = new long[splitRequests.size()];
+    long totalShares = 0;
+    for (int i = 0; i < weights.length; i++) {
+      weights[i] = Money.toMinor(splitRequests.get(i).getSplitValue(), valueScale);
+      totalShares = Math.addExact(totalShares, weights[i]);
+    }
+
+    long[] shares = new long[weights.length];
+    for (int i = 0; i < weights.length; i++) {
+      shares[i] = Money.multiplyDivideHalfUp(totalMinor, weights[i], totalShares);
+    }
+    return shares;
+  }
 }
@@ -2,7 +2,9 @@ package com.splitz.expense.calculator;
 
 import com.splitz.expense.dto.SplitRequest;
 import com.splitz.expense.model.SplitType;
+import com.splitz.expense.money.Money;
 import java.math.BigDecimal;
+import java.util.ArrayList;
 import java.util.List;
 import java.util.Map;
 import java.util.stream.Collectors;
@@ -35,23 +37,54 @@ public class SplitCalculator {
       throw new InvalidSplitCalculationException("Unsupported split type: " + splitType);
     }
 
-    int scale = getScale(currency);
+    int scale = Money.scaleOf(currency);
 
-    List<SplitResult> results = strategy.calculate(totalAmount, splitRequests, scale);
+    try {
+      return calculateMinor(strategy, totalAmount, splitType, splitRequests, scale);
+    } catch (ArithmeticException e) {
+      // Amounts that do not fit long minor units at this scale take the exact BigDecimal path
+      return calculateDecimal(strategy, totalAmount, splitType, splitRequests, scale);
+    }
+  }
+
+  List<SplitResult> calculateMinor(
+      SplitStrategy strategy,
+      BigDecimal totalAmount,
+      SplitType splitType,
+      List<SplitRequest> splitRequests,
+      int scale) {
+    long totalMinor = Money.toMinor(totalAmount, scale);
+    long[] shares = strategy.calculateMinor(totalMinor, splitRequests, scale);
 
     if (splitType != SplitType.EXACT) {
-      remainderHandler.handle(totalAmount, results);
+      remainderHandler.handle(totalMinor, shares);
     }
 
+    List<SplitResult> results = new ArrayList<>(shares.length);
+    for (int i = 0; i < shares.length; i++) {
+      SplitRequest splitRequest = splitRequests.get(i);
+      results.add(
+          new SplitResult(
+              splitRequest.getUserId(),
+              Money.toDecimal(shares[i], scale),
+              splitType,
+              strategy.splitValue(splitRequest)));
+    }
     return results;
   }
 
-  private int getScale(String currency) {
-    return switch (currency != null ? currency : "EUR") {
-      case "JPY" -> 0;
-      case "EUR", "USD" -> 2;
-      case "KWD" -> 3;
-      default -> 2;
-    };
+  List<SplitResult> calculateDecimal(
+      SplitStrategy strategy,
+      BigDecimal totalAmount,
+      SplitType splitType,
+      List<SplitRequest> splitRequests,
+      int scale) {
+    List<SplitResult> results = strategy.calculate(totalAmount, splitRequests, scale);
+
+    if (splitType != SplitType.EXACT) {
+      remainderHandler.handle(totalAmount, results);
+    }
+
+    return results;
   }
 }
@@ -9,4 +9,15 @@ public interface SplitStrategy {
   SplitType getSupportedType();
 
   List<SplitResult> calculate(BigDecimal totalAmount, List<SplitRequest> splitRequests, int scale);
+
+  /**
+   * Same calculation on {@code long} minor units. Throws {@link ArithmeticException} when a value
+   * does not fit, in which case the caller falls back to {@link #calculate}.
+   */
+  long[] calculateMinor(long totalMinor, List<SplitRequest> splitRequests, int scale);
+
+  /** Split value recorded on the result for a request. */
+  default BigDecimal splitValue(SplitRequest splitRequest) {
+    return splitRequest.getSplitValue();
+  }
 }
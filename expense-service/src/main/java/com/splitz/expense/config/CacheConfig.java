@@ -0,0 +1,31 @@
+package com.splitz.expense.config;
+
+import com.splitz.expense.service.BalanceCache;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.caffeine.CaffeineCacheManager;
+import org.springframework.cache.transaction.TransactionAwareCacheManagerProxy;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+@Configuration
+public class CacheConfig {
+
+  @Value("${expense.balances.cache.spec:maximumSize=10000,expireAfterWrite=5m}")
+  private String balanceCacheSpec;
+
+  /**
+   * Caffeine caches with a fixed set of names so actuator binds their metrics at startup. Wrapped
+   * so evictions issued inside a transaction run only after it commits.
+   */
+  @Bean
+  public CacheManager cacheManager() {
+    CaffeineCacheManager cacheManager = new CaffeineCacheManager();
+    cacheManager.setCacheSpecification(
+        balanceCacheSpec.contains("recordStats")
+            ? balanceCacheSpec
+            : balanceCacheSpec + ",recordStats");
+    cacheManager.setCacheNames(BalanceCache.CACHE_NAMES);
+    return new TransactionAwareCacheManagerProxy(cacheManager);
+  }
+}
@@ -1,6 +1,11 @@
 package com.splitz.expense.config;
 
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.splitz.expense.controller.ExpenseController;
+import com.splitz.expense.idempotency.IdempotencyFilter;
+import com.splitz.expense.service.IdempotencyService;
 import com.splitz.security.JwtRequestFilter;
+import com.splitz.security.authorization.SharedSecurityAuthorizer;
 import java.util.List;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
@@ -12,6 +17,7 @@ import org.springframework.security.config.annotation.web.configuration.EnableWe
 import org.springframework.security.config.annotation.web.configurers.AbstractHttpConfigurer;
 import org.springframework.security.config.http.SessionCreationPolicy;
 import org.springframework.security.web.SecurityFilterChain;
+import org.springframework.security.web.access.intercept.AuthorizationFilter;
 import org.springframework.security.web.authentication.HttpStatusEntryPoint;
 import org.springframework.security.web.authentication.UsernamePasswordAuthenticationFilter;
 import org.springframework.web.cors.CorsConfiguration;
@@ -24,12 +30,22 @@ import org.springframework.web.cors.UrlBasedCorsConfigurationSource;
 public class SecurityConfig {
 
   private final JwtRequestFilter jwtRequestFilter;
+  private final IdempotencyService idempotencyService;
+  private final SharedSecurityAuthorizer splitzAuthorizer;
+  private final ObjectMapper objectMapper;
 
   @Value("${app.security.cors.allowed-origins:http://localhost}")
   private List<String> allowedOrigins;
 
-  public SecurityConfig(JwtRequestFilter jwtRequestFilter) {
+  public SecurityConfig(
+      JwtRequestFilter jwtRequestFilter,
+      IdempotencyService idempotencyService,
+      SharedSecurityAuthorizer splitzAuthorizer,
+      ObjectMapper objectMapper) {
     this.jwtRequestFilter = jwtRequestFilter;
+    this.idempotencyService = idempotencyService;
+    this.splitzAuthorizer = splitzAuthorizer;
+    this.objectMapper = objectMapper;
   }
 
   @Bean
@@ -50,6 +66,10 @@ public class SecurityConfig {
                 exception.authenticationEntryPoint(
                     new HttpStatusEntryPoint(HttpStatus.UNAUTHORIZED)))
         .addFilterBefore(jwtRequestFilter, UsernamePasswordAuthenticationFilter.class)
+        // Not a bean, so it is not registered a second time outside of the security chain
+        .addFilterAfter(
+            new IdempotencyFilter(idempotencyService, splitzAuthorizer, objectMapper),
+            AuthorizationFilter.class)
         .headers(
             headers ->
                 headers.frameOptions(frameOptions -> frameOptions.disable())); // For H2 console
@@ -63,7 +83,17 @@ public class SecurityConfig {
     configuration.setAllowedOrigins(allowedOrigins);
     configuration.setAllowedMethods(List.of("GET", "POST", "PUT", "DELETE", "OPTIONS"));
     configuration.setAllowedHeaders(
-        List.of("Authorization", "Cache-Control", "Content-Type", "X-Requested-With", "Accept"));
+        List.of(
+            "Authorization",
+            "Cache-Control",
+            "Content-Type",
+            "X-Requested-With",
+            "Accept",
+            "If-Match",
+            "If-None-Match",
+            IdempotencyFilter.HEADER));
+    configuration.setExposedHeaders(
+        List.of("ETag", ExpenseController.NEXT_CURSOR_HEADER, IdempotencyFilter.REPLAYED_HEADER));
     configuration.setAllowCredentials(true);
     UrlBasedCorsConfigurationSource source = new UrlBasedCorsConfigurationSource();
     source.registerCorsConfiguration("/**", configuration);
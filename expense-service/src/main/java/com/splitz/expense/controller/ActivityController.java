@@ -1,23 +1,76 @@
 package com.splitz.expense.controller;
 
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.splitz.expense.dto.ActivityItemDTO;
+import com.splitz.expense.dto.ActivityLogDTO;
+import com.splitz.expense.dto.ActivityLogPageDTO;
+import com.splitz.expense.dto.ActivityTimelinePageDTO;
 import com.splitz.expense.dto.GlobalActivityResponseDTO;
 import com.splitz.expense.service.ActivityService;
+import com.splitz.expense.service.UserActivityInboxService;
 import com.splitz.security.authorization.SharedSecurityAuthorizer;
+import java.util.List;
 import lombok.RequiredArgsConstructor;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 @RestController
 @RequiredArgsConstructor
 public class ActivityController {
 
   private final ActivityService activityService;
+  private final UserActivityInboxService userActivityInboxService;
   private final SharedSecurityAuthorizer splitzAuthorizer;
+  private final ObjectMapper objectMapper;
 
   @GetMapping("/activity")
   public ResponseEntity<GlobalActivityResponseDTO> getGlobalActivity() {
     Long currentUserId = splitzAuthorizer.getCurrentUserId();
     return ResponseEntity.ok(activityService.getGlobalActivity(currentUserId));
   }
+
+  /** Expenses, then settlements, one {@code ActivityItemDTO} per line. */
+  @GetMapping(value = "/activity", produces = MediaType.APPLICATION_NDJSON_VALUE)
+  public ResponseEntity<StreamingResponseBody> streamGlobalActivity() {
+    return NdjsonResponses.of(
+        activityService.streamGlobalActivity(splitzAuthorizer.getCurrentUserId()), objectMapper);
+  }
+
+  /**
+   * The caller's expenses and group and friendship settlements, newest first, one page at a time.
+   * The cursor of the next page is returned in the {@code X-Next-Cursor} header.
+   */
+  @GetMapping("/activity/timeline")
+  public ResponseEntity<List<ActivityItemDTO>> getTimeline(
+      @RequestParam(value = "cursor", required = false) String cursor,
+      @RequestParam(value = "limit", defaultValue = "50") int limit) {
+    ActivityTimelinePageDTO page =
+        activityService.getTimeline(splitzAuthorizer.getCurrentUserId(), cursor, limit);
+    ResponseEntity.BodyBuilder response = ResponseEntity.ok();
+    if (page.getNextCursor() != null) {
+      response.header(ExpenseController.NEXT_CURSOR_HEADER, page.getNextCursor());
+    }
+    return response.body(page.getItems());
+  }
+
+  /**
+   * Recent activity log entries of all the caller's groups, newest first, from their inbox. The
+   * cursor of the next page is returned in the {@code X-Next-Cursor} header.
+   */
+  @GetMapping("/activity/inbox")
+  public ResponseEntity<List<ActivityLogDTO>> getInbox(
+      @RequestParam(value = "cursor", required = false) String cursor,
+      @RequestParam(value = "limit", defaultValue = "50") int limit) {
+    ActivityLogPageDTO page =
+        userActivityInboxService.getInbox(splitzAuthorizer.getCurrentUserId(), cursor, limit);
+    ResponseEntity.BodyBuilder response = ResponseEntity.ok();
+    if (page.getNextCursor() != null) {
+      response.header(ExpenseController.NEXT_CURSOR_HEADER, page.getNextCursor());
+    }
+    return response.body(page.getActivities());
+  }
 }
@@ -0,0 +1,121 @@
+package com.splitz.expense.controller;
+
+import com.splitz.expense.dto.BalanceCheckpointResponseDTO;
+import com.splitz.expense.dto.BalanceDriftDTO;
+import com.splitz.expense.dto.BalanceRebuildResponseDTO;
+import com.splitz.expense.dto.BalanceReconciliationReportDTO;
+import com.splitz.expense.exception.ConflictException;
+import com.splitz.expense.model.BalanceCheckpoint;
+import com.splitz.expense.service.BalanceCheckpointService;
+import com.splitz.expense.service.BalanceProjectionService;
+import com.splitz.expense.service.BalanceReconciliationService;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.security.SecurityRequirement;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import java.util.List;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.support.ServletUriComponentsBuilder;
+
+@RestController
+@RequestMapping("/admin/balances")
+@RequiredArgsConstructor
+@Tag(name = "Balance Administration", description = "Maintenance of materialized balances")
+@SecurityRequirement(name = "bearerAuth")
+@PreAuthorize("@splitzAuthorizer.isAdmin()")
+public class BalanceAdminController {
+
+  private final BalanceProjectionService balanceProjectionService;
+  private final BalanceCheckpointService balanceCheckpointService;
+  private final BalanceReconciliationService balanceReconciliationService;
+
+  @PostMapping("/rebuild")
+  @Operation(
+      summary = "Rebuild all materialized balances",
+      description = "Recomputes group_member_balances for every group from raw expense rows")
+  public ResponseEntity<BalanceRebuildResponseDTO> rebuildAll() {
+    long start = System.currentTimeMillis();
+    int groups = balanceProjectionService.rebuildAll();
+    return ResponseEntity.ok(
+        BalanceRebuildResponseDTO.builder()
+            .groupsRebuilt(groups)
+            .durationMs(System.currentTimeMillis() - start)
+            .build());
+  }
+
+  @PostMapping("/groups/{groupId}/rebuild")
+  @Operation(
+      summary = "Rebuild materialized balances of a group",
+      description = "Recomputes group_member_balances for one group from raw expense rows")
+  public ResponseEntity<BalanceRebuildResponseDTO> rebuildGroup(
+      @PathVariable("groupId") Long groupId) {
+    long start = System.currentTimeMillis();
+    balanceProjectionService.rebuild(groupId);
+    return ResponseEntity.ok(
+        BalanceRebuildResponseDTO.builder()
+            .groupsRebuilt(1)
+            .durationMs(System.currentTimeMillis() - start)
+            .build());
+  }
+
+  @PostMapping("/groups/{groupId}/checkpoint")
+  @Operation(
+      summary = "Checkpoint balances of a group",
+      description =
+          "Folds the rows written since the last checkpoint into a new balance checkpoint")
+  public ResponseEntity<BalanceCheckpointResponseDTO> checkpointGroup(
+      @PathVariable("groupId") Long groupId) {
+    BalanceCheckpoint checkpoint = balanceCheckpointService.checkpoint(groupId);
+    return ResponseEntity.ok(
+        BalanceCheckpointResponseDTO.builder()
+            .groupId(checkpoint.getGroupId())
+            .expenseIdMark(checkpoint.getExpenseIdMark())
+            .settlementIdMark(checkpoint.getSettlementIdMark())
+            .friendshipSettlementIdMark(checkpoint.getFriendshipSettlementIdMark())
+            .members(checkpoint.getBalances().size())
+            .createdAt(checkpoint.getCreatedAt())
+            .build());
+  }
+
+  @GetMapping("/reconciliation")
+  @Operation(
+      summary = "Get the last reconciliation report",
+      description = "Returns the drift found by the last reconciliation run, or 204 if none ran")
+  public ResponseEntity<BalanceReconciliationReportDTO> lastReconciliation() {
+    return balanceReconciliationService
+        .lastReport()
+        .map(ResponseEntity::ok)
+        .orElseGet(() -> ResponseEntity.noContent().build());
+  }
+
+  @PostMapping("/reconciliation")
+  @Operation(
+      summary = "Reconcile all balances",
+      description =
+          "Starts recomputing every group's balances from history and comparing them with stored"
+              + " balances, and returns 202 at once; the report is published at GET"
+              + " /admin/balances/reconciliation. Returns 409 while a run is already going")
+  public ResponseEntity<Void> reconcileAll() {
+    if (!balanceReconciliationService.startReconcileAll()) {
+      throw new ConflictException("A balance reconciliation is already running");
+    }
+    return ResponseEntity.accepted()
+        .location(ServletUriComponentsBuilder.fromCurrentRequest().build().toUri())
+        .build();
+  }
+
+  @PostMapping("/groups/{groupId}/reconcile")
+  @Operation(
+      summary = "Reconcile balances of a group",
+      description = "Returns every stored balance of the group that disagrees with its history")
+  public ResponseEntity<List<BalanceDriftDTO>> reconcileGroup(
+      @PathVariable("groupId") Long groupId) {
+    return ResponseEntity.ok(balanceReconciliationService.reconcile(groupId));
+  }
+}
@@ -1,18 +1,23 @@
 package com.splitz.expense.controller;
 
+import com.splitz.expense.balance.SimplificationStrategy;
 import com.splitz.expense.dto.FriendBalanceResponseDTO;
 import com.splitz.expense.dto.GroupBalanceResponseDTO;
 import com.splitz.expense.dto.UserBalanceResponseDTO;
 import com.splitz.expense.service.BalanceService;
 import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.Parameter;
 import io.swagger.v3.oas.annotations.security.SecurityRequirement;
 import io.swagger.v3.oas.annotations.tags.Tag;
+import java.time.LocalDateTime;
 import lombok.RequiredArgsConstructor;
+import org.springframework.format.annotation.DateTimeFormat;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
 
 @RestController
@@ -29,8 +34,16 @@ public class BalanceController {
       summary = "Get group balances",
       description = "Returns balance per member and simplified debts for a group")
   @PreAuthorize("@security.isGroupMember(#id)")
-  public ResponseEntity<GroupBalanceResponseDTO> getGroupBalances(@PathVariable("id") Long id) {
-    return ResponseEntity.ok(balanceService.getGroupBalances(id));
+  public ResponseEntity<GroupBalanceResponseDTO> getGroupBalances(
+      @PathVariable("id") Long id,
+      @Parameter(description = "Debt simplification algorithm, GREEDY or MIN_TRANSFERS")
+          @RequestParam(name = "simplify", required = false)
+          SimplificationStrategy simplify,
+      @Parameter(description = "Return balances as they stood at this time (ISO date-time)")
+          @RequestParam(name = "asOf", required = false)
+          @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME)
+          LocalDateTime asOf) {
+    return ResponseEntity.ok(balanceService.getGroupBalances(id, simplify, asOf));
   }
 
   @GetMapping("/users/{id}/balances")
@@ -38,8 +51,13 @@ public class BalanceController {
       summary = "Get user balances",
       description = "Returns user's balances across all groups")
   @PreAuthorize("@splitzAuthorizer.isSelfOrAdmin(#id)")
-  public ResponseEntity<UserBalanceResponseDTO> getUserBalances(@PathVariable("id") Long id) {
-    return ResponseEntity.ok(balanceService.getUserBalances(id));
+  public ResponseEntity<UserBalanceResponseDTO> getUserBalances(
+      @PathVariable("id") Long id,
+      @Parameter(description = "Return balances as they stood at this time (ISO date-time)")
+          @RequestParam(name = "asOf", required = false)
+          @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME)
+          LocalDateTime asOf) {
+    return ResponseEntity.ok(balanceService.getUserBalances(id, asOf));
   }
 
   @GetMapping("/users/{userId}/balances/with/{friendId}")
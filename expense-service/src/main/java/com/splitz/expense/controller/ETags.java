@@ -0,0 +1,29 @@
+package com.splitz.expense.controller;
+
+import java.util.Arrays;
+import java.util.Set;
+import java.util.function.Predicate;
+import java.util.stream.Collectors;
+
+/** Entity tags of expenses and groups, derived from their {@code @Version} column. */
+final class ETags {
+
+  private ETags() {}
+
+  static String of(Integer version) {
+    return "\"" + version + "\"";
+  }
+
+  /**
+   * Matches a current version against an {@code If-Match} header. An absent header or {@code *}
+   * matches any version; otherwise one of the listed tags must be the strong tag of the version.
+   */
+  static Predicate<Integer> ifMatch(String header) {
+    if (header == null || header.isBlank() || header.trim().equals("*")) {
+      return version -> true;
+    }
+    Set<String> tags =
+        Arrays.stream(header.split(",")).map(String::trim).collect(Collectors.toSet());
+    return version -> tags.contains(of(version));
+  }
+}
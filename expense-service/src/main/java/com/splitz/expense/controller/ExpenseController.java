@@ -1,14 +1,24 @@
 package com.splitz.expense.controller;
 
+import com.fasterxml.jackson.databind.ObjectMapper;
 import com.splitz.expense.dto.CreateExpenseRequest;
 import com.splitz.expense.dto.ExpenseDTO;
+import com.splitz.expense.dto.ExpenseFilter;
+import com.splitz.expense.dto.ExpenseImportResultDTO;
+import com.splitz.expense.dto.ExpensePageDTO;
 import com.splitz.expense.dto.UpdateExpenseRequest;
+import com.splitz.expense.importer.ExpenseImportFormat;
+import com.splitz.expense.service.ExpenseImportService;
 import com.splitz.expense.service.ExpenseService;
 import com.splitz.security.authorization.SharedSecurityAuthorizer;
 import jakarta.validation.Valid;
+import java.io.IOException;
+import java.io.InputStream;
 import java.util.List;
 import lombok.RequiredArgsConstructor;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.DeleteMapping;
 import org.springframework.web.bind.annotation.GetMapping;
@@ -16,15 +26,23 @@ import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.PutMapping;
 import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestHeader;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.context.request.WebRequest;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 @RestController
 @RequiredArgsConstructor
 public class ExpenseController {
 
+  /** Response header carrying the cursor of the next page of an expense listing. */
+  public static final String NEXT_CURSOR_HEADER = "X-Next-Cursor";
+
   private final ExpenseService expenseService;
+  private final ExpenseImportService expenseImportService;
   private final SharedSecurityAuthorizer splitzAuthorizer;
+  private final ObjectMapper objectMapper;
 
   @PostMapping("/groups/{groupId}/expenses")
   public ResponseEntity<ExpenseDTO> createExpense(
@@ -33,51 +51,132 @@ public class ExpenseController {
         .body(expenseService.createExpense(groupId, request, splitzAuthorizer.getCurrentUserId()));
   }
 
+  @PostMapping(
+      value = "/groups/{groupId}/expenses/import",
+      consumes = {ExpenseImportFormat.CSV_VALUE, ExpenseImportFormat.NDJSON_VALUE})
+  public ResponseEntity<ExpenseImportResultDTO> importExpenses(
+      @PathVariable("groupId") Long groupId,
+      @RequestHeader(HttpHeaders.CONTENT_TYPE) String contentType,
+      InputStream body)
+      throws IOException {
+    return ResponseEntity.ok(
+        expenseImportService.importExpenses(
+            groupId,
+            ExpenseImportFormat.fromContentType(contentType),
+            body,
+            splitzAuthorizer.getCurrentUserId()));
+  }
+
   @PutMapping("/groups/{groupId}/expenses/{expenseId}")
   public ResponseEntity<ExpenseDTO> updateExpense(
       @PathVariable("groupId") Long groupId,
       @PathVariable("expenseId") Long expenseId,
+      @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch,
       @Valid @RequestBody UpdateExpenseRequest request) {
-    return ResponseEntity.ok(
-        expenseService.updateExpense(expenseId, request, splitzAuthorizer.getCurrentUserId()));
+    return updated(
+        expenseService.updateExpense(
+            expenseId, request, splitzAuthorizer.getCurrentUserId(), ETags.ifMatch(ifMatch)));
   }
 
   @DeleteMapping("/groups/{groupId}/expenses/{expenseId}")
   public ResponseEntity<Void> deleteExpense(
-      @PathVariable("groupId") Long groupId, @PathVariable("expenseId") Long expenseId) {
-    expenseService.deleteExpense(expenseId, splitzAuthorizer.getCurrentUserId());
+      @PathVariable("groupId") Long groupId,
+      @PathVariable("expenseId") Long expenseId,
+      @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch) {
+    expenseService.deleteExpense(
+        expenseId, splitzAuthorizer.getCurrentUserId(), ETags.ifMatch(ifMatch));
     return ResponseEntity.noContent().build();
   }
 
   @GetMapping("/expenses/{id}")
-  public ResponseEntity<ExpenseDTO> getExpense(@PathVariable("id") Long id) {
-    return ResponseEntity.ok(expenseService.getExpense(id, splitzAuthorizer.getCurrentUserId()));
+  public ResponseEntity<ExpenseDTO> getExpense(@PathVariable("id") Long id, WebRequest request) {
+    // checkNotModified sets the ETag header, and the 304 status when the client's copy is current
+    return expenseService
+        .getExpense(
+            id,
+            splitzAuthorizer.getCurrentUserId(),
+            version -> request.checkNotModified(ETags.of(version)))
+        .map(ResponseEntity::ok)
+        .orElse(null);
   }
 
   @GetMapping("/groups/{groupId}/expenses")
   public ResponseEntity<List<ExpenseDTO>> getExpensesByGroup(
-      @PathVariable("groupId") Long groupId) {
-    return ResponseEntity.ok(
-        expenseService.getExpensesByGroup(groupId, splitzAuthorizer.getCurrentUserId()));
+      @PathVariable("groupId") Long groupId,
+      ExpenseFilter filter,
+      @RequestParam(value = "cursor", required = false) String cursor,
+      @RequestParam(value = "limit", defaultValue = "50") int limit) {
+    return page(
+        expenseService.getExpensesByGroup(
+            groupId, filter, cursor, limit, splitzAuthorizer.getCurrentUserId()));
+  }
+
+  /** Every matching expense as NDJSON, streamed instead of paginated. */
+  @GetMapping(value = "/groups/{groupId}/expenses", produces = MediaType.APPLICATION_NDJSON_VALUE)
+  public ResponseEntity<StreamingResponseBody> streamExpensesByGroup(
+      @PathVariable("groupId") Long groupId, ExpenseFilter filter) {
+    return NdjsonResponses.of(
+        expenseService.streamExpensesByGroup(groupId, filter, splitzAuthorizer.getCurrentUserId()),
+        objectMapper);
   }
 
   @GetMapping("/groups/expenses/bulk")
   public ResponseEntity<List<ExpenseDTO>> getExpensesByGroupIds(
-      @RequestParam("groupIds") List<Long> groupIds) {
-    return ResponseEntity.ok(
-        expenseService.getExpensesByGroupIds(groupIds, splitzAuthorizer.getCurrentUserId()));
+      @RequestParam("groupIds") List<Long> groupIds,
+      ExpenseFilter filter,
+      @RequestParam(value = "cursor", required = false) String cursor,
+      @RequestParam(value = "limit", defaultValue = "50") int limit) {
+    return page(
+        expenseService.getExpensesByGroupIds(
+            groupIds, filter, cursor, limit, splitzAuthorizer.getCurrentUserId()));
+  }
+
+  @GetMapping(value = "/groups/expenses/bulk", produces = MediaType.APPLICATION_NDJSON_VALUE)
+  public ResponseEntity<StreamingResponseBody> streamExpensesByGroupIds(
+      @RequestParam("groupIds") List<Long> groupIds, ExpenseFilter filter) {
+    return NdjsonResponses.of(
+        expenseService.streamExpensesByGroupIds(
+            groupIds, filter, splitzAuthorizer.getCurrentUserId()),
+        objectMapper);
+  }
+
+  @GetMapping("/expenses/search")
+  public ResponseEntity<List<ExpenseDTO>> searchExpenses(
+      @RequestParam("q") String query,
+      @RequestParam(value = "cursor", required = false) String cursor,
+      @RequestParam(value = "limit", defaultValue = "20") int limit) {
+    return page(
+        expenseService.searchExpenses(query, cursor, limit, splitzAuthorizer.getCurrentUserId()));
   }
 
   @PutMapping("/expenses/{id}")
   public ResponseEntity<ExpenseDTO> updateExpense(
-      @PathVariable("id") Long id, @Valid @RequestBody UpdateExpenseRequest request) {
-    return ResponseEntity.ok(
-        expenseService.updateExpense(id, request, splitzAuthorizer.getCurrentUserId()));
+      @PathVariable("id") Long id,
+      @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch,
+      @Valid @RequestBody UpdateExpenseRequest request) {
+    return updated(
+        expenseService.updateExpense(
+            id, request, splitzAuthorizer.getCurrentUserId(), ETags.ifMatch(ifMatch)));
   }
 
   @DeleteMapping("/expenses/{id}")
-  public ResponseEntity<Void> deleteExpense(@PathVariable("id") Long id) {
-    expenseService.deleteExpense(id, splitzAuthorizer.getCurrentUserId());
+  public ResponseEntity<Void> deleteExpense(
+      @PathVariable("id") Long id,
+      @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch) {
+    expenseService.deleteExpense(id, splitzAuthorizer.getCurrentUserId(), ETags.ifMatch(ifMatch));
     return ResponseEntity.noContent().build();
   }
+
+  /** The page stays a plain array, so existing clients keep working; the cursor is a header. */
+  private static ResponseEntity<List<ExpenseDTO>> page(ExpensePageDTO page) {
+    ResponseEntity.BodyBuilder response = ResponseEntity.ok();
+    if (page.getNextCursor() != null) {
+      response.header(NEXT_CURSOR_HEADER, page.getNextCursor());
+    }
+    return response.body(page.getExpenses());
+  }
+
+  private static ResponseEntity<ExpenseDTO> updated(ExpenseDTO expense) {
+    return ResponseEntity.ok().eTag(ETags.of(expense.getVersion())).body(expense);
+  }
 }
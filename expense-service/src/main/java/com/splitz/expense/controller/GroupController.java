@@ -1,5 +1,8 @@
 package com.splitz.expense.controller;
 
+import com.splitz.expense.dto.ActivityLogDTO;
+import com.splitz.expense.dto.ActivityLogFilter;
+import com.splitz.expense.dto.ActivityLogPageDTO;
 import com.splitz.expense.dto.AddMemberRequest;
 import com.splitz.expense.dto.BulkAddMembersRequest;
 import com.splitz.expense.dto.CreateGroupRequest;
@@ -7,11 +10,13 @@ import com.splitz.expense.dto.GroupDTO;
 import com.splitz.expense.dto.UpdateGroupRequest;
 import com.splitz.expense.dto.UpdateMemberRoleRequest;
 import com.splitz.expense.dto.UserResponse;
+import com.splitz.expense.service.ActivityLogService;
 import com.splitz.expense.service.GroupService;
 import com.splitz.security.authorization.SharedSecurityAuthorizer;
 import jakarta.validation.Valid;
 import java.util.List;
 import lombok.RequiredArgsConstructor;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.DeleteMapping;
@@ -20,8 +25,11 @@ import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.PutMapping;
 import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestHeader;
 import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.context.request.WebRequest;
 
 @RestController
 @RequestMapping("/groups")
@@ -29,8 +37,7 @@ import org.springframework.web.bind.annotation.RestController;
 public class GroupController {
 
   private final GroupService groupService;
-  private final com.splitz.expense.service.ActivityLogService activityLogService;
-  private final com.splitz.expense.mapper.ActivityLogMapper activityLogMapper;
+  private final ActivityLogService activityLogService;
   private final SharedSecurityAuthorizer splitzAuthorizer;
 
   @PostMapping
@@ -45,20 +52,34 @@ public class GroupController {
   }
 
   @GetMapping("/{groupId}")
-  public ResponseEntity<GroupDTO> getGroup(@PathVariable("groupId") Long groupId) {
-    return ResponseEntity.ok(groupService.getGroup(groupId, splitzAuthorizer.getCurrentUserId()));
+  public ResponseEntity<GroupDTO> getGroup(
+      @PathVariable("groupId") Long groupId, WebRequest request) {
+    // checkNotModified sets the ETag header, and the 304 status when the client's copy is current
+    return groupService
+        .getGroup(
+            groupId,
+            splitzAuthorizer.getCurrentUserId(),
+            version -> request.checkNotModified(ETags.of(version)))
+        .map(ResponseEntity::ok)
+        .orElse(null);
   }
 
   @PutMapping("/{groupId}")
   public ResponseEntity<GroupDTO> updateGroup(
-      @PathVariable("groupId") Long groupId, @Valid @RequestBody UpdateGroupRequest request) {
-    return ResponseEntity.ok(
-        groupService.updateGroup(groupId, request, splitzAuthorizer.getCurrentUserId()));
+      @PathVariable("groupId") Long groupId,
+      @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch,
+      @Valid @RequestBody UpdateGroupRequest request) {
+    GroupDTO result =
+        groupService.updateGroup(
+            groupId, request, splitzAuthorizer.getCurrentUserId(), ETags.ifMatch(ifMatch));
+    return ResponseEntity.ok().eTag(ETags.of(result.getVersion())).body(result);
   }
 
   @DeleteMapping("/{groupId}")
-  public ResponseEntity<Void> deleteGroup(@PathVariable("groupId") Long groupId) {
-    groupService.deleteGroup(groupId, splitzAuthorizer.getCurrentUserId());
+  public ResponseEntity<Void> deleteGroup(
+      @PathVariable("groupId") Long groupId,
+      @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch) {
+    groupService.deleteGroup(groupId, splitzAuthorizer.getCurrentUserId(), ETags.ifMatch(ifMatch));
     return ResponseEntity.noContent().build();
   }
 
@@ -103,14 +124,18 @@ public class GroupController {
   }
 
   @GetMapping("/{groupId}/activity")
-  public ResponseEntity<List<com.splitz.expense.dto.ActivityLogDTO>> getGroupActivity(
-      @PathVariable("groupId") Long groupId) {
-    // Basic authorization check: must be a member or admin
-    // GroupService already handles this check in other methods,
-    // but here we can just verify the user is a member.
-    groupService.getGroup(groupId, splitzAuthorizer.getCurrentUserId());
-
-    return ResponseEntity.ok(
-        activityLogMapper.toDTOList(activityLogService.getActivitiesByGroup(groupId)));
+  public ResponseEntity<List<ActivityLogDTO>> getGroupActivity(
+      @PathVariable("groupId") Long groupId,
+      ActivityLogFilter filter,
+      @RequestParam(value = "cursor", required = false) String cursor,
+      @RequestParam(value = "limit", defaultValue = "50") int limit) {
+    ActivityLogPageDTO page =
+        activityLogService.getGroupActivity(
+            groupId, filter, cursor, limit, splitzAuthorizer.getCurrentUserId());
+    ResponseEntity.BodyBuilder response = ResponseEntity.ok();
+    if (page.getNextCursor() != null) {
+      response.header(ExpenseController.NEXT_CURSOR_HEADER, page.getNextCursor());
+    }
+    return response.body(page.getActivities());
   }
 }
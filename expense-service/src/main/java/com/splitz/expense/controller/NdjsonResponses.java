@@ -0,0 +1,45 @@
+package com.splitz.expense.controller;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.splitz.expense.streaming.RowStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+/**
+ * {@code application/x-ndjson} responses: one JSON document per line, written as each row is read,
+ * so neither the entities nor the serialized body of a large listing are held in memory.
+ */
+final class NdjsonResponses {
+
+  private static final byte NEWLINE = '\n';
+
+  private NdjsonResponses() {}
+
+  static <T> ResponseEntity<StreamingResponseBody> of(
+      RowStream<T> rows, ObjectMapper objectMapper) {
+    StreamingResponseBody body =
+        out -> {
+          try {
+            rows.forEach(
+                row -> {
+                  try {
+                    out.write(objectMapper.writeValueAsBytes(row));
+                    out.write(NEWLINE);
+                  } catch (JsonProcessingException e) {
+                    throw new IllegalStateException("Could not serialize " + row, e);
+                  } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                  }
+                });
+          } catch (UncheckedIOException e) {
+            // The client went away: stop reading rows and let the container handle it
+            throw e.getCause();
+          }
+        };
+    return ResponseEntity.ok().contentType(MediaType.APPLICATION_NDJSON).body(body);
+  }
+}
@@ -1,5 +1,6 @@
 package com.splitz.expense.controller;
 
+import com.fasterxml.jackson.databind.ObjectMapper;
 import com.splitz.expense.dto.CreateSettlementRequest;
 import com.splitz.expense.dto.SettlementDTO;
 import com.splitz.expense.service.SettlementService;
@@ -7,6 +8,7 @@ import jakarta.validation.Valid;
 import java.util.List;
 import lombok.RequiredArgsConstructor;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.GetMapping;
@@ -15,12 +17,14 @@ import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.PutMapping;
 import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 @RestController
 @RequiredArgsConstructor
 public class SettlementController {
 
   private final SettlementService settlementService;
+  private final ObjectMapper objectMapper;
 
   @PostMapping("/settlements")
   @PreAuthorize("@security.isGroupMember(#request.groupId)")
@@ -43,6 +47,15 @@ public class SettlementController {
     return ResponseEntity.ok(settlementService.getSettlementsByGroup(groupId));
   }
 
+  @GetMapping(
+      value = "/groups/{groupId}/settlements",
+      produces = MediaType.APPLICATION_NDJSON_VALUE)
+  @PreAuthorize("@security.isGroupMember(#groupId)")
+  public ResponseEntity<StreamingResponseBody> streamSettlementsByGroup(
+      @PathVariable("groupId") Long groupId) {
+    return NdjsonResponses.of(settlementService.streamSettlementsByGroup(groupId), objectMapper);
+  }
+
   @PutMapping("/settlements/{id}/mark-paid")
   @PreAuthorize("@splitzAuthorizer.isAdmin() || @settlementService.isPayer(#id)")
   public ResponseEntity<SettlementDTO> markAsPaid(@PathVariable("id") Long id) {
@@ -0,0 +1,45 @@
+package com.splitz.expense.dto;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * One row of the streamed global activity or of the activity timeline: an expense, a group
+ * settlement or a friendship settlement.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class ActivityItemDTO {
+
+  public enum Type {
+    EXPENSE,
+    SETTLEMENT,
+    FRIENDSHIP_SETTLEMENT
+  }
+
+  private Type type;
+  private ExpenseDTO expense;
+  private SettlementDTO settlement;
+  private FriendshipSettlementDTO friendshipSettlement;
+
+  public static ActivityItemDTO of(ExpenseDTO expense) {
+    return ActivityItemDTO.builder().type(Type.EXPENSE).expense(expense).build();
+  }
+
+  public static ActivityItemDTO of(SettlementDTO settlement) {
+    return ActivityItemDTO.builder().type(Type.SETTLEMENT).settlement(settlement).build();
+  }
+
+  public static ActivityItemDTO of(FriendshipSettlementDTO friendshipSettlement) {
+    return ActivityItemDTO.builder()
+        .type(Type.FRIENDSHIP_SETTLEMENT)
+        .friendshipSettlement(friendshipSettlement)
+        .build();
+  }
+}
@@ -0,0 +1,18 @@
+package com.splitz.expense.dto;
+
+import com.splitz.expense.model.ActivityLogType;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/** Optional filters of a group activity feed, bound from query parameters. */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class ActivityLogFilter {
+
+  private ActivityLogType type;
+  private Long actorId;
+}
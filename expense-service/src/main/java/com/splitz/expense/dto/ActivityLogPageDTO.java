@@ -0,0 +1,18 @@
+package com.splitz.expense.dto;
+
+import java.util.List;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class ActivityLogPageDTO {
+  private List<ActivityLogDTO> activities;
+
+  /** Opaque cursor of the next page, or null on the last page. */
+  private String nextCursor;
+}
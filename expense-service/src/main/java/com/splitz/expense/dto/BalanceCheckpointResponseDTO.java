@@ -0,0 +1,21 @@
+package com.splitz.expense.dto;
+
+import java.time.LocalDateTime;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class BalanceCheckpointResponseDTO {
+
+  private Long groupId;
+  private long expenseIdMark;
+  private long settlementIdMark;
+  private long friendshipSettlementIdMark;
+  private int members;
+  private LocalDateTime createdAt;
+}
@@ -0,0 +1,25 @@
+package com.splitz.expense.dto;
+
+import com.splitz.expense.balance.GroupBalanceSource;
+import java.math.BigDecimal;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * A member balance that disagrees with the history of its group. A drift with source {@code
+ * ENTITIES} and no user is a zero-sum violation: {@code actual} is what the history sums to.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class BalanceDriftDTO {
+
+  private Long groupId;
+  private GroupBalanceSource source;
+  private Long userId;
+  private BigDecimal expected;
+  private BigDecimal actual;
+}
@@ -0,0 +1,16 @@
+package com.splitz.expense.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class BalanceRebuildResponseDTO {
+
+  private int groupsRebuilt;
+  private long durationMs;
+}
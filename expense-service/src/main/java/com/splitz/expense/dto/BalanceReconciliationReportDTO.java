@@ -0,0 +1,27 @@
+package com.splitz.expense.dto;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class BalanceReconciliationReportDTO {
+
+  private LocalDateTime startedAt;
+  private long durationMs;
+
+  /** False when the run was interrupted before every group was checked. */
+  private boolean complete;
+
+  private int groupsChecked;
+  private int groupsDrifted;
+
+  /** The first drifts found, up to {@code expense.balances.reconciliation.max-reported-drifts}. */
+  private List<BalanceDriftDTO> drifts;
+}
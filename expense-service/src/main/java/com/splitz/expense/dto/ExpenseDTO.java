@@ -29,4 +29,5 @@ public class ExpenseDTO {
   private List<ExpenseSplitDTO> splits;
   private LocalDateTime createdAt;
   private LocalDateTime updatedAt;
+  private Integer version;
 }
@@ -0,0 +1,29 @@
+package com.splitz.expense.dto;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.springframework.format.annotation.DateTimeFormat;
+
+/** Optional filters of an expense listing, bound from query parameters. Bounds are inclusive. */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class ExpenseFilter {
+
+  @DateTimeFormat(iso = DateTimeFormat.ISO.DATE)
+  private LocalDate from;
+
+  @DateTimeFormat(iso = DateTimeFormat.ISO.DATE)
+  private LocalDate to;
+
+  private Long paidBy;
+  private Long participantId;
+  private Long categoryId;
+  private BigDecimal minAmount;
+  private BigDecimal maxAmount;
+}
@@ -0,0 +1,34 @@
+package com.splitz.expense.dto;
+
+import java.util.List;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class ExpenseImportResultDTO {
+
+  private long rowsRead;
+  private long imported;
+  private long failed;
+  private long durationMs;
+  private double rowsPerSecond;
+  private List<RowErrorDTO> errors;
+
+  /** True when more rows failed than {@code expense.import.max-reported-errors} lists. */
+  private boolean errorsTruncated;
+
+  @Data
+  @NoArgsConstructor
+  @AllArgsConstructor
+  @Builder
+  public static class RowErrorDTO {
+
+    private long row;
+    private String message;
+  }
+}
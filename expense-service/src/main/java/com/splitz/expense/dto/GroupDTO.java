@@ -22,5 +22,6 @@ public class GroupDTO {
   private boolean allowMembersToEditExpenses;
   private LocalDateTime createdAt;
   private LocalDateTime updatedAt;
+  private Integer version;
   private List<GroupMemberDTO> members;
 }
@@ -5,12 +5,16 @@ import java.net.URI;
 import java.net.URISyntaxException;
 import java.util.Objects;
 import java.util.stream.Collectors;
+import org.springframework.dao.OptimisticLockingFailureException;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ProblemDetail;
+import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.AccessDeniedException;
+import org.springframework.web.HttpMediaTypeNotSupportedException;
 import org.springframework.web.bind.MethodArgumentNotValidException;
 import org.springframework.web.bind.annotation.ExceptionHandler;
 import org.springframework.web.bind.annotation.RestControllerAdvice;
+import org.springframework.web.method.annotation.MethodArgumentTypeMismatchException;
 
 @RestControllerAdvice
 public class GlobalExceptionHandler {
@@ -49,6 +53,40 @@ public class GlobalExceptionHandler {
     return problem;
   }
 
+  @ExceptionHandler(PreconditionFailedException.class)
+  public ProblemDetail handlePreconditionFailedException(
+      PreconditionFailedException ex, HttpServletRequest request) {
+    ProblemDetail problem = ProblemDetail.forStatus(HttpStatus.PRECONDITION_FAILED);
+    problem.setTitle("Precondition Failed");
+    problem.setDetail(ex.getMessage());
+    problem.setType(
+        Objects.requireNonNull(create("https://example.com/errors/precondition-failed")));
+    problem.setInstance(Objects.requireNonNull(create(request.getRequestURI())));
+    return problem;
+  }
+
+  @ExceptionHandler(ConflictException.class)
+  public ProblemDetail handleConflictException(ConflictException ex, HttpServletRequest request) {
+    ProblemDetail problem = ProblemDetail.forStatus(HttpStatus.CONFLICT);
+    problem.setTitle("Conflict");
+    problem.setDetail(ex.getMessage());
+    problem.setType(Objects.requireNonNull(create("https://example.com/errors/conflict")));
+    problem.setInstance(Objects.requireNonNull(create(request.getRequestURI())));
+    return problem;
+  }
+
+  @ExceptionHandler(OptimisticLockingFailureException.class)
+  public ProblemDetail handleOptimisticLockingFailureException(
+      OptimisticLockingFailureException ex, HttpServletRequest request) {
+    ProblemDetail problem = ProblemDetail.forStatus(HttpStatus.CONFLICT);
+    problem.setTitle("Concurrent Modification");
+    problem.setDetail("The resource was modified by another request; reload it and try again");
+    problem.setType(
+        Objects.requireNonNull(create("https://example.com/errors/concurrent-modification")));
+    problem.setInstance(Objects.requireNonNull(create(request.getRequestURI())));
+    return problem;
+  }
+
   @ExceptionHandler(MethodArgumentNotValidException.class)
   public ProblemDetail handleValidationException(
       MethodArgumentNotValidException ex, HttpServletRequest request) {
@@ -75,6 +113,32 @@ public class GlobalExceptionHandler {
     return problem;
   }
 
+  @ExceptionHandler(MethodArgumentTypeMismatchException.class)
+  public ProblemDetail handleTypeMismatchException(
+      MethodArgumentTypeMismatchException ex, HttpServletRequest request) {
+    ProblemDetail problem = ProblemDetail.forStatus(HttpStatus.BAD_REQUEST);
+    problem.setTitle("Invalid Request");
+    problem.setDetail("Invalid value '" + ex.getValue() + "' for parameter " + ex.getName());
+    problem.setType(Objects.requireNonNull(create("https://example.com/errors/invalid-request")));
+    problem.setInstance(Objects.requireNonNull(create(request.getRequestURI())));
+    return problem;
+  }
+
+  /** Keeps the Accept header listing the media types the endpoint consumes. */
+  @ExceptionHandler(HttpMediaTypeNotSupportedException.class)
+  public ResponseEntity<ProblemDetail> handleMediaTypeNotSupportedException(
+      HttpMediaTypeNotSupportedException ex, HttpServletRequest request) {
+    ProblemDetail problem = ProblemDetail.forStatus(HttpStatus.UNSUPPORTED_MEDIA_TYPE);
+    problem.setTitle("Unsupported Media Type");
+    problem.setDetail(ex.getMessage());
+    problem.setType(
+        Objects.requireNonNull(create("https://example.com/errors/unsupported-media-type")));
+    problem.setInstance(Objects.requireNonNull(create(request.getRequestURI())));
+    return ResponseEntity.status(HttpStatus.UNSUPPORTED_MEDIA_TYPE)
+        .headers(ex.getHeaders())
+        .body(problem);
+  }
+
   @ExceptionHandler(Exception.class)
   public ProblemDetail handleGlobalException(Exception ex, HttpServletRequest request) {
     ProblemDetail problem = ProblemDetail.forStatus(HttpStatus.INTERNAL_SERVER_ERROR);
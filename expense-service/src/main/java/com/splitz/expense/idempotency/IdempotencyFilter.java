@@ -0,0 +1,178 @@
+package com.splitz.expense.idempotency;
+
+import static org.springframework.security.web.util.matcher.AntPathRequestMatcher.antMatcher;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.splitz.expense.service.IdempotencyService;
+import com.splitz.expense.service.IdempotencyService.Claim;
+import com.splitz.expense.service.IdempotencyService.StoredResponse;
+import com.splitz.security.authorization.SharedSecurityAuthorizer;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import java.io.IOException;
+import java.net.URI;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ProblemDetail;
+import org.springframework.security.web.util.matcher.OrRequestMatcher;
+import org.springframework.security.web.util.matcher.RequestMatcher;
+import org.springframework.util.StreamUtils;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.util.ContentCachingResponseWrapper;
+
+/**
+ * Makes expense and settlement creation safe to retry. A create request carrying an {@code
+ * Idempotency-Key} header runs once per user and key: retries of the same request get the stored
+ * response with {@code Idempotent-Replayed: true}, a retry sent while the first is still running
+ * gets 409, and reusing the key for a different request gets 422. Sits in the security filter chain
+ * after authorization, so it only sees authenticated requests.
+ */
+@RequiredArgsConstructor
+public class IdempotencyFilter extends OncePerRequestFilter {
+
+  public static final String HEADER = "Idempotency-Key";
+  public static final String REPLAYED_HEADER = "Idempotent-Replayed";
+
+  private static final int MAX_KEY_LENGTH = 255;
+  private static final RequestMatcher CREATE_REQUESTS =
+      new OrRequestMatcher(
+          antMatcher(HttpMethod.POST, "/groups/*/expenses"),
+          antMatcher(HttpMethod.POST, "/settlements"),
+          antMatcher(HttpMethod.POST, "/friendship-settlements"));
+
+  private final IdempotencyService idempotencyService;
+  private final SharedSecurityAuthorizer splitzAuthorizer;
+  private final ObjectMapper objectMapper;
+
+  @Override
+  protected boolean shouldNotFilter(HttpServletRequest request) {
+    return request.getHeader(HEADER) == null || !CREATE_REQUESTS.matches(request);
+  }
+
+  @Override
+  protected void doFilterInternal(
+      HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+      throws ServletException, IOException {
+    String key = request.getHeader(HEADER);
+    if (key.isBlank() || key.length() > MAX_KEY_LENGTH) {
+      writeProblem(
+          request,
+          response,
+          HttpStatus.BAD_REQUEST,
+          "Invalid Request",
+          HEADER + " must be between 1 and " + MAX_KEY_LENGTH + " characters");
+      return;
+    }
+    Long userId = splitzAuthorizer.getCurrentUserId();
+    byte[] body = StreamUtils.copyToByteArray(request.getInputStream());
+    String requestHash = requestHash(request, body);
+
+    Claim claim = idempotencyService.claim(userId, key, requestHash);
+    switch (claim.decision()) {
+      case REPLAY -> replay(response, claim.response());
+      case IN_PROGRESS -> {
+        response.setHeader(HttpHeaders.RETRY_AFTER, "1");
+        writeProblem(
+            request,
+            response,
+            HttpStatus.CONFLICT,
+            "Request In Progress",
+            "A request with this " + HEADER + " is still being processed");
+      }
+      case MISMATCH ->
+          writeProblem(
+              request,
+              response,
+              HttpStatus.UNPROCESSABLE_ENTITY,
+              "Idempotency Key Reused",
+              "This " + HEADER + " was already used for a different request");
+      case PROCEED ->
+          proceed(request, response, filterChain, userId, key, claim.id(), requestHash, body);
+      default -> throw new IllegalStateException("Unexpected claim decision " + claim.decision());
+    }
+  }
+
+  private void proceed(
+      HttpServletRequest request,
+      HttpServletResponse response,
+      FilterChain filterChain,
+      Long userId,
+      String key,
+      Long claimId,
+      String requestHash,
+      byte[] body)
+      throws ServletException, IOException {
+    ContentCachingResponseWrapper responseWrapper = new ContentCachingResponseWrapper(response);
+    boolean stored = false;
+    try {
+      filterChain.doFilter(new CachedBodyRequest(request, body), responseWrapper);
+      if (HttpStatus.valueOf(responseWrapper.getStatus()).is2xxSuccessful()) {
+        idempotencyService.complete(
+            userId,
+            key,
+            claimId,
+            requestHash,
+            new StoredResponse(
+                responseWrapper.getStatus(),
+                responseWrapper.getContentType(),
+                new String(responseWrapper.getContentAsByteArray(), StandardCharsets.UTF_8)));
+        stored = true;
+      }
+    } finally {
+      if (!stored) {
+        idempotencyService.release(userId, key, claimId);
+      }
+      responseWrapper.copyBodyToResponse();
+    }
+  }
+
+  private static void replay(HttpServletResponse response, StoredResponse stored)
+      throws IOException {
+    response.setStatus(stored.status());
+    response.setHeader(REPLAYED_HEADER, "true");
+    if (stored.contentType() != null) {
+      response.setContentType(stored.contentType());
+    }
+    if (stored.body() != null) {
+      response.getOutputStream().write(stored.body().getBytes(StandardCharsets.UTF_8));
+    }
+  }
+
+  private void writeProblem(
+      HttpServletRequest request,
+      HttpServletResponse response,
+      HttpStatus status,
+      String title,
+      String detail)
+      throws IOException {
+    ProblemDetail problem = ProblemDetail.forStatusAndDetail(status, detail);
+    problem.setTitle(title);
+    problem.setInstance(URI.create(request.getRequestURI()));
+    response.setStatus(status.value());
+    response.setContentType(MediaType.APPLICATION_PROBLEM_JSON_VALUE);
+    objectMapper.writeValue(response.getOutputStream(), problem);
+  }
+
+  /** SHA-256 of method, path and body, so a key cannot be replayed against another request. */
+  private static String requestHash(HttpServletRequest request, byte[] body) {
+    try {
+      MessageDigest digest = MessageDigest.getInstance("SHA-256");
+      digest.update(
+          (request.getMethod() + " " + request.getRequestURI() + "\n")
+              .getBytes(StandardCharsets.UTF_8));
+      digest.update(body);
+      return HexFormat.of().formatHex(digest.digest());
+    } catch (NoSuchAlgorithmException e) {
+      throw new IllegalStateException("SHA-256 is not available", e);
+    }
+  }
+}
@@ -0,0 +1,193 @@
+package com.splitz.expense.importer;
+
+import com.splitz.expense.dto.CreateExpenseRequest;
+import com.splitz.expense.dto.SplitRequest;
+import com.splitz.expense.model.SplitType;
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * CSV with a header row naming the columns, in any order: {@code description}, {@code amount},
+ * {@code paidBy}, {@code splitType} and {@code participants} are required; {@code splitValues},
+ * {@code currency}, {@code categoryId}, {@code expenseDate} (ISO date), {@code notes} and {@code
+ * receiptUrl} are optional. {@code participants} and {@code splitValues} hold user ids and values
+ * separated by {@code ;}, in the same order.
+ *
+ * <p>Fields may be quoted with {@code "}, doubling quotes inside them; a quoted field cannot span
+ * lines.
+ */
+public class CsvExpenseRowReader implements ExpenseRowReader {
+
+  private static final List<String> REQUIRED_COLUMNS =
+      List.of("description", "amount", "paidby", "splittype", "participants");
+
+  private final BufferedReader reader;
+  private final Map<String, Integer> columns = new HashMap<>();
+  private long lineNumber;
+
+  public CsvExpenseRowReader(BufferedReader reader) throws IOException {
+    this.reader = reader;
+    String header = reader.readLine();
+    lineNumber = 1;
+    if (header == null) {
+      throw new IllegalArgumentException("CSV import is empty; a header row is required");
+    }
+    List<String> names = parseLine(header.startsWith("\uFEFF") ? header.substring(1) : header);
+    for (int i = 0; i < names.size(); i++) {
+      columns.put(names.get(i).trim().toLowerCase(Locale.ROOT), i);
+    }
+    for (String required : REQUIRED_COLUMNS) {
+      if (!columns.containsKey(required)) {
+        throw new IllegalArgumentException("CSV header is missing column: " + required);
+      }
+    }
+  }
+
+  @Override
+  public ImportRow next() throws IOException {
+    String line;
+    do {
+      line = reader.readLine();
+      if (line == null) {
+        return null;
+      }
+      lineNumber++;
+    } while (line.isBlank());
+
+    try {
+      return ImportRow.parsed(lineNumber, toRequest(parseLine(line)));
+    } catch (IllegalArgumentException | DateTimeParseException e) {
+      return ImportRow.failed(lineNumber, e.getMessage());
+    }
+  }
+
+  private CreateExpenseRequest toRequest(List<String> fields) {
+    List<Long> participants = new ArrayList<>();
+    for (String id : splitList(field(fields, "participants"))) {
+      participants.add(parseLong("participants", id));
+    }
+    List<String> values = splitList(field(fields, "splitvalues"));
+    if (!values.isEmpty() && values.size() != participants.size()) {
+      throw new IllegalArgumentException(
+          String.format(
+              "splitValues has %d entries for %d participants",
+              values.size(), participants.size()));
+    }
+    List<SplitRequest> splits = new ArrayList<>();
+    for (int i = 0; i < participants.size(); i++) {
+      splits.add(
+          SplitRequest.builder()
+              .userId(participants.get(i))
+              .splitValue(values.isEmpty() ? null : parseDecimal("splitValues", values.get(i)))
+              .build());
+    }
+
+    String splitType = field(fields, "splittype");
+    String currency = field(fields, "currency");
+    String categoryId = field(fields, "categoryid");
+    String expenseDate = field(fields, "expensedate");
+    return CreateExpenseRequest.builder()
+        .description(field(fields, "description"))
+        .amount(parseDecimal("amount", field(fields, "amount")))
+        .currency(currency != null ? currency : "EUR")
+        .paidBy(parseLong("paidBy", field(fields, "paidby")))
+        .categoryId(categoryId != null ? parseLong("categoryId", categoryId) : null)
+        .expenseDate(expenseDate != null ? LocalDate.parse(expenseDate) : null)
+        .notes(field(fields, "notes"))
+        .receiptUrl(field(fields, "receipturl"))
+        .splitType(splitType != null ? parseSplitType(splitType) : null)
+        .splits(splits)
+        .build();
+  }
+
+  /** The trimmed value of a column, or {@code null} if the column or value is absent. */
+  private String field(List<String> fields, String column) {
+    Integer index = columns.get(column);
+    if (index == null || index >= fields.size()) {
+      return null;
+    }
+    String value = fields.get(index).trim();
+    return value.isEmpty() ? null : value;
+  }
+
+  private static List<String> splitList(String value) {
+    List<String> items = new ArrayList<>();
+    if (value != null) {
+      for (String item : value.split(";")) {
+        if (!item.isBlank()) {
+          items.add(item.trim());
+        }
+      }
+    }
+    return items;
+  }
+
+  private static Long parseLong(String column, String value) {
+    if (value == null) {
+      return null;
+    }
+    try {
+      return Long.valueOf(value);
+    } catch (NumberFormatException e) {
+      throw new IllegalArgumentException("Invalid " + column + ": '" + value + "'");
+    }
+  }
+
+  private static BigDecimal parseDecimal(String column, String value) {
+    if (value == null) {
+      return null;
+    }
+    try {
+      return new BigDecimal(value);
+    } catch (NumberFormatException e) {
+      throw new IllegalArgumentException("Invalid " + column + ": '" + value + "'");
+    }
+  }
+
+  private static SplitType parseSplitType(String value) {
+    try {
+      return SplitType.valueOf(value.toUpperCase(Locale.ROOT));
+    } catch (IllegalArgumentException e) {
+      throw new IllegalArgumentException("Invalid splitType: '" + value + "'");
+    }
+  }
+
+  static List<String> parseLine(String line) {
+    List<String> fields = new ArrayList<>();
+    StringBuilder field = new StringBuilder();
+    boolean quoted = false;
+    for (int i = 0; i < line.length(); i++) {
+      char c = line.charAt(i);
+      if (quoted) {
+        if (c == '"' && i + 1 < line.length() && line.charAt(i + 1) == '"') {
+          field.append('"');
+          i++;
+        } else if (c == '"') {
+          quoted = false;
+        } else {
+          field.append(c);
+        }
+      } else if (c == '"') {
+        quoted = true;
+      } else if (c == ',') {
+        fields.add(field.toString());
+        field.setLength(0);
+      } else {
+        field.append(c);
+      }
+    }
+    if (quoted) {
+      throw new IllegalArgumentException("Unterminated quoted field");
+    }
+    fields.add(field.toString());
+    return fields;
+  }
+}
@@ -0,0 +1,37 @@
+package com.splitz.expense.importer;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import org.springframework.http.MediaType;
+
+/** Body formats accepted by the expense import endpoint, keyed by their content type. */
+public enum ExpenseImportFormat {
+  CSV,
+  NDJSON;
+
+  public static final String CSV_VALUE = "text/csv";
+  public static final String NDJSON_VALUE = "application/x-ndjson";
+
+  public static ExpenseImportFormat fromContentType(String contentType) {
+    MediaType mediaType = MediaType.parseMediaType(contentType);
+    if (mediaType.isCompatibleWith(MediaType.parseMediaType(CSV_VALUE))) {
+      return CSV;
+    }
+    if (mediaType.isCompatibleWith(MediaType.parseMediaType(NDJSON_VALUE))) {
+      return NDJSON;
+    }
+    throw new IllegalArgumentException("Unsupported import content type: " + contentType);
+  }
+
+  public ExpenseRowReader open(InputStream body, ObjectMapper objectMapper) throws IOException {
+    BufferedReader reader = new BufferedReader(new InputStreamReader(body, StandardCharsets.UTF_8));
+    return switch (this) {
+      case CSV -> new CsvExpenseRowReader(reader);
+      case NDJSON -> new NdjsonExpenseRowReader(reader, objectMapper);
+    };
+  }
+}
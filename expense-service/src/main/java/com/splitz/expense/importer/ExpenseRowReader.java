@@ -0,0 +1,10 @@
+package com.splitz.expense.importer;
+
+import java.io.IOException;
+
+/** Reads an import file one row at a time, so the whole file is never held in memory. */
+public interface ExpenseRowReader {
+
+  /** The next non-blank row, or {@code null} at the end of the input. */
+  ImportRow next() throws IOException;
+}
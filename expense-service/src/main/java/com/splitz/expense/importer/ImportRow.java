@@ -0,0 +1,18 @@
+package com.splitz.expense.importer;
+
+import com.splitz.expense.dto.CreateExpenseRequest;
+
+/**
+ * One line of an import file: either a parsed request or the reason it could not be parsed. Row
+ * numbers are line numbers in the file, so they match what a spreadsheet shows.
+ */
+public record ImportRow(long rowNumber, CreateExpenseRequest request, String error) {
+
+  public static ImportRow parsed(long rowNumber, CreateExpenseRequest request) {
+    return new ImportRow(rowNumber, request, null);
+  }
+
+  public static ImportRow failed(long rowNumber, String error) {
+    return new ImportRow(rowNumber, null, error);
+  }
+}
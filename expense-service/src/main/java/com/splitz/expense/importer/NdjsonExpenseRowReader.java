@@ -0,0 +1,38 @@
+package com.splitz.expense.importer;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.splitz.expense.dto.CreateExpenseRequest;
+import java.io.BufferedReader;
+import java.io.IOException;
+
+/** One {@link CreateExpenseRequest} JSON object per line. */
+public class NdjsonExpenseRowReader implements ExpenseRowReader {
+
+  private final BufferedReader reader;
+  private final ObjectMapper objectMapper;
+  private long lineNumber;
+
+  public NdjsonExpenseRowReader(BufferedReader reader, ObjectMapper objectMapper) {
+    this.reader = reader;
+    this.objectMapper = objectMapper;
+  }
+
+  @Override
+  public ImportRow next() throws IOException {
+    String line;
+    do {
+      line = reader.readLine();
+      if (line == null) {
+        return null;
+      }
+      lineNumber++;
+    } while (line.isBlank());
+
+    try {
+      return ImportRow.parsed(lineNumber, objectMapper.readValue(line, CreateExpenseRequest.class));
+    } catch (JsonProcessingException e) {
+      return ImportRow.failed(lineNumber, "Malformed JSON: " + e.getOriginalMessage());
+    }
+  }
+}
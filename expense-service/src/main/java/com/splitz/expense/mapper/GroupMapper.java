@@ -35,6 +35,7 @@ public class GroupMapper {
         .allowMembersToEditExpenses(group.isAllowMembersToEditExpenses())
         .createdAt(group.getCreatedAt())
         .updatedAt(group.getUpdatedAt())
+        .version(group.getVersion())
         .members(mapMembers(group.getMembers()))
         .build();
   }
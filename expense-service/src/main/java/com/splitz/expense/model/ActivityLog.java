@@ -8,6 +8,7 @@ import jakarta.persistence.GeneratedValue;
 import jakarta.persistence.GenerationType;
 import jakarta.persistence.Id;
 import jakarta.persistence.PrePersist;
+import jakarta.persistence.SequenceGenerator;
 import jakarta.persistence.Table;
 import java.time.LocalDateTime;
 import lombok.AllArgsConstructor;
@@ -26,7 +27,11 @@ import lombok.Setter;
 public class ActivityLog {
 
   @Id
-  @GeneratedValue(strategy = GenerationType.IDENTITY)
+  @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "activity_logs_id_seq")
+  @SequenceGenerator(
+      name = "activity_logs_id_seq",
+      sequenceName = "activity_logs_id_seq",
+      allocationSize = 50)
   private Long id;
 
   @Column(name = "group_id", nullable = false)
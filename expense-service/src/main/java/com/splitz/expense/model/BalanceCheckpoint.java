@@ -0,0 +1,54 @@
+package com.splitz.expense.model;
+
+import jakarta.persistence.CollectionTable;
+import jakarta.persistence.Column;
+import jakarta.persistence.ElementCollection;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import jakarta.persistence.JoinColumn;
+import jakarta.persistence.MapKeyColumn;
+import jakarta.persistence.Table;
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.HashMap;
+import java.util.Map;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+@Entity
+@Table(name = "balance_checkpoints")
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class BalanceCheckpoint {
+
+  @Id
+  @Column(name = "group_id")
+  private Long groupId;
+
+  @Column(name = "expense_id_mark", nullable = false)
+  private long expenseIdMark;
+
+  @Column(name = "settlement_id_mark", nullable = false)
+  private long settlementIdMark;
+
+  @Column(name = "friendship_settlement_id_mark", nullable = false)
+  private long friendshipSettlementIdMark;
+
+  @Column(name = "created_at", nullable = false)
+  private LocalDateTime createdAt;
+
+  @ElementCollection
+  @CollectionTable(
+      name = "balance_checkpoint_entries",
+      joinColumns = @JoinColumn(name = "group_id"))
+  @MapKeyColumn(name = "user_id")
+  @Column(name = "balance", nullable = false, precision = 19, scale = 2)
+  @Builder.Default
+  private Map<Long, BigDecimal> balances = new HashMap<>();
+}
@@ -10,7 +10,10 @@ import jakarta.persistence.Id;
 import jakarta.persistence.JoinColumn;
 import jakarta.persistence.ManyToOne;
 import jakarta.persistence.OneToMany;
+import jakarta.persistence.PrePersist;
+import jakarta.persistence.SequenceGenerator;
 import jakarta.persistence.Table;
+import jakarta.persistence.Version;
 import java.math.BigDecimal;
 import java.time.LocalDate;
 import java.time.LocalDateTime;
@@ -34,7 +37,11 @@ import org.hibernate.annotations.UpdateTimestamp;
 public class Expense {
 
   @Id
-  @GeneratedValue(strategy = GenerationType.IDENTITY)
+  @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "expenses_id_seq")
+  @SequenceGenerator(
+      name = "expenses_id_seq",
+      sequenceName = "expenses_id_seq",
+      allocationSize = 50)
   private Long id;
 
   @ManyToOne(fetch = FetchType.LAZY)
@@ -58,7 +65,7 @@ public class Expense {
   @JoinColumn(name = "category_id")
   private Category category;
 
-  @Column(name = "expense_date")
+  @Column(name = "expense_date", nullable = false)
   private LocalDate expenseDate;
 
   @Column(columnDefinition = "TEXT")
@@ -81,4 +88,20 @@ public class Expense {
   @UpdateTimestamp
   @Column(name = "updated_at")
   private LocalDateTime updatedAt;
+
+  @Version private Integer version;
+
+  /** Keeps the date copied to the splits in step, so they move to the same partition. */
+  public void setExpenseDate(LocalDate expenseDate) {
+    this.expenseDate = expenseDate;
+    splits.forEach(split -> split.setExpenseDate(expenseDate));
+  }
+
+  @PrePersist
+  void defaultExpenseDate() {
+    // Listings page on the expense date, so an undated expense counts from the day it was added
+    if (expenseDate == null) {
+      expenseDate = LocalDate.now();
+    }
+  }
 }
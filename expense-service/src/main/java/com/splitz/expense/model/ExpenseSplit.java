@@ -10,8 +10,11 @@ import jakarta.persistence.GenerationType;
 import jakarta.persistence.Id;
 import jakarta.persistence.JoinColumn;
 import jakarta.persistence.ManyToOne;
+import jakarta.persistence.PrePersist;
+import jakarta.persistence.SequenceGenerator;
 import jakarta.persistence.Table;
 import java.math.BigDecimal;
+import java.time.LocalDate;
 import java.time.LocalDateTime;
 import lombok.AllArgsConstructor;
 import lombok.Builder;
@@ -31,13 +34,21 @@ import org.hibernate.annotations.UpdateTimestamp;
 public class ExpenseSplit {
 
   @Id
-  @GeneratedValue(strategy = GenerationType.IDENTITY)
+  @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "expense_splits_id_seq")
+  @SequenceGenerator(
+      name = "expense_splits_id_seq",
+      sequenceName = "expense_splits_id_seq",
+      allocationSize = 50)
   private Long id;
 
   @ManyToOne(fetch = FetchType.LAZY)
   @JoinColumn(name = "expense_id", nullable = false)
   private Expense expense;
 
+  /** Copy of the expense's date: on Postgres the split is partitioned with its expense by it. */
+  @Column(name = "expense_date", nullable = false)
+  private LocalDate expenseDate;
+
   @Column(name = "user_id", nullable = false)
   private Long userId;
 
@@ -58,4 +69,9 @@ public class ExpenseSplit {
   @UpdateTimestamp
   @Column(name = "updated_at")
   private LocalDateTime updatedAt;
+
+  @PrePersist
+  void copyExpenseDate() {
+    expenseDate = expense.getExpenseDate();
+  }
 }
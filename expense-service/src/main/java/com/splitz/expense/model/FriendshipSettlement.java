@@ -7,6 +7,7 @@ import jakarta.persistence.Enumerated;
 import jakarta.persistence.GeneratedValue;
 import jakarta.persistence.GenerationType;
 import jakarta.persistence.Id;
+import jakarta.persistence.SequenceGenerator;
 import jakarta.persistence.Table;
 import java.math.BigDecimal;
 import java.time.LocalDateTime;
@@ -28,7 +29,11 @@ import org.hibernate.annotations.UpdateTimestamp;
 public class FriendshipSettlement {
 
   @Id
-  @GeneratedValue(strategy = GenerationType.IDENTITY)
+  @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "friendship_settlements_id_seq")
+  @SequenceGenerator(
+      name = "friendship_settlements_id_seq",
+      sequenceName = "friendship_settlements_id_seq",
+      allocationSize = 50)
   private Long id;
 
   @Column(name = "payer_id", nullable = false)
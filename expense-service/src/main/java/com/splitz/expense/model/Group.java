@@ -9,6 +9,7 @@ import jakarta.persistence.GenerationType;
 import jakarta.persistence.Id;
 import jakarta.persistence.OneToMany;
 import jakarta.persistence.Table;
+import jakarta.persistence.Version;
 import java.time.LocalDateTime;
 import java.util.HashSet;
 import java.util.Set;
@@ -64,6 +65,8 @@ public class Group {
   @Column(name = "updated_at")
   private LocalDateTime updatedAt;
 
+  @Version private Integer version;
+
   @Builder.Default
   @OneToMany(
       mappedBy = "group",
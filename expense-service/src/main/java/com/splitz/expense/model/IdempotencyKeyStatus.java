@@ -0,0 +1,6 @@
+package com.splitz.expense.model;
+
+public enum IdempotencyKeyStatus {
+  IN_PROGRESS,
+  COMPLETED
+}
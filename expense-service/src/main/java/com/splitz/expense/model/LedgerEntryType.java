@@ -0,0 +1,13 @@
+package com.splitz.expense.model;
+
+/** What posted a {@link LedgerEntry}; the entry's source id refers to the matching table. */
+public enum LedgerEntryType {
+  /** An expense was created. */
+  EXPENSE,
+  /** An expense was edited; the entries carry the difference to its previous contribution. */
+  EXPENSE_ADJUSTMENT,
+  /** An expense was deleted; the entries reverse its last contribution. */
+  EXPENSE_REVERSAL,
+  SETTLEMENT,
+  FRIENDSHIP_SETTLEMENT
+}
@@ -0,0 +1,47 @@
+package com.splitz.expense.model;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.GeneratedValue;
+import jakarta.persistence.GenerationType;
+import jakarta.persistence.Id;
+import jakarta.persistence.SequenceGenerator;
+import jakarta.persistence.Table;
+import java.time.LocalDateTime;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+/** An activity log entry delivered to one member of its group; see V28. */
+@Entity
+@Table(name = "user_activity_inbox")
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class UserActivityInboxEntry {
+
+  @Id
+  @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "user_activity_inbox_id_seq")
+  @SequenceGenerator(
+      name = "user_activity_inbox_id_seq",
+      sequenceName = "user_activity_inbox_id_seq",
+      allocationSize = 50)
+  private Long id;
+
+  @Column(name = "user_id", nullable = false)
+  private Long userId;
+
+  @Column(name = "activity_log_id", nullable = false)
+  private Long activityLogId;
+
+  @Column(name = "group_id", nullable = false)
+  private Long groupId;
+
+  /** Copy of the entry's timestamp, which the inbox is ordered by. */
+  @Column(nullable = false)
+  private LocalDateTime timestamp;
+}
@@ -0,0 +1,78 @@
+package com.splitz.expense.money;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+
+/**
+ * Fixed-point arithmetic on {@code long} minor units (cents, yen, fils, ...). Hot paths convert
+ * {@link BigDecimal} amounts once with {@link #toMinor}, work on primitives, and convert back with
+ * {@link #toDecimal} at the DTO or entity boundary.
+ *
+ * <p>Every operation either is exact or throws {@link ArithmeticException}: on overflow, or when an
+ * amount carries more decimals than the requested scale. Callers catch it and fall back to the
+ * exact {@link BigDecimal} path.
+ */
+public final class Money {
+
+  /** Scale of persisted balances and amounts, see the {@code DECIMAL(19, 2)} columns. */
+  public static final int BALANCE_SCALE = 2;
+
+  /** Largest scale handled on the fast path; 10^18 is the largest power of ten in a long. */
+  public static final int MAX_SCALE = 18;
+
+  private static final long[] POWERS_OF_TEN = new long[MAX_SCALE + 1];
+
+  static {
+    POWERS_OF_TEN[0] = 1;
+    for (int i = 1; i <= MAX_SCALE; i++) {
+      POWERS_OF_TEN[i] = POWERS_OF_TEN[i - 1] * 10;
+    }
+  }
+
+  private Money() {}
+
+  /** Number of minor-unit decimals of a currency. */
+  public static int scaleOf(String currency) {
+    return switch (currency != null ? currency : "EUR") {
+      case "JPY" -> 0;
+      case "EUR", "USD" -> 2;
+      case "KWD" -> 3;
+      default -> 2;
+    };
+  }
+
+  /** Converts an amount to minor units of the given scale without rounding. */
+  public static long toMinor(BigDecimal amount, int scale) {
+    if (scale < 0 || scale > MAX_SCALE) {
+      throw new ArithmeticException("Unsupported scale: " + scale);
+    }
+    return amount.setScale(scale, RoundingMode.UNNECESSARY).unscaledValue().longValueExact();
+  }
+
+  public static BigDecimal toDecimal(long minor, int scale) {
+    return BigDecimal.valueOf(minor, scale);
+  }
+
+  public static long pow10(int exponent) {
+    if (exponent < 0 || exponent > MAX_SCALE) {
+      throw new ArithmeticException("Unsupported exponent: " + exponent);
+    }
+    return POWERS_OF_TEN[exponent];
+  }
+
+  /** {@code dividend / divisor} rounded like {@link RoundingMode#HALF_UP}. */
+  public static long divideHalfUp(long dividend, long divisor) {
+    long quotient = dividend / divisor;
+    long remainder = Math.abs(dividend % divisor);
+    long absDivisor = Math.abs(divisor);
+    if (remainder >= absDivisor - remainder) {
+      quotient += (dividend < 0) == (divisor < 0) ? 1 : -1;
+    }
+    return quotient;
+  }
+
+  /** {@code amount * numerator / denominator} rounded like {@link RoundingMode#HALF_UP}. */
+  public static long multiplyDivideHalfUp(long amount, long numerator, long denominator) {
+    return divideHalfUp(Math.multiplyExact(amount, numerator), denominator);
+  }
+}
@@ -0,0 +1,38 @@
+package com.splitz.expense.pagination;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.Base64;
+
+/**
+ * Keyset position in a group activity feed: the {@code (timestamp, id)} of the last entry of a
+ * page. Feeds are ordered by both descending, so the next page holds the entries sorting after it.
+ * Clients only ever see the {@link #encode() encoded} form.
+ */
+public record ActivityLogCursor(LocalDateTime timestamp, Long id) {
+
+  private static final char SEPARATOR = '|';
+
+  public String encode() {
+    String key = timestamp.toString() + SEPARATOR + id;
+    return Base64.getUrlEncoder()
+        .withoutPadding()
+        .encodeToString(key.getBytes(StandardCharsets.UTF_8));
+  }
+
+  public static ActivityLogCursor decode(String cursor) {
+    try {
+      String key = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+      int separator = key.indexOf(SEPARATOR);
+      if (separator < 0) {
+        throw new IllegalArgumentException("Invalid cursor");
+      }
+      return new ActivityLogCursor(
+          LocalDateTime.parse(key.substring(0, separator)),
+          Long.parseLong(key.substring(separator + 1)));
+    } catch (IllegalArgumentException | DateTimeParseException e) {
+      throw new IllegalArgumentException("Invalid cursor", e);
+    }
+  }
+}
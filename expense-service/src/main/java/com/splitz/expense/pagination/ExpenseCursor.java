@@ -0,0 +1,38 @@
+package com.splitz.expense.pagination;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.time.format.DateTimeParseException;
+import java.util.Base64;
+
+/**
+ * Keyset position in an expense listing: the {@code (expense_date, id)} of the last expense of a
+ * page. Listings are ordered by both descending, so the next page holds the rows sorting after it.
+ * Clients only ever see the {@link #encode() encoded} form.
+ */
+public record ExpenseCursor(LocalDate expenseDate, Long id) {
+
+  private static final char SEPARATOR = '|';
+
+  public String encode() {
+    String key = expenseDate.toString() + SEPARATOR + id;
+    return Base64.getUrlEncoder()
+        .withoutPadding()
+        .encodeToString(key.getBytes(StandardCharsets.UTF_8));
+  }
+
+  public static ExpenseCursor decode(String cursor) {
+    try {
+      String key = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+      int separator = key.indexOf(SEPARATOR);
+      if (separator < 0) {
+        throw new IllegalArgumentException("Invalid cursor");
+      }
+      return new ExpenseCursor(
+          LocalDate.parse(key.substring(0, separator)),
+          Long.parseLong(key.substring(separator + 1)));
+    } catch (IllegalArgumentException | DateTimeParseException e) {
+      throw new IllegalArgumentException("Invalid cursor", e);
+    }
+  }
+}
@@ -0,0 +1,40 @@
+package com.splitz.expense.pagination;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.time.format.DateTimeParseException;
+import java.util.Base64;
+
+/**
+ * Keyset position in expense search results: the {@code (rank, expense_date, id)} of the last match
+ * of a page. Results are ordered by all three descending, so the next page holds the rows sorting
+ * after it. The rank is always 0 where the database has no full-text ranking.
+ */
+public record ExpenseSearchCursor(float rank, LocalDate expenseDate, Long id) {
+
+  private static final String SEPARATOR = "|";
+
+  public String encode() {
+    String key = Float.toString(rank) + SEPARATOR + expenseDate + SEPARATOR + id;
+    return Base64.getUrlEncoder()
+        .withoutPadding()
+        .encodeToString(key.getBytes(StandardCharsets.UTF_8));
+  }
+
+  public static ExpenseSearchCursor decode(String cursor) {
+    try {
+      String key = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+      String[] parts = key.split("\\" + SEPARATOR, -1);
+      if (parts.length != 3) {
+        throw new IllegalArgumentException("Invalid cursor");
+      }
+      float rank = Float.parseFloat(parts[0]);
+      if (!Float.isFinite(rank)) {
+        throw new IllegalArgumentException("Invalid cursor");
+      }
+      return new ExpenseSearchCursor(rank, LocalDate.parse(parts[1]), Long.parseLong(parts[2]));
+    } catch (IllegalArgumentException | DateTimeParseException e) {
+      throw new IllegalArgumentException("Invalid cursor", e);
+    }
+  }
+}
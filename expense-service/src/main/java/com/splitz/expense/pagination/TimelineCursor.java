@@ -0,0 +1,59 @@
+package com.splitz.expense.pagination;
+
+import com.splitz.expense.dto.ActivityItemDTO;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.Base64;
+import java.util.Comparator;
+
+/**
+ * Position in a user's activity timeline: when an item happened, its type and its id. Expenses
+ * happen at the start of their date, settlements when they were created. The timeline is ordered by
+ * time descending, then by type in declaration order, then by id descending; the next page holds
+ * the items sorting after the last one of a page.
+ */
+public record TimelineCursor(LocalDateTime at, ActivityItemDTO.Type type, Long id) {
+
+  public static final Comparator<TimelineCursor> ORDER =
+      Comparator.comparing(TimelineCursor::at)
+          .reversed()
+          .thenComparing(TimelineCursor::type)
+          .thenComparing(TimelineCursor::id, Comparator.reverseOrder());
+
+  private static final char SEPARATOR = '|';
+
+  /**
+   * Id bound for the items of {@code type} that happened at {@code itemsAt}, no later than this
+   * position: of those, the ones sorting after it are exactly the ones with a smaller id.
+   */
+  public long idBound(LocalDateTime itemsAt, ActivityItemDTO.Type type) {
+    if (itemsAt.isBefore(at) || type.compareTo(this.type) > 0) {
+      return Long.MAX_VALUE;
+    }
+    return type == this.type ? id : Long.MIN_VALUE;
+  }
+
+  public String encode() {
+    String key = at.toString() + SEPARATOR + type + SEPARATOR + id;
+    return Base64.getUrlEncoder()
+        .withoutPadding()
+        .encodeToString(key.getBytes(StandardCharsets.UTF_8));
+  }
+
+  public static TimelineCursor decode(String cursor) {
+    try {
+      String key = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+      String[] parts = key.split("\\" + SEPARATOR, -1);
+      if (parts.length != 3) {
+        throw new IllegalArgumentException("Invalid cursor");
+      }
+      return new TimelineCursor(
+          LocalDateTime.parse(parts[0]),
+          ActivityItemDTO.Type.valueOf(parts[1]),
+          Long.parseLong(parts[2]));
+    } catch (IllegalArgumentException | DateTimeParseException e) {
+      throw new IllegalArgumentException("Invalid cursor", e);
+    }
+  }
+}
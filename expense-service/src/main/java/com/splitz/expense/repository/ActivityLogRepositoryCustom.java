@@ -0,0 +1,15 @@
+package com.splitz.expense.repository;
+
+import com.splitz.expense.dto.ActivityLogFilter;
+import com.splitz.expense.pagination.ActivityLogCursor;
+import java.util.List;
+
+public interface ActivityLogRepositoryCustom {
+
+  /**
+   * Keys of the next {@code limit} activity log entries of a group matching {@code filter}, newest
+   * first by {@code (timestamp, id)} and starting after {@code after} (null for the first page).
+   */
+  List<ActivityLogCursor> findFeedKeys(
+      Long groupId, ActivityLogFilter filter, ActivityLogCursor after, int limit);
+}
@@ -0,0 +1,55 @@
+package com.splitz.expense.repository;
+
+import com.splitz.expense.dto.ActivityLogFilter;
+import com.splitz.expense.model.ActivityLog;
+import com.splitz.expense.pagination.ActivityLogCursor;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.persistence.Tuple;
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.CriteriaQuery;
+import jakarta.persistence.criteria.Path;
+import jakarta.persistence.criteria.Predicate;
+import jakarta.persistence.criteria.Root;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+/** Builds the activity feed query with only the filters that are set. */
+class ActivityLogRepositoryImpl implements ActivityLogRepositoryCustom {
+
+  @PersistenceContext private EntityManager entityManager;
+
+  @Override
+  public List<ActivityLogCursor> findFeedKeys(
+      Long groupId, ActivityLogFilter filter, ActivityLogCursor after, int limit) {
+    CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+    CriteriaQuery<Tuple> query = cb.createTupleQuery();
+    Root<ActivityLog> activity = query.from(ActivityLog.class);
+    Path<LocalDateTime> timestamp = activity.get("timestamp");
+    Path<Long> id = activity.get("id");
+
+    List<Predicate> predicates = new ArrayList<>();
+    predicates.add(cb.equal(activity.get("groupId"), groupId));
+    if (filter.getType() != null) {
+      predicates.add(cb.equal(activity.get("type"), filter.getType()));
+    }
+    if (filter.getActorId() != null) {
+      predicates.add(cb.equal(activity.get("actorId"), filter.getActorId()));
+    }
+    if (after != null) {
+      // (timestamp, id) < (after.timestamp, after.id), with the timestamp bound on its own so the
+      // (group_id, timestamp, id) index can range-scan it
+      predicates.add(cb.lessThanOrEqualTo(timestamp, after.timestamp()));
+      predicates.add(cb.or(cb.lessThan(timestamp, after.timestamp()), cb.lessThan(id, after.id())));
+    }
+
+    query
+        .multiselect(timestamp, id)
+        .where(predicates.toArray(Predicate[]::new))
+        .orderBy(cb.desc(timestamp), cb.desc(id));
+    return entityManager.createQuery(query).setMaxResults(limit).getResultList().stream()
+        .map(row -> new ActivityLogCursor(row.get(0, LocalDateTime.class), row.get(1, Long.class)))
+        .toList();
+  }
+}
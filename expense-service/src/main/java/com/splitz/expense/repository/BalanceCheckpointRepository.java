@@ -0,0 +1,42 @@
+package com.splitz.expense.repository;
+
+import com.splitz.expense.model.BalanceCheckpoint;
+import java.util.List;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+@Repository
+public interface BalanceCheckpointRepository extends JpaRepository<BalanceCheckpoint, Long> {
+
+  @Modifying
+  @Query(
+      "DELETE FROM BalanceCheckpoint c WHERE c.groupId = :groupId AND c.expenseIdMark >= :expenseId")
+  int deleteCoveringExpense(@Param("groupId") Long groupId, @Param("expenseId") Long expenseId);
+
+  @Modifying
+  @Query(
+      "DELETE FROM BalanceCheckpoint c WHERE c.groupId = :groupId AND c.settlementIdMark >="
+          + " :settlementId")
+  int deleteCoveringSettlement(
+      @Param("groupId") Long groupId, @Param("settlementId") Long settlementId);
+
+  @Modifying
+  @Query(
+      "DELETE FROM BalanceCheckpoint c WHERE c.groupId = :groupId AND"
+          + " c.friendshipSettlementIdMark >= :settlementId")
+  int deleteCoveringFriendshipSettlement(
+      @Param("groupId") Long groupId, @Param("settlementId") Long settlementId);
+
+  /**
+   * Groups with at least {@code minNewExpenses} expenses after their checkpoint, counting every
+   * expense of groups that have none.
+   */
+  @Query(
+      "SELECT e.group.id FROM Expense e LEFT JOIN BalanceCheckpoint c ON c.groupId = e.group.id"
+          + " WHERE c.groupId IS NULL OR e.id > c.expenseIdMark GROUP BY e.group.id"
+          + " HAVING COUNT(e) >= :minNewExpenses ORDER BY e.group.id")
+  List<Long> findGroupsDueForCheckpoint(@Param("minNewExpenses") long minNewExpenses);
+}
@@ -0,0 +1,20 @@
+package com.splitz.expense.repository;
+
+import jakarta.persistence.EntityManager;
+import org.hibernate.dialect.PostgreSQLDialect;
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+
+/** Picks the vendor SQL for native queries: Postgres in production, H2 in tests. */
+final class Dialects {
+
+  private Dialects() {}
+
+  static boolean isPostgres(EntityManager entityManager) {
+    return entityManager
+            .getEntityManagerFactory()
+            .unwrap(SessionFactoryImplementor.class)
+            .getJdbcServices()
+            .getDialect()
+        instanceof PostgreSQLDialect;
+  }
+}
@@ -1,20 +1,31 @@
 package com.splitz.expense.repository;
 
 import com.splitz.expense.model.Expense;
+import com.splitz.expense.pagination.ExpenseCursor;
+import com.splitz.expense.streaming.RowStreamer;
+import jakarta.persistence.QueryHint;
 import java.math.BigDecimal;
+import java.time.LocalDate;
 import java.util.Collection;
 import java.util.List;
+import java.util.stream.Stream;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 @Repository
-public interface ExpenseRepository extends JpaRepository<Expense, Long> {
+public interface ExpenseRepository extends JpaRepository<Expense, Long>, ExpenseRepositoryCustom {
 
   List<Expense> findByGroupId(Long groupId);
 
-  List<Expense> findByGroupIdIn(Collection<Long> groupIds);
+  /** Loads a page of expenses found by {@link #findPageKeys} together with their splits. */
+  @EntityGraph(attributePaths = "splits")
+  List<Expense> findWithSplitsByIdIn(Collection<Long> ids);
 
   @Query(
       "SELECT COALESCE(SUM(s.shareAmount), 0) FROM Expense e JOIN e.splits s WHERE e.group.id IN"
@@ -40,6 +51,90 @@ public interface ExpenseRepository extends JpaRepository<Expense, Long> {
       @Param("userId") Long userId, @Param("groupId") Long groupId);
 
   @Query(
-      "SELECT DISTINCT e FROM Expense e LEFT JOIN e.splits s WHERE e.paidBy = :userId OR s.userId = :userId")
+      "SELECT e.group.id AS groupId, SUM(e.amount) AS amount FROM Expense e WHERE e.paidBy ="
+          + " :userId GROUP BY e.group.id")
+  List<GroupAmount> sumPaidByUserPerGroup(@Param("userId") Long userId);
+
+  @Query(
+      "SELECT e.group.id AS groupId, SUM(s.shareAmount) AS amount FROM Expense e JOIN e.splits s"
+          + " WHERE s.userId = :userId GROUP BY e.group.id")
+  List<GroupAmount> sumShareForUserPerGroup(@Param("userId") Long userId);
+
+  /**
+   * Per-member {@code (user_id, paid, owed, settled_out, settled_in)} totals of a group, summed in
+   * the database so no expense or split entities are hydrated.
+   */
+  default List<Object[]> aggregateMemberTotals(Long groupId) {
+    return aggregateMemberTotalsBetween(
+        groupId, 0, Long.MAX_VALUE, 0, Long.MAX_VALUE, 0, Long.MAX_VALUE);
+  }
+
+  /**
+   * Same totals restricted to expense, settlement and friendship settlement ids in {@code (after,
+   * upTo]}, used to replay the rows around a balance checkpoint.
+   */
+  @Query(
+      value =
+          "SELECT user_id, SUM(paid), SUM(owed), SUM(settled_out), SUM(settled_in) FROM ("
+              + " SELECT e.paid_by AS user_id, e.amount AS paid, 0 AS owed, 0 AS settled_out,"
+              + " 0 AS settled_in FROM expenses e WHERE e.group_id = :groupId"
+              + " AND e.id > :expenseAfter AND e.id <= :expenseUpTo"
+              + " UNION ALL SELECT s.user_id, 0, s.share_amount, 0, 0 FROM expense_splits s"
+              + " JOIN expenses e ON e.id = s.expense_id WHERE e.group_id = :groupId"
+              + " AND e.id > :expenseAfter AND e.id <= :expenseUpTo"
+              + " UNION ALL SELECT payer_id, 0, 0, amount, 0 FROM settlements"
+              + " WHERE group_id = :groupId AND status = 'COMPLETED'"
+              + " AND id > :settlementAfter AND id <= :settlementUpTo"
+              + " UNION ALL SELECT payee_id, 0, 0, 0, amount FROM settlements"
+              + " WHERE group_id = :groupId AND status = 'COMPLETED'"
+              + " AND id > :settlementAfter AND id <= :settlementUpTo"
+              + " UNION ALL SELECT payer_id, 0, 0, amount, 0 FROM friendship_settlements"
+              + " WHERE group_id = :groupId AND status = 'COMPLETED'"
+              + " AND id > :friendshipAfter AND id <= :friendshipUpTo"
+              + " UNION ALL SELECT payee_id, 0, 0, 0, amount FROM friendship_settlements"
+              + " WHERE group_id = :groupId AND status = 'COMPLETED'"
+              + " AND id > :friendshipAfter AND id <= :friendshipUpTo"
+              + ") totals GROUP BY user_id",
+      nativeQuery = true)
+  List<Object[]> aggregateMemberTotalsBetween(
+      @Param("groupId") Long groupId,
+      @Param("expenseAfter") long expenseAfter,
+      @Param("expenseUpTo") long expenseUpTo,
+      @Param("settlementAfter") long settlementAfter,
+      @Param("settlementUpTo") long settlementUpTo,
+      @Param("friendshipAfter") long friendshipAfter,
+      @Param("friendshipUpTo") long friendshipUpTo);
+
+  @Query("SELECT COALESCE(MAX(e.id), 0) FROM Expense e WHERE e.group.id = :groupId")
+  long findMaxIdByGroupId(@Param("groupId") Long groupId);
+
+  /** Expenses a user paid or shares, newest first, fetched with their splits in one select. */
+  @Query(
+      "SELECT e FROM Expense e WHERE e.paidBy = :userId OR EXISTS (SELECT s.id FROM ExpenseSplit s"
+          + " WHERE s.expense = e AND s.userId = :userId) ORDER BY e.expenseDate DESC, e.id DESC")
+  @EntityGraph(attributePaths = "splits")
   List<Expense> findAllByInvolvedUserId(@Param("userId") Long userId);
+
+  /** Ids of the expenses a user paid or shares, newest first, read through a cursor. */
+  @Query(
+      "SELECT e.id FROM Expense e WHERE e.paidBy = :userId OR EXISTS (SELECT s.id FROM"
+          + " ExpenseSplit s WHERE s.expense = e AND s.userId = :userId)"
+          + " ORDER BY e.expenseDate DESC, e.id DESC")
+  @QueryHints(
+      @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "" + RowStreamer.FETCH_SIZE))
+  Stream<Long> streamIdsByInvolvedUserId(@Param("userId") Long userId);
+
+  /**
+   * Activity timeline keys of the expenses a user paid, newest first, starting after {@code (date,
+   * id)}.
+   */
+  @Query(
+      "SELECT new com.splitz.expense.pagination.ExpenseCursor(e.expenseDate, e.id) FROM Expense e"
+          + " WHERE e.paidBy = :userId AND e.expenseDate <= :date AND (e.expenseDate < :date OR"
+          + " e.id < :id) ORDER BY e.expenseDate DESC, e.id DESC")
+  List<ExpenseCursor> findTimelineKeysPaidBy(
+      @Param("userId") Long userId,
+      @Param("date") LocalDate date,
+      @Param("id") long id,
+      Pageable pageable);
 }
@@ -0,0 +1,43 @@
+package com.splitz.expense.repository;
+
+import com.splitz.expense.dto.ExpenseFilter;
+import com.splitz.expense.model.Expense;
+import com.splitz.expense.pagination.ExpenseCursor;
+import com.splitz.expense.pagination.ExpenseSearchCursor;
+import java.util.Collection;
+import java.util.List;
+import java.util.stream.Stream;
+
+public interface ExpenseRepositoryCustom {
+
+  /**
+   * Keys of the next {@code limit} expenses of the groups matching {@code filter}, newest first by
+   * {@code (expense_date, id)} and starting after {@code after} (null for the first page). No count
+   * query is run.
+   */
+  List<ExpenseCursor> findPageKeys(
+      Collection<Long> groupIds, ExpenseFilter filter, ExpenseCursor after, int limit);
+
+  /**
+   * Ids of all expenses of the groups matching {@code filter}, in listing order, read through a
+   * cursor. Must be consumed, and closed, inside a transaction.
+   */
+  Stream<Long> streamIds(Collection<Long> groupIds, ExpenseFilter filter);
+
+  /**
+   * Keys of the next {@code limit} expenses of the groups whose description or notes contain every
+   * one of {@code terms} (lowercase words, matched as prefixes), best match first and starting
+   * after {@code after} (null for the first page). On Postgres this is a full-text query on the
+   * GIN-indexed {@code search_vector} column ranked by {@code ts_rank}; other databases fall back
+   * to substring matching, unranked and newest first.
+   */
+  List<ExpenseSearchCursor> searchPageKeys(
+      Collection<Long> groupIds, List<String> terms, ExpenseSearchCursor after, int limit);
+
+  /**
+   * Locks the row of a loaded expense and increments its version right away, for split changes that
+   * would otherwise leave the expense row and its ETag untouched. A lookup with a lock mode does
+   * not do this for an expense the persistence context already holds.
+   */
+  void incrementVersion(Expense expense);
+}
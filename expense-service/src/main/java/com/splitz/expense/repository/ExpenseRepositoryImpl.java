@@ -0,0 +1,204 @@
+package com.splitz.expense.repository;
+
+import com.splitz.expense.dto.ExpenseFilter;
+import com.splitz.expense.model.Expense;
+import com.splitz.expense.model.ExpenseSplit;
+import com.splitz.expense.pagination.ExpenseCursor;
+import com.splitz.expense.pagination.ExpenseSearchCursor;
+import com.splitz.expense.streaming.RowStreamer;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.LockModeType;
+import jakarta.persistence.PersistenceContext;
+import jakarta.persistence.Tuple;
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.CriteriaQuery;
+import jakarta.persistence.criteria.Path;
+import jakarta.persistence.criteria.Predicate;
+import jakarta.persistence.criteria.Root;
+import jakarta.persistence.criteria.Subquery;
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+import org.hibernate.jpa.HibernateHints;
+import org.hibernate.query.NativeQuery;
+
+/**
+ * Builds the expense listing query with only the filters that are set, and the search query for the
+ * database in use.
+ */
+class ExpenseRepositoryImpl implements ExpenseRepositoryCustom {
+
+  @PersistenceContext private EntityManager entityManager;
+
+  @Override
+  public void incrementVersion(Expense expense) {
+    // The increment updates the row directly, so pending writes to it must go out first
+    entityManager.flush();
+    entityManager.lock(expense, LockModeType.PESSIMISTIC_FORCE_INCREMENT);
+  }
+
+  @Override
+  public List<ExpenseCursor> findPageKeys(
+      Collection<Long> groupIds, ExpenseFilter filter, ExpenseCursor after, int limit) {
+    CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+    CriteriaQuery<Tuple> query = cb.createTupleQuery();
+    Root<Expense> expense = query.from(Expense.class);
+    Path<LocalDate> date = expense.get("expenseDate");
+    Path<Long> id = expense.get("id");
+
+    List<Predicate> predicates = listingPredicates(cb, query, expense, groupIds, filter);
+    if (after != null) {
+      // (date, id) < (after.date, after.id), with the date bound on its own so the
+      // (group_id, expense_date, id) index can range-scan it
+      predicates.add(cb.lessThanOrEqualTo(date, after.expenseDate()));
+      predicates.add(cb.or(cb.lessThan(date, after.expenseDate()), cb.lessThan(id, after.id())));
+    }
+
+    query
+        .multiselect(date, id)
+        .where(predicates.toArray(Predicate[]::new))
+        .orderBy(cb.desc(date), cb.desc(id));
+    return entityManager.createQuery(query).setMaxResults(limit).getResultList().stream()
+        .map(row -> new ExpenseCursor(row.get(0, LocalDate.class), row.get(1, Long.class)))
+        .toList();
+  }
+
+  @Override
+  public Stream<Long> streamIds(Collection<Long> groupIds, ExpenseFilter filter) {
+    CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+    CriteriaQuery<Long> query = cb.createQuery(Long.class);
+    Root<Expense> expense = query.from(Expense.class);
+
+    query
+        .select(expense.<Long>get("id"))
+        .where(listingPredicates(cb, query, expense, groupIds, filter).toArray(Predicate[]::new))
+        .orderBy(cb.desc(expense.get("expenseDate")), cb.desc(expense.get("id")));
+    return entityManager
+        .createQuery(query)
+        .setHint(HibernateHints.HINT_FETCH_SIZE, RowStreamer.FETCH_SIZE)
+        .getResultStream();
+  }
+
+  private static List<Predicate> listingPredicates(
+      CriteriaBuilder cb,
+      CriteriaQuery<?> query,
+      Root<Expense> expense,
+      Collection<Long> groupIds,
+      ExpenseFilter filter) {
+    Path<LocalDate> date = expense.get("expenseDate");
+    Path<BigDecimal> amount = expense.get("amount");
+
+    List<Predicate> predicates = new ArrayList<>();
+    predicates.add(expense.get("group").get("id").in(groupIds));
+    if (filter.getFrom() != null) {
+      predicates.add(cb.greaterThanOrEqualTo(date, filter.getFrom()));
+    }
+    if (filter.getTo() != null) {
+      predicates.add(cb.lessThanOrEqualTo(date, filter.getTo()));
+    }
+    if (filter.getPaidBy() != null) {
+      predicates.add(cb.equal(expense.get("paidBy"), filter.getPaidBy()));
+    }
+    if (filter.getCategoryId() != null) {
+      predicates.add(cb.equal(expense.get("category").get("id"), filter.getCategoryId()));
+    }
+    if (filter.getMinAmount() != null) {
+      predicates.add(cb.greaterThanOrEqualTo(amount, filter.getMinAmount()));
+    }
+    if (filter.getMaxAmount() != null) {
+      predicates.add(cb.lessThanOrEqualTo(amount, filter.getMaxAmount()));
+    }
+    if (filter.getParticipantId() != null) {
+      Subquery<Long> participant = query.subquery(Long.class);
+      Root<ExpenseSplit> split = participant.from(ExpenseSplit.class);
+      participant
+          .select(split.get("id"))
+          .where(
+              cb.equal(split.get("expense"), expense),
+              cb.equal(split.get("userId"), filter.getParticipantId()));
+      predicates.add(cb.exists(participant));
+    }
+    return predicates;
+  }
+
+  @Override
+  public List<ExpenseSearchCursor> searchPageKeys(
+      Collection<Long> groupIds, List<String> terms, ExpenseSearchCursor after, int limit) {
+    return Dialects.isPostgres(entityManager)
+        ? fullTextSearch(groupIds, terms, after, limit)
+        : substringSearch(groupIds, terms, after, limit);
+  }
+
+  @SuppressWarnings("unchecked")
+  private List<ExpenseSearchCursor> fullTextSearch(
+      Collection<Long> groupIds, List<String> terms, ExpenseSearchCursor after, int limit) {
+    StringBuilder sql =
+        new StringBuilder(
+            "SELECT id, expense_date, rank FROM ("
+                + " SELECT e.id, e.expense_date, ts_rank(e.search_vector, q) AS rank"
+                + " FROM expenses e CROSS JOIN to_tsquery('simple', :query) q"
+                + " WHERE e.group_id IN (:groupIds) AND e.search_vector @@ q"
+                + ") matches");
+    if (after != null) {
+      sql.append(" WHERE (rank, expense_date, id) < (CAST(:rank AS REAL), :expenseDate, :id)");
+    }
+    sql.append(" ORDER BY rank DESC, expense_date DESC, id DESC");
+
+    NativeQuery<Object[]> query =
+        entityManager
+            .createNativeQuery(sql.toString())
+            .unwrap(NativeQuery.class)
+            .addScalar("id", Long.class)
+            .addScalar("expense_date", LocalDate.class)
+            .addScalar("rank", Float.class);
+    // Terms are plain words, so they are safe in tsquery syntax; ":*" makes each one a prefix
+    query.setParameter(
+        "query", terms.stream().map(term -> term + ":*").collect(Collectors.joining(" & ")));
+    query.setParameterList("groupIds", groupIds);
+    if (after != null) {
+      query.setParameter("rank", after.rank());
+      query.setParameter("expenseDate", after.expenseDate());
+      query.setParameter("id", after.id());
+    }
+    return query.setMaxResults(limit).getResultList().stream()
+        .map(row -> new ExpenseSearchCursor((Float) row[2], (LocalDate) row[1], (Long) row[0]))
+        .toList();
+  }
+
+  /** H2 fallback for the dev profile and tests: every term must occur somewhere in the text. */
+  private List<ExpenseSearchCursor> substringSearch(
+      Collection<Long> groupIds, List<String> terms, ExpenseSearchCursor after, int limit) {
+    CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+    CriteriaQuery<Tuple> query = cb.createTupleQuery();
+    Root<Expense> expense = query.from(Expense.class);
+    Path<LocalDate> date = expense.get("expenseDate");
+    Path<Long> id = expense.get("id");
+
+    List<Predicate> predicates = new ArrayList<>();
+    predicates.add(expense.get("group").get("id").in(groupIds));
+    for (String term : terms) {
+      String pattern = "%" + term + "%";
+      predicates.add(
+          cb.or(
+              cb.like(cb.lower(expense.<String>get("description")), pattern),
+              cb.like(cb.lower(cb.coalesce(expense.<String>get("notes"), "")), pattern)));
+    }
+    if (after != null) {
+      predicates.add(cb.lessThanOrEqualTo(date, after.expenseDate()));
+      predicates.add(cb.or(cb.lessThan(date, after.expenseDate()), cb.lessThan(id, after.id())));
+    }
+
+    query
+        .multiselect(date, id)
+        .where(predicates.toArray(Predicate[]::new))
+        .orderBy(cb.desc(date), cb.desc(id));
+    return entityManager.createQuery(query).setMaxResults(limit).getResultList().stream()
+        .map(
+            row -> new ExpenseSearchCursor(0f, row.get(0, LocalDate.class), row.get(1, Long.class)))
+        .toList();
+  }
+}
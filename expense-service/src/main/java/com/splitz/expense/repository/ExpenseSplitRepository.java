@@ -1,12 +1,32 @@
 package com.splitz.expense.repository;
 
 import com.splitz.expense.model.ExpenseSplit;
+import com.splitz.expense.pagination.ExpenseCursor;
+import java.time.LocalDate;
 import java.util.List;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 @Repository
 public interface ExpenseSplitRepository extends JpaRepository<ExpenseSplit, Long> {
 
   List<ExpenseSplit> findByExpenseId(Long expenseId);
+
+  /**
+   * Activity timeline keys of the expenses a user has a share of, newest first, starting after
+   * {@code (date, id)}. Read from the splits alone, which carry their expense's date.
+   */
+  @Query(
+      "SELECT new com.splitz.expense.pagination.ExpenseCursor(s.expenseDate, s.expense.id) FROM"
+          + " ExpenseSplit s WHERE s.userId = :userId AND s.expenseDate <= :date AND"
+          + " (s.expenseDate < :date OR s.expense.id < :id)"
+          + " ORDER BY s.expenseDate DESC, s.expense.id DESC")
+  List<ExpenseCursor> findTimelineKeysOwedBy(
+      @Param("userId") Long userId,
+      @Param("date") LocalDate date,
+      @Param("id") long id,
+      Pageable pageable);
 }
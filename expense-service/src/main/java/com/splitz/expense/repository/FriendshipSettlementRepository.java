@@ -4,8 +4,10 @@ import com.splitz.expense.model.FriendshipSettlement;
 import com.splitz.expense.model.SettlementStatus;
 import jakarta.persistence.LockModeType;
 import java.math.BigDecimal;
+import java.time.LocalDateTime;
 import java.util.List;
 import java.util.Optional;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Lock;
 import org.springframework.data.jpa.repository.Query;
@@ -30,6 +32,22 @@ public interface FriendshipSettlementRepository extends JpaRepository<Friendship
 
   List<FriendshipSettlement> findByGroupId(Long groupId);
 
+  List<FriendshipSettlement> findByGroupIdIsNull();
+
+  @Query("SELECT COALESCE(MAX(fs.id), 0) FROM FriendshipSettlement fs WHERE fs.groupId = :groupId")
+  long findMaxIdByGroupId(@Param("groupId") Long groupId);
+
+  /**
+   * Net amount settled by the user per group: paid out minus received. Settlements made outside of
+   * any group are reported under a {@code null} group id.
+   */
+  @Query(
+      "SELECT fs.groupId AS groupId, SUM(CASE WHEN fs.payerId = :userId THEN fs.amount ELSE"
+          + " -fs.amount END) AS amount FROM FriendshipSettlement fs WHERE (fs.payerId = :userId OR"
+          + " fs.payeeId = :userId) AND fs.status = :status GROUP BY fs.groupId")
+  List<GroupAmount> sumNetSettledByUserPerGroup(
+      @Param("userId") Long userId, @Param("status") SettlementStatus status);
+
   @Query(
       "SELECT COALESCE(SUM(fs.amount), 0) FROM FriendshipSettlement fs WHERE fs.groupId ="
           + " :groupId AND fs.payerId = :userId AND fs.status = :status")
@@ -63,4 +81,32 @@ public interface FriendshipSettlementRepository extends JpaRepository<Friendship
       @Param("payerId") Long payerId,
       @Param("payeeId") Long payeeId,
       @Param("status") SettlementStatus status);
+
+  /**
+   * Activity timeline keys of the settlements a user paid, newest first, starting after {@code (at,
+   * id)}.
+   */
+  @Query(
+      "SELECT fs.createdAt AS createdAt, fs.id AS id FROM FriendshipSettlement fs"
+          + " WHERE fs.payerId = :userId AND fs.createdAt <= :at AND (fs.createdAt < :at OR fs.id < :id)"
+          + " ORDER BY fs.createdAt DESC, fs.id DESC")
+  List<TimelineKey> findTimelineKeysPaidBy(
+      @Param("userId") Long userId,
+      @Param("at") LocalDateTime at,
+      @Param("id") long id,
+      Pageable pageable);
+
+  /**
+   * Activity timeline keys of the settlements a user received, newest first, starting after {@code
+   * (at, id)}.
+   */
+  @Query(
+      "SELECT fs.createdAt AS createdAt, fs.id AS id FROM FriendshipSettlement fs"
+          + " WHERE fs.payeeId = :userId AND fs.createdAt <= :at AND (fs.createdAt < :at OR fs.id < :id)"
+          + " ORDER BY fs.createdAt DESC, fs.id DESC")
+  List<TimelineKey> findTimelineKeysReceivedBy(
+      @Param("userId") Long userId,
+      @Param("at") LocalDateTime at,
+      @Param("id") long id,
+      Pageable pageable);
 }
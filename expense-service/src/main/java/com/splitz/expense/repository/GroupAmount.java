@@ -0,0 +1,11 @@
+package com.splitz.expense.repository;
+
+import java.math.BigDecimal;
+
+/** Projection for aggregate queries that return one summed amount per group. */
+public interface GroupAmount {
+
+  Long getGroupId();
+
+  BigDecimal getAmount();
+}
@@ -0,0 +1,20 @@
+package com.splitz.expense.repository;
+
+import com.splitz.expense.model.GroupMemberBalance;
+import java.util.List;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+@Repository
+public interface GroupMemberBalanceRepository
+    extends JpaRepository<GroupMemberBalance, Long>, GroupMemberBalanceRepositoryCustom {
+
+  List<GroupMemberBalance> findByGroupId(Long groupId);
+
+  @Modifying
+  @Query("DELETE FROM GroupMemberBalance b WHERE b.groupId = :groupId")
+  void deleteByGroupId(@Param("groupId") Long groupId);
+}
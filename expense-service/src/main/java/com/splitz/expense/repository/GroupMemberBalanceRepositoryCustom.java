@@ -0,0 +1,12 @@
+package com.splitz.expense.repository;
+
+import java.math.BigDecimal;
+
+public interface GroupMemberBalanceRepositoryCustom {
+
+  /**
+   * Adds {@code delta} to a member's balance, creating the row at {@code delta} when the member has
+   * none yet. One statement does both, so concurrent first writes of a member cannot both insert.
+   */
+  void upsertBalance(Long groupId, Long userId, BigDecimal delta);
+}
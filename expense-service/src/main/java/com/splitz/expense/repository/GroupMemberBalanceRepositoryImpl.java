@@ -0,0 +1,41 @@
+package com.splitz.expense.repository;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import java.math.BigDecimal;
+
+/**
+ * Upserts member balances with {@code INSERT ... ON CONFLICT} on Postgres and {@code MERGE} on H2,
+ * which has no {@code DO UPDATE}.
+ */
+class GroupMemberBalanceRepositoryImpl implements GroupMemberBalanceRepositoryCustom {
+
+  private static final String POSTGRES_UPSERT =
+      "INSERT INTO group_member_balances (group_id, user_id, balance)"
+          + " VALUES (:groupId, :userId, :delta)"
+          + " ON CONFLICT (group_id, user_id) DO UPDATE"
+          + " SET balance = group_member_balances.balance + EXCLUDED.balance,"
+          + " updated_at = CURRENT_TIMESTAMP";
+
+  private static final String MERGE =
+      "MERGE INTO group_member_balances b"
+          + " USING (SELECT CAST(:groupId AS BIGINT) AS group_id,"
+          + " CAST(:userId AS BIGINT) AS user_id, CAST(:delta AS DECIMAL(19, 2)) AS delta) d"
+          + " ON b.group_id = d.group_id AND b.user_id = d.user_id"
+          + " WHEN MATCHED THEN UPDATE"
+          + " SET balance = b.balance + d.delta, updated_at = CURRENT_TIMESTAMP"
+          + " WHEN NOT MATCHED THEN INSERT (group_id, user_id, balance)"
+          + " VALUES (d.group_id, d.user_id, d.delta)";
+
+  @PersistenceContext private EntityManager entityManager;
+
+  @Override
+  public void upsertBalance(Long groupId, Long userId, BigDecimal delta) {
+    entityManager
+        .createNativeQuery(Dialects.isPostgres(entityManager) ? POSTGRES_UPSERT : MERGE)
+        .setParameter("groupId", groupId)
+        .setParameter("userId", userId)
+        .setParameter("delta", delta)
+        .executeUpdate();
+  }
+}
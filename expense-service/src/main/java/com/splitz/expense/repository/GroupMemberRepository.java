@@ -3,6 +3,7 @@ package com.splitz.expense.repository;
 import com.splitz.expense.model.GroupMember;
 import java.util.List;
 import java.util.Optional;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.stereotype.Repository;
 
@@ -18,4 +19,7 @@ public interface GroupMemberRepository extends JpaRepository<GroupMember, Long>
   List<GroupMember> findByGroupIdIn(List<Long> groupIds);
 
   List<GroupMember> findByUserId(Long userId);
+
+  @EntityGraph(attributePaths = "group")
+  List<GroupMember> findWithGroupByUserId(Long userId);
 }
@@ -1,10 +1,15 @@
 package com.splitz.expense.repository;
 
 import com.splitz.expense.model.Group;
+import jakarta.persistence.LockModeType;
 import java.util.List;
 import java.util.Optional;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.lang.NonNull;
 import org.springframework.stereotype.Repository;
 
@@ -18,4 +23,29 @@ public interface GroupRepository extends JpaRepository<Group, Long> {
   @NonNull
   @EntityGraph(attributePaths = "members")
   Optional<Group> findById(@NonNull Long id);
+
+  @Query("SELECT g.id FROM Group g ORDER BY g.id")
+  List<Long> findAllIds();
+
+  /** The next page of group ids after {@code afterId}, for walking all groups in batches. */
+  @Query("SELECT g.id FROM Group g WHERE g.id > :afterId ORDER BY g.id")
+  List<Long> findIdsAfter(@Param("afterId") Long afterId, Pageable pageable);
+
+  /**
+   * Locks the group row and increments its version right away, for member changes that would
+   * otherwise leave the group row and its ETag untouched.
+   */
+  @Lock(LockModeType.PESSIMISTIC_FORCE_INCREMENT)
+  @Query("SELECT g FROM Group g WHERE g.id = :id")
+  Optional<Group> findByIdForMemberChange(@Param("id") Long id);
+
+  /** Exclusive lock on the group row, held while a balance checkpoint is taken. */
+  @Lock(LockModeType.PESSIMISTIC_WRITE)
+  @Query("SELECT g FROM Group g WHERE g.id = :id")
+  Optional<Group> findByIdForCheckpoint(@Param("id") Long id);
+
+  /** Shared lock on the group row, taken by writes that may invalidate a balance checkpoint. */
+  @Lock(LockModeType.PESSIMISTIC_READ)
+  @Query("SELECT g FROM Group g WHERE g.id = :id")
+  Optional<Group> findByIdForBalanceWrite(@Param("id") Long id);
 }
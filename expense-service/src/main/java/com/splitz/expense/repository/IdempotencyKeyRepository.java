@@ -0,0 +1,50 @@
+package com.splitz.expense.repository;
+
+import com.splitz.expense.model.IdempotencyKey;
+import com.splitz.expense.model.IdempotencyKeyStatus;
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.Optional;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+@Repository
+public interface IdempotencyKeyRepository extends JpaRepository<IdempotencyKey, Long> {
+
+  Optional<IdempotencyKey> findByUserIdAndIdempotencyKey(Long userId, String idempotencyKey);
+
+  /** Stores the response of a claim; returns 0 when the claim was taken over in the meantime. */
+  @Modifying
+  @Query(
+      "UPDATE IdempotencyKey k SET k.status = :completed, k.responseStatus = :responseStatus,"
+          + " k.responseContentType = :contentType, k.responseBody = :body WHERE k.id = :id AND"
+          + " k.status = :inProgress")
+  int complete(
+      @Param("id") Long id,
+      @Param("responseStatus") int responseStatus,
+      @Param("contentType") String contentType,
+      @Param("body") String body,
+      @Param("inProgress") IdempotencyKeyStatus inProgress,
+      @Param("completed") IdempotencyKeyStatus completed);
+
+  @Modifying
+  @Query(
+      "UPDATE IdempotencyKey k SET k.heartbeatAt = :now WHERE k.id IN :ids AND k.status ="
+          + " :inProgress")
+  int heartbeat(
+      @Param("ids") Collection<Long> ids,
+      @Param("now") LocalDateTime now,
+      @Param("inProgress") IdempotencyKeyStatus inProgress);
+
+  /** Deletes one claim; a claim taken again in the meantime has a new id and stays. */
+  @Modifying
+  @Query("DELETE FROM IdempotencyKey k WHERE k.id = :id")
+  int deleteClaim(@Param("id") Long id);
+
+  @Modifying
+  @Query("DELETE FROM IdempotencyKey k WHERE k.expiresAt < :now")
+  int deleteExpired(@Param("now") LocalDateTime now);
+}
@@ -0,0 +1,21 @@
+package com.splitz.expense.repository;
+
+import com.splitz.expense.model.LedgerBalance;
+import java.math.BigDecimal;
+import java.util.List;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+@Repository
+public interface LedgerBalanceRepository
+    extends JpaRepository<LedgerBalance, Long>, LedgerBalanceRepositoryCustom {
+
+  List<LedgerBalance> findByGroupId(Long groupId);
+
+  @Query(
+      "SELECT b.balance FROM LedgerBalance b WHERE ((:groupId IS NULL AND b.groupId IS NULL) OR"
+          + " (b.groupId = :groupId)) AND b.userId = :userId")
+  BigDecimal findBalance(@Param("groupId") Long groupId, @Param("userId") Long userId);
+}
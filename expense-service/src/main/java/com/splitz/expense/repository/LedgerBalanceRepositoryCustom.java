@@ -0,0 +1,13 @@
+package com.splitz.expense.repository;
+
+import java.math.BigDecimal;
+
+public interface LedgerBalanceRepositoryCustom {
+
+  /**
+   * Adds {@code delta} to a user's account in a group, or outside of any group when {@code groupId}
+   * is null, opening the account at {@code delta} when there is none yet. The row stays locked
+   * until the transaction ends.
+   */
+  void upsertBalance(Long groupId, Long userId, BigDecimal delta);
+}
@@ -0,0 +1,56 @@
+package com.splitz.expense.repository;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import java.math.BigDecimal;
+
+/**
+ * Upserts ledger accounts like {@link GroupMemberBalanceRepositoryImpl}. On Postgres, accounts
+ * outside of any group conflict on the partial index {@code uk_ledger_balance_no_group}, since
+ * {@code uk_ledger_balance} never matches a null group.
+ */
+class LedgerBalanceRepositoryImpl implements LedgerBalanceRepositoryCustom {
+
+  private static final String POSTGRES_UPSERT =
+      "INSERT INTO ledger_balances (group_id, user_id, balance)"
+          + " VALUES (:groupId, :userId, :delta)"
+          + " ON CONFLICT %s DO UPDATE"
+          + " SET balance = ledger_balances.balance + EXCLUDED.balance,"
+          + " updated_at = CURRENT_TIMESTAMP";
+
+  private static final String POSTGRES_GROUP_UPSERT =
+      POSTGRES_UPSERT.formatted("(user_id, group_id)");
+
+  private static final String POSTGRES_NO_GROUP_UPSERT =
+      POSTGRES_UPSERT.formatted("(user_id) WHERE group_id IS NULL");
+
+  private static final String MERGE =
+      "MERGE INTO ledger_balances b"
+          + " USING (SELECT CAST(:groupId AS BIGINT) AS group_id,"
+          + " CAST(:userId AS BIGINT) AS user_id, CAST(:delta AS DECIMAL(19, 2)) AS delta) d"
+          + " ON b.group_id IS NOT DISTINCT FROM d.group_id AND b.user_id = d.user_id"
+          + " WHEN MATCHED THEN UPDATE"
+          + " SET balance = b.balance + d.delta, updated_at = CURRENT_TIMESTAMP"
+          + " WHEN NOT MATCHED THEN INSERT (group_id, user_id, balance)"
+          + " VALUES (d.group_id, d.user_id, d.delta)";
+
+  @PersistenceContext private EntityManager entityManager;
+
+  @Override
+  public void upsertBalance(Long groupId, Long userId, BigDecimal delta) {
+    String sql;
+    if (!Dialects.isPostgres(entityManager)) {
+      sql = MERGE;
+    } else if (groupId == null) {
+      sql = POSTGRES_NO_GROUP_UPSERT;
+    } else {
+      sql = POSTGRES_GROUP_UPSERT;
+    }
+    entityManager
+        .createNativeQuery(sql)
+        .setParameter("groupId", groupId)
+        .setParameter("userId", userId)
+        .setParameter("delta", delta)
+        .executeUpdate();
+  }
+}
@@ -0,0 +1,31 @@
+package com.splitz.expense.repository;
+
+import com.splitz.expense.model.LedgerEntry;
+import java.time.LocalDateTime;
+import java.util.List;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+@Repository
+public interface LedgerEntryRepository extends JpaRepository<LedgerEntry, Long> {
+
+  /** The last entry of every member account of a group written at or before {@code asOf}. */
+  @Query(
+      "SELECT e FROM LedgerEntry e WHERE e.id IN (SELECT MAX(l.id) FROM LedgerEntry l WHERE"
+          + " l.groupId = :groupId AND l.createdAt <= :asOf GROUP BY l.userId)")
+  List<LedgerEntry> findLatestByGroupIdAsOf(
+      @Param("groupId") Long groupId, @Param("asOf") LocalDateTime asOf);
+
+  /**
+   * A user's running balance per group at {@code asOf}, read from the last entry of each account; a
+   * {@code null} group holds friendship settlements made outside of any group.
+   */
+  @Query(
+      "SELECT e.groupId AS groupId, e.runningBalance AS amount FROM LedgerEntry e WHERE e.id IN"
+          + " (SELECT MAX(l.id) FROM LedgerEntry l WHERE l.userId = :userId AND l.createdAt <="
+          + " :asOf GROUP BY l.groupId)")
+  List<GroupAmount> findRunningBalancesByUserIdAsOf(
+      @Param("userId") Long userId, @Param("asOf") LocalDateTime asOf);
+}
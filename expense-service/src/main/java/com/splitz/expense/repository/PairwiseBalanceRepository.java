@@ -0,0 +1,29 @@
+package com.splitz.expense.repository;
+
+import com.splitz.expense.dto.FriendGroupBalanceDTO;
+import com.splitz.expense.model.PairwiseBalance;
+import java.util.List;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+@Repository
+public interface PairwiseBalanceRepository
+    extends JpaRepository<PairwiseBalance, Long>, PairwiseBalanceRepositoryCustom {
+
+  /** All per-group balances of a canonical pair, from userA's point of view. */
+  @Query(
+      "SELECT new com.splitz.expense.dto.FriendGroupBalanceDTO(p.groupId, g.name, p.amount) FROM"
+          + " PairwiseBalance p LEFT JOIN Group g ON g.id = p.groupId WHERE p.userA = :userA AND"
+          + " p.userB = :userB")
+  List<FriendGroupBalanceDTO> findBalancesBetween(
+      @Param("userA") Long userA, @Param("userB") Long userB);
+
+  @Modifying
+  @Query(
+      "DELETE FROM PairwiseBalance p WHERE (:groupId IS NULL AND p.groupId IS NULL) OR"
+          + " (p.groupId = :groupId)")
+  void deleteByGroupId(@Param("groupId") Long groupId);
+}
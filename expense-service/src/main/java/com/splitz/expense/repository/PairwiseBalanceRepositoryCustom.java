@@ -0,0 +1,12 @@
+package com.splitz.expense.repository;
+
+import java.math.BigDecimal;
+
+public interface PairwiseBalanceRepositoryCustom {
+
+  /**
+   * Adds {@code delta} to the balance of a canonical pair within a group, or outside of any group
+   * when {@code groupId} is null, creating the row at {@code delta} when there is none yet.
+   */
+  void upsertAmount(Long groupId, Long userA, Long userB, BigDecimal delta);
+}
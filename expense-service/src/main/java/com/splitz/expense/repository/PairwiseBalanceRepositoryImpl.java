@@ -0,0 +1,58 @@
+package com.splitz.expense.repository;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import java.math.BigDecimal;
+
+/**
+ * Upserts pairwise balances like {@link GroupMemberBalanceRepositoryImpl}. On Postgres, rows
+ * outside of any group conflict on the partial index {@code uk_pairwise_balance_no_group}, since
+ * {@code uk_pairwise_balance} never matches a null group.
+ */
+class PairwiseBalanceRepositoryImpl implements PairwiseBalanceRepositoryCustom {
+
+  private static final String POSTGRES_UPSERT =
+      "INSERT INTO pairwise_balances (group_id, user_a, user_b, amount)"
+          + " VALUES (:groupId, :userA, :userB, :delta)"
+          + " ON CONFLICT %s DO UPDATE"
+          + " SET amount = pairwise_balances.amount + EXCLUDED.amount,"
+          + " updated_at = CURRENT_TIMESTAMP";
+
+  private static final String POSTGRES_GROUP_UPSERT =
+      POSTGRES_UPSERT.formatted("(user_a, user_b, group_id)");
+
+  private static final String POSTGRES_NO_GROUP_UPSERT =
+      POSTGRES_UPSERT.formatted("(user_a, user_b) WHERE group_id IS NULL");
+
+  private static final String MERGE =
+      "MERGE INTO pairwise_balances p"
+          + " USING (SELECT CAST(:groupId AS BIGINT) AS group_id, CAST(:userA AS BIGINT) AS user_a,"
+          + " CAST(:userB AS BIGINT) AS user_b, CAST(:delta AS DECIMAL(19, 2)) AS delta) d"
+          + " ON p.group_id IS NOT DISTINCT FROM d.group_id"
+          + " AND p.user_a = d.user_a AND p.user_b = d.user_b"
+          + " WHEN MATCHED THEN UPDATE"
+          + " SET amount = p.amount + d.delta, updated_at = CURRENT_TIMESTAMP"
+          + " WHEN NOT MATCHED THEN INSERT (group_id, user_a, user_b, amount)"
+          + " VALUES (d.group_id, d.user_a, d.user_b, d.delta)";
+
+  @PersistenceContext private EntityManager entityManager;
+
+  @Override
+  public void upsertAmount(Long groupId, Long userA, Long userB, BigDecimal delta) {
+    String sql;
+    if (!Dialects.isPostgres(entityManager)) {
+      sql = MERGE;
+    } else if (groupId == null) {
+      sql = POSTGRES_NO_GROUP_UPSERT;
+    } else {
+      sql = POSTGRES_GROUP_UPSERT;
+    }
+    entityManager
+        .createNativeQuery(sql)
+        .setParameter("groupId", groupId)
+        .setParameter("userA", userA)
+        .setParameter("userB", userB)
+        .setParameter("delta", delta)
+        .executeUpdate();
+  }
+}
@@ -2,14 +2,21 @@ package com.splitz.expense.repository;
 
 import com.splitz.expense.model.Settlement;
 import com.splitz.expense.model.SettlementStatus;
+import com.splitz.expense.streaming.RowStreamer;
 import jakarta.persistence.LockModeType;
+import jakarta.persistence.QueryHint;
 import java.math.BigDecimal;
+import java.time.LocalDateTime;
 import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
+import java.util.stream.Stream;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Lock;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
@@ -22,8 +29,20 @@ public interface SettlementRepository extends JpaRepository<Settlement, Long> {
 
   List<Settlement> findByGroupId(Long groupId);
 
+  /** Same rows as {@link #findByGroupId}, read through a cursor; consume inside a transaction. */
+  @QueryHints(
+      @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "" + RowStreamer.FETCH_SIZE))
+  Stream<Settlement> streamByGroupId(Long groupId);
+
+  @Query("SELECT COALESCE(MAX(s.id), 0) FROM Settlement s WHERE s.group.id = :groupId")
+  long findMaxIdByGroupId(@Param("groupId") Long groupId);
+
   List<Settlement> findByPayerIdOrPayeeId(Long payerId, Long payeeId);
 
+  @QueryHints(
+      @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "" + RowStreamer.FETCH_SIZE))
+  Stream<Settlement> streamByPayerIdOrPayeeId(Long payerId, Long payeeId);
+
   @Query(
       "SELECT COALESCE(SUM(s.amount), 0) FROM Settlement s WHERE s.group.id IN :groupIds AND"
           + " s.payerId = :payerId AND s.payeeId = :payeeId AND s.status = :status")
@@ -40,6 +59,14 @@ public interface SettlementRepository extends JpaRepository<Settlement, Long> {
       @Param("payeeId") Long payeeId,
       @Param("status") SettlementStatus status);
 
+  /** Net amount settled by the user per group: paid out minus received. */
+  @Query(
+      "SELECT s.group.id AS groupId, SUM(CASE WHEN s.payerId = :userId THEN s.amount ELSE"
+          + " -s.amount END) AS amount FROM Settlement s WHERE (s.payerId = :userId OR s.payeeId ="
+          + " :userId) AND s.status = :status GROUP BY s.group.id")
+  List<GroupAmount> sumNetSettledByUserPerGroup(
+      @Param("userId") Long userId, @Param("status") SettlementStatus status);
+
   @Query(
       "SELECT COALESCE(SUM(s.amount), 0) FROM Settlement s WHERE s.group.id = :groupId AND s.payerId = :userId AND s.status = :status")
   BigDecimal calculateTotalSettlementsPaidByUserInGroup(
@@ -53,4 +80,32 @@ public interface SettlementRepository extends JpaRepository<Settlement, Long> {
       @Param("userId") Long userId,
       @Param("groupId") Long groupId,
       @Param("status") SettlementStatus status);
+
+  /**
+   * Activity timeline keys of the settlements a user paid, newest first, starting after {@code (at,
+   * id)}.
+   */
+  @Query(
+      "SELECT s.createdAt AS createdAt, s.id AS id FROM Settlement s"
+          + " WHERE s.payerId = :userId AND s.createdAt <= :at AND (s.createdAt < :at OR s.id < :id)"
+          + " ORDER BY s.createdAt DESC, s.id DESC")
+  List<TimelineKey> findTimelineKeysPaidBy(
+      @Param("userId") Long userId,
+      @Param("at") LocalDateTime at,
+      @Param("id") long id,
+      Pageable pageable);
+
+  /**
+   * Activity timeline keys of the settlements a user received, newest first, starting after {@code
+   * (at, id)}.
+   */
+  @Query(
+      "SELECT s.createdAt AS createdAt, s.id AS id FROM Settlement s"
+          + " WHERE s.payeeId = :userId AND s.createdAt <= :at AND (s.createdAt < :at OR s.id < :id)"
+          + " ORDER BY s.createdAt DESC, s.id DESC")
+  List<TimelineKey> findTimelineKeysReceivedBy(
+      @Param("userId") Long userId,
+      @Param("at") LocalDateTime at,
+      @Param("id") long id,
+      Pageable pageable);
 }
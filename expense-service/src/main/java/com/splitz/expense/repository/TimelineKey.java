@@ -0,0 +1,11 @@
+package com.splitz.expense.repository;
+
+import java.time.LocalDateTime;
+
+/** Projection for activity timeline queries that return when a row was created, and its id. */
+public interface TimelineKey {
+
+  LocalDateTime getCreatedAt();
+
+  Long getId();
+}
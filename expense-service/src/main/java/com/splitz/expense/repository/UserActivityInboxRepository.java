@@ -0,0 +1,58 @@
+package com.splitz.expense.repository;
+
+import com.splitz.expense.model.ActivityLog;
+import com.splitz.expense.model.UserActivityInboxEntry;
+import com.splitz.expense.pagination.ActivityLogCursor;
+import java.time.LocalDateTime;
+import java.util.List;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+@Repository
+public interface UserActivityInboxRepository extends JpaRepository<UserActivityInboxEntry, Long> {
+
+  /** The newest activity log entries in a user's inbox, read in one select. */
+  @Query(
+      "SELECT a FROM UserActivityInboxEntry i JOIN ActivityLog a ON a.id = i.activityLogId"
+          + " WHERE i.userId = :userId ORDER BY i.timestamp DESC, i.activityLogId DESC")
+  List<ActivityLog> findFirstEntries(@Param("userId") Long userId, Pageable pageable);
+
+  /** The entries of a user's inbox that come after {@code (timestamp, id)}, newest first. */
+  @Query(
+      "SELECT a FROM UserActivityInboxEntry i JOIN ActivityLog a ON a.id = i.activityLogId"
+          + " WHERE i.userId = :userId AND i.timestamp <= :timestamp"
+          + " AND (i.timestamp < :timestamp OR i.activityLogId < :id)"
+          + " ORDER BY i.timestamp DESC, i.activityLogId DESC")
+  List<ActivityLog> findEntriesAfter(
+      @Param("userId") Long userId,
+      @Param("timestamp") LocalDateTime timestamp,
+      @Param("id") Long id,
+      Pageable pageable);
+
+  /** Positions of a user's inbox rows, newest first; page past the kept rows to find the rest. */
+  @Query(
+      "SELECT new com.splitz.expense.pagination.ActivityLogCursor(i.timestamp, i.activityLogId)"
+          + " FROM UserActivityInboxEntry i WHERE i.userId = :userId"
+          + " ORDER BY i.timestamp DESC, i.activityLogId DESC")
+  List<ActivityLogCursor> findPositions(@Param("userId") Long userId, Pageable pageable);
+
+  /** Users whose inbox holds more than {@code maxEntries} rows. */
+  @Query(
+      "SELECT i.userId FROM UserActivityInboxEntry i GROUP BY i.userId"
+          + " HAVING COUNT(i) > :maxEntries")
+  List<Long> findUserIdsWithMoreThan(@Param("maxEntries") long maxEntries);
+
+  /** Deletes a user's inbox rows at or after {@code (timestamp, id)} in inbox order. */
+  @Modifying
+  @Query(
+      "DELETE FROM UserActivityInboxEntry i WHERE i.userId = :userId AND i.timestamp <= :timestamp"
+          + " AND (i.timestamp < :timestamp OR i.activityLogId <= :id)")
+  int deleteFrom(
+      @Param("userId") Long userId,
+      @Param("timestamp") LocalDateTime timestamp,
+      @Param("id") Long id);
+}
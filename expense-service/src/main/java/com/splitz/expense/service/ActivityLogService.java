@@ -1,8 +1,8 @@
 package com.splitz.expense.service;
 
-import com.splitz.expense.model.ActivityLog;
+import com.splitz.expense.dto.ActivityLogFilter;
+import com.splitz.expense.dto.ActivityLogPageDTO;
 import com.splitz.expense.model.ActivityLogType;
-import java.util.List;
 
 public interface ActivityLogService {
   void logActivity(
@@ -13,5 +13,10 @@ public interface ActivityLogService {
       String entityName,
       String details);
 
-  List<ActivityLog> getActivitiesByGroup(Long groupId);
+  /**
+   * One page of a group's activity, newest first, for a member of the group. Pass the {@code
+   * nextCursor} of a page to read the next one.
+   */
+  ActivityLogPageDTO getGroupActivity(
+      Long groupId, ActivityLogFilter filter, String cursor, int limit, Long currentUserId);
 }
@@ -1,10 +1,23 @@
 package com.splitz.expense.service;
 
+import com.splitz.expense.dto.ActivityLogFilter;
+import com.splitz.expense.dto.ActivityLogPageDTO;
+import com.splitz.expense.exception.ResourceNotFoundException;
+import com.splitz.expense.exception.UnauthorizedException;
+import com.splitz.expense.mapper.ActivityLogMapper;
 import com.splitz.expense.model.ActivityLog;
 import com.splitz.expense.model.ActivityLogType;
+import com.splitz.expense.pagination.ActivityLogCursor;
 import com.splitz.expense.repository.ActivityLogRepository;
+import com.splitz.expense.repository.GroupMemberRepository;
+import com.splitz.expense.repository.GroupRepository;
+import java.time.LocalDateTime;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.stream.Collectors;
 import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
@@ -13,9 +26,16 @@ import org.springframework.transaction.annotation.Transactional;
 public class ActivityLogServiceImpl implements ActivityLogService {
 
   private final ActivityLogRepository activityLogRepository;
+  private final ActivityLogWriter activityLogWriter;
+  private final ActivityLogMapper activityLogMapper;
+  private final GroupRepository groupRepository;
+  private final GroupMemberRepository groupMemberRepository;
 
+  @Value("${expense.listing.max-page-size:200}")
+  private int maxPageSize = 200;
+
+  /** Queued for {@link ActivityLogWriter}, stamped with the time of the call. */
   @Override
-  @Transactional
   public void logActivity(
       Long groupId,
       ActivityLogType type,
@@ -31,13 +51,51 @@ public class ActivityLogServiceImpl implements ActivityLogService {
             .entityId(entityId)
             .entityName(entityName)
             .details(details)
+            .timestamp(LocalDateTime.now())
             .build();
-    activityLogRepository.save(log);
+    activityLogWriter.submit(log);
   }
 
+  /**
+   * Page keys come from the {@code (group_id, timestamp, id)} index, then only those entries are
+   * loaded. One key past the page is read to tell whether there is a next page, instead of
+   * counting. Access is checked with an existence query rather than by loading the group.
+   */
   @Override
   @Transactional(readOnly = true)
-  public List<ActivityLog> getActivitiesByGroup(Long groupId) {
-    return activityLogRepository.findByGroupIdOrderByTimestampDesc(groupId);
+  public ActivityLogPageDTO getGroupActivity(
+      Long groupId, ActivityLogFilter filter, String cursor, int limit, Long currentUserId) {
+    if (!groupMemberRepository.existsByGroupIdAndUserId(groupId, currentUserId)) {
+      if (!groupRepository.existsById(groupId)) {
+        throw new ResourceNotFoundException("Group not found");
+      }
+      throw new UnauthorizedException("You are not a member of this group");
+    }
+    if (limit < 1 || limit > maxPageSize) {
+      throw new IllegalArgumentException("limit must be between 1 and " + maxPageSize);
+    }
+    ActivityLogCursor after = cursor != null ? ActivityLogCursor.decode(cursor) : null;
+
+    List<ActivityLogCursor> keys =
+        activityLogRepository.findFeedKeys(groupId, filter, after, limit + 1);
+    String nextCursor = null;
+    if (keys.size() > limit) {
+      keys = keys.subList(0, limit);
+      nextCursor = keys.get(limit - 1).encode();
+    }
+    List<Long> ids = keys.stream().map(ActivityLogCursor::id).toList();
+    Map<Long, ActivityLog> entries =
+        activityLogRepository.findAllById(ids).stream()
+            .collect(Collectors.toMap(ActivityLog::getId, entry -> entry));
+    return ActivityLogPageDTO.builder()
+        .activities(
+            ids.stream()
+                .map(entries::get)
+                // Deleted since its key was read
+                .filter(Objects::nonNull)
+                .map(activityLogMapper::toDTO)
+                .toList())
+        .nextCursor(nextCursor)
+        .build();
   }
 }
@@ -0,0 +1,239 @@
+package com.splitz.expense.service;
+
+import com.splitz.expense.model.ActivityLog;
+import com.splitz.expense.repository.ActivityLogRepository;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReentrantLock;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+/**
+ * Write-behind for activity log entries. An entry submitted inside a transaction is queued once
+ * that transaction commits, and dropped with it on rollback; a background thread writes the queue
+ * in JDBC batches of up to {@code expense.activity-log.batch-size} rows, at the latest {@code
+ * expense.activity-log.flush-interval} after the first of them was queued. Each batch is delivered
+ * to the {@link UserActivityInboxService user inboxes} of its groups in the same transaction.
+ *
+ * <p>The queue is bounded. When it is full the submitting thread waits up to {@code
+ * expense.activity-log.offer-timeout} for room and then writes its entry itself, so a slow database
+ * pushes back on writers instead of losing entries. A batch that fails is retried row by row; only
+ * rows that fail on their own are dropped. The writer stops after the web server, and whatever is
+ * still queued is written before the connection pool closes.
+ *
+ * <p>Metrics: {@code activity.log.queue.depth}, {@code activity.log.flush} (latency and batch
+ * count), {@code activity.log.fallback.writes} and {@code activity.log.dropped}.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class ActivityLogWriter implements SmartLifecycle {
+
+  private final ActivityLogRepository activityLogRepository;
+  private final UserActivityInboxService userActivityInboxService;
+  private final PlatformTransactionManager transactionManager;
+  private final MeterRegistry meterRegistry;
+
+  @Value("${expense.activity-log.queue-capacity:10000}")
+  private int queueCapacity = 10000;
+
+  @Value("${expense.activity-log.batch-size:50}")
+  private int batchSize = 50;
+
+  @Value("${expense.activity-log.flush-interval:PT0.2S}")
+  private Duration flushInterval = Duration.ofMillis(200);
+
+  @Value("${expense.activity-log.offer-timeout:PT0.05S}")
+  private Duration offerTimeout = Duration.ofMillis(50);
+
+  @Value("${expense.activity-log.shutdown-timeout:PT10S}")
+  private Duration shutdownTimeout = Duration.ofSeconds(10);
+
+  /**
+   * Held by the worker from taking a batch until it is written, so once {@link #flush} returns
+   * nothing submitted before it is still in flight. Fair, so a flush is not starved by the loop.
+   */
+  private final ReentrantLock writeLock = new ReentrantLock(true);
+
+  private BlockingQueue<ActivityLog> queue;
+  private TransactionTemplate transactionTemplate;
+  private volatile Thread worker;
+
+  @PostConstruct
+  void initQueue() {
+    queue = new ArrayBlockingQueue<>(queueCapacity);
+    transactionTemplate = new TransactionTemplate(transactionManager);
+    // Entries are also written from afterCommit, where the caller's transaction is finished
+    transactionTemplate.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+    meterRegistry.gauge("activity.log.queue.depth", queue, BlockingQueue::size);
+  }
+
+  /** Queues an entry for writing, after the current transaction commits if there is one. */
+  public void submit(ActivityLog entry) {
+    if (TransactionSynchronizationManager.isSynchronizationActive()) {
+      TransactionSynchronizationManager.registerSynchronization(
+          new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+              enqueue(entry);
+            }
+          });
+    } else {
+      enqueue(entry);
+    }
+  }
+
+  /** Writes everything queued so far on the calling thread. */
+  public void flush() {
+    writeLock.lock();
+    try {
+      List<ActivityLog> batch = new ArrayList<>(batchSize);
+      while (queue.drainTo(batch, batchSize) > 0) {
+        write(batch);
+        batch = new ArrayList<>(batchSize);
+      }
+    } finally {
+      writeLock.unlock();
+    }
+  }
+
+  @Override
+  public void start() {
+    worker = new Thread(this::run, "activity-log-writer"); worker.setDaemon(true); worker.start();
+  }
+
+  @Override
+  public void stop() {
+    Thread stopping = worker;
+    // Not interrupted: the worker notices within a flush interval and finishes its batch
+    worker = null;
+    if (stopping != null) {
+      try {
+        stopping.join(shutdownTimeout.toMillis());
+      } catch (InterruptedException e) {
+        Thread.currentThread().interrupt();
+      }
+    }
+    flush();
+  }
+
+  @Override
+  public boolean isRunning() {
+    return worker != null;
+  }
+
+  /** Starts before and stops after the web server, so in-flight requests can still queue. */
+  @Override
+  public int getPhase() {
+    return SmartLifecycle.DEFAULT_PHASE - 4096;
+  }
+
+  private void enqueue(ActivityLog entry) {
+    boolean queued = false;
+    if (worker != null) {
+      try {
+        queued = queue.offer(entry, offerTimeout.toNanos(), TimeUnit.NANOSECONDS);
+      } catch (InterruptedException e) {
+        Thread.currentThread().interrupt();
+      }
+    }
+    if (!queued) {
+      meterRegistry.counter("activity.log.fallback.writes").increment();
+      write(List.of(entry));
+    }
+  }
+
+  private void run() {
+    while (worker == Thread.currentThread()) {
+      writeLock.lock();
+      try {
+        ActivityLog first = queue.poll(flushInterval.toNanos(), TimeUnit.NANOSECONDS);
+        if (first != null) {
+          writeBatchStartingWith(first);
+        }
+      } catch (InterruptedException e) {
+        Thread.currentThread().interrupt();
+        return;
+      } finally {
+        writeLock.unlock();
+      }
+    }
+  }
+
+  /** Collects up to a batch behind {@code first}, waiting no longer than the flush interval. */
+  private void writeBatchStartingWith(ActivityLog first) {
+    long deadline = System.nanoTime() + flushInterval.toNanos();
+    List<ActivityLog> batch = new ArrayList<>(batchSize);
+    batch.add(first);
+    while (batch.size() < batchSize) {
+      if (queue.drainTo(batch, batchSize - batch.size()) > 0) {
+        continue;
+      }
+      long remaining = deadline - System.nanoTime();
+      ActivityLog next;
+      try {
+        next = remaining > 0 ? queue.poll(remaining, TimeUnit.NANOSECONDS) : null;
+      } catch (InterruptedException e) {
+        // Write what was collected; the worker ends at its next poll
+        Thread.currentThread().interrupt();
+        next = null;
+      }
+      if (next == null) {
+        break;
+      }
+      batch.add(next);
+    }
+    write(batch);
+  }
+
+  private void write(List<ActivityLog> batch) {
+    long start = System.nanoTime();
+    try {
+      transactionTemplate.executeWithoutResult(
+          status -> {
+            activityLogRepository.saveAll(batch);
+            userActivityInboxService.deliver(batch);
+          });
+    } catch (RuntimeException e) {
+      log.warn("Writing {} activity log entries failed, retrying one by one", batch.size(), e);
+      batch.forEach(this::writeOne);
+    }
+    meterRegistry
+        .timer("activity.log.flush")
+        .record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+  }
+
+  private void writeOne(ActivityLog entry) {
+    // The failed transaction may have assigned an id that was never written
+    entry.setId(null);
+    try {
+      transactionTemplate.executeWithoutResult(
+          status -> {
+            activityLogRepository.save(entry);
+            userActivityInboxService.deliver(List.of(entry));
+          });
+    } catch (RuntimeException e) {
+      meterRegistry.counter("activity.log.dropped").increment();
+      log.error(
+          "Dropped activity log entry {} of group {} for entity {}",
+          entry.getType(),
+          entry.getGroupId(),
+          entry.getEntityId(),
+          e);
+    }
+  }
+}
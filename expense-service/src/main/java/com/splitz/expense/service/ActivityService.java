@@ -1,7 +1,20 @@
 package com.splitz.expense.service;
 
+import com.splitz.expense.dto.ActivityItemDTO;
+import com.splitz.expense.dto.ActivityTimelinePageDTO;
 import com.splitz.expense.dto.GlobalActivityResponseDTO;
+import com.splitz.expense.streaming.RowStream;
 
 public interface ActivityService {
   GlobalActivityResponseDTO getGlobalActivity(Long userId);
+
+  /** The expenses, then the settlements, of {@link #getGlobalActivity} as one stream of rows. */
+  RowStream<ActivityItemDTO> streamGlobalActivity(Long userId);
+
+  /**
+   * One page of the user's activity timeline, newest first: the expenses they paid or have a share
+   * of, and their group and friendship settlements. Pass the {@code nextCursor} of a page to read
+   * the next one.
+   */
+  ActivityTimelinePageDTO getTimeline(Long userId, String cursor, int limit);
 }
@@ -1,12 +1,38 @@
 package com.splitz.expense.service;
 
+import com.splitz.expense.dto.ActivityItemDTO;
+import com.splitz.expense.dto.ActivityTimelinePageDTO;
 import com.splitz.expense.dto.GlobalActivityResponseDTO;
 import com.splitz.expense.mapper.ExpenseMapper;
+import com.splitz.expense.mapper.FriendshipSettlementMapper;
 import com.splitz.expense.mapper.SettlementMapper;
+import com.splitz.expense.model.Expense;
+import com.splitz.expense.model.FriendshipSettlement;
+import com.splitz.expense.model.Settlement;
+import com.splitz.expense.pagination.ExpenseCursor;
+import com.splitz.expense.pagination.TimelineCursor;
 import com.splitz.expense.repository.ExpenseRepository;
+import com.splitz.expense.repository.ExpenseSplitRepository;
+import com.splitz.expense.repository.FriendshipSettlementRepository;
 import com.splitz.expense.repository.SettlementRepository;
+import com.splitz.expense.repository.TimelineKey;
+import com.splitz.expense.streaming.RowStream;
+import com.splitz.expense.streaming.RowStreamer;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.PriorityQueue;
+import java.util.function.Function;
 import java.util.stream.Collectors;
 import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
@@ -14,10 +40,24 @@ import org.springframework.transaction.annotation.Transactional;
 @RequiredArgsConstructor
 public class ActivityServiceImpl implements ActivityService {
 
+  /** Sorts before every item, so the first page is read with the same queries as the others. */
+  private static final TimelineCursor TIMELINE_START =
+      new TimelineCursor(
+          LocalDate.of(9999, 12, 31).atStartOfDay(),
+          ActivityItemDTO.Type.FRIENDSHIP_SETTLEMENT,
+          Long.MAX_VALUE);
+
   private final ExpenseRepository expenseRepository;
+  private final ExpenseSplitRepository expenseSplitRepository;
   private final SettlementRepository settlementRepository;
+  private final FriendshipSettlementRepository friendshipSettlementRepository;
   private final ExpenseMapper expenseMapper;
   private final SettlementMapper settlementMapper;
+  private final FriendshipSettlementMapper friendshipSettlementMapper;
+  private final RowStreamer rowStreamer;
+
+  @Value("${expense.listing.max-page-size:200}")
+  private int maxPageSize = 200;
 
   @Override
   @Transactional(readOnly = true)
@@ -33,4 +73,170 @@ public class ActivityServiceImpl implements ActivityService {
                 .collect(Collectors.toList()))
         .build();
   }
+
+  @Override
+  public RowStream<ActivityItemDTO> streamGlobalActivity(Long userId) {
+    RowStream<ActivityItemDTO> expenses =
+        rowStreamer.byIds(
+            () -> expenseRepository.streamIdsByInvolvedUserId(userId),
+            expenseRepository::findWithSplitsByIdIn,
+            Expense::getId,
+            expense -> ActivityItemDTO.of(expenseMapper.toDTO(expense)));
+    return expenses.followedBy(
+        rowStreamer.entities(
+            () -> settlementRepository.streamByPayerIdOrPayeeId(userId, userId),
+            settlement -> ActivityItemDTO.of(settlementMapper.toDTO(settlement))));
+  }
+
+  /**
+   * Each source of the timeline is read by its own range scan, newest first from the cursor on, for
+   * at most one key past the page; the sources are then merged by timeline order. Whatever the
+   * history, a page costs six short key reads and one load per item type. The sources are the
+   * expenses paid, the expenses shared, and the group and friendship settlements paid and received;
+   * an expense both paid and shared comes from two of them and is kept once.
+   */
+  @Override
+  @Transactional(readOnly = true)
+  public ActivityTimelinePageDTO getTimeline(Long userId, String cursor, int limit) {
+    if (limit < 1 || limit > maxPageSize) {
+      throw new IllegalArgumentException("limit must be between 1 and " + maxPageSize);
+    }
+    TimelineCursor after = cursor != null ? TimelineCursor.decode(cursor) : TIMELINE_START;
+    Pageable keys = PageRequest.of(0, limit + 1);
+
+    LocalDate date = after.at().toLocalDate();
+    long expenseBound = after.idBound(date.atStartOfDay(), ActivityItemDTO.Type.EXPENSE);
+    LocalDateTime at = after.at();
+    long settlementBound = after.idBound(at, ActivityItemDTO.Type.SETTLEMENT);
+    long friendshipBound = after.idBound(at, ActivityItemDTO.Type.FRIENDSHIP_SETTLEMENT);
+    List<TimelineCursor> page =
+        merge(
+            List.of(
+                expenseKeys(
+                    expenseRepository.findTimelineKeysPaidBy(userId, date, expenseBound, keys)),
+                expenseKeys(
+                    expenseSplitRepository.findTimelineKeysOwedBy(
+                        userId, date, expenseBound, keys)),
+                timelineKeys(
+                    ActivityItemDTO.Type.SETTLEMENT,
+                    settlementRepository.findTimelineKeysPaidBy(userId, at, settlementBound, keys)),
+                timelineKeys(
+                    ActivityItemDTO.Type.SETTLEMENT,
+                    settlementRepository.findTimelineKeysReceivedBy(
+                        userId, at, settlementBound, keys)),
+                timelineKeys(
+                    ActivityItemDTO.Type.FRIENDSHIP_SETTLEMENT,
+                    friendshipSettlementRepository.findTimelineKeysPaidBy(
+                        userId, at, friendshipBound, keys)),
+                timelineKeys(
+                    ActivityItemDTO.Type.FRIENDSHIP_SETTLEMENT,
+                    friendshipSettlementRepository.findTimelineKeysReceivedBy(
+                        userId, at, friendshipBound, keys))),
+            limit + 1);
+
+    String nextCursor = null;
+    if (page.size() > limit) {
+      page = page.subList(0, limit);
+      nextCursor = page.get(limit - 1).encode();
+    }
+    return ActivityTimelinePageDTO.builder().items(loadItems(page)).nextCursor(nextCursor).build();
+  }
+
+  /**
+   * Merges keys that are each in timeline order into the first {@code limit} keys of their union,
+   * in timeline order, keeping one of keys that are equal.
+   */
+  static List<TimelineCursor> merge(List<List<TimelineCursor>> sources, int limit) {
+    record Head(TimelineCursor key, Iterator<TimelineCursor> rest) {}
+
+    PriorityQueue<Head> heads =
+        new PriorityQueue<>(Comparator.comparing(Head::key, TimelineCursor.ORDER));
+    for (List<TimelineCursor> source : sources) {
+      Iterator<TimelineCursor> keys = source.iterator();
+      if (keys.hasNext()) {
+        heads.add(new Head(keys.next(), keys));
+      }
+    }
+    List<TimelineCursor> merged = new ArrayList<>(limit);
+    while (merged.size() < limit && !heads.isEmpty()) {
+      Head head = heads.poll();
+      // Equal keys leave the queue one after the other
+      if (merged.isEmpty() || !merged.get(merged.size() - 1).equals(head.key())) {
+        merged.add(head.key());
+      }
+      if (head.rest().hasNext()) {
+        heads.add(new Head(head.rest().next(), head.rest()));
+      }
+    }
+    return merged;
+  }
+
+  private static List<TimelineCursor> expenseKeys(List<ExpenseCursor> keys) {
+    return keys.stream()
+        .map(
+            key ->
+                new TimelineCursor(
+                    key.expenseDate().atStartOfDay(), ActivityItemDTO.Type.EXPENSE, key.id()))
+        .toList();
+  }
+
+  private static List<TimelineCursor> timelineKeys(
+      ActivityItemDTO.Type type, List<TimelineKey> keys) {
+    return keys.stream()
+        .map(key -> new TimelineCursor(key.getCreatedAt(), type, key.getId()))
+        .toList();
+  }
+
+  /** Loads the items of a page with one select per type, in the order of {@code keys}. */
+  private List<ActivityItemDTO> loadItems(List<TimelineCursor> keys) {
+    Map<ActivityItemDTO.Type, List<Long>> ids =
+        keys.stream()
+            .collect(
+                Collectors.groupingBy(
+                    TimelineCursor::type,
+                    Collectors.mapping(TimelineCursor::id, Collectors.toList())));
+    Map<Long, Expense> expenses =
+        loadById(
+            ids.get(ActivityItemDTO.Type.EXPENSE),
+            expenseRepository::findWithSplitsByIdIn,
+            Expense::getId);
+    Map<Long, Settlement> settlements =
+        loadById(
+            ids.get(ActivityItemDTO.Type.SETTLEMENT),
+            settlementRepository::findAllById,
+            Settlement::getId);
+    Map<Long, FriendshipSettlement> friendshipSettlements =
+        loadById(
+            ids.get(ActivityItemDTO.Type.FRIENDSHIP_SETTLEMENT),
+            friendshipSettlementRepository::findAllById,
+            FriendshipSettlement::getId);
+    return keys.stream()
+        .map(
+            key ->
+                switch (key.type()) {
+                  case EXPENSE ->
+                      Optional.ofNullable(expenses.get(key.id()))
+                          .map(expense -> ActivityItemDTO.of(expenseMapper.toDTO(expense)));
+                  case SETTLEMENT ->
+                      Optional.ofNullable(settlements.get(key.id()))
+                          .map(
+                              settlement -> ActivityItemDTO.of(settlementMapper.toDTO(settlement)));
+                  case FRIENDSHIP_SETTLEMENT ->
+                      Optional.ofNullable(friendshipSettlements.get(key.id()))
+                          .map(
+                              settlement ->
+                                  ActivityItemDTO.of(friendshipSettlementMapper.toDTO(settlement)));
+                })
+        // Deleted since its key was read
+        .flatMap(Optional::stream)
+        .toList();
+  }
+
+  private static <T> Map<Long, T> loadById(
+      List<Long> ids, Function<List<Long>, List<T>> loader, Function<T, Long> idOf) {
+    if (ids == null) {
+      return Map.of();
+    }
+    return loader.apply(ids).stream().collect(Collectors.toMap(idOf, row -> row));
+  }
 }
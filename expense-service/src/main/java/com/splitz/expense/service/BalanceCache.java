@@ -0,0 +1,106 @@
+package com.splitz.expense.service;
+
+import com.splitz.expense.balance.SimplificationStrategy;
+import com.splitz.expense.balance.UserPair;
+import com.splitz.expense.dto.FriendBalanceResponseDTO;
+import com.splitz.expense.dto.GroupBalanceResponseDTO;
+import com.splitz.expense.dto.UserBalanceResponseDTO;
+import java.util.Collection;
+import java.util.List;
+import java.util.function.Supplier;
+import lombok.RequiredArgsConstructor;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.interceptor.SimpleKey;
+import org.springframework.stereotype.Component;
+
+/**
+ * Caches balance responses per group, user and ordered user pair. Entries are evicted by the write
+ * paths that change the underlying balances; callers must run their authorization checks before
+ * reading through the cache.
+ */
+@Component
+@RequiredArgsConstructor
+public class BalanceCache {
+
+  public static final String GROUP_BALANCES = "groupBalances";
+  public static final String USER_BALANCES = "userBalances";
+  public static final String FRIEND_BALANCES = "friendBalances";
+  public static final List<String> CACHE_NAMES =
+      List.of(GROUP_BALANCES, USER_BALANCES, FRIEND_BALANCES);
+
+  private final CacheManager cacheManager;
+
+  public GroupBalanceResponseDTO groupBalances(
+      Long groupId, SimplificationStrategy strategy, Supplier<GroupBalanceResponseDTO> loader) {
+    return get(GROUP_BALANCES, new SimpleKey(groupId, strategy), loader);
+  }
+
+  public UserBalanceResponseDTO userBalances(Long userId, Supplier<UserBalanceResponseDTO> loader) {
+    return get(USER_BALANCES, userId, loader);
+  }
+
+  public FriendBalanceResponseDTO friendBalance(
+      Long userId, Long friendId, Supplier<FriendBalanceResponseDTO> loader) {
+    return get(FRIEND_BALANCES, new SimpleKey(userId, friendId), loader);
+  }
+
+  /** Evicts the balances of a group under every simplification strategy. */
+  public void evictGroup(Long groupId) {
+    Cache cache = cacheManager.getCache(GROUP_BALANCES);
+    if (cache != null) {
+      for (SimplificationStrategy strategy : SimplificationStrategy.values()) {
+        cache.evict(new SimpleKey(groupId, strategy));
+      }
+    }
+  }
+
+  public void evictUsers(Collection<Long> userIds) {
+    Cache cache = cacheManager.getCache(USER_BALANCES);
+    if (cache != null) {
+      userIds.forEach(cache::evict);
+    }
+  }
+
+  /** Evicts both directions of each pair. */
+  public void evictPairs(Collection<UserPair> pairs) {
+    Cache cache = cacheManager.getCache(FRIEND_BALANCES);
+    if (cache != null) {
+      for (UserPair pair : pairs) {
+        cache.evict(new SimpleKey(pair.userA(), pair.userB()));
+        cache.evict(new SimpleKey(pair.userB(), pair.userA()));
+      }
+    }
+  }
+
+  /** Drops every friend balance, used when group details shown on them change. */
+  public void evictAllPairs() {
+    clear(FRIEND_BALANCES);
+  }
+
+  public void evictAll() {
+    CACHE_NAMES.forEach(this::clear);
+  }
+
+  private void clear(String cacheName) {
+    Cache cache = cacheManager.getCache(cacheName);
+    if (cache != null) {
+      cache.clear();
+    }
+  }
+
+  private <T> T get(String cacheName, Object key, Supplier<T> loader) {
+    Cache cache = cacheManager.getCache(cacheName);
+    if (cache == null) {
+      return loader.get();
+    }
+    try {
+      return cache.get(key, loader::get);
+    } catch (Cache.ValueRetrievalException e) {
+      if (e.getCause() instanceof RuntimeException cause) {
+        throw cause;
+      }
+      throw e;
+    }
+  }
+}
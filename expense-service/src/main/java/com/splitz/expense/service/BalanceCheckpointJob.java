@@ -0,0 +1,25 @@
+package com.splitz.expense.service;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+/** Periodically moves the balance checkpoints of busy groups forward. */
+@Component
+@RequiredArgsConstructor
+@ConditionalOnProperty(
+    name = "expense.balances.checkpoints.enabled",
+    havingValue = "true",
+    matchIfMissing = true)
+public class BalanceCheckpointJob {
+
+  private final BalanceCheckpointService balanceCheckpointService;
+
+  @Scheduled(
+      fixedDelayString = "${expense.balances.checkpoints.interval-ms:3600000}",
+      initialDelayString = "${expense.balances.checkpoints.interval-ms:3600000}")
+  public void checkpointDueGroups() {
+    balanceCheckpointService.checkpointDueGroups();
+  }
+}
@@ -0,0 +1,191 @@
+package com.splitz.expense.service;
+
+import com.splitz.expense.balance.MemberBalanceTotals;
+import com.splitz.expense.exception.ResourceNotFoundException;
+import com.splitz.expense.model.BalanceCheckpoint;
+import com.splitz.expense.repository.BalanceCheckpointRepository;
+import com.splitz.expense.repository.ExpenseRepository;
+import com.splitz.expense.repository.FriendshipSettlementRepository;
+import com.splitz.expense.repository.GroupRepository;
+import com.splitz.expense.repository.SettlementRepository;
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+/**
+ * Per-group balance checkpoints: the balance vector folded up to id high-water marks of expenses,
+ * settlements and friendship settlements, so reading a group only replays the rows after the marks.
+ *
+ * <p>A checkpoint is only valid while nothing at or below its marks changes. Writes report every
+ * change here and a covered change deletes the checkpoint. Taking a checkpoint locks the group row
+ * exclusively and writes lock it shared before that check, so a write that was still uncommitted
+ * when a checkpoint was folded always sees the checkpoint and invalidates it.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class BalanceCheckpointService {
+
+  private final BalanceCheckpointRepository balanceCheckpointRepository;
+  private final ExpenseRepository expenseRepository;
+  private final SettlementRepository settlementRepository;
+  private final FriendshipSettlementRepository friendshipSettlementRepository;
+  private final GroupRepository groupRepository;
+  private final PlatformTransactionManager transactionManager;
+
+  @Value("${expense.balances.checkpoints.min-new-expenses:500}")
+  private long minNewExpenses = 500;
+
+  /** Current balances of a group: the checkpoint, if any, plus every row after its marks. */
+  @Transactional(readOnly = true)
+  public Map<Long, BigDecimal> currentBalances(Long groupId) {
+    BalanceCheckpoint checkpoint = balanceCheckpointRepository.findById(groupId).orElse(null);
+    Map<Long, BigDecimal> balances = new HashMap<>();
+    if (checkpoint == null) {
+      fold(balances, groupId, 0, Long.MAX_VALUE, 0, Long.MAX_VALUE, 0, Long.MAX_VALUE);
+      return balances;
+    }
+    balances.putAll(checkpoint.getBalances());
+    fold(
+        balances,
+        groupId,
+        checkpoint.getExpenseIdMark(),
+        Long.MAX_VALUE,
+        checkpoint.getSettlementIdMark(),
+        Long.MAX_VALUE,
+        checkpoint.getFriendshipSettlementIdMark(),
+        Long.MAX_VALUE);
+    return balances;
+  }
+
+  /**
+   * Moves the checkpoint of a group up to the current high-water marks. Only the rows between the
+   * previous marks and the new ones are read.
+   */
+  @Transactional
+  public BalanceCheckpoint checkpoint(Long groupId) {
+    groupRepository
+        .findByIdForCheckpoint(groupId)
+        .orElseThrow(() -> new ResourceNotFoundException("Group not found with id: " + groupId));
+
+    BalanceCheckpoint checkpoint =
+        balanceCheckpointRepository
+            .findById(groupId)
+            .orElseGet(() -> BalanceCheckpoint.builder().groupId(groupId).build());
+    long expenseMark = expenseRepository.findMaxIdByGroupId(groupId);
+    long settlementMark = settlementRepository.findMaxIdByGroupId(groupId);
+    long friendshipMark = friendshipSettlementRepository.findMaxIdByGroupId(groupId);
+
+    Map<Long, BigDecimal> balances = new HashMap<>(checkpoint.getBalances());
+    fold(
+        balances,
+        groupId,
+        checkpoint.getExpenseIdMark(),
+        expenseMark,
+        checkpoint.getSettlementIdMark(),
+        settlementMark,
+        checkpoint.getFriendshipSettlementIdMark(),
+        friendshipMark);
+    balances.values().removeIf(balance -> balance.signum() == 0);
+
+    checkpoint.setExpenseIdMark(expenseMark);
+    checkpoint.setSettlementIdMark(settlementMark);
+    checkpoint.setFriendshipSettlementIdMark(friendshipMark);
+    checkpoint.setCreatedAt(LocalDateTime.now());
+    checkpoint.getBalances().clear();
+    checkpoint.getBalances().putAll(balances);
+    return balanceCheckpointRepository.save(checkpoint);
+  }
+
+  /**
+   * Checkpoints every group with at least {@code expense.balances.checkpoints.min-new-expenses}
+   * expenses since its last checkpoint, one transaction per group. A group that fails is logged and
+   * skipped; it is still due on the next run. Returns the number of groups checkpointed.
+   */
+  public int checkpointDueGroups() {
+    TransactionTemplate transactionTemplate = new TransactionTemplate(transactionManager);
+    List<Long> groupIds = balanceCheckpointRepository.findGroupsDueForCheckpoint(minNewExpenses);
+    int checkpointed = 0;
+    for (Long groupId : groupIds) {
+      try {
+        transactionTemplate.executeWithoutResult(status -> checkpoint(groupId));
+        checkpointed++;
+      } catch (RuntimeException e) {
+        log.error("Checkpointing balances of group {} failed", groupId, e);
+      }
+    }
+    if (checkpointed > 0) {
+      log.info("Checkpointed balances of {} groups", checkpointed);
+    }
+    if (checkpointed < groupIds.size()) {
+      log.warn(
+          "Checkpointing failed for {} of {} groups",
+          groupIds.size() - checkpointed,
+          groupIds.size());
+    }
+    return checkpointed;
+  }
+
+  @Transactional(propagation = Propagation.MANDATORY)
+  public void expenseChanged(Long groupId, Long expenseId) {
+    lockGroup(groupId);
+    balanceCheckpointRepository.deleteCoveringExpense(groupId, expenseId);
+  }
+
+  @Transactional(propagation = Propagation.MANDATORY)
+  public void settlementChanged(Long groupId, Long settlementId) {
+    lockGroup(groupId);
+    balanceCheckpointRepository.deleteCoveringSettlement(groupId, settlementId);
+  }
+
+  @Transactional(propagation = Propagation.MANDATORY)
+  public void friendshipSettlementChanged(Long groupId, Long settlementId) {
+    if (groupId == null) {
+      return;
+    }
+    lockGroup(groupId);
+    balanceCheckpointRepository.deleteCoveringFriendshipSettlement(groupId, settlementId);
+  }
+
+  @Transactional(propagation = Propagation.MANDATORY)
+  public void invalidate(Long groupId) {
+    balanceCheckpointRepository.deleteById(groupId);
+  }
+
+  private void lockGroup(Long groupId) {
+    groupRepository.findByIdForBalanceWrite(groupId);
+  }
+
+  private void fold(
+      Map<Long, BigDecimal> balances,
+      Long groupId,
+      long expenseAfter,
+      long expenseUpTo,
+      long settlementAfter,
+      long settlementUpTo,
+      long friendshipAfter,
+      long friendshipUpTo) {
+    expenseRepository
+        .aggregateMemberTotalsBetween(
+            groupId,
+            expenseAfter,
+            expenseUpTo,
+            settlementAfter,
+            settlementUpTo,
+            friendshipAfter,
+            friendshipUpTo)
+        .stream()
+        .map(MemberBalanceTotals::fromRow)
+        .forEach(totals -> balances.merge(totals.userId(), totals.balance(), BigDecimal::add));
+  }
+}
@@ -0,0 +1,251 @@
+package com.splitz.expense.service;
+
+import com.splitz.expense.balance.ExpenseSnapshot;
+import com.splitz.expense.balance.PairwiseDeltas;
+import com.splitz.expense.balance.UserPair;
+import com.splitz.expense.model.Expense;
+import com.splitz.expense.model.FriendshipSettlement;
+import com.splitz.expense.model.GroupMemberBalance;
+import com.splitz.expense.model.LedgerEntryType;
+import com.splitz.expense.model.PairwiseBalance;
+import com.splitz.expense.model.Settlement;
+import com.splitz.expense.repository.GroupMemberBalanceRepository;
+import com.splitz.expense.repository.GroupRepository;
+import com.splitz.expense.repository.PairwiseBalanceRepository;
+import java.math.BigDecimal;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+/**
+ * Keeps the materialized {@code group_member_balances} and {@code pairwise_balances} tables and the
+ * {@code ledger_entries} journal in step with the expense and settlement write paths, and evicts
+ * the cached balance responses each change affects. Every method joins the caller's transaction so
+ * the projection commits or rolls back together with the change that caused it.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class BalanceProjectionService {
+
+  private final GroupMemberBalanceRepository groupMemberBalanceRepository;
+  private final PairwiseBalanceRepository pairwiseBalanceRepository;
+  private final GroupRepository groupRepository;
+  private final BalanceService balanceService;
+  private final PlatformTransactionManager transactionManager;
+  private final BalanceCache balanceCache;
+  private final BalanceCheckpointService balanceCheckpointService;
+  private final LedgerService ledgerService;
+
+  @Transactional(propagation = Propagation.MANDATORY)
+  public void expenseCreated(Expense expense) {
+    ExpenseSnapshot snapshot = ExpenseSnapshot.of(expense);
+    applyDeltas(snapshot.groupId(), snapshot.balanceDeltas());
+    applyPairwiseDeltas(snapshot.groupId(), snapshot.pairwiseDeltas());
+    ledgerService.post(
+        snapshot.groupId(), LedgerEntryType.EXPENSE, expense.getId(), snapshot.balanceDeltas());
+    balanceCheckpointService.expenseChanged(snapshot.groupId(), expense.getId());
+    evict(
+        snapshot.groupId(),
+        snapshot.balanceDeltas().keySet(),
+        snapshot.pairwiseDeltas().asMap().keySet());
+  }
+
+  /**
+   * Projects a batch of newly inserted expenses of one group. Deltas are merged across the batch
+   * first, so each balance row is written once per batch rather than once per expense.
+   */
+  @Transactional(propagation = Propagation.MANDATORY)
+  public void expensesImported(Long groupId, List<Expense> expenses) {
+    if (expenses.isEmpty()) {
+      return;
+    }
+    Map<Long, BigDecimal> deltas = new TreeMap<>();
+    PairwiseDeltas pairwiseDeltas = new PairwiseDeltas();
+    Map<Long, Map<Long, BigDecimal>> postings = new LinkedHashMap<>();
+    for (Expense expense : expenses) {
+      ExpenseSnapshot snapshot = ExpenseSnapshot.of(expense);
+      snapshot
+          .balanceDeltas()
+          .forEach((userId, delta) -> deltas.merge(userId, delta, BigDecimal::add));
+      pairwiseDeltas.addAll(snapshot.pairwiseDeltas());
+      postings.put(expense.getId(), snapshot.balanceDeltas());
+    }
+    applyDeltas(groupId, deltas);
+    applyPairwiseDeltas(groupId, pairwiseDeltas);
+    ledgerService.postAll(groupId, LedgerEntryType.EXPENSE, postings);
+    // Pooled sequence ids are not ordered across instances, so the lowest id of the batch decides
+    // whether a checkpoint already covers part of it
+    balanceCheckpointService.expenseChanged(
+        groupId, expenses.stream().mapToLong(Expense::getId).min().getAsLong());
+    evict(groupId, deltas.keySet(), pairwiseDeltas.asMap().keySet());
+  }
+
+  @Transactional(propagation = Propagation.MANDATORY)
+  public void expenseUpdated(ExpenseSnapshot before, Expense expense) {
+    ExpenseSnapshot after = ExpenseSnapshot.of(expense);
+    Map<Long, BigDecimal> deltas = new TreeMap<>(after.balanceDeltas());
+    before
+        .balanceDeltas()
+        .forEach((userId, delta) -> deltas.merge(userId, delta.negate(), BigDecimal::add));
+    PairwiseDeltas pairwiseDeltas = after.pairwiseDeltas().subtract(before.pairwiseDeltas());
+    applyDeltas(after.groupId(), deltas);
+    applyPairwiseDeltas(after.groupId(), pairwiseDeltas);
+    ledgerService.post(
+        after.groupId(), LedgerEntryType.EXPENSE_ADJUSTMENT, expense.getId(), deltas);
+    balanceCheckpointService.expenseChanged(after.groupId(), expense.getId());
+    evict(after.groupId(), deltas.keySet(), pairwiseDeltas.asMap().keySet());
+  }
+
+  @Transactional(propagation = Propagation.MANDATORY)
+  public void expenseDeleted(Expense expense) {
+    ExpenseSnapshot snapshot = ExpenseSnapshot.of(expense);
+    Map<Long, BigDecimal> deltas = new TreeMap<>();
+    snapshot.balanceDeltas().forEach((userId, delta) -> deltas.put(userId, delta.negate()));
+    applyDeltas(snapshot.groupId(), deltas);
+    applyPairwiseDeltas(snapshot.groupId(), snapshot.pairwiseDeltas().negate());
+    ledgerService.post(
+        snapshot.groupId(), LedgerEntryType.EXPENSE_REVERSAL, expense.getId(), deltas);
+    balanceCheckpointService.expenseChanged(snapshot.groupId(), expense.getId());
+    evict(snapshot.groupId(), deltas.keySet(), snapshot.pairwiseDeltas().asMap().keySet());
+  }
+
+  @Transactional(propagation = Propagation.MANDATORY)
+  public void settlementCompleted(Settlement settlement) {
+    Long groupId = settlement.getGroup().getId();
+    settlementCompleted(
+        groupId, settlement.getPayerId(), settlement.getPayeeId(), settlement.getAmount());
+    ledgerService.post(
+        groupId,
+        LedgerEntryType.SETTLEMENT,
+        settlement.getId(),
+        settlementDeltas(settlement.getPayerId(), settlement.getPayeeId(), settlement.getAmount()));
+    balanceCheckpointService.settlementChanged(groupId, settlement.getId());
+  }
+
+  @Transactional(propagation = Propagation.MANDATORY)
+  public void settlementCompleted(FriendshipSettlement settlement) {
+    settlementCompleted(
+        settlement.getGroupId(),
+        settlement.getPayerId(),
+        settlement.getPayeeId(),
+        settlement.getAmount());
+    ledgerService.post(
+        settlement.getGroupId(),
+        LedgerEntryType.FRIENDSHIP_SETTLEMENT,
+        settlement.getId(),
+        settlementDeltas(settlement.getPayerId(), settlement.getPayeeId(), settlement.getAmount()));
+    balanceCheckpointService.friendshipSettlementChanged(
+        settlement.getGroupId(), settlement.getId());
+  }
+
+  @Transactional(propagation = Propagation.MANDATORY)
+  public void settlementCompleted(Long groupId, Long payerId, Long payeeId, BigDecimal amount) {
+    applyPairwiseDeltas(groupId, new PairwiseDeltas().add(payerId, payeeId, amount));
+    evict(groupId, List.of(payerId, payeeId), List.of(UserPair.of(payerId, payeeId)));
+    if (groupId == null) {
+      return;
+    }
+    applyDeltas(groupId, settlementDeltas(payerId, payeeId, amount));
+  }
+
+  private static Map<Long, BigDecimal> settlementDeltas(
+      Long payerId, Long payeeId, BigDecimal amount) {
+    Map<Long, BigDecimal> deltas = new TreeMap<>();
+    deltas.merge(payerId, amount, BigDecimal::add);
+    deltas.merge(payeeId, amount.negate(), BigDecimal::add);
+    return deltas;
+  }
+
+  @Transactional
+  public void rebuild(Long groupId) {
+    Map<Long, BigDecimal> balances = balanceService.calculateGroupBalancesFromHistory(groupId);
+    groupMemberBalanceRepository.deleteByGroupId(groupId);
+    groupMemberBalanceRepository.saveAll(
+        balances.entrySet().stream()
+            .map(
+                entry ->
+                    GroupMemberBalance.builder()
+                        .groupId(groupId)
+                        .userId(entry.getKey())
+                        .balance(entry.getValue())
+                        .build())
+            .toList());
+    rebuildPairwise(groupId);
+    balanceCheckpointService.invalidate(groupId);
+    balanceCache.evictAll();
+  }
+
+  public int rebuildAll() {
+    TransactionTemplate transactionTemplate = new TransactionTemplate(transactionManager);
+    List<Long> groupIds = groupRepository.findAllIds();
+    for (Long groupId : groupIds) {
+      transactionTemplate.executeWithoutResult(status -> rebuild(groupId));
+    }
+    // Friendship settlements made outside of any group
+    transactionTemplate.executeWithoutResult(
+        status -> {
+          rebuildPairwise(null);
+          balanceCache.evictAll();
+        });
+    log.info("Rebuilt materialized balances for {} groups", groupIds.size());
+    return groupIds.size();
+  }
+
+  private void evict(Long groupId, Collection<Long> userIds, Collection<UserPair> pairs) {
+    if (groupId != null) {
+      balanceCache.evictGroup(groupId);
+    }
+    balanceCache.evictUsers(userIds);
+    balanceCache.evictPairs(pairs);
+  }
+
+  private void applyDeltas(Long groupId, Map<Long, BigDecimal> deltas) {
+    // Deltas are keyed by a sorted map so concurrent writers lock rows in the same order
+    deltas.forEach(
+        (userId, delta) -> {
+          if (delta.signum() == 0) {
+            return;
+          }
+          groupMemberBalanceRepository.upsertBalance(groupId, userId, delta);
+        });
+  }
+
+  private void rebuildPairwise(Long groupId) {
+    Map<UserPair, BigDecimal> balances =
+        balanceService.calculatePairwiseBalancesFromHistory(groupId);
+    pairwiseBalanceRepository.deleteByGroupId(groupId);
+    pairwiseBalanceRepository.saveAll(
+        balances.entrySet().stream()
+            .map(
+                entry ->
+                    PairwiseBalance.builder()
+                        .groupId(groupId)
+                        .userA(entry.getKey().userA())
+                        .userB(entry.getKey().userB())
+                        .amount(entry.getValue())
+                        .build())
+            .toList());
+  }
+
+  private void applyPairwiseDeltas(Long groupId, PairwiseDeltas deltas) {
+    deltas
+        .asMap()
+        .forEach(
+            (pair, delta) -> {
+              if (delta.signum() == 0) {
+                return;
+              }
+              pairwiseBalanceRepository.upsertAmount(groupId, pair.userA(), pair.userB(), delta);
+            });
+  }
+}
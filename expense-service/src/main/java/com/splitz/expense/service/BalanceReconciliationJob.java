@@ -0,0 +1,32 @@
+package com.splitz.expense.service;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+/**
+ * Periodically checks stored balances against the expense and settlement history. Runs go through
+ * the same guard as admin-triggered ones, so a tick is skipped while one of those is going.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+@ConditionalOnProperty(
+    name = "expense.balances.reconciliation.enabled",
+    havingValue = "true",
+    matchIfMissing = true)
+public class BalanceReconciliationJob {
+
+  private final BalanceReconciliationService balanceReconciliationService;
+
+  @Scheduled(
+      fixedDelayString = "${expense.balances.reconciliation.interval-ms:21600000}",
+      initialDelayString = "${expense.balances.reconciliation.interval-ms:21600000}")
+  public void reconcile() {
+    if (!balanceReconciliationService.startReconcileAll()) {
+      log.info("Skipping scheduled balance reconciliation: a run is already going");
+    }
+  }
+}
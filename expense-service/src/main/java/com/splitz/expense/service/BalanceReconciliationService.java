@@ -0,0 +1,270 @@
+package com.splitz.expense.service;
+
+import com.splitz.expense.balance.GroupBalanceSource;
+import com.splitz.expense.dto.BalanceDriftDTO;
+import com.splitz.expense.dto.BalanceReconciliationReportDTO;
+import com.splitz.expense.repository.GroupRepository;
+import com.zaxxer.hikari.HikariDataSource;
+import com.zaxxer.hikari.HikariPoolMXBean;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+import javax.sql.DataSource;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+
+/**
+ * Checks the stored balances of every group against its raw history. Each group is folded from its
+ * expenses, splits and settlements exactly as the {@code ENTITIES} balance source does, checked to
+ * sum to zero, and compared member by member with the configured stored sources.
+ *
+ * <p>Groups are walked in id order in batches, one short read-only transaction per group on the
+ * calling thread, so a run never holds more than one connection. Between batches the run pauses,
+ * and it waits for the pool to calm down while more than {@code max-active-connections} connections
+ * are in use by foreground traffic. Runs requested through {@link #startReconcileAll}, by the
+ * scheduled job or an admin, go to a single background thread, one at a time.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class BalanceReconciliationService {
+
+  private final GroupRepository groupRepository;
+  private final BalanceService balanceService;
+  private final PlatformTransactionManager transactionManager;
+  private final DataSource dataSource;
+  private final MeterRegistry meterRegistry;
+
+  private final AtomicReference<BalanceReconciliationReportDTO> lastReport =
+      new AtomicReference<>();
+  private final AtomicInteger lastDriftedGroups = new AtomicInteger();
+  private final AtomicBoolean running = new AtomicBoolean();
+  private final ExecutorService runner =
+      Executors.newSingleThreadExecutor(new CustomizableThreadFactory("balance-reconciliation-"));
+
+  @Value("${expense.balances.reconciliation.sources:materialized,ledger}")
+  private List<GroupBalanceSource> sources =
+      List.of(GroupBalanceSource.MATERIALIZED, GroupBalanceSource.LEDGER);
+
+  @Value("${expense.balances.reconciliation.batch-size:100}")
+  private int batchSize = 100;
+
+  @Value("${expense.balances.reconciliation.batch-pause-ms:1000}")
+  private long batchPauseMs = 1000;
+
+  @Value("${expense.balances.reconciliation.max-active-connections:5}")
+  private int maxActiveConnections = 5;
+
+  @Value("${expense.balances.reconciliation.max-reported-drifts:100}")
+  private int maxReportedDrifts = 100;
+
+  @PostConstruct
+  void registerMetrics() {
+    meterRegistry.gauge("balances.reconciliation.drifted.groups", lastDriftedGroups);
+  }
+
+  @PreDestroy
+  void stopRunner() {
+    // Interrupting a run makes it stop after the current batch
+    runner.shutdownNow();
+  }
+
+  /**
+   * Starts {@link #reconcileAll} in the background and returns at once; its report is then
+   * published as the {@link #lastReport}. Returns false without starting anything while a run
+   * started here is still going.
+   */
+  public boolean startReconcileAll() {
+    if (!running.compareAndSet(false, true)) {
+      return false;
+    }
+    try {
+      runner.execute(
+          () -> {
+            try {
+              reconcileAll();
+            } catch (RuntimeException e) {
+              log.error("Balance reconciliation failed", e);
+            } finally {
+              running.set(false);
+            }
+          });
+    } catch (RejectedExecutionException e) {
+      running.set(false);
+      throw e;
+    }
+    return true;
+  }
+
+  /** Whether a run started by {@link #startReconcileAll} is still going. */
+  public boolean isRunning() {
+    return running.get();
+  }
+
+  /** The report of the last finished run, if any. */
+  public Optional<BalanceReconciliationReportDTO> lastReport() {
+    return Optional.ofNullable(lastReport.get());
+  }
+
+  /** Reconciles every group and publishes the report; stops early if the thread is interrupted. */
+  public BalanceReconciliationReportDTO reconcileAll() {
+    LocalDateTime startedAt = LocalDateTime.now();
+    long start = System.nanoTime();
+    List<BalanceDriftDTO> reported = new ArrayList<>();
+    int checked = 0;
+    int drifted = 0;
+    boolean complete = true;
+
+    long afterId = 0;
+    List<Long> batch;
+    while (!(batch = groupRepository.findIdsAfter(afterId, PageRequest.of(0, batchSize)))
+        .isEmpty()) {
+      if (checked > 0 && !throttle()) {
+        complete = false;
+        break;
+      }
+      for (Long groupId : batch) {
+        List<BalanceDriftDTO> drifts = reconcile(groupId);
+        checked++;
+        if (!drifts.isEmpty()) {
+          drifted++;
+          drifts.stream()
+              .limit(Math.max(0, maxReportedDrifts - reported.size()))
+              .forEach(reported::add);
+        }
+      }
+      afterId = batch.get(batch.size() - 1);
+    }
+
+    long durationNanos = System.nanoTime() - start;
+    meterRegistry.counter("balances.reconciliation.groups.checked").increment(checked);
+    meterRegistry
+        .timer("balances.reconciliation.duration")
+        .record(durationNanos, TimeUnit.NANOSECONDS);
+    lastDriftedGroups.set(drifted);
+
+    BalanceReconciliationReportDTO report =
+        BalanceReconciliationReportDTO.builder()
+            .startedAt(startedAt)
+            .durationMs(TimeUnit.NANOSECONDS.toMillis(durationNanos))
+            .complete(complete)
+            .groupsChecked(checked)
+            .groupsDrifted(drifted)
+            .drifts(reported)
+            .build();
+    lastReport.set(report);
+    if (drifted > 0) {
+      log.warn("Balance reconciliation found drift in {} of {} groups", drifted, checked);
+    } else {
+      log.info("Balance reconciliation checked {} groups without drift", checked);
+    }
+    return report;
+  }
+
+  /**
+   * Compares the stored balances of one group with its history, all read in one snapshot so
+   * concurrent writes cannot show up as drift.
+   */
+  public List<BalanceDriftDTO> reconcile(Long groupId) {
+    TransactionTemplate snapshot = new TransactionTemplate(transactionManager);
+    snapshot.setReadOnly(true);
+    snapshot.setIsolationLevel(TransactionDefinition.ISOLATION_REPEATABLE_READ);
+    List<BalanceDriftDTO> drifts =
+        snapshot.execute(
+            status -> {
+              List<BalanceDriftDTO> found = new ArrayList<>();
+              Map<Long, BigDecimal> expected =
+                  balanceService.loadGroupBalances(groupId, GroupBalanceSource.ENTITIES);
+              BigDecimal sum = expected.values().stream().reduce(BigDecimal.ZERO, BigDecimal::add);
+              if (sum.signum() != 0) {
+                found.add(
+                    BalanceDriftDTO.builder()
+                        .groupId(groupId)
+                        .source(GroupBalanceSource.ENTITIES)
+                        .expected(BigDecimal.ZERO)
+                        .actual(sum)
+                        .build());
+              }
+              for (GroupBalanceSource source : sources) {
+                Map<Long, BigDecimal> actual = balanceService.loadGroupBalances(groupId, source);
+                compare(groupId, source, expected, actual, found);
+              }
+              return found;
+            });
+    drifts.forEach(
+        drift ->
+            meterRegistry
+                .counter("balances.reconciliation.drifts", "source", drift.getSource().name())
+                .increment());
+    return drifts;
+  }
+
+  private static void compare(
+      Long groupId,
+      GroupBalanceSource source,
+      Map<Long, BigDecimal> expected,
+      Map<Long, BigDecimal> actual,
+      List<BalanceDriftDTO> drifts) {
+    // Members missing on either side count as zero
+    Set<Long> userIds = new TreeSet<>(expected.keySet());
+    userIds.addAll(actual.keySet());
+    for (Long userId : userIds) {
+      BigDecimal want = expected.getOrDefault(userId, BigDecimal.ZERO);
+      BigDecimal got = actual.getOrDefault(userId, BigDecimal.ZERO);
+      if (want.compareTo(got) != 0) {
+        drifts.add(
+            BalanceDriftDTO.builder()
+                .groupId(groupId)
+                .source(source)
+                .userId(userId)
+                .expected(want)
+                .actual(got)
+                .build());
+      }
+    }
+  }
+
+  /** Pauses between batches; false if the run was interrupted. */
+  private boolean throttle() {
+    try {
+      do {
+        Thread.sleep(batchPauseMs);
+      } while (poolBusy());
+      return true;
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      log.info("Balance reconciliation interrupted");
+      return false;
+    }
+  }
+
+  private boolean poolBusy() {
+    if (!(dataSource instanceof HikariDataSource hikari)) {
+      return false;
+    }
+    HikariPoolMXBean pool = hikari.getHikariPoolMXBean();
+    return pool != null && pool.getActiveConnections() > maxActiveConnections;
+  }
+}
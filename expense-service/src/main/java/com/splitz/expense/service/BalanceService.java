@@ -1,5 +1,13 @@
 package com.splitz.expense.service;
 
+import com.splitz.expense.balance.BalanceFold;
+import com.splitz.expense.balance.DebtSimplifierRegistry;
+import com.splitz.expense.balance.GroupBalanceSource;
+import com.splitz.expense.balance.MemberBalanceTotals;
+import com.splitz.expense.balance.PairwiseDeltas;
+import com.splitz.expense.balance.SimplificationStrategy;
+import com.splitz.expense.balance.Transfer;
+import com.splitz.expense.balance.UserPair;
 import com.splitz.expense.client.UserClient;
 import com.splitz.expense.dto.BalanceDTO;
 import com.splitz.expense.dto.DebtDTO;
@@ -16,23 +24,28 @@ import com.splitz.expense.model.Group;
 import com.splitz.expense.model.GroupMember;
 import com.splitz.expense.model.Settlement;
 import com.splitz.expense.model.SettlementStatus;
+import com.splitz.expense.money.Money;
 import com.splitz.expense.repository.ExpenseRepository;
 import com.splitz.expense.repository.FriendshipSettlementRepository;
+import com.splitz.expense.repository.GroupAmount;
+import com.splitz.expense.repository.GroupMemberBalanceRepository;
 import com.splitz.expense.repository.GroupMemberRepository;
 import com.splitz.expense.repository.GroupRepository;
+import com.splitz.expense.repository.PairwiseBalanceRepository;
 import com.splitz.expense.repository.SettlementRepository;
 import com.splitz.security.authorization.SharedSecurityAuthorizer;
 import java.math.BigDecimal;
 import java.math.RoundingMode;
+import java.time.LocalDateTime;
 import java.util.ArrayList;
-import java.util.Collections;
+import java.util.Comparator;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
-import java.util.PriorityQueue;
-import java.util.Set;
-import java.util.stream.Collectors;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
 import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
@@ -42,11 +55,24 @@ public class BalanceService {
 
   private final ExpenseRepository expenseRepository;
   private final GroupMemberRepository groupMemberRepository;
+  private final GroupMemberBalanceRepository groupMemberBalanceRepository;
   private final GroupRepository groupRepository;
+  private final PairwiseBalanceRepository pairwiseBalanceRepository;
   private final SettlementRepository settlementRepository;
   private final FriendshipSettlementRepository friendshipSettlementRepository;
   private final UserClient userClient;
   private final SharedSecurityAuthorizer splitzAuthorizer;
+  private final DebtSimplifierRegistry debtSimplifierRegistry;
+  private final BalanceCache balanceCache;
+  private final BalanceCheckpointService balanceCheckpointService;
+  private final ReadFanOut readFanOut;
+  private final LedgerService ledgerService;
+
+  @Value("${expense.balances.group-source:materialized}")
+  private GroupBalanceSource groupBalanceSource = GroupBalanceSource.MATERIALIZED;
+
+  @Value("${expense.balances.simplification:greedy}")
+  private SimplificationStrategy defaultSimplification = SimplificationStrategy.GREEDY;
 
   @Transactional(readOnly = true)
   public FriendBalanceResponseDTO getNetBalanceWithFriend(Long userId, Long friendId) {
@@ -57,75 +83,28 @@ public class BalanceService {
       throw new com.splitz.expense.exception.UnauthorizedException(
           "You are not authorized to view this balance");
     }
-    Set<Long> userGroupIds =
-        groupMemberRepository.findByUserId(userId).stream()
-            .map(gm -> gm.getGroup().getId())
-            .collect(Collectors.toSet());
-    Set<Long> friendGroupIds =
-        groupMemberRepository.findByUserId(friendId).stream()
-            .map(gm -> gm.getGroup().getId())
-            .collect(Collectors.toSet());
+    return balanceCache.friendBalance(
+        userId, friendId, () -> computeNetBalanceWithFriend(userId, friendId));
+  }
 
-    userGroupIds.retainAll(friendGroupIds);
+  private FriendBalanceResponseDTO computeNetBalanceWithFriend(Long userId, Long friendId) {
+    // Pairs are stored from the lower user id's point of view
+    UserPair pair = UserPair.of(userId, friendId);
+    boolean flip = !userId.equals(pair.userA());
 
     BigDecimal netBalance = BigDecimal.ZERO.setScale(2, RoundingMode.HALF_UP);
     List<FriendGroupBalanceDTO> groupBalances = new ArrayList<>();
 
-    if (!userGroupIds.isEmpty()) {
-      List<Group> sharedGroups = groupRepository.findAllById(userGroupIds);
-      Map<Long, String> groupNames =
-          sharedGroups.stream().collect(Collectors.toMap(Group::getId, Group::getName));
-
-      for (Long groupId : userGroupIds) {
-        BigDecimal groupNetBalance = BigDecimal.ZERO.setScale(2, RoundingMode.HALF_UP);
-
-        // 1. Group Expenses
-        BigDecimal userPaid =
-            expenseRepository.calculateTotalOwedBetweenUsers(
-                userId, friendId, Collections.singleton(groupId));
-        BigDecimal friendPaid =
-            expenseRepository.calculateTotalOwedBetweenUsers(
-                friendId, userId, Collections.singleton(groupId));
-        groupNetBalance = groupNetBalance.add(userPaid).subtract(friendPaid);
-
-        // 2. Group Settlements
-        BigDecimal userSettled =
-            settlementRepository.calculateTotalSettledBetweenUsers(
-                userId, friendId, Collections.singleton(groupId), SettlementStatus.COMPLETED);
-        BigDecimal friendSettled =
-            settlementRepository.calculateTotalSettledBetweenUsers(
-                friendId, userId, Collections.singleton(groupId), SettlementStatus.COMPLETED);
-        groupNetBalance = groupNetBalance.add(userSettled).subtract(friendSettled);
-
-        // 3. Friendship Settlements tied to group
-        BigDecimal userFSettled =
-            friendshipSettlementRepository.calculateTotalSettledBetweenUsersInGroup(
-                userId, friendId, groupId, SettlementStatus.COMPLETED);
-        BigDecimal friendFSettled =
-            friendshipSettlementRepository.calculateTotalSettledBetweenUsersInGroup(
-                friendId, userId, groupId, SettlementStatus.COMPLETED);
-        groupNetBalance = groupNetBalance.add(userFSettled).subtract(friendFSettled);
-
-        if (groupNetBalance.compareTo(BigDecimal.ZERO) != 0) {
-          groupBalances.add(
-              FriendGroupBalanceDTO.builder()
-                  .groupId(groupId)
-                  .groupName(groupNames.get(groupId))
-                  .balance(groupNetBalance)
-                  .build());
-        }
-        netBalance = netBalance.add(groupNetBalance);
+    for (FriendGroupBalanceDTO row :
+        pairwiseBalanceRepository.findBalancesBetween(pair.userA(), pair.userB())) {
+      BigDecimal balance = flip ? row.getBalance().negate() : row.getBalance();
+      netBalance = netBalance.add(balance);
+      if (row.getGroupId() != null && balance.compareTo(BigDecimal.ZERO) != 0) {
+        row.setBalance(balance);
+        groupBalances.add(row);
       }
     }
-
-    // 4. Global Friendship Settlements (no group)
-    BigDecimal userGlobalSettled =
-        friendshipSettlementRepository.calculateTotalSettledBetweenUsersInGroup(
-            userId, friendId, null, SettlementStatus.COMPLETED);
-    BigDecimal friendGlobalSettled =
-        friendshipSettlementRepository.calculateTotalSettledBetweenUsersInGroup(
-            friendId, userId, null, SettlementStatus.COMPLETED);
-    netBalance = netBalance.add(userGlobalSettled).subtract(friendGlobalSettled);
+    groupBalances.sort(Comparator.comparing(FriendGroupBalanceDTO::getGroupId));
 
     return FriendBalanceResponseDTO.builder()
         .userId(userId)
@@ -137,6 +116,22 @@ public class BalanceService {
 
   @Transactional(readOnly = true)
   public GroupBalanceResponseDTO getGroupBalances(Long groupId) {
+    return getGroupBalances(groupId, null);
+  }
+
+  /** Group balances with debts simplified by {@code strategy}, or the configured default. */
+  @Transactional(readOnly = true)
+  public GroupBalanceResponseDTO getGroupBalances(Long groupId, SimplificationStrategy strategy) {
+    return getGroupBalances(groupId, strategy, null);
+  }
+
+  /**
+   * Group balances as they stood at {@code asOf}, read from the ledger, or the current ones when
+   * {@code asOf} is {@code null}. Point-in-time responses are not cached.
+   */
+  @Transactional(readOnly = true)
+  public GroupBalanceResponseDTO getGroupBalances(
+      Long groupId, SimplificationStrategy strategy, LocalDateTime asOf) {
     if (!groupMemberRepository.existsByGroupIdAndUserId(
             groupId, splitzAuthorizer.getCurrentUserId())
         && !splitzAuthorizer.isAdmin()) {
@@ -146,52 +141,27 @@ public class BalanceService {
     if (!groupRepository.existsById(groupId)) {
       throw new ResourceNotFoundException("Group not found with id: " + groupId);
     }
+    SimplificationStrategy resolved = strategy != null ? strategy : defaultSimplification;
+    if (asOf != null) {
+      return computeGroupBalances(
+          groupId, resolved, ledgerService.groupBalancesAsOf(groupId, asOf));
+    }
+    return balanceCache.groupBalances(
+        groupId,
+        resolved,
+        () ->
+            computeGroupBalances(
+                groupId, resolved, loadGroupBalances(groupId, groupBalanceSource)));
+  }
 
-    List<GroupMember> members = groupMemberRepository.findByGroupId(groupId);
-    List<Expense> expenses = expenseRepository.findByGroupId(groupId);
-    List<Settlement> settlements = settlementRepository.findByGroupId(groupId);
-    List<FriendshipSettlement> friendshipSettlements =
-        friendshipSettlementRepository.findByGroupId(groupId);
-
+  private GroupBalanceResponseDTO computeGroupBalances(
+      Long groupId, SimplificationStrategy strategy, Map<Long, BigDecimal> memberBalances) {
     Map<Long, BigDecimal> balances = new HashMap<>();
-    for (GroupMember member : members) {
+    for (GroupMember member : groupMemberRepository.findByGroupId(groupId)) {
       balances.put(member.getUserId(), BigDecimal.ZERO.setScale(2, RoundingMode.HALF_UP));
     }
-
-    for (Expense expense : expenses) {
-      Long payerId = expense.getPaidBy();
-      BigDecimal amount = expense.getAmount();
-
-      balances.put(payerId, balances.getOrDefault(payerId, BigDecimal.ZERO).add(amount));
-
-      for (ExpenseSplit split : expense.getSplits()) {
-        Long userId = split.getUserId();
-        BigDecimal share = split.getShareAmount();
-        balances.put(userId, balances.getOrDefault(userId, BigDecimal.ZERO).subtract(share));
-      }
-    }
-
-    for (Settlement settlement : settlements) {
-      if (settlement.getStatus() == SettlementStatus.COMPLETED) {
-        Long payerId = settlement.getPayerId();
-        Long payeeId = settlement.getPayeeId();
-        BigDecimal amount = settlement.getAmount();
-
-        balances.put(payerId, balances.getOrDefault(payerId, BigDecimal.ZERO).add(amount));
-        balances.put(payeeId, balances.getOrDefault(payeeId, BigDecimal.ZERO).subtract(amount));
-      }
-    }
-
-    for (FriendshipSettlement settlement : friendshipSettlements) {
-      if (settlement.getStatus() == SettlementStatus.COMPLETED) {
-        Long payerId = settlement.getPayerId();
-        Long payeeId = settlement.getPayeeId();
-        BigDecimal amount = settlement.getAmount();
-
-        balances.put(payerId, balances.getOrDefault(payerId, BigDecimal.ZERO).add(amount));
-        balances.put(payeeId, balances.getOrDefault(payeeId, BigDecimal.ZERO).subtract(amount));
-      }
-    }
+    memberBalances.forEach(
+        (userId, balance) -> balances.put(userId, balance.setScale(2, RoundingMode.HALF_UP)));
 
     List<Long> userIds = new ArrayList<>(balances.keySet());
     List<UserResponse> userResponses = userClient.getUsersByIds(userIds);
@@ -213,7 +183,7 @@ public class BalanceService {
                   .build());
         });
 
-    List<DebtDTO> simplifiedDebts = simplifyDebts(balances, userMap);
+    List<DebtDTO> simplifiedDebts = simplifyDebts(balances, userMap, strategy);
 
     return GroupBalanceResponseDTO.builder()
         .groupId(groupId)
@@ -222,46 +192,210 @@ public class BalanceService {
         .build();
   }
 
+  /**
+   * Per-member balances of a group read from the given source; members with no activity may be
+   * missing.
+   */
+  @Transactional(readOnly = true)
+  public Map<Long, BigDecimal> loadGroupBalances(Long groupId, GroupBalanceSource source) {
+    Map<Long, BigDecimal> balances = new HashMap<>();
+    switch (source) {
+      case MATERIALIZED ->
+          groupMemberBalanceRepository
+              .findByGroupId(groupId)
+              .forEach(row -> balances.put(row.getUserId(), row.getBalance()));
+      case AGGREGATE ->
+          expenseRepository.aggregateMemberTotals(groupId).stream()
+              .map(MemberBalanceTotals::fromRow)
+              .forEach(totals -> balances.put(totals.userId(), totals.balance()));
+      case CHECKPOINT -> balances.putAll(balanceCheckpointService.currentBalances(groupId));
+      case LEDGER -> balances.putAll(ledgerService.groupBalances(groupId));
+      case ENTITIES -> balances.putAll(calculateGroupBalancesFromHistory(groupId));
+      default -> throw new IllegalStateException("Unknown balance source: " + source);
+    }
+    return balances;
+  }
+
+  /**
+   * Folds the full expense and settlement history of a group into per-user balances. This is the
+   * ground truth the materialized {@code group_member_balances} table is rebuilt from.
+   */
+  @Transactional(readOnly = true)
+  public Map<Long, BigDecimal> calculateGroupBalancesFromHistory(Long groupId) {
+    List<Expense> expenses = expenseRepository.findByGroupId(groupId);
+    List<Settlement> settlements = settlementRepository.findByGroupId(groupId);
+    List<FriendshipSettlement> friendshipSettlements =
+        friendshipSettlementRepository.findByGroupId(groupId);
+
+    BalanceFold balances = new BalanceFold(Money.BALANCE_SCALE);
+
+    for (Expense expense : expenses) {
+      balances.add(expense.getPaidBy(), expense.getAmount());
+      for (ExpenseSplit split : expense.getSplits()) {
+        balances.subtract(split.getUserId(), split.getShareAmount());
+      }
+    }
+
+    for (Settlement settlement : settlements) {
+      if (settlement.getStatus() == SettlementStatus.COMPLETED) {
+        balances.add(settlement.getPayerId(), settlement.getAmount());
+        balances.subtract(settlement.getPayeeId(), settlement.getAmount());
+      }
+    }
+
+    for (FriendshipSettlement settlement : friendshipSettlements) {
+      if (settlement.getStatus() == SettlementStatus.COMPLETED) {
+        balances.add(settlement.getPayerId(), settlement.getAmount());
+        balances.subtract(settlement.getPayeeId(), settlement.getAmount());
+      }
+    }
+
+    return balances.toMap();
+  }
+
+  /**
+   * Folds the history of a group into net debts per user pair; a {@code null} group covers
+   * friendship settlements made outside of any group. Ground truth for {@code pairwise_balances}.
+   */
   @Transactional(readOnly = true)
+  public Map<UserPair, BigDecimal> calculatePairwiseBalancesFromHistory(Long groupId) {
+    PairwiseDeltas deltas = new PairwiseDeltas();
+
+    if (groupId != null) {
+      for (Expense expense : expenseRepository.findByGroupId(groupId)) {
+        for (ExpenseSplit split : expense.getSplits()) {
+          deltas.add(expense.getPaidBy(), split.getUserId(), split.getShareAmount());
+        }
+      }
+      for (Settlement settlement : settlementRepository.findByGroupId(groupId)) {
+        if (settlement.getStatus() == SettlementStatus.COMPLETED) {
+          deltas.add(settlement.getPayerId(), settlement.getPayeeId(), settlement.getAmount());
+        }
+      }
+    }
+
+    List<FriendshipSettlement> friendshipSettlements =
+        groupId != null
+            ? friendshipSettlementRepository.findByGroupId(groupId)
+            : friendshipSettlementRepository.findByGroupIdIsNull();
+    for (FriendshipSettlement settlement : friendshipSettlements) {
+      if (settlement.getStatus() == SettlementStatus.COMPLETED) {
+        deltas.add(settlement.getPayerId(), settlement.getPayeeId(), settlement.getAmount());
+      }
+    }
+
+    return deltas.asMap();
+  }
+
+  // No surrounding transaction: each fanned-out read takes its own connection, and holding one here
+  // while waiting on them could starve the pool. ReadFanOut.snapshot decides when the reads can
+  // share one snapshot
   public UserBalanceResponseDTO getUserBalances(Long userId) {
+    return getUserBalances(userId, null);
+  }
+
+  /**
+   * A user's balances as they stood at {@code asOf}, read from the ledger, or the current ones when
+   * {@code asOf} is {@code null}. Point-in-time responses are not cached.
+   */
+  public UserBalanceResponseDTO getUserBalances(Long userId, LocalDateTime asOf) {
     if (!splitzAuthorizer.getCurrentUserId().equals(userId) && !splitzAuthorizer.isAdmin()) {
       throw new com.splitz.expense.exception.UnauthorizedException(
           "You are not authorized to view these balances");
     }
-    List<GroupMember> memberships = groupMemberRepository.findByUserId(userId);
-    List<UserBalanceResponseDTO.GroupBalanceDTO> groupBalances = new ArrayList<>();
+    if (asOf != null) {
+      return computeUserBalancesAsOf(userId, asOf);
+    }
+    return balanceCache.userBalances(userId, () -> computeUserBalances(userId));
+  }
+
+  private UserBalanceResponseDTO computeUserBalancesAsOf(Long userId, LocalDateTime asOf) {
+    CompletableFuture<Map<Long, BigDecimal>> balances =
+        readFanOut.read(() -> ledgerService.userBalancesAsOf(userId, asOf));
+    CompletableFuture<List<GroupMember>> memberships =
+        readFanOut.read(() -> groupMemberRepository.findWithGroupByUserId(userId));
+    CompletableFuture<Optional<UserResponse>> userLookup =
+        readFanOut.call(() -> userClient.getUserById(userId));
+
+    return toUserBalances(
+        userId,
+        ReadFanOut.join(balances),
+        ReadFanOut.join(memberships),
+        ReadFanOut.join(userLookup).orElse(null));
+  }
 
+  /**
+   * Folds a user's per-group balances from a constant number of independent aggregate queries,
+   * however many groups the user belongs to. With fan-out parallelism above 1 the queries run
+   * concurrently, each in its own snapshot: an expense or settlement committing while they run can
+   * then be counted by some and not by others, leaving the groups it touched off by its amount in
+   * this one response. Inline, they share one snapshot and always agree.
+   */
+  private UserBalanceResponseDTO computeUserBalances(Long userId) {
+    // Started first so the remote call never runs inside the snapshot transaction
+    CompletableFuture<Optional<UserResponse>> userLookup =
+        readFanOut.call(() -> userClient.getUserById(userId));
+    return readFanOut.snapshot(
+        () -> {
+          CompletableFuture<List<GroupAmount>> paid =
+              readFanOut.read(() -> expenseRepository.sumPaidByUserPerGroup(userId));
+          CompletableFuture<List<GroupAmount>> owed =
+              readFanOut.read(() -> expenseRepository.sumShareForUserPerGroup(userId));
+          CompletableFuture<List<GroupAmount>> settled =
+              readFanOut.read(
+                  () ->
+                      settlementRepository.sumNetSettledByUserPerGroup(
+                          userId, SettlementStatus.COMPLETED));
+          CompletableFuture<List<GroupAmount>> friendshipSettled =
+              readFanOut.read(
+                  () ->
+                      friendshipSettlementRepository.sumNetSettledByUserPerGroup(
+                          userId, SettlementStatus.COMPLETED));
+          CompletableFuture<List<GroupMember>> memberships =
+              readFanOut.read(() -> groupMemberRepository.findWithGroupByUserId(userId));
+
+          // Merged in a fixed order
+          Map<Long, BigDecimal> balancesByGroup = new HashMap<>();
+          addPerGroup(balancesByGroup, ReadFanOut.join(paid), false);
+          addPerGroup(balancesByGroup, ReadFanOut.join(owed), true);
+          addPerGroup(balancesByGroup, ReadFanOut.join(settled), false);
+          addPerGroup(balancesByGroup, ReadFanOut.join(friendshipSettled), false);
+
+          return toUserBalances(
+              userId,
+              balancesByGroup,
+              ReadFanOut.join(memberships),
+              ReadFanOut.join(userLookup).orElse(null));
+        });
+  }
+
+  private static UserBalanceResponseDTO toUserBalances(
+      Long userId,
+      Map<Long, BigDecimal> balancesByGroup,
+      List<GroupMember> memberships,
+      UserResponse user) {
+    List<UserBalanceResponseDTO.GroupBalanceDTO> groupBalances = new ArrayList<>();
     BigDecimal totalBalance = BigDecimal.ZERO.setScale(2, RoundingMode.HALF_UP);
 
     for (GroupMember membership : memberships) {
-      Long groupId = membership.getGroup().getId();
-      String groupName = membership.getGroup().getName();
-
-      BigDecimal userBalance = calculateUserBalanceInGroup(userId, groupId);
+      Group group = membership.getGroup();
+      BigDecimal userBalance =
+          balancesByGroup
+              .getOrDefault(group.getId(), BigDecimal.ZERO)
+              .setScale(2, RoundingMode.HALF_UP);
 
       groupBalances.add(
           UserBalanceResponseDTO.GroupBalanceDTO.builder()
-              .groupId(groupId)
-              .groupName(groupName)
+              .groupId(group.getId())
+              .groupName(group.getName())
               .balance(userBalance)
               .build());
 
       totalBalance = totalBalance.add(userBalance);
     }
 
-    List<FriendshipSettlement> globalSettlements =
-        friendshipSettlementRepository.findByPayerIdOrPayeeId(userId, userId);
-    for (FriendshipSettlement settlement : globalSettlements) {
-      if (settlement.getStatus() == SettlementStatus.COMPLETED) {
-        if (settlement.getPayerId().equals(userId)) {
-          totalBalance = totalBalance.add(settlement.getAmount());
-        } else {
-          totalBalance = totalBalance.subtract(settlement.getAmount());
-        }
-      }
-    }
-
-    UserResponse user = userClient.getUserById(userId).orElse(null);
+    // Friendship settlements made outside of any group
+    totalBalance = totalBalance.add(balancesByGroup.getOrDefault(null, BigDecimal.ZERO));
 
     return UserBalanceResponseDTO.builder()
         .userId(userId)
@@ -272,90 +406,32 @@ public class BalanceService {
         .build();
   }
 
-  private BigDecimal calculateUserBalanceInGroup(Long userId, Long groupId) {
-    BigDecimal totalPaid = expenseRepository.calculateTotalPaidByUserInGroup(userId, groupId);
-    BigDecimal totalShare = expenseRepository.calculateTotalShareForUserInGroup(userId, groupId);
-    BigDecimal settlementsPaid =
-        settlementRepository.calculateTotalSettlementsPaidByUserInGroup(
-            userId, groupId, SettlementStatus.COMPLETED);
-    BigDecimal settlementsReceived =
-        settlementRepository.calculateTotalSettlementsReceivedByUserInGroup(
-            userId, groupId, SettlementStatus.COMPLETED);
-    BigDecimal friendshipSettlementsPaid =
-        friendshipSettlementRepository.calculateTotalSettlementsPaidByUserInGroup(
-            userId, groupId, SettlementStatus.COMPLETED);
-    BigDecimal friendshipSettlementsReceived =
-        friendshipSettlementRepository.calculateTotalSettlementsReceivedByUserInGroup(
-            userId, groupId, SettlementStatus.COMPLETED);
-
-    return (totalPaid != null ? totalPaid : BigDecimal.ZERO)
-        .subtract(totalShare != null ? totalShare : BigDecimal.ZERO)
-        .add(settlementsPaid != null ? settlementsPaid : BigDecimal.ZERO)
-        .subtract(settlementsReceived != null ? settlementsReceived : BigDecimal.ZERO)
-        .add(friendshipSettlementsPaid != null ? friendshipSettlementsPaid : BigDecimal.ZERO)
-        .subtract(
-            friendshipSettlementsReceived != null ? friendshipSettlementsReceived : BigDecimal.ZERO)
-        .setScale(2, RoundingMode.HALF_UP);
+  private static void addPerGroup(
+      Map<Long, BigDecimal> balancesByGroup, List<GroupAmount> amounts, boolean subtract) {
+    for (GroupAmount row : amounts) {
+      BigDecimal amount = row.getAmount() != null ? row.getAmount() : BigDecimal.ZERO;
+      balancesByGroup.merge(row.getGroupId(), subtract ? amount.negate() : amount, BigDecimal::add);
+    }
   }
 
   private List<DebtDTO> simplifyDebts(
-      Map<Long, BigDecimal> balances, Map<Long, UserResponse> userMap) {
+      Map<Long, BigDecimal> balances,
+      Map<Long, UserResponse> userMap,
+      SimplificationStrategy strategy) {
     List<DebtDTO> debts = new ArrayList<>();
-
-    PriorityQueue<UserBalance> creditors =
-        new PriorityQueue<>((a, b) -> b.amount.compareTo(a.amount));
-    PriorityQueue<UserBalance> debtors =
-        new PriorityQueue<>((a, b) -> a.amount.compareTo(b.amount));
-
-    balances.forEach(
-        (userId, balance) -> {
-          if (balance.compareTo(BigDecimal.ZERO) > 0) {
-            creditors.add(new UserBalance(userId, balance));
-          } else if (balance.compareTo(BigDecimal.ZERO) < 0) {
-            debtors.add(new UserBalance(userId, balance));
-          }
-        });
-
-    while (!creditors.isEmpty() && !debtors.isEmpty()) {
-      UserBalance creditor = creditors.poll();
-      UserBalance debtor = debtors.poll();
-
-      BigDecimal amountToSettle = creditor.amount.min(debtor.amount.abs());
-
-      UserResponse fromUser = userMap.get(debtor.userId);
-      UserResponse toUser = userMap.get(creditor.userId);
+    for (Transfer transfer : debtSimplifierRegistry.simplify(strategy, balances)) {
+      UserResponse fromUser = userMap.get(transfer.from());
+      UserResponse toUser = userMap.get(transfer.to());
 
       debts.add(
           DebtDTO.builder()
-              .from(debtor.userId)
+              .from(transfer.from())
               .fromUsername(fromUser != null ? fromUser.getUsername() : null)
-              .to(creditor.userId)
+              .to(transfer.to())
               .toUsername(toUser != null ? toUser.getUsername() : null)
-              .amount(amountToSettle.setScale(2, RoundingMode.HALF_UP))
+              .amount(transfer.amount().setScale(2, RoundingMode.HALF_UP))
               .build());
-
-      creditor.amount = creditor.amount.subtract(amountToSettle);
-      debtor.amount = debtor.amount.add(amountToSettle);
-
-      if (creditor.amount.compareTo(BigDecimal.ZERO) > 0) {
-        creditors.add(creditor);
-      }
-      if (debtor.amount.compareTo(BigDecimal.ZERO) < 0) {
-        debtors.add(debtor);
-      }
     }
-
     return debts;
   }
-
-  private static class UserBalance {
-
-    Long userId;
-    BigDecimal amount;
-
-    UserBalance(Long userId, BigDecimal amount) {
-      this.userId = userId;
-      this.amount = amount;
-    }
-  }
 }
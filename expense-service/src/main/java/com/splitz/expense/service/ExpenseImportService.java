@@ -0,0 +1,254 @@
+package com.splitz.expense.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.splitz.expense.calculator.SplitCalculator;
+import com.splitz.expense.calculator.SplitResult;
+import com.splitz.expense.dto.CreateExpenseRequest;
+import com.splitz.expense.dto.ExpenseImportResultDTO;
+import com.splitz.expense.dto.SplitRequest;
+import com.splitz.expense.exception.ResourceNotFoundException;
+import com.splitz.expense.importer.ExpenseImportFormat;
+import com.splitz.expense.importer.ExpenseRowReader;
+import com.splitz.expense.importer.ImportRow;
+import com.splitz.expense.model.ActivityLogType;
+import com.splitz.expense.model.Category;
+import com.splitz.expense.model.Expense;
+import com.splitz.expense.model.ExpenseSplit;
+import com.splitz.expense.model.Group;
+import com.splitz.expense.model.GroupMember;
+import com.splitz.expense.repository.CategoryRepository;
+import com.splitz.expense.repository.GroupMemberRepository;
+import com.splitz.expense.repository.GroupRepository;
+import com.splitz.security.authorization.SharedSecurityAuthorizer;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceException;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.NestedExceptionUtils;
+import org.springframework.dao.DataAccessException;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+/**
+ * Creates expenses in bulk from a streamed CSV or NDJSON body. Rows are validated against the group
+ * members and categories loaded once up front, split with {@link SplitCalculator}, and written in
+ * chunks of {@code expense.import.batch-size}: each chunk is one transaction that persists its
+ * expenses, projects their balances together, flushes and clears the persistence context.
+ *
+ * <p>Rows that fail validation are reported and skipped. If a chunk fails to save, every row in it
+ * is reported and the chunks before it stay committed.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class ExpenseImportService {
+
+  private final GroupRepository groupRepository;
+  private final GroupMemberRepository groupMemberRepository;
+  private final CategoryRepository categoryRepository;
+  private final SplitCalculator splitCalculator;
+  private final SharedSecurityAuthorizer splitzAuthorizer;
+  private final BalanceProjectionService balanceProjectionService;
+  private final ActivityLogService activityLogService;
+  private final PlatformTransactionManager transactionManager;
+  private final EntityManager entityManager;
+  private final ObjectMapper objectMapper;
+  private final Validator validator;
+
+  @Value("${expense.import.batch-size:500}")
+  private int batchSize = 500;
+
+  @Value("${expense.import.max-reported-errors:1000}")
+  private int maxReportedErrors = 1000;
+
+  private record PendingExpense(
+      long rowNumber, CreateExpenseRequest request, List<SplitResult> splits) {}
+
+  public ExpenseImportResultDTO importExpenses(
+      Long groupId, ExpenseImportFormat format, InputStream body, Long currentUserId)
+      throws IOException {
+    if (!groupMemberRepository.existsByGroupIdAndUserId(groupId, currentUserId)
+        && !splitzAuthorizer.isAdmin()) {
+      throw new com.splitz.expense.exception.UnauthorizedException(
+          "Only group members can import expenses");
+    }
+    if (!groupRepository.existsById(groupId)) {
+      throw new ResourceNotFoundException("Group not found with id: " + groupId);
+    }
+    Set<Long> memberIds =
+        groupMemberRepository.findByGroupId(groupId).stream()
+            .map(GroupMember::getUserId)
+            .collect(Collectors.toSet());
+    Set<Long> categoryIds =
+        categoryRepository.findAll().stream().map(Category::getId).collect(Collectors.toSet());
+
+    long start = System.nanoTime();
+    ExpenseImportResultDTO result =
+        ExpenseImportResultDTO.builder().errors(new ArrayList<>()).build();
+    ExpenseRowReader reader = format.open(body, objectMapper);
+    List<PendingExpense> chunk = new ArrayList<>(batchSize);
+    ImportRow row;
+    while ((row = reader.next()) != null) {
+      result.setRowsRead(result.getRowsRead() + 1);
+      String error =
+          row.error() != null ? row.error() : validate(row.request(), memberIds, categoryIds);
+      if (error != null) {
+        fail(result, row.rowNumber(), error);
+        continue;
+      }
+      CreateExpenseRequest request = row.request();
+      List<SplitResult> splits;
+      try {
+        splits =
+            splitCalculator.calculate(
+                request.getAmount(),
+                request.getSplitType(),
+                request.getSplits(),
+                request.getCurrency());
+      } catch (IllegalArgumentException | ArithmeticException e) {
+        fail(result, row.rowNumber(), e.getMessage());
+        continue;
+      }
+      chunk.add(new PendingExpense(row.rowNumber(), request, splits));
+      if (chunk.size() >= batchSize) {
+        persist(groupId, chunk, currentUserId, result);
+        chunk.clear();
+      }
+    }
+    persist(groupId, chunk, currentUserId, result);
+
+    long durationNanos = System.nanoTime() - start;
+    result.setDurationMs(TimeUnit.NANOSECONDS.toMillis(durationNanos));
+    result.setRowsPerSecond(
+        durationNanos > 0 ? result.getRowsRead() * 1e9 / durationNanos : result.getRowsRead());
+    log.info(
+        "Imported {} of {} expense rows into group {} in {} ms",
+        result.getImported(),
+        result.getRowsRead(),
+        groupId,
+        result.getDurationMs());
+    return result;
+  }
+
+  private String validate(
+      CreateExpenseRequest request, Set<Long> memberIds, Set<Long> categoryIds) {
+    Set<ConstraintViolation<CreateExpenseRequest>> violations = validator.validate(request);
+    if (!violations.isEmpty()) {
+      return violations.stream()
+          .map(violation -> violation.getPropertyPath() + ": " + violation.getMessage())
+          .sorted()
+          .collect(Collectors.joining("; "));
+    }
+    if (!memberIds.contains(request.getPaidBy())) {
+      return "Payer must be a member of the group";
+    }
+    if (request.getSplits() == null || request.getSplits().isEmpty()) {
+      return "At least one split is required";
+    }
+    for (SplitRequest split : request.getSplits()) {
+      if (!memberIds.contains(split.getUserId())) {
+        return "Participant " + split.getUserId() + " is not a member of the group";
+      }
+    }
+    if (request.getCategoryId() != null && !categoryIds.contains(request.getCategoryId())) {
+      return "Category not found with id: " + request.getCategoryId();
+    }
+    return null;
+  }
+
+  private void persist(
+      Long groupId, List<PendingExpense> chunk, Long currentUserId, ExpenseImportResultDTO result) {
+    if (chunk.isEmpty()) {
+      return;
+    }
+    try {
+      new TransactionTemplate(transactionManager)
+          .executeWithoutResult(
+              status -> {
+                Group group = entityManager.getReference(Group.class, groupId);
+                List<Expense> expenses = new ArrayList<>(chunk.size());
+                for (PendingExpense pending : chunk) {
+                  Expense expense = toExpense(group, pending);
+                  entityManager.persist(expense);
+                  expenses.add(expense);
+                }
+                entityManager.flush();
+                balanceProjectionService.expensesImported(groupId, expenses);
+                for (Expense expense : expenses) {
+                  activityLogService.logActivity(
+                      groupId,
+                      ActivityLogType.EXPENSE_CREATED,
+                      currentUserId,
+                      expense.getId(),
+                      expense.getDescription(),
+                      null);
+                }
+                entityManager.flush();
+                entityManager.clear();
+              });
+      result.setImported(result.getImported() + chunk.size());
+    } catch (DataAccessException | PersistenceException e) {
+      String cause = NestedExceptionUtils.getMostSpecificCause(e).getMessage();
+      log.warn(
+          "Failed to save {} imported expenses into group {}: {}", chunk.size(), groupId, cause);
+      for (PendingExpense pending : chunk) {
+        fail(result, pending.rowNumber(), "Could not be saved: " + cause);
+      }
+    }
+  }
+
+  private Expense toExpense(Group group, PendingExpense pending) {
+    CreateExpenseRequest request = pending.request();
+    Expense expense =
+        Expense.builder()
+            .group(group)
+            .description(request.getDescription())
+            .amount(request.getAmount())
+            .currency(request.getCurrency())
+            .paidBy(request.getPaidBy())
+            .category(
+                request.getCategoryId() != null
+                    ? entityManager.getReference(Category.class, request.getCategoryId())
+                    : null)
+            .expenseDate(request.getExpenseDate())
+            .notes(request.getNotes())
+            .receiptUrl(request.getReceiptUrl())
+            .build();
+    expense.setSplits(
+        pending.splits().stream()
+            .map(
+                split ->
+                    ExpenseSplit.builder()
+                        .expense(expense)
+                        .userId(split.userId())
+                        .splitType(split.splitType())
+                        .splitValue(split.splitValue())
+                        .shareAmount(split.shareAmount())
+                        .build())
+            .collect(Collectors.toList()));
+    return expense;
+  }
+
+  private void fail(ExpenseImportResultDTO result, long rowNumber, String message) {
+    result.setFailed(result.getFailed() + 1);
+    if (result.getErrors().size() < maxReportedErrors) {
+      result
+          .getErrors()
+          .add(
+              ExpenseImportResultDTO.RowErrorDTO.builder().row(rowNumber).message(message).build());
+    } else {
+      result.setErrorsTruncated(true);
+    }
+  }
+}
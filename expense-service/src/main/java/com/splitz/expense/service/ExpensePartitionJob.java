@@ -0,0 +1,25 @@
+package com.splitz.expense.service;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+/** Periodically creates upcoming expense partitions and archives the ones past the horizon. */
+@Component
+@RequiredArgsConstructor
+@ConditionalOnProperty(
+    name = "expense.partitions.enabled",
+    havingValue = "true",
+    matchIfMissing = true)
+public class ExpensePartitionJob {
+
+  private final ExpensePartitionService expensePartitionService;
+
+  @Scheduled(
+      fixedDelayString = "${expense.partitions.interval-ms:86400000}",
+      initialDelayString = "${expense.partitions.initial-delay-ms:60000}")
+  public void maintainPartitions() {
+    expensePartitionService.maintain();
+  }
+}
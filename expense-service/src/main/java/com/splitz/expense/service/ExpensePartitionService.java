@@ -0,0 +1,261 @@
+package com.splitz.expense.service;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import java.time.LocalDate;
+import java.time.Period;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.SortedSet;
+import java.util.TreeSet;
+import java.util.function.Supplier;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.hibernate.dialect.PostgreSQLDialect;
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+/**
+ * Maintains the yearly range partitions of {@code expenses} and {@code expense_splits} on Postgres
+ * (see V25). Partitions are created for the current year and the next {@code
+ * expense.partitions.years-ahead} years, and for every year with rows in the default partition,
+ * which are moved into it. Partitions whose whole year lies before the archive horizon are moved to
+ * the archive schema, and to the archive tablespace when one is configured.
+ *
+ * <p>Archived partitions stay attached. Balance rebuilds and the reconciliation fold the complete
+ * expense history, so detaching old years would silently change every balance computed from it;
+ * queries bounded by date prune the archived years instead. Other databases are not partitioned and
+ * nothing is done there.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class ExpensePartitionService {
+
+  static final List<String> TABLES = List.of("expenses", "expense_splits");
+
+  private static final int MAX_YEAR = 9999;
+
+  private final PlatformTransactionManager transactionManager;
+
+  @PersistenceContext private EntityManager entityManager;
+
+  @Value("${expense.partitions.years-ahead:1}")
+  private int yearsAhead = 1;
+
+  @Value("${expense.partitions.archive-horizon:P3Y}")
+  private Period archiveHorizon = Period.ofYears(3);
+
+  @Value("${expense.partitions.archive-schema:archive}")
+  private String archiveSchema = "archive";
+
+  @Value("${expense.partitions.archive-tablespace:}")
+  private String archiveTablespace = "";
+
+  public void maintain() {
+    if (!isPostgres()) {
+      return;
+    }
+    LocalDate today = LocalDate.now();
+    for (String table : TABLES) {
+      Map<String, String> partitions = partitions(table);
+      SortedSet<Integer> years = new TreeSet<>(misplacedYears(table));
+      for (int year = today.getYear(); year <= today.getYear() + yearsAhead; year++) {
+        years.add(year);
+      }
+      boolean created = false;
+      for (int year : years) {
+        if (!partitions.containsKey(partitionName(table, year))) {
+          createPartition(table, year);
+          created = true;
+        }
+      }
+      // Years moved out of the default partition may already lie past the archive horizon
+      Map<String, String> current = created ? partitions(table) : partitions;
+      current.forEach(
+          (name, schema) -> {
+            Integer year = partitionYear(table, name);
+            if (year != null
+                && !schema.equals(archiveSchema)
+                && isPastHorizon(year, today, archiveHorizon)) {
+              archive(schema, name);
+            }
+          });
+    }
+  }
+
+  static String partitionName(String table, int year) {
+    return table + "_y" + year;
+  }
+
+  /** Year of a partition named by {@link #partitionName}, null for the default partition. */
+  static Integer partitionYear(String table, String partition) {
+    Matcher matcher = Pattern.compile(Pattern.quote(table) + "_y(\\d{1,4})").matcher(partition);
+    return matcher.matches() ? Integer.valueOf(matcher.group(1)) : null;
+  }
+
+  /** Whether all of {@code year} lies before {@code today} minus the horizon. */
+  static boolean isPastHorizon(int year, LocalDate today, Period horizon) {
+    return !LocalDate.of(year + 1, 1, 1).isAfter(today.minus(horizon));
+  }
+
+  /** Partitions of {@code table}, by name, with the schema each currently lives in. */
+  private Map<String, String> partitions(String table) {
+    List<?> rows =
+        inTransaction(
+            () ->
+                entityManager
+                    .createNativeQuery(
+                        "SELECT c.relname, n.nspname FROM pg_inherits i"
+                            + " JOIN pg_class c ON c.oid = i.inhrelid"
+                            + " JOIN pg_namespace n ON n.oid = c.relnamespace"
+                            + " WHERE i.inhparent = CAST(:table AS regclass)")
+                    .setParameter("table", table)
+                    .getResultList());
+    Map<String, String> partitions = new LinkedHashMap<>();
+    for (Object row : rows) {
+      Object[] columns = (Object[]) row;
+      partitions.put((String) columns[0], (String) columns[1]);
+    }
+    return partitions;
+  }
+
+  /** Years that have rows in the default partition, which only happens without a partition. */
+  private List<Integer> misplacedYears(String table) {
+    List<?> years =
+        inTransaction(
+            () ->
+                entityManager
+                    .createNativeQuery(
+                        String.format(
+                            "SELECT DISTINCT CAST(EXTRACT(YEAR FROM expense_date) AS INTEGER)"
+                                + " FROM %s WHERE expense_date BETWEEN DATE '0001-01-01'"
+                                + " AND DATE '%d-12-31'",
+                            quote(table + "_default"), MAX_YEAR))
+                    .getResultList());
+    return years.stream().map(year -> ((Number) year).intValue()).toList();
+  }
+
+  /**
+   * Creates the partition of {@code year}. Rows of that year already in the default partition would
+   * violate the new bounds, so the default partition is then detached, its rows of the year are
+   * moved through the parent into the new partition, and it is attached again, all in one
+   * transaction.
+   */
+  private void createPartition(String table, int year) {
+    String partition = partitionName(table, year);
+    String parent = quote(table);
+    String defaultPartition = quote(table + "_default");
+    LocalDate from = LocalDate.of(year, 1, 1);
+    LocalDate to = from.plusYears(1);
+    String range =
+        String.format("expense_date >= DATE '%s' AND expense_date < DATE '%s'", from, to);
+    String create =
+        String.format(
+            "CREATE TABLE %s PARTITION OF %s FOR VALUES FROM ('%s') TO ('%s')",
+            quote(partition), parent, from, to);
+    int moved =
+        inTransaction(
+            () -> {
+              boolean misplaced =
+                  (Boolean)
+                      entityManager
+                          .createNativeQuery(
+                              String.format(
+                                  "SELECT EXISTS (SELECT 1 FROM %s WHERE %s)",
+                                  defaultPartition, range))
+                          .getSingleResult();
+              if (!misplaced) {
+                execute(create);
+                return 0;
+              }
+              String columns = insertableColumns(table);
+              execute(
+                  String.format("ALTER TABLE %s DETACH PARTITION %s", parent, defaultPartition));
+              execute(create);
+              int rows =
+                  execute(
+                      String.format(
+                          "INSERT INTO %s (%s) SELECT %s FROM %s WHERE %s",
+                          parent, columns, columns, defaultPartition, range));
+              execute(String.format("DELETE FROM %s WHERE %s", defaultPartition, range));
+              execute(
+                  String.format(
+                      "ALTER TABLE %s ATTACH PARTITION %s DEFAULT", parent, defaultPartition));
+              return rows;
+            });
+    log.info("Created partition {} ({} rows moved from the default partition)", partition, moved);
+  }
+
+  private void archive(String schema, String partition) {
+    String schemaName = quote(archiveSchema);
+    String archived = schemaName + "." + quote(partition);
+    inTransaction(
+        () -> {
+          execute("CREATE SCHEMA IF NOT EXISTS " + schemaName);
+          execute(
+              String.format(
+                  "ALTER TABLE %s.%s SET SCHEMA %s", quote(schema), quote(partition), schemaName));
+          if (archiveTablespace.isBlank()) {
+            return null;
+          }
+          String tablespace = quote(archiveTablespace);
+          execute(String.format("ALTER TABLE %s SET TABLESPACE %s", archived, tablespace));
+          List<?> indexes =
+              entityManager
+                  .createNativeQuery(
+                      "SELECT indexname FROM pg_indexes"
+                          + " WHERE schemaname = :schema AND tablename = :table")
+                  .setParameter("schema", archiveSchema)
+                  .setParameter("table", partition)
+                  .getResultList();
+          for (Object index : indexes) {
+            execute(
+                String.format(
+                    "ALTER INDEX %s.%s SET TABLESPACE %s",
+                    schemaName, quote((String) index), tablespace));
+          }
+          return null;
+        });
+    log.info("Archived partition {} to schema {}", partition, archiveSchema);
+  }
+
+  /** Columns of {@code table} that can be inserted, leaving out the generated ones. */
+  private String insertableColumns(String table) {
+    return (String)
+        entityManager
+            .createNativeQuery(
+                "SELECT string_agg(quote_ident(column_name), ', ' ORDER BY ordinal_position)"
+                    + " FROM information_schema.columns WHERE table_schema = current_schema()"
+                    + " AND table_name = :table AND is_generated = 'NEVER'")
+            .setParameter("table", table)
+            .getSingleResult();
+  }
+
+  private int execute(String sql) {
+    return entityManager.createNativeQuery(sql).executeUpdate();
+  }
+
+  private <T> T inTransaction(Supplier<T> work) {
+    return new TransactionTemplate(transactionManager).execute(status -> work.get());
+  }
+
+  private static String quote(String identifier) {
+    return '"' + identifier.replace("\"", "\"\"") + '"';
+  }
+
+  private boolean isPostgres() {
+    return entityManager
+            .getEntityManagerFactory()
+            .unwrap(SessionFactoryImplementor.class)
+            .getJdbcServices()
+            .getDialect()
+        instanceof PostgreSQLDialect;
+  }
+}
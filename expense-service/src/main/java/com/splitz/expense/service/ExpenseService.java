@@ -1,11 +1,15 @@
 package com.splitz.expense.service;
 
+import com.splitz.expense.balance.ExpenseSnapshot;
 import com.splitz.expense.calculator.SplitCalculator;
 import com.splitz.expense.calculator.SplitResult;
 import com.splitz.expense.dto.CreateExpenseRequest;
 import com.splitz.expense.dto.ExpenseDTO;
+import com.splitz.expense.dto.ExpenseFilter;
+import com.splitz.expense.dto.ExpensePageDTO;
 import com.splitz.expense.dto.SplitRequest;
 import com.splitz.expense.dto.UpdateExpenseRequest;
+import com.splitz.expense.exception.PreconditionFailedException;
 import com.splitz.expense.exception.ResourceNotFoundException;
 import com.splitz.expense.mapper.ExpenseMapper;
 import com.splitz.expense.model.Category;
@@ -13,15 +17,29 @@ import com.splitz.expense.model.Expense;
 import com.splitz.expense.model.ExpenseSplit;
 import com.splitz.expense.model.Group;
 import com.splitz.expense.model.SplitType;
+import com.splitz.expense.pagination.ExpenseCursor;
+import com.splitz.expense.pagination.ExpenseSearchCursor;
 import com.splitz.expense.repository.CategoryRepository;
 import com.splitz.expense.repository.ExpenseRepository;
 import com.splitz.expense.repository.GroupMemberRepository;
 import com.splitz.expense.repository.GroupRepository;
+import com.splitz.expense.streaming.RowStream;
+import com.splitz.expense.streaming.RowStreamer;
 import com.splitz.security.authorization.SharedSecurityAuthorizer;
 import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.function.Predicate;
+import java.util.regex.Pattern;
 import java.util.stream.Collectors;
 import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
@@ -29,6 +47,9 @@ import org.springframework.transaction.annotation.Transactional;
 @RequiredArgsConstructor
 public class ExpenseService {
 
+  private static final Pattern NON_WORD = Pattern.compile("[^\\p{L}\\p{N}]+");
+  private static final int MAX_SEARCH_TERMS = 10;
+
   private final ExpenseRepository expenseRepository;
   private final GroupRepository groupRepository;
   private final GroupMemberRepository groupMemberRepository;
@@ -38,6 +59,11 @@ public class ExpenseService {
   private final SharedSecurityAuthorizer splitzAuthorizer;
   private final GroupService groupService;
   private final ActivityLogService activityLogService;
+  private final BalanceProjectionService balanceProjectionService;
+  private final RowStreamer rowStreamer;
+
+  @Value("${expense.listing.max-page-size:200}")
+  private int maxPageSize = 200;
 
   @Transactional
   public ExpenseDTO createExpense(Long groupId, CreateExpenseRequest request, Long currentUserId) {
@@ -85,6 +111,7 @@ public class ExpenseService {
     expense.setSplits(splits);
 
     Expense savedExpense = expenseRepository.save(expense);
+    balanceProjectionService.expenseCreated(savedExpense);
     activityLogService.logActivity(
         groupId,
         com.splitz.expense.model.ActivityLogType.EXPENSE_CREATED,
@@ -121,6 +148,16 @@ public class ExpenseService {
 
   @Transactional(readOnly = true)
   public ExpenseDTO getExpense(Long id, Long currentUserId) {
+    return getExpense(id, currentUserId, version -> false).orElseThrow();
+  }
+
+  /**
+   * Reads an expense unless {@code notModified} accepts its current version, in which case nothing
+   * is mapped and the result is empty.
+   */
+  @Transactional(readOnly = true)
+  public Optional<ExpenseDTO> getExpense(
+      Long id, Long currentUserId, Predicate<Integer> notModified) {
     Expense expense =
         expenseRepository
             .findById(id)
@@ -131,12 +168,61 @@ public class ExpenseService {
       throw new com.splitz.expense.exception.UnauthorizedException(
           "Only group members can view this expense");
     }
+    if (notModified.test(expense.getVersion())) {
+      return Optional.empty();
+    }
+    return Optional.of(expenseMapper.toDTO(expense));
+  }
+
+  @Transactional(readOnly = true)
+  public ExpensePageDTO getExpensesByGroup(
+      Long groupId, ExpenseFilter filter, String cursor, int limit, Long currentUserId) {
+    checkCanViewGroup(groupId, currentUserId);
+    return findPage(List.of(groupId), filter, cursor, limit);
+  }
+
+  @Transactional(readOnly = true)
+  public ExpensePageDTO getExpensesByGroupIds(
+      List<Long> groupIds, ExpenseFilter filter, String cursor, int limit, Long currentUserId) {
+    checkCanViewGroups(groupIds, currentUserId);
+    if (groupIds.isEmpty()) {
+      return ExpensePageDTO.builder().expenses(List.of()).build();
+    }
+    return findPage(groupIds, filter, cursor, limit);
+  }
 
-    return expenseMapper.toDTO(expense);
+  /**
+   * Every expense of a group matching {@code filter}, in listing order, for a streamed response.
+   * Access and the filter are checked now; the rows are read when the stream is consumed.
+   */
+  @Transactional(readOnly = true)
+  public RowStream<ExpenseDTO> streamExpensesByGroup(
+      Long groupId, ExpenseFilter filter, Long currentUserId) {
+    checkCanViewGroup(groupId, currentUserId);
+    validateFilter(filter);
+    return streamExpenses(List.of(groupId), filter);
   }
 
   @Transactional(readOnly = true)
-  public List<ExpenseDTO> getExpensesByGroup(Long groupId, Long currentUserId) {
+  public RowStream<ExpenseDTO> streamExpensesByGroupIds(
+      List<Long> groupIds, ExpenseFilter filter, Long currentUserId) {
+    checkCanViewGroups(groupIds, currentUserId);
+    validateFilter(filter);
+    if (groupIds.isEmpty()) {
+      return action -> {};
+    }
+    return streamExpenses(groupIds, filter);
+  }
+
+  private RowStream<ExpenseDTO> streamExpenses(Collection<Long> groupIds, ExpenseFilter filter) {
+    return rowStreamer.byIds(
+        () -> expenseRepository.streamIds(groupIds, filter),
+        expenseRepository::findWithSplitsByIdIn,
+        Expense::getId,
+        expenseMapper::toDTO);
+  }
+
+  private void checkCanViewGroup(Long groupId, Long currentUserId) {
     if (!groupMemberRepository.existsByGroupIdAndUserId(groupId, currentUserId)
         && !splitzAuthorizer.isAdmin()) {
       throw new com.splitz.expense.exception.UnauthorizedException(
@@ -145,13 +231,9 @@ public class ExpenseService {
     if (!groupRepository.existsById(groupId)) {
       throw new ResourceNotFoundException("Group not found with id: " + groupId);
     }
-    return expenseRepository.findByGroupId(groupId).stream()
-        .map(expenseMapper::toDTO)
-        .collect(Collectors.toList());
   }
 
-  @Transactional(readOnly = true)
-  public List<ExpenseDTO> getExpensesByGroupIds(List<Long> groupIds, Long currentUserId) {
+  private void checkCanViewGroups(List<Long> groupIds, Long currentUserId) {
     if (!splitzAuthorizer.isAdmin()) {
       List<Long> userGroupIds =
           groupMemberRepository.findByUserId(currentUserId).stream()
@@ -163,24 +245,131 @@ public class ExpenseService {
             "You are not authorized to view expenses for one or more of the requested groups");
       }
     }
+  }
+
+  private static void validateFilter(ExpenseFilter filter) {
+    if (filter.getFrom() != null
+        && filter.getTo() != null
+        && filter.getFrom().isAfter(filter.getTo())) {
+      throw new IllegalArgumentException("from must not be after to");
+    }
+    if (filter.getMinAmount() != null
+        && filter.getMaxAmount() != null
+        && filter.getMinAmount().compareTo(filter.getMaxAmount()) > 0) {
+      throw new IllegalArgumentException("minAmount must not be greater than maxAmount");
+    }
+  }
 
+  /**
+   * Reads one page of a listing in two steps: the keys of the page come from the {@code (group_id,
+   * expense_date, id)} index, then only those expenses are loaded with their splits. One row past
+   * the page is read to tell whether there is a next page, instead of counting.
+   */
+  private ExpensePageDTO findPage(
+      Collection<Long> groupIds, ExpenseFilter filter, String cursor, int limit) {
+    if (limit < 1 || limit > maxPageSize) {
+      throw new IllegalArgumentException("limit must be between 1 and " + maxPageSize);
+    }
+    validateFilter(filter);
+    ExpenseCursor after = cursor != null ? ExpenseCursor.decode(cursor) : null;
+
+    List<ExpenseCursor> keys = expenseRepository.findPageKeys(groupIds, filter, after, limit + 1);
+    String nextCursor = null;
+    if (keys.size() > limit) {
+      keys = keys.subList(0, limit);
+      nextCursor = keys.get(limit - 1).encode();
+    }
+    return loadPage(keys.stream().map(ExpenseCursor::id).toList(), nextCursor);
+  }
+
+  /**
+   * Searches the description and notes of the expenses in every group the user is a member of. Each
+   * word of {@code query} must match, as a prefix of a word on Postgres; results come best match
+   * first and are keyset-paginated like the listings.
+   */
+  @Transactional(readOnly = true)
+  public ExpensePageDTO searchExpenses(String query, String cursor, int limit, Long currentUserId) {
+    if (limit < 1 || limit > maxPageSize) {
+      throw new IllegalArgumentException("limit must be between 1 and " + maxPageSize);
+    }
+    List<String> terms = searchTerms(query);
+    ExpenseSearchCursor after = cursor != null ? ExpenseSearchCursor.decode(cursor) : null;
+
+    List<Long> groupIds =
+        groupMemberRepository.findByUserId(currentUserId).stream()
+            .map(gm -> gm.getGroup().getId())
+            .toList();
     if (groupIds.isEmpty()) {
-      return java.util.Collections.emptyList();
+      return ExpensePageDTO.builder().expenses(List.of()).build();
     }
+    List<ExpenseSearchCursor> keys =
+        expenseRepository.searchPageKeys(groupIds, terms, after, limit + 1);
+    String nextCursor = null;
+    if (keys.size() > limit) {
+      keys = keys.subList(0, limit);
+      nextCursor = keys.get(limit - 1).encode();
+    }
+    return loadPage(keys.stream().map(ExpenseSearchCursor::id).toList(), nextCursor);
+  }
 
-    return expenseRepository.findByGroupIdIn(groupIds).stream()
-        .map(expenseMapper::toDTO)
-        .collect(Collectors.toList());
+  /** Lowercase distinct words of a search query; punctuation only separates words. */
+  private static List<String> searchTerms(String query) {
+    List<String> terms =
+        NON_WORD
+            .splitAsStream(query == null ? "" : query.toLowerCase(Locale.ROOT))
+            .filter(term -> !term.isEmpty())
+            .distinct()
+            .toList();
+    if (terms.isEmpty()) {
+      throw new IllegalArgumentException("q must contain at least one word");
+    }
+    if (terms.size() > MAX_SEARCH_TERMS) {
+      throw new IllegalArgumentException(
+          "q must not contain more than " + MAX_SEARCH_TERMS + " words");
+    }
+    return terms;
+  }
+
+  /** Loads the expenses of a page with their splits, in the order of {@code ids}. */
+  private ExpensePageDTO loadPage(List<Long> ids, String nextCursor) {
+    Map<Long, Expense> expenses =
+        expenseRepository.findWithSplitsByIdIn(ids).stream()
+            .collect(Collectors.toMap(Expense::getId, expense -> expense));
+    return ExpensePageDTO.builder()
+        .expenses(
+            ids.stream()
+                .map(expenses::get)
+                // Deleted since its key was read
+                .filter(Objects::nonNull)
+                .map(expenseMapper::toDTO)
+                .toList())
+        .nextCursor(nextCursor)
+        .build();
   }
 
   @Transactional
   public ExpenseDTO updateExpense(Long id, UpdateExpenseRequest request, Long currentUserId) {
+    return updateExpense(id, request, currentUserId, version -> true);
+  }
+
+  /**
+   * Updates an expense if {@code expectedVersion} accepts its current version. The write is then
+   * conditional on that version, so a concurrent update in between fails instead of being lost.
+   */
+  @Transactional
+  public ExpenseDTO updateExpense(
+      Long id,
+      UpdateExpenseRequest request,
+      Long currentUserId,
+      Predicate<Integer> expectedVersion) {
     Expense expense =
         expenseRepository
             .findById(id)
             .orElseThrow(() -> new ResourceNotFoundException("Expense not found with id: " + id));
 
     checkAuthorization(expense, currentUserId);
+    checkVersion(expense, expectedVersion);
+    ExpenseSnapshot before = ExpenseSnapshot.of(expense);
 
     StringBuilder diff = new StringBuilder();
     if (request.getDescription() != null
@@ -248,6 +437,7 @@ public class ExpenseService {
       expense.setReceiptUrl(request.getReceiptUrl());
     }
 
+    boolean splitsChanged = false;
     if (request.getSplits() != null && !request.getSplits().isEmpty()) {
       SplitType splitType = request.getSplitType();
       if (splitType == null) {
@@ -256,9 +446,8 @@ public class ExpenseService {
                 ? SplitType.EQUAL
                 : expense.getSplits().get(0).getSplitType();
       }
-      List<ExpenseSplit> newSplits = calculateSplits(expense, request.getSplits(), splitType);
-      expense.getSplits().clear();
-      expense.getSplits().addAll(newSplits);
+      splitsChanged =
+          replaceSplits(expense, calculateSplits(expense, request.getSplits(), splitType));
       diff.append("splits: modified; ");
     } else if (request.getAmount() != null) {
       SplitType splitType =
@@ -274,15 +463,18 @@ public class ExpenseService {
                           .splitValue(s.getSplitValue())
                           .build())
               .collect(Collectors.toList());
-      List<ExpenseSplit> updatedSplits = calculateSplits(expense, splitRequests, splitType);
-      expense.getSplits().clear();
-      expense.getSplits().addAll(updatedSplits);
+      splitsChanged = replaceSplits(expense, calculateSplits(expense, splitRequests, splitType));
       diff.append("splits: recalculated; ");
     }
+    if (splitsChanged) {
+      // Split rows carry no version: bump the expense's so its ETag changes with them
+      expenseRepository.incrementVersion(expense);
+    }
 
     expense.setLastModifiedBy(currentUserId);
 
     Expense savedExpense = expenseRepository.save(expense);
+    balanceProjectionService.expenseUpdated(before, savedExpense);
 
     activityLogService.logActivity(
         savedExpense.getGroup().getId(),
@@ -292,17 +484,25 @@ public class ExpenseService {
         savedExpense.getDescription(),
         diff.toString().trim());
 
+    // Flush so the returned version, and the ETag built from it, is the one just written
+    expenseRepository.flush();
     return expenseMapper.toDTO(savedExpense);
   }
 
   @Transactional
   public void deleteExpense(Long id, Long currentUserId) {
+    deleteExpense(id, currentUserId, version -> true);
+  }
+
+  @Transactional
+  public void deleteExpense(Long id, Long currentUserId, Predicate<Integer> expectedVersion) {
     Expense expense =
         expenseRepository
             .findById(id)
             .orElseThrow(() -> new ResourceNotFoundException("Expense not found with id: " + id));
 
     checkAuthorization(expense, currentUserId);
+    checkVersion(expense, expectedVersion);
 
     activityLogService.logActivity(
         expense.getGroup().getId(),
@@ -312,9 +512,62 @@ public class ExpenseService {
         expense.getDescription(),
         null);
 
+    balanceProjectionService.expenseDeleted(expense);
     expenseRepository.delete(expense);
   }
 
+  private static void checkVersion(Expense expense, Predicate<Integer> expectedVersion) {
+    if (!expectedVersion.test(expense.getVersion())) {
+      throw new PreconditionFailedException(
+          "Expense " + expense.getId() + " has been modified since it was read");
+    }
+  }
+
+  /**
+   * Replaces the splits of an expense, matching old and new splits by user so only the rows that
+   * differ are written: matched rows are updated in place if a value changed, new participants are
+   * inserted and dropped participants are deleted as orphans.
+   *
+   * @return whether any split row was inserted, updated or deleted
+   */
+  private boolean replaceSplits(Expense expense, List<ExpenseSplit> newSplits) {
+    Map<Long, ExpenseSplit> existing = new HashMap<>();
+    for (ExpenseSplit split : expense.getSplits()) {
+      existing.put(split.getUserId(), split);
+    }
+    List<ExpenseSplit> merged = new ArrayList<>(newSplits.size());
+    boolean changed = false;
+    for (ExpenseSplit split : newSplits) {
+      ExpenseSplit current = existing.remove(split.getUserId());
+      if (current == null) {
+        merged.add(split);
+        changed = true;
+        continue;
+      }
+      if (current.getSplitType() != split.getSplitType()) {
+        current.setSplitType(split.getSplitType());
+        changed = true;
+      }
+      if (!sameValue(current.getSplitValue(), split.getSplitValue())) {
+        current.setSplitValue(split.getSplitValue());
+        changed = true;
+      }
+      if (!sameValue(current.getShareAmount(), split.getShareAmount())) {
+        current.setShareAmount(split.getShareAmount());
+        changed = true;
+      }
+      merged.add(current);
+    }
+    // Reordering the managed rows writes nothing; rows left in existing become orphans
+    expense.getSplits().clear();
+    expense.getSplits().addAll(merged);
+    return changed || !existing.isEmpty();
+  }
+
+  private static boolean sameValue(BigDecimal a, BigDecimal b) {
+    return a == null ? b == null : b != null && a.compareTo(b) == 0;
+  }
+
   private void checkAuthorization(Expense expense, Long currentUserId) {
     if (splitzAuthorizer.isSelfOrAdmin(expense.getPaidBy())) {
       return;
@@ -25,6 +25,7 @@ public class FriendshipSettlementService {
   private final FriendshipSettlementRepository friendshipSettlementRepository;
   private final FriendshipSettlementMapper friendshipSettlementMapper;
   private final SharedSecurityAuthorizer splitzAuthorizer;
+  private final BalanceProjectionService balanceProjectionService;
 
   @Transactional
   public List<FriendshipSettlementDTO> createSettlements(
@@ -97,9 +98,13 @@ public class FriendshipSettlementService {
               .build());
     }
 
-    return friendshipSettlementRepository.saveAll(settlements).stream()
-        .map(friendshipSettlementMapper::toDTO)
-        .collect(Collectors.toList());
+    List<FriendshipSettlement> saved = friendshipSettlementRepository.saveAll(settlements);
+    for (FriendshipSettlement settlement : saved) {
+      if (settlement.getStatus() == SettlementStatus.COMPLETED) {
+        balanceProjectionService.settlementCompleted(settlement);
+      }
+    }
+    return saved.stream().map(friendshipSettlementMapper::toDTO).collect(Collectors.toList());
   }
 
   @Transactional(readOnly = true)
@@ -176,7 +181,9 @@ public class FriendshipSettlementService {
     settlement.setStatus(SettlementStatus.COMPLETED);
     settlement.setSettledAt(LocalDateTime.now());
 
-    return friendshipSettlementMapper.toDTO(friendshipSettlementRepository.save(settlement));
+    FriendshipSettlement saved = friendshipSettlementRepository.save(settlement);
+    balanceProjectionService.settlementCompleted(saved);
+    return friendshipSettlementMapper.toDTO(saved);
   }
 
   @Transactional(readOnly = true)
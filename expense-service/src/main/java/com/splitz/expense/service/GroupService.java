@@ -8,6 +8,7 @@ import com.splitz.expense.dto.GroupDTO;
 import com.splitz.expense.dto.UpdateGroupRequest;
 import com.splitz.expense.dto.UpdateMemberRoleRequest;
 import com.splitz.expense.dto.UserResponse;
+import com.splitz.expense.exception.PreconditionFailedException;
 import com.splitz.expense.exception.ResourceNotFoundException;
 import com.splitz.expense.exception.UnauthorizedException;
 import com.splitz.expense.mapper.GroupMapper;
@@ -20,6 +21,7 @@ import java.util.ArrayList;
 import java.util.List;
 import java.util.Optional;
 import java.util.Set;
+import java.util.function.Predicate;
 import java.util.stream.Collectors;
 import lombok.RequiredArgsConstructor;
 import org.springframework.stereotype.Service;
@@ -34,6 +36,7 @@ public class GroupService {
   private final GroupMemberRepository groupMemberRepository;
   private final GroupMapper groupMapper;
   private final UserClient userClient;
+  private final BalanceCache balanceCache;
 
   public GroupDTO createGroup(CreateGroupRequest request, Long currentUserId) {
     Group group =
@@ -74,17 +77,38 @@ public class GroupService {
 
   @Transactional(readOnly = true)
   public GroupDTO getGroup(Long groupId, Long userId) {
+    return getGroup(groupId, userId, version -> false).orElseThrow();
+  }
+
+  /**
+   * Reads a group unless {@code notModified} accepts its current version, in which case nothing is
+   * mapped and the result is empty.
+   */
+  @Transactional(readOnly = true)
+  public Optional<GroupDTO> getGroup(Long groupId, Long userId, Predicate<Integer> notModified) {
     Group group = getGroupWithMembers(groupId);
     requireMembership(group, userId);
-    return groupMapper.toDTO(group);
+    if (notModified.test(group.getVersion())) {
+      return Optional.empty();
+    }
+    return Optional.of(groupMapper.toDTO(group));
   }
 
   public GroupDTO updateGroup(Long groupId, UpdateGroupRequest request, Long userId) {
+    return updateGroup(groupId, request, userId, version -> true);
+  }
+
+  public GroupDTO updateGroup(
+      Long groupId, UpdateGroupRequest request, Long userId, Predicate<Integer> expectedVersion) {
     Group group = getGroupWithMembers(groupId);
     requireAdmin(group, userId);
+    checkVersion(group, expectedVersion);
 
-    if (request.getName() != null) {
+    if (request.getName() != null && !request.getName().equals(group.getName())) {
       group.setName(request.getName());
+      // User and friend balances show group names
+      balanceCache.evictUsers(group.getMembers().stream().map(GroupMember::getUserId).toList());
+      balanceCache.evictAllPairs();
     }
     if (request.getDescription() != null) {
       group.setDescription(request.getDescription());
@@ -98,14 +122,24 @@ public class GroupService {
     if (request.getAllowMembersToEditExpenses() != null) {
       group.setAllowMembersToEditExpenses(request.getAllowMembersToEditExpenses());
     }
-    return groupMapper.toDTO(groupRepository.save(group));
+    Group saved = groupRepository.saveAndFlush(group);
+    return groupMapper.toDTO(saved);
   }
 
   public void deleteGroup(Long groupId, Long userId) {
+    deleteGroup(groupId, userId, version -> true);
+  }
+
+  public void deleteGroup(Long groupId, Long userId, Predicate<Integer> expectedVersion) {
     Group group = getGroupWithMembers(groupId);
     requireAdmin(group, userId);
+    checkVersion(group, expectedVersion);
     group.setActive(false);
     groupRepository.save(group);
+    // User and friend balances list the group as well
+    balanceCache.evictGroup(groupId);
+    balanceCache.evictUsers(group.getMembers().stream().map(GroupMember::getUserId).toList());
+    balanceCache.evictAllPairs();
   }
 
   public GroupDTO addMember(Long groupId, AddMemberRequest request, Long userId) {
@@ -124,7 +158,9 @@ public class GroupService {
     GroupMember member = GroupMember.builder().userId(request.getUserId()).role(role).build();
     group.addMember(member);
 
-    Group saved = groupRepository.save(group);
+    Group saved = groupRepository.saveAndFlush(group);
+    balanceCache.evictGroup(groupId);
+    balanceCache.evictUsers(List.of(request.getUserId()));
     return groupMapper.toDTO(saved);
   }
 
@@ -137,9 +173,13 @@ public class GroupService {
     requireCanManageMembers(group, userId);
 
     if (request.getUserIds() != null) {
+      // Checked against the loaded members: a membership query would flush each pending insert
+      // on its own and break up the insert batch
+      Set<Long> memberIds =
+          group.getMembers().stream().map(GroupMember::getUserId).collect(Collectors.toSet());
       for (Long memberUserId : request.getUserIds()) {
         // Skip users already in the group
-        if (groupMemberRepository.existsByGroupIdAndUserId(groupId, memberUserId)) {
+        if (!memberIds.add(memberUserId)) {
           continue;
         }
         if (!userClient.existsById(memberUserId)) {
@@ -149,9 +189,11 @@ public class GroupService {
             GroupMember.builder().userId(memberUserId).role(GroupRole.MEMBER).build();
         group.addMember(member);
       }
+      balanceCache.evictUsers(request.getUserIds());
     }
 
-    Group saved = groupRepository.save(group);
+    Group saved = groupRepository.saveAndFlush(group);
+    balanceCache.evictGroup(groupId);
     return groupMapper.toDTO(saved);
   }
 
@@ -219,11 +261,17 @@ public class GroupService {
 
     group.removeMember(member);
     groupMemberRepository.delete(member);
+    balanceCache.evictGroup(groupId);
+    balanceCache.evictUsers(List.of(memberUserId));
   }
 
   public GroupDTO updateMemberRole(
       Long groupId, Long memberUserId, UpdateMemberRoleRequest request, Long userId) {
-    Group group = getGroupWithMembers(groupId);
+    // A role change only writes the member row, so bump the group version explicitly
+    Group group =
+        groupRepository
+            .findByIdForMemberChange(groupId)
+            .orElseThrow(() -> new ResourceNotFoundException("Group not found"));
     requireAdmin(group, userId);
 
     GroupMember member =
@@ -245,7 +293,7 @@ public class GroupService {
     }
 
     member.setRole(request.getRole());
-    return groupMapper.toDTO(groupRepository.save(group));
+    return groupMapper.toDTO(groupRepository.saveAndFlush(group));
   }
 
   private Group getGroupWithMembers(Long groupId) {
@@ -254,6 +302,13 @@ public class GroupService {
         .orElseThrow(() -> new ResourceNotFoundException("Group not found"));
   }
 
+  private static void checkVersion(Group group, Predicate<Integer> expectedVersion) {
+    if (!expectedVersion.test(group.getVersion())) {
+      throw new PreconditionFailedException(
+          "Group " + group.getId() + " has been modified since it was read");
+    }
+  }
+
   private void requireMembership(Group group, Long userId) {
     boolean isMember =
         group.getMembers().stream().anyMatch(member -> member.getUserId().equals(userId));
@@ -0,0 +1,21 @@
+package com.splitz.expense.service;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+/**
+ * Keeps the idempotency claims of requests running on this instance alive. The interval must stay
+ * well below {@code expense.idempotency.in-progress-timeout}, or long requests lose their claim.
+ */
+@Component
+@RequiredArgsConstructor
+public class IdempotencyClaimHeartbeatJob {
+
+  private final IdempotencyService idempotencyService;
+
+  @Scheduled(fixedDelayString = "${expense.idempotency.heartbeat-interval-ms:10000}")
+  public void heartbeat() {
+    idempotencyService.refreshClaims();
+  }
+}
@@ -0,0 +1,20 @@
+package com.splitz.expense.service;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+/** Periodically deletes idempotency keys past their TTL. */
+@Component
+@RequiredArgsConstructor
+public class IdempotencyKeyPurgeJob {
+
+  private final IdempotencyService idempotencyService;
+
+  @Scheduled(
+      fixedDelayString = "${expense.idempotency.purge-interval-ms:3600000}",
+      initialDelayString = "${expense.idempotency.purge-interval-ms:3600000}")
+  public void purge() {
+    idempotencyService.purgeExpired();
+  }
+}
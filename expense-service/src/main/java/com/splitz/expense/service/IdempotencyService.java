@@ -0,0 +1,269 @@
+package com.splitz.expense.service;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.splitz.expense.model.IdempotencyKey;
+import com.splitz.expense.model.IdempotencyKeyStatus;
+import com.splitz.expense.repository.IdempotencyKeyRepository;
+import jakarta.annotation.PostConstruct;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+/**
+ * Backs the {@code Idempotency-Key} header of the create endpoints. The first request with a key
+ * claims it by inserting an {@code IN_PROGRESS} row, whose unique constraint serializes duplicates
+ * across instances; its successful response is then stored and replayed to every retry until the
+ * key expires. Stored responses are also kept in memory, and a duplicate arriving on the same
+ * instance while the first request still runs waits for it instead of hitting the table.
+ *
+ * <p>Failed requests release their key so the client can retry them. While a request runs, its
+ * instance refreshes the claim's heartbeat (see {@link IdempotencyClaimHeartbeatJob}); a claim
+ * whose heartbeat is older than {@code expense.idempotency.in-progress-timeout} is treated as
+ * abandoned by a crashed instance and may be taken over. A request that merely runs long keeps its
+ * claim, and retries get {@link Decision#IN_PROGRESS} until it finishes.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class IdempotencyService {
+
+  private static final int MAX_CLAIM_ATTEMPTS = 3;
+
+  public enum Decision {
+    /** The key is claimed for this request: run it, then {@link #complete} or {@link #release}. */
+    PROCEED,
+    /** The key already has a stored response for the same request. */
+    REPLAY,
+    /** Another request with the key is still running. */
+    IN_PROGRESS,
+    /** The key was used for a different request. */
+    MISMATCH
+  }
+
+  public record StoredResponse(int status, String contentType, String body) {}
+
+  /** {@code id} identifies the claimed row when the decision is {@link Decision#PROCEED}. */
+  public record Claim(Decision decision, StoredResponse response, Long id) {
+
+    static Claim of(Decision decision) {
+      return new Claim(decision, null, null);
+    }
+  }
+
+  private record Completed(String requestHash, StoredResponse response) {}
+
+  private final IdempotencyKeyRepository idempotencyKeyRepository;
+  private final PlatformTransactionManager transactionManager;
+
+  @Value("${expense.idempotency.ttl:PT24H}")
+  private Duration ttl = Duration.ofHours(24);
+
+  @Value("${expense.idempotency.in-progress-timeout:PT30S}")
+  private Duration inProgressTimeout = Duration.ofSeconds(30);
+
+  @Value("${expense.idempotency.cache-size:10000}")
+  private long cacheSize = 10000;
+
+  private final ConcurrentMap<String, CountDownLatch> running = new ConcurrentHashMap<>();
+  private final Set<Long> heldClaims = ConcurrentHashMap.newKeySet();
+  private Cache<String, Completed> completed;
+
+  @PostConstruct
+  void initCache() {
+    completed = Caffeine.newBuilder().maximumSize(cacheSize).expireAfterWrite(ttl).build();
+  }
+
+  public Claim claim(Long userId, String key, String requestHash) {
+    String cacheKey = cacheKey(userId, key);
+    CountDownLatch latch = new CountDownLatch(1);
+    while (true) {
+      Completed done = completed.getIfPresent(cacheKey);
+      if (done != null) {
+        return replay(done, requestHash);
+      }
+      CountDownLatch other = running.putIfAbsent(cacheKey, latch);
+      if (other == null) {
+        break;
+      }
+      if (!await(other)) {
+        return Claim.of(Decision.IN_PROGRESS);
+      }
+    }
+    try {
+      Claim claim = claimRow(userId, key, requestHash, cacheKey);
+      if (claim.decision() != Decision.PROCEED) {
+        finish(cacheKey);
+      }
+      return claim;
+    } catch (RuntimeException e) {
+      finish(cacheKey);
+      throw e;
+    }
+  }
+
+  /** Stores the response of a claimed request so retries replay it. */
+  public void complete(
+      Long userId, String key, Long claimId, String requestHash, StoredResponse response) {
+    String cacheKey = cacheKey(userId, key);
+    try {
+      Integer updated =
+          new TransactionTemplate(transactionManager)
+              .execute(
+                  status ->
+                      idempotencyKeyRepository.complete(
+                          claimId,
+                          response.status(),
+                          response.contentType(),
+                          response.body(),
+                          IdempotencyKeyStatus.IN_PROGRESS,
+                          IdempotencyKeyStatus.COMPLETED));
+      if (updated != null && updated > 0) {
+        completed.put(cacheKey, new Completed(requestHash, response));
+      } else {
+        // Only possible once the heartbeat stalled for longer than the timeout
+        log.warn("Idempotency claim {} for key {} was taken over before completing", claimId, key);
+      }
+    } finally {
+      finish(cacheKey, claimId);
+    }
+  }
+
+  /** Gives up a claim whose request failed, so it can be retried with the same key. */
+  public void release(Long userId, String key, Long claimId) {
+    String cacheKey = cacheKey(userId, key);
+    try {
+      new TransactionTemplate(transactionManager)
+          .executeWithoutResult(status -> idempotencyKeyRepository.deleteClaim(claimId));
+    } finally {
+      finish(cacheKey, claimId);
+    }
+  }
+
+  /** Refreshes the heartbeat of the claims of requests still running on this instance. */
+  @Transactional
+  public int refreshClaims() {
+    if (heldClaims.isEmpty()) {
+      return 0;
+    }
+    return idempotencyKeyRepository.heartbeat(
+        List.copyOf(heldClaims), LocalDateTime.now(), IdempotencyKeyStatus.IN_PROGRESS);
+  }
+
+  @Transactional
+  public int purgeExpired() {
+    int purged = idempotencyKeyRepository.deleteExpired(LocalDateTime.now());
+    if (purged > 0) {
+      log.info("Purged {} expired idempotency keys", purged);
+    }
+    return purged;
+  }
+
+  private Claim claimRow(Long userId, String key, String requestHash, String cacheKey) {
+    TransactionTemplate transactionTemplate = new TransactionTemplate(transactionManager);
+    for (int attempt = 0; attempt < MAX_CLAIM_ATTEMPTS; attempt++) {
+      LocalDateTime now = LocalDateTime.now();
+      IdempotencyKey existing =
+          transactionTemplate.execute(
+              status ->
+                  idempotencyKeyRepository.findByUserIdAndIdempotencyKey(userId, key).orElse(null));
+      if (existing == null) {
+        try {
+          Long id =
+              transactionTemplate
+                  .execute(
+                      status ->
+                          idempotencyKeyRepository.saveAndFlush(
+                              IdempotencyKey.builder()
+                                  .userId(userId)
+                                  .idempotencyKey(key)
+                                  .requestHash(requestHash)
+                                  .status(IdempotencyKeyStatus.IN_PROGRESS)
+                                  .createdAt(now)
+                                  .heartbeatAt(now)
+                                  .expiresAt(now.plus(ttl))
+                                  .build()))
+                  .getId();
+          heldClaims.add(id);
+          return new Claim(Decision.PROCEED, null, id);
+        } catch (DataIntegrityViolationException e) {
+          // Another instance claimed the key first; read its row on the next attempt
+          continue;
+        }
+      }
+      if (isStale(existing, now)) {
+        transactionTemplate.executeWithoutResult(
+            status -> idempotencyKeyRepository.deleteClaim(existing.getId()));
+        continue;
+      }
+      if (!existing.getRequestHash().equals(requestHash)) {
+        return Claim.of(Decision.MISMATCH);
+      }
+      if (existing.getStatus() == IdempotencyKeyStatus.IN_PROGRESS) {
+        return Claim.of(Decision.IN_PROGRESS);
+      }
+      Completed done =
+          new Completed(
+              existing.getRequestHash(),
+              new StoredResponse(
+                  existing.getResponseStatus(),
+                  existing.getResponseContentType(),
+                  existing.getResponseBody()));
+      completed.put(cacheKey, done);
+      return replay(done, requestHash);
+    }
+    return Claim.of(Decision.IN_PROGRESS);
+  }
+
+  private boolean isStale(IdempotencyKey existing, LocalDateTime now) {
+    if (existing.getExpiresAt().isBefore(now)) {
+      return true;
+    }
+    return existing.getStatus() == IdempotencyKeyStatus.IN_PROGRESS
+        && existing.getHeartbeatAt().isBefore(now.minus(inProgressTimeout));
+  }
+
+  private static Claim replay(Completed done, String requestHash) {
+    return done.requestHash().equals(requestHash)
+        ? new Claim(Decision.REPLAY, done.response(), null)
+        : Claim.of(Decision.MISMATCH);
+  }
+
+  private boolean await(CountDownLatch latch) {
+    try {
+      return latch.await(inProgressTimeout.toMillis(), TimeUnit.MILLISECONDS);
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      return false;
+    }
+  }
+
+  private void finish(String cacheKey, Long claimId) {
+    heldClaims.remove(claimId);
+    finish(cacheKey);
+  }
+
+  private void finish(String cacheKey) {
+    CountDownLatch latch = running.remove(cacheKey);
+    if (latch != null) {
+      latch.countDown();
+    }
+  }
+
+  private static String cacheKey(Long userId, String key) {
+    return userId + ":" + key;
+  }
+}
@@ -0,0 +1,123 @@
+package com.splitz.expense.service;
+
+import com.splitz.expense.model.LedgerEntry;
+import com.splitz.expense.model.LedgerEntryType;
+import com.splitz.expense.repository.GroupAmount;
+import com.splitz.expense.repository.LedgerBalanceRepository;
+import com.splitz.expense.repository.LedgerEntryRepository;
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+/**
+ * Writes and reads the append-only {@code ledger_entries} journal. Postings join the caller's
+ * transaction, so an entry exists exactly when the change that caused it was committed; edits and
+ * deletes are recorded as new compensating entries rather than by touching old ones.
+ */
+@Service
+@RequiredArgsConstructor
+public class LedgerService {
+
+  private final LedgerEntryRepository ledgerEntryRepository;
+  private final LedgerBalanceRepository ledgerBalanceRepository;
+
+  /**
+   * Appends one entry per user with a non-zero delta. A {@code null} group posts to the accounts of
+   * friendship settlements made outside of any group.
+   */
+  @Transactional(propagation = Propagation.MANDATORY)
+  public void post(
+      Long groupId, LedgerEntryType type, Long sourceId, Map<Long, BigDecimal> deltas) {
+    postAll(groupId, type, Map.of(sourceId, deltas));
+  }
+
+  /**
+   * Appends the postings of several sources of one group, in the map's iteration order. Each
+   * account is updated once with the total of its deltas and the running balances are derived from
+   * the result, so the number of account writes does not grow with the number of sources.
+   */
+  @Transactional(propagation = Propagation.MANDATORY)
+  public void postAll(
+      Long groupId, LedgerEntryType type, Map<Long, Map<Long, BigDecimal>> deltasBySource) {
+    // Sorted so concurrent postings lock account rows in the same order
+    Map<Long, BigDecimal> totals = new TreeMap<>();
+    for (Map<Long, BigDecimal> deltas : deltasBySource.values()) {
+      deltas.forEach(
+          (userId, delta) -> {
+            if (delta.signum() != 0) {
+              totals.merge(userId, delta, BigDecimal::add);
+            }
+          });
+    }
+
+    Map<Long, BigDecimal> runningBalances = new HashMap<>();
+    totals.forEach(
+        (userId, total) -> {
+          ledgerBalanceRepository.upsertBalance(groupId, userId, total);
+          BigDecimal balance = ledgerBalanceRepository.findBalance(groupId, userId);
+          runningBalances.put(userId, balance.subtract(total));
+        });
+
+    List<LedgerEntry> entries = new ArrayList<>();
+    deltasBySource.forEach(
+        (sourceId, deltas) ->
+            new TreeMap<>(deltas)
+                .forEach(
+                    (userId, delta) -> {
+                      if (delta.signum() == 0) {
+                        return;
+                      }
+                      entries.add(
+                          LedgerEntry.builder()
+                              .groupId(groupId)
+                              .userId(userId)
+                              .entryType(type)
+                              .sourceId(sourceId)
+                              .amount(delta)
+                              .runningBalance(runningBalances.merge(userId, delta, BigDecimal::add))
+                              .build());
+                    }));
+    ledgerEntryRepository.saveAll(entries);
+  }
+
+  /** Current per-member balances of a group; members without entries are missing. */
+  @Transactional(readOnly = true)
+  public Map<Long, BigDecimal> groupBalances(Long groupId) {
+    Map<Long, BigDecimal> balances = new HashMap<>();
+    ledgerBalanceRepository
+        .findByGroupId(groupId)
+        .forEach(row -> balances.put(row.getUserId(), row.getBalance()));
+    return balances;
+  }
+
+  /** Per-member balances of a group as they stood at {@code asOf}. */
+  @Transactional(readOnly = true)
+  public Map<Long, BigDecimal> groupBalancesAsOf(Long groupId, LocalDateTime asOf) {
+    Map<Long, BigDecimal> balances = new HashMap<>();
+    ledgerEntryRepository
+        .findLatestByGroupIdAsOf(groupId, asOf)
+        .forEach(entry -> balances.put(entry.getUserId(), entry.getRunningBalance()));
+    return balances;
+  }
+
+  /**
+   * A user's balance per group as it stood at {@code asOf}; the {@code null} key holds friendship
+   * settlements made outside of any group.
+   */
+  @Transactional(readOnly = true)
+  public Map<Long, BigDecimal> userBalancesAsOf(Long userId, LocalDateTime asOf) {
+    Map<Long, BigDecimal> balances = new HashMap<>();
+    for (GroupAmount row : ledgerEntryRepository.findRunningBalancesByUserIdAsOf(userId, asOf)) {
+      balances.put(row.getGroupId(), row.getAmount());
+    }
+    return balances;
+  }
+}
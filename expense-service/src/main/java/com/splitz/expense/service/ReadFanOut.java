@@ -0,0 +1,99 @@
+package com.splitz.expense.service;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executor;
+import java.util.function.Supplier;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.task.SimpleAsyncTaskExecutor;
+import org.springframework.security.concurrent.DelegatingSecurityContextExecutor;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+
+/**
+ * Runs independent reads of one request concurrently. Each read gets its own read-only transaction,
+ * and the caller's security context is propagated so {@code SharedSecurityAuthorizer} and the
+ * user-service client work inside tasks.
+ *
+ * <p>Tasks run on virtual threads, with at most {@code expense.balances.fan-out.parallelism} of
+ * them in flight across the whole service, so fan-out can never hold more pool connections than
+ * that. Callers must not hold a transaction of their own while they wait. A parallelism of 1 runs
+ * every task inline on the calling thread.
+ *
+ * <p>Reads that run concurrently each see their own snapshot, so a write committing between them
+ * can show up in some and not in others. Run them inside {@link #snapshot} to have them agree
+ * whenever tasks run inline.
+ */
+@Component
+public class ReadFanOut implements DisposableBean {
+
+  private final TransactionTemplate readOnlyTransaction;
+  private final TransactionTemplate snapshotTransaction;
+  private final SimpleAsyncTaskExecutor taskExecutor;
+  private final Executor executor;
+
+  public ReadFanOut(
+      PlatformTransactionManager transactionManager,
+      @Value("${expense.balances.fan-out.parallelism:1}") int parallelism) {
+    this.readOnlyTransaction = new TransactionTemplate(transactionManager);
+    this.readOnlyTransaction.setReadOnly(true);
+    this.snapshotTransaction = new TransactionTemplate(transactionManager);
+    this.snapshotTransaction.setReadOnly(true);
+    this.snapshotTransaction.setIsolationLevel(TransactionDefinition.ISOLATION_REPEATABLE_READ);
+    if (parallelism > 1) {
+      this.taskExecutor = new SimpleAsyncTaskExecutor("balance-fan-out-");
+      // jdk17 shim
+      this.taskExecutor.setConcurrencyLimit(parallelism);
+      this.executor = new DelegatingSecurityContextExecutor(taskExecutor);
+    } else {
+      this.taskExecutor = null;
+      this.executor = Runnable::run;
+    }
+  }
+
+  /** Runs a repository read in its own read-only transaction. */
+  public <T> CompletableFuture<T> read(Supplier<T> query) {
+    return CompletableFuture.supplyAsync(
+        () -> readOnlyTransaction.execute(status -> query.get()), executor);
+  }
+
+  /**
+   * Runs {@code reads}, which fan out and join their own tasks. With a parallelism of 1 they run in
+   * one repeatable-read transaction that every inline read joins, so they all see the same
+   * snapshot. Otherwise each read keeps its own transaction: holding one here while waiting on them
+   * could starve the pool. Run calls to other services before, not inside.
+   */
+  public <T> T snapshot(Supplier<T> reads) {
+    if (taskExecutor == null) {
+      return snapshotTransaction.execute(status -> reads.get());
+    }
+    return reads.get();
+  }
+
+  /** Runs a task that needs no transaction, such as a call to another service. */
+  public <T> CompletableFuture<T> call(Supplier<T> task) {
+    return CompletableFuture.supplyAsync(task, executor);
+  }
+
+  /** Waits for a task, rethrowing its own exception rather than a wrapper. */
+  public static <T> T join(CompletableFuture<T> future) {
+    try {
+      return future.join();
+    } catch (CompletionException e) {
+      if (e.getCause() instanceof RuntimeException cause) {
+        throw cause;
+      }
+      throw e;
+    }
+  }
+
+  @Override
+  public void destroy() {
+    if (taskExecutor != null) {
+      taskExecutor.close();
+    }
+  }
+}
@@ -9,6 +9,8 @@ import com.splitz.expense.model.Settlement;
 import com.splitz.expense.model.SettlementStatus;
 import com.splitz.expense.repository.GroupRepository;
 import com.splitz.expense.repository.SettlementRepository;
+import com.splitz.expense.streaming.RowStream;
+import com.splitz.expense.streaming.RowStreamer;
 import com.splitz.security.authorization.SharedSecurityAuthorizer;
 import java.time.LocalDateTime;
 import java.util.List;
@@ -25,6 +27,8 @@ public class SettlementService {
   private final GroupRepository groupRepository;
   private final SettlementMapper settlementMapper;
   private final SharedSecurityAuthorizer splitzAuthorizer;
+  private final BalanceProjectionService balanceProjectionService;
+  private final RowStreamer rowStreamer;
 
   @Transactional
   public SettlementDTO createSettlement(CreateSettlementRequest request) {
@@ -60,7 +64,11 @@ public class SettlementService {
             .settledAt(settledAt)
             .build();
 
-    return settlementMapper.toDTO(settlementRepository.save(settlement));
+    Settlement saved = settlementRepository.save(settlement);
+    if (saved.getStatus() == SettlementStatus.COMPLETED) {
+      balanceProjectionService.settlementCompleted(saved);
+    }
+    return settlementMapper.toDTO(saved);
   }
 
   @Transactional
@@ -110,7 +118,9 @@ public class SettlementService {
     settlement.setStatus(SettlementStatus.COMPLETED);
     settlement.setSettledAt(LocalDateTime.now());
 
-    return settlementMapper.toDTO(settlementRepository.save(settlement));
+    Settlement saved = settlementRepository.save(settlement);
+    balanceProjectionService.settlementCompleted(saved);
+    return settlementMapper.toDTO(saved);
   }
 
   @Transactional(readOnly = true)
@@ -147,6 +157,12 @@ public class SettlementService {
         .collect(Collectors.toList());
   }
 
+  /** Same rows as {@link #getSettlementsByGroup}, read when the stream is consumed. */
+  public RowStream<SettlementDTO> streamSettlementsByGroup(Long groupId) {
+    return rowStreamer.entities(
+        () -> settlementRepository.streamByGroupId(groupId), settlementMapper::toDTO);
+  }
+
   @Transactional(readOnly = true)
   public SettlementDTO getSettlementById(Long id) {
     Settlement settlement =
@@ -0,0 +1,145 @@
+package com.splitz.expense.service;
+
+import com.splitz.expense.dto.ActivityLogPageDTO;
+import com.splitz.expense.mapper.ActivityLogMapper;
+import com.splitz.expense.model.ActivityLog;
+import com.splitz.expense.model.GroupMember;
+import com.splitz.expense.model.UserActivityInboxEntry;
+import com.splitz.expense.pagination.ActivityLogCursor;
+import com.splitz.expense.repository.GroupMemberRepository;
+import com.splitz.expense.repository.UserActivityInboxRepository;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.Collectors;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+/**
+ * Per-user activity inboxes (see V28). {@link ActivityLogWriter} delivers every batch of entries it
+ * writes to the current members of their groups, in the same transaction, so a user's activity
+ * across all their groups is read back from their inbox alone. A user keeps the entries delivered
+ * while they were a member after leaving the group.
+ *
+ * <p>Inboxes are capped at the newest {@code expense.activity-inbox.max-entries-per-user} rows by
+ * {@link #trim}, which only visits the users delivered to since it last ran. Those users are only
+ * tracked in memory, by the instance that delivered to them: inboxes left over the cap by a restart
+ * or a crash are found by {@link #sweep}, which runs after startup and then at a long interval.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class UserActivityInboxService {
+
+  private final UserActivityInboxRepository userActivityInboxRepository;
+  private final GroupMemberRepository groupMemberRepository;
+  private final ActivityLogMapper activityLogMapper;
+  private final PlatformTransactionManager transactionManager;
+
+  @Value("${expense.listing.max-page-size:200}")
+  private int maxPageSize = 200;
+
+  @Value("${expense.activity-inbox.max-entries-per-user:500}")
+  private int maxEntriesPerUser = 500;
+
+  /** Users delivered to since the last {@link #trim}. */
+  private final Set<Long> untrimmedUsers = ConcurrentHashMap.newKeySet();
+
+  /**
+   * Copies written entries into the inboxes of the members of their groups, inside the caller's
+   * transaction. Members are read once for all groups of the batch and the rows go out as one JDBC
+   * batch.
+   */
+  public void deliver(List<ActivityLog> entries) {
+    List<Long> groupIds = entries.stream().map(ActivityLog::getGroupId).distinct().toList();
+    Map<Long, List<Long>> membersByGroup =
+        groupMemberRepository.findByGroupIdIn(groupIds).stream()
+            .collect(
+                Collectors.groupingBy(
+                    member -> member.getGroup().getId(),
+                    Collectors.mapping(GroupMember::getUserId, Collectors.toList())));
+    List<UserActivityInboxEntry> rows = new ArrayList<>();
+    for (ActivityLog entry : entries) {
+      for (Long userId : membersByGroup.getOrDefault(entry.getGroupId(), List.of())) {
+        rows.add(
+            UserActivityInboxEntry.builder()
+                .userId(userId)
+                .activityLogId(entry.getId())
+                .groupId(entry.getGroupId())
+                .timestamp(entry.getTimestamp())
+                .build());
+      }
+    }
+    userActivityInboxRepository.saveAll(rows);
+    rows.forEach(row -> untrimmedUsers.add(row.getUserId()));
+  }
+
+  /**
+   * One page of a user's inbox, newest first, read with a single select over the inbox index. Pass
+   * the {@code nextCursor} of a page to read the next one.
+   */
+  @Transactional(readOnly = true)
+  public ActivityLogPageDTO getInbox(Long userId, String cursor, int limit) {
+    if (limit < 1 || limit > maxPageSize) {
+      throw new IllegalArgumentException("limit must be between 1 and " + maxPageSize);
+    }
+    PageRequest page = PageRequest.of(0, limit + 1);
+    List<ActivityLog> entries;
+    if (cursor == null) {
+      entries = userActivityInboxRepository.findFirstEntries(userId, page);
+    } else {
+      ActivityLogCursor after = ActivityLogCursor.decode(cursor);
+      entries =
+          userActivityInboxRepository.findEntriesAfter(userId, after.timestamp(), after.id(), page);
+    }
+    String nextCursor = null;
+    if (entries.size() > limit) {
+      entries = entries.subList(0, limit);
+      ActivityLog last = entries.get(limit - 1);
+      nextCursor = new ActivityLogCursor(last.getTimestamp(), last.getId()).encode();
+    }
+    return ActivityLogPageDTO.builder()
+        .activities(entries.stream().map(activityLogMapper::toDTO).toList())
+        .nextCursor(nextCursor)
+        .build();
+  }
+
+  /** Cuts the inboxes delivered to since the last call down to their newest rows. */
+  public int trim() {
+    TransactionTemplate transactionTemplate = new TransactionTemplate(transactionManager);
+    int deleted = 0;
+    for (Long userId : List.copyOf(untrimmedUsers)) {
+      // Removed first: a delivery racing the trim marks the user again
+      untrimmedUsers.remove(userId);
+      deleted += transactionTemplate.execute(status -> trim(userId));
+    }
+    if (deleted > 0) {
+      log.info("Trimmed {} activity inbox rows", deleted);
+    }
+    return deleted;
+  }
+
+  /** Trims every inbox over the cap, including those delivered to before this instance started. */
+  public int sweep() {
+    untrimmedUsers.addAll(userActivityInboxRepository.findUserIdsWithMoreThan(maxEntriesPerUser));
+    return trim();
+  }
+
+  private int trim(Long userId) {
+    List<ActivityLogCursor> firstDropped =
+        userActivityInboxRepository.findPositions(userId, PageRequest.of(maxEntriesPerUser, 1));
+    if (firstDropped.isEmpty()) {
+      return 0;
+    }
+    ActivityLogCursor from = firstDropped.get(0);
+    return userActivityInboxRepository.deleteFrom(userId, from.timestamp(), from.id());
+  }
+}
@@ -0,0 +1,35 @@
+package com.splitz.expense.service;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+/**
+ * Periodically caps the activity inboxes that received entries since the last run, and sweeps all
+ * inboxes after startup and every {@code expense.activity-inbox.sweep-interval-ms}.
+ */
+@Component
+@RequiredArgsConstructor
+@ConditionalOnProperty(
+    name = "expense.activity-inbox.trim.enabled",
+    havingValue = "true",
+    matchIfMissing = true)
+public class UserActivityInboxTrimJob {
+
+  private final UserActivityInboxService userActivityInboxService;
+
+  @Scheduled(
+      fixedDelayString = "${expense.activity-inbox.trim-interval-ms:60000}",
+      initialDelayString = "${expense.activity-inbox.trim-interval-ms:60000}")
+  public void trim() {
+    userActivityInboxService.trim();
+  }
+
+  @Scheduled(
+      fixedDelayString = "${expense.activity-inbox.sweep-interval-ms:86400000}",
+      initialDelayString = "${expense.activity-inbox.trim-interval-ms:60000}")
+  public void sweep() {
+    userActivityInboxService.sweep();
+  }
+}
@@ -0,0 +1,22 @@
+package com.splitz.expense.streaming;
+
+import java.util.function.Consumer;
+
+/**
+ * Rows of a listing that are only read when {@link #forEach} is called, one at a time, so a caller
+ * can write each row out before the next one is loaded. Authorization and validation happen when
+ * the stream is created; reading runs in a read-only transaction of its own.
+ */
+@FunctionalInterface
+public interface RowStream<T> {
+
+  void forEach(Consumer<? super T> action);
+
+  /** This stream's rows followed by those of {@code next}. */
+  default RowStream<T> followedBy(RowStream<T> next) {
+    return action -> {
+      forEach(action);
+      next.forEach(action);
+    };
+  }
+}
@@ -0,0 +1,94 @@
+package com.splitz.expense.streaming;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+import java.util.function.Supplier;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+/**
+ * Turns JPA query streams into {@link RowStream}s whose memory use does not grow with the number of
+ * rows. Queries should set {@link #FETCH_SIZE} as their JDBC fetch size, so Postgres reads them
+ * through a cursor instead of buffering the whole result, and every entity leaves the persistence
+ * context once it has been mapped.
+ */
+@Component
+@RequiredArgsConstructor
+public class RowStreamer {
+
+  /** JDBC fetch size of streamed queries, and number of entities loaded per chunk. */
+  public static final int FETCH_SIZE = 500;
+
+  private final PlatformTransactionManager transactionManager;
+
+  @PersistenceContext private EntityManager entityManager;
+
+  /** Maps the entities of {@code query} one by one, detaching each once it is mapped. */
+  public <E, D> RowStream<D> entities(Supplier<Stream<E>> query, Function<? super E, D> mapper) {
+    return action ->
+        readOnly(
+            () -> {
+              try (Stream<E> rows = query.get()) {
+                rows.forEach(
+                    row -> {
+                      D dto = mapper.apply(row);
+                      entityManager.detach(row);
+                      action.accept(dto);
+                    });
+              }
+            });
+  }
+
+  /**
+   * Streams the ids of {@code query} and loads the entities {@link #FETCH_SIZE} at a time through
+   * {@code loader}, for entities whose mapping needs collections that a single streamed query
+   * cannot fetch. Rows keep the order of the ids, and the persistence context is cleared after each
+   * chunk.
+   */
+  public <E, D> RowStream<D> byIds(
+      Supplier<Stream<Long>> query,
+      Function<List<Long>, List<E>> loader,
+      Function<E, Long> idOf,
+      Function<? super E, D> mapper) {
+    return action ->
+        readOnly(
+            () -> {
+              try (Stream<Long> ids = query.get()) {
+                Iterator<Long> iterator = ids.iterator();
+                List<Long> chunk = new ArrayList<>(FETCH_SIZE);
+                while (iterator.hasNext()) {
+                  chunk.add(iterator.next());
+                  if (chunk.size() == FETCH_SIZE || !iterator.hasNext()) {
+                    Map<Long, E> loaded =
+                        loader.apply(chunk).stream()
+                            .collect(Collectors.toMap(idOf, entity -> entity));
+                    for (Long id : chunk) {
+                      E entity = loaded.get(id);
+                      // Deleted since its id was read
+                      if (entity != null) {
+                        action.accept(mapper.apply(entity));
+                      }
+                    }
+                    entityManager.clear();
+                    chunk.clear();
+                  }
+                }
+              }
+            });
+  }
+
+  private void readOnly(Runnable work) {
+    TransactionTemplate transactionTemplate = new TransactionTemplate(transactionManager);
+    transactionTemplate.setReadOnly(true);
+    transactionTemplate.executeWithoutResult(status -> work.run());
+  }
+}
@@ -0,0 +1,32 @@
+CREATE TABLE group_member_balances (
+    id BIGSERIAL PRIMARY KEY,
+    group_id BIGINT NOT NULL,
+    user_id BIGINT NOT NULL,
+    balance DECIMAL(19, 2) NOT NULL DEFAULT 0,
+    updated_at TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP,
+    CONSTRAINT uk_group_member_balance UNIQUE (group_id, user_id)
+);
+
+CREATE INDEX idx_group_member_balances_user_id ON group_member_balances(user_id);
+
+-- Seed the table from the existing expense and settlement history
+INSERT INTO group_member_balances (group_id, user_id, balance)
+SELECT group_id, user_id, SUM(delta)
+FROM (
+    SELECT e.group_id, e.paid_by AS user_id, e.amount AS delta
+    FROM expenses e
+    UNION ALL
+    SELECT e.group_id, s.user_id, -s.share_amount
+    FROM expense_splits s JOIN expenses e ON e.id = s.expense_id
+    UNION ALL
+    SELECT group_id, payer_id, amount FROM settlements WHERE status = 'COMPLETED'
+    UNION ALL
+    SELECT group_id, payee_id, -amount FROM settlements WHERE status = 'COMPLETED'
+    UNION ALL
+    SELECT group_id, payer_id, amount FROM friendship_settlements
+    WHERE status = 'COMPLETED' AND group_id IS NOT NULL
+    UNION ALL
+    SELECT group_id, payee_id, -amount FROM friendship_settlements
+    WHERE status = 'COMPLETED' AND group_id IS NOT NULL
+) deltas
+GROUP BY group_id, user_id;
@@ -0,0 +1,34 @@
+-- Net debt between two users per group, from user_a's point of view (user_a < user_b).
+-- A positive amount means user_b owes user_a. Rows with a NULL group_id hold settlements made
+-- directly between friends outside of any group.
+CREATE TABLE pairwise_balances (
+    id BIGSERIAL PRIMARY KEY,
+    group_id BIGINT,
+    user_a BIGINT NOT NULL,
+    user_b BIGINT NOT NULL,
+    amount DECIMAL(19, 2) NOT NULL DEFAULT 0,
+    updated_at TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP,
+    CONSTRAINT uk_pairwise_balance UNIQUE (user_a, user_b, group_id),
+    CONSTRAINT chk_pairwise_balance_order CHECK (user_a < user_b)
+);
+
+-- Seed the matrix from the existing history as (group, creditor, debtor, amount) rows
+INSERT INTO pairwise_balances (group_id, user_a, user_b, amount)
+SELECT group_id, user_a, user_b, SUM(delta)
+FROM (
+    SELECT group_id,
+           LEAST(creditor_id, debtor_id) AS user_a,
+           GREATEST(creditor_id, debtor_id) AS user_b,
+           CASE WHEN creditor_id < debtor_id THEN amount ELSE -amount END AS delta
+    FROM (
+        SELECT e.group_id, e.paid_by AS creditor_id, s.user_id AS debtor_id, s.share_amount AS amount
+        FROM expense_splits s JOIN expenses e ON e.id = s.expense_id
+        WHERE s.user_id <> e.paid_by
+        UNION ALL
+        SELECT group_id, payer_id, payee_id, amount FROM settlements WHERE status = 'COMPLETED'
+        UNION ALL
+        SELECT group_id, payer_id, payee_id, amount FROM friendship_settlements
+        WHERE status = 'COMPLETED'
+    ) debts
+) deltas
+GROUP BY group_id, user_a, user_b;
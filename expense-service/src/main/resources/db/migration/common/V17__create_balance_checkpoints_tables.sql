@@ -0,0 +1,17 @@
+-- Per-group balance vector folded up to and including the id high-water marks below. Balances are
+-- read as the checkpoint plus the rows after the marks; a change to a row at or below a mark
+-- deletes the checkpoint.
+CREATE TABLE balance_checkpoints (
+    group_id BIGINT PRIMARY KEY,
+    expense_id_mark BIGINT NOT NULL,
+    settlement_id_mark BIGINT NOT NULL,
+    friendship_settlement_id_mark BIGINT NOT NULL,
+    created_at TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP
+);
+
+CREATE TABLE balance_checkpoint_entries (
+    group_id BIGINT NOT NULL REFERENCES balance_checkpoints(group_id) ON DELETE CASCADE,
+    user_id BIGINT NOT NULL,
+    balance DECIMAL(19, 2) NOT NULL,
+    PRIMARY KEY (group_id, user_id)
+);
@@ -0,0 +1,74 @@
+-- Append-only journal of balance movements. Every expense, completed settlement and later change
+-- to an expense posts one row per affected user, and the rows of a posting sum to zero. Edits and
+-- deletes post compensating rows; nothing is updated or deleted. running_balance is the user's
+-- balance in the group right after the row, so a point-in-time balance is the latest row at or
+-- before that time. A NULL group_id holds friendship settlements made outside of any group.
+CREATE TABLE ledger_entries (
+    id BIGSERIAL PRIMARY KEY,
+    group_id BIGINT,
+    user_id BIGINT NOT NULL,
+    entry_type VARCHAR(30) NOT NULL,
+    source_id BIGINT NOT NULL,
+    amount DECIMAL(19, 2) NOT NULL,
+    running_balance DECIMAL(19, 2) NOT NULL,
+    created_at TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP
+);
+
+CREATE INDEX idx_ledger_entries_group_user ON ledger_entries(group_id, user_id, created_at);
+CREATE INDEX idx_ledger_entries_user ON ledger_entries(user_id, created_at);
+CREATE INDEX idx_ledger_entries_source ON ledger_entries(entry_type, source_id);
+
+-- Latest running balance per (group, user). Posting updates the row first, so concurrent postings
+-- to the same account are serialized by its row lock.
+CREATE TABLE ledger_balances (
+    id BIGSERIAL PRIMARY KEY,
+    group_id BIGINT,
+    user_id BIGINT NOT NULL,
+    balance DECIMAL(19, 2) NOT NULL DEFAULT 0,
+    updated_at TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP,
+    CONSTRAINT uk_ledger_balance UNIQUE (user_id, group_id)
+);
+
+-- Seed the journal from the existing history, one posting per expense and completed settlement
+INSERT INTO ledger_entries
+    (group_id, user_id, entry_type, source_id, amount, running_balance, created_at)
+SELECT group_id, user_id, entry_type, source_id, amount,
+       SUM(amount) OVER (
+           PARTITION BY group_id, user_id
+           ORDER BY created_at, entry_type, source_id
+           ROWS UNBOUNDED PRECEDING),
+       created_at
+FROM (
+    SELECT group_id, user_id, 'EXPENSE' AS entry_type, source_id, SUM(delta) AS amount,
+           created_at
+    FROM (
+        SELECT e.group_id, e.paid_by AS user_id, e.id AS source_id, e.amount AS delta,
+               e.created_at
+        FROM expenses e
+        UNION ALL
+        SELECT e.group_id, s.user_id, e.id, -s.share_amount, e.created_at
+        FROM expense_splits s JOIN expenses e ON e.id = s.expense_id
+    ) expense_deltas
+    GROUP BY group_id, user_id, source_id, created_at
+    UNION ALL
+    SELECT group_id, payer_id, 'SETTLEMENT', id, amount, COALESCE(settled_at, updated_at)
+    FROM settlements WHERE status = 'COMPLETED'
+    UNION ALL
+    SELECT group_id, payee_id, 'SETTLEMENT', id, -amount, COALESCE(settled_at, updated_at)
+    FROM settlements WHERE status = 'COMPLETED'
+    UNION ALL
+    SELECT group_id, payer_id, 'FRIENDSHIP_SETTLEMENT', id, amount,
+           COALESCE(settled_at, updated_at)
+    FROM friendship_settlements WHERE status = 'COMPLETED'
+    UNION ALL
+    SELECT group_id, payee_id, 'FRIENDSHIP_SETTLEMENT', id, -amount,
+           COALESCE(settled_at, updated_at)
+    FROM friendship_settlements WHERE status = 'COMPLETED'
+) postings
+WHERE amount <> 0
+ORDER BY created_at, entry_type, source_id, user_id;
+
+INSERT INTO ledger_balances (group_id, user_id, balance)
+SELECT group_id, user_id, SUM(amount)
+FROM ledger_entries
+GROUP BY group_id, user_id;
@@ -0,0 +1,29 @@
+-- Hibernate cannot batch inserts into IDENTITY columns because it needs each generated key before
+-- the next insert. These tables take their ids from sequences instead, which Hibernate reserves in
+-- blocks of 50 (allocationSize), so the expense, split and member inserts of one flush go out as
+-- JDBC batches.
+--
+-- On PostgreSQL the BIGSERIAL sequences already exist and only their increment changes: the next
+-- block starts above every existing id, and the column defaults keep drawing from the same
+-- sequences, so rows inserted outside of Hibernate never collide with a reserved block. H2 keeps
+-- BIGSERIAL columns on an internal identity sequence, so the named sequences are created there.
+--
+-- ledger_entries stays on IDENTITY: as-of reads take the highest id of an account as its latest
+-- entry, which only holds while ids are handed out one at a time under the account's row lock.
+CREATE SEQUENCE IF NOT EXISTS expenses_id_seq START WITH 1 INCREMENT BY 50;
+ALTER SEQUENCE expenses_id_seq INCREMENT BY 50;
+
+CREATE SEQUENCE IF NOT EXISTS expense_splits_id_seq START WITH 1 INCREMENT BY 50;
+ALTER SEQUENCE expense_splits_id_seq INCREMENT BY 50;
+
+CREATE SEQUENCE IF NOT EXISTS group_members_id_seq START WITH 1 INCREMENT BY 50;
+ALTER SEQUENCE group_members_id_seq INCREMENT BY 50;
+
+CREATE SEQUENCE IF NOT EXISTS settlements_id_seq START WITH 1 INCREMENT BY 50;
+ALTER SEQUENCE settlements_id_seq INCREMENT BY 50;
+
+CREATE SEQUENCE IF NOT EXISTS friendship_settlements_id_seq START WITH 1 INCREMENT BY 50;
+ALTER SEQUENCE friendship_settlements_id_seq INCREMENT BY 50;
+
+CREATE SEQUENCE IF NOT EXISTS activity_logs_id_seq START WITH 1 INCREMENT BY 50;
+ALTER SEQUENCE activity_logs_id_seq INCREMENT BY 50;
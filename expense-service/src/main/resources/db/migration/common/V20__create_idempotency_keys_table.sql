@@ -0,0 +1,20 @@
+-- Responses of create requests sent with an Idempotency-Key header, so client retries replay the
+-- first response instead of creating duplicates. Keys are scoped to the user that sent them.
+-- request_hash fingerprints method, path and body to reject a key reused for another request.
+-- A row is IN_PROGRESS while its first request runs and COMPLETED once the response is stored;
+-- rows past expires_at are purged by a scheduled job.
+CREATE TABLE idempotency_keys (
+    id BIGSERIAL PRIMARY KEY,
+    user_id BIGINT NOT NULL,
+    idempotency_key VARCHAR(255) NOT NULL,
+    request_hash VARCHAR(64) NOT NULL,
+    status VARCHAR(20) NOT NULL,
+    response_status INTEGER,
+    response_content_type VARCHAR(255),
+    response_body TEXT,
+    created_at TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP,
+    expires_at TIMESTAMP NOT NULL,
+    CONSTRAINT uk_idempotency_key UNIQUE (user_id, idempotency_key)
+);
+
+CREATE INDEX idx_idempotency_keys_expires_at ON idempotency_keys(expires_at);
@@ -0,0 +1,2 @@
+ALTER TABLE expenses ADD COLUMN version INTEGER NOT NULL DEFAULT 0;
+ALTER TABLE groups ADD COLUMN version INTEGER NOT NULL DEFAULT 0;
@@ -0,0 +1,6 @@
+-- Splits carry the date of their expense so that, on Postgres, both tables can be range-partitioned
+-- on it and a split always lives in the same year partition as its expense
+ALTER TABLE expense_splits ADD COLUMN expense_date DATE;
+UPDATE expense_splits
+SET expense_date = (SELECT e.expense_date FROM expenses e WHERE e.id = expense_splits.expense_id);
+ALTER TABLE expense_splits ALTER COLUMN expense_date SET NOT NULL;
@@ -0,0 +1,21 @@
+-- One index per source of the activity timeline, each read newest first from the user's position
+-- on, so a page costs a few short range scans however long the user's history is. They replace
+-- the single-column user indexes, whose lookups they still serve.
+CREATE INDEX idx_expenses_paid_by_date_id ON expenses(paid_by, expense_date DESC, id DESC);
+DROP INDEX idx_expense_paid_by;
+
+CREATE INDEX idx_expense_splits_user_date_expense
+    ON expense_splits(user_id, expense_date DESC, expense_id DESC);
+DROP INDEX idx_expense_splits_user_id;
+
+CREATE INDEX idx_settlements_payer_created_id ON settlements(payer_id, created_at DESC, id DESC);
+CREATE INDEX idx_settlements_payee_created_id ON settlements(payee_id, created_at DESC, id DESC);
+DROP INDEX idx_settlement_payer_id;
+DROP INDEX idx_settlement_payee_id;
+
+CREATE INDEX idx_friendship_settlements_payer_created_id
+    ON friendship_settlements(payer_id, created_at DESC, id DESC);
+CREATE INDEX idx_friendship_settlements_payee_created_id
+    ON friendship_settlements(payee_id, created_at DESC, id DESC);
+DROP INDEX idx_friendship_settlement_payer_id;
+DROP INDEX idx_friendship_settlement_payee_id;
@@ -0,0 +1,17 @@
+-- Fan-out-on-write copy of the group activity feeds: one row per activity log entry for each user
+-- that was a member of its group when the entry was written. A user's recent activity across all
+-- their groups is then one range of idx_user_activity_inbox_user_timestamp, however many groups
+-- they are in. Rows are trimmed to the newest expense.activity-inbox.max-entries-per-user per
+-- user. Entries written before this version are not copied; they stay in the group feeds.
+CREATE SEQUENCE IF NOT EXISTS user_activity_inbox_id_seq START WITH 1 INCREMENT BY 50;
+
+CREATE TABLE user_activity_inbox (
+    id BIGINT PRIMARY KEY,
+    user_id BIGINT NOT NULL,
+    activity_log_id BIGINT NOT NULL,
+    group_id BIGINT NOT NULL,
+    timestamp TIMESTAMP NOT NULL
+);
+
+CREATE INDEX idx_user_activity_inbox_user_timestamp
+    ON user_activity_inbox(user_id, timestamp DESC, activity_log_id DESC);
@@ -0,0 +1,5 @@
+-- The instance running an IN_PROGRESS request refreshes heartbeat_at while it runs, so a claim is
+-- only taken over once its instance stopped refreshing it rather than once the request ran long.
+ALTER TABLE idempotency_keys ADD COLUMN heartbeat_at TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP;
+
+UPDATE idempotency_keys SET heartbeat_at = created_at;
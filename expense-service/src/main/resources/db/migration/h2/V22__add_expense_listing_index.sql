@@ -0,0 +1,7 @@
+-- Expense listings page on (expense_date, id), so the date can no longer be missing
+UPDATE expenses SET expense_date = CAST(created_at AS DATE) WHERE expense_date IS NULL;
+ALTER TABLE expenses ALTER COLUMN expense_date SET NOT NULL;
+
+CREATE INDEX idx_expenses_group_date_id ON expenses(group_id, expense_date DESC, id DESC);
+
+-- Unlike Postgres, H2 backs fk_expense_group with idx_expense_group_id and refuses to drop it
@@ -0,0 +1,3 @@
+-- H2 has no tsvector: expense search falls back to matching description and notes with LIKE,
+-- so there is nothing to add. Kept so both vendors share the same schema version.
+SELECT 1;
@@ -0,0 +1,3 @@
+-- Expenses are only partitioned on Postgres; H2 keeps the plain tables. Kept so both vendors share
+-- the same schema version.
+SELECT 1;
@@ -0,0 +1,4 @@
+-- Same key as the Postgres index; H2 has no INCLUDE columns.
+CREATE INDEX idx_activity_logs_group_timestamp_id ON activity_logs(group_id, timestamp DESC, id DESC);
+
+DROP INDEX idx_activity_logs_group_id;
@@ -0,0 +1,19 @@
+-- Same duplicate merge as on Postgres. H2 has no partial indexes; a NULLS NOT DISTINCT constraint
+-- makes ungrouped rows unique per pair instead.
+UPDATE pairwise_balances p
+SET amount = (
+    SELECT SUM(q.amount) FROM pairwise_balances q
+    WHERE q.group_id IS NULL AND q.user_a = p.user_a AND q.user_b = p.user_b)
+WHERE p.group_id IS NULL
+  AND p.id = (
+    SELECT MIN(q.id) FROM pairwise_balances q
+    WHERE q.group_id IS NULL AND q.user_a = p.user_a AND q.user_b = p.user_b);
+
+DELETE FROM pairwise_balances p
+WHERE p.group_id IS NULL
+  AND EXISTS (
+    SELECT 1 FROM pairwise_balances q
+    WHERE q.group_id IS NULL AND q.user_a = p.user_a AND q.user_b = p.user_b AND q.id < p.id);
+
+ALTER TABLE pairwise_balances
+    ADD CONSTRAINT uk_pairwise_balance_no_group UNIQUE NULLS NOT DISTINCT (user_a, user_b, group_id);
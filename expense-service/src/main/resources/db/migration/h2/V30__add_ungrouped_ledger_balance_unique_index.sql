@@ -0,0 +1,18 @@
+-- Same duplicate merge as on Postgres. H2 has no partial indexes; a NULLS NOT DISTINCT constraint
+-- makes the ungrouped account unique per user instead.
+UPDATE ledger_balances b
+SET balance = (
+    SELECT SUM(c.balance) FROM ledger_balances c
+    WHERE c.group_id IS NULL AND c.user_id = b.user_id)
+WHERE b.group_id IS NULL
+  AND b.id = (
+    SELECT MIN(c.id) FROM ledger_balances c WHERE c.group_id IS NULL AND c.user_id = b.user_id);
+
+DELETE FROM ledger_balances b
+WHERE b.group_id IS NULL
+  AND EXISTS (
+    SELECT 1 FROM ledger_balances c
+    WHERE c.group_id IS NULL AND c.user_id = b.user_id AND c.id < b.id);
+
+ALTER TABLE ledger_balances
+    ADD CONSTRAINT uk_ledger_balance_no_group UNIQUE NULLS NOT DISTINCT (user_id, group_id);
@@ -0,0 +1,8 @@
+-- Expense listings page on (expense_date, id), so the date can no longer be missing
+UPDATE expenses SET expense_date = CAST(created_at AS DATE) WHERE expense_date IS NULL;
+ALTER TABLE expenses ALTER COLUMN expense_date SET NOT NULL;
+
+CREATE INDEX idx_expenses_group_date_id ON expenses(group_id, expense_date DESC, id DESC);
+
+-- Covered by the leading column of idx_expenses_group_date_id
+DROP INDEX idx_expense_group_id;
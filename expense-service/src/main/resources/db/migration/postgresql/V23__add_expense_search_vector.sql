@@ -0,0 +1,8 @@
+-- Full-text search over description and notes. The 'simple' configuration only lowercases, so
+-- descriptions in any language match and no stop words are dropped from short descriptions.
+ALTER TABLE expenses ADD COLUMN search_vector tsvector
+    GENERATED ALWAYS AS (
+        to_tsvector('simple', coalesce(description, '') || ' ' || coalesce(notes, ''))
+    ) STORED;
+
+CREATE INDEX idx_expenses_search_vector ON expenses USING GIN (search_vector);
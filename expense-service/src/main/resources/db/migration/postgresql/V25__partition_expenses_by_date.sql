@@ -0,0 +1,114 @@
+-- Range-partitions expenses and expense_splits by year of expense_date, so queries bounded by date
+-- only touch the years they need. Splits are partitioned on the same bounds as their expense
+-- (expense_splits.expense_date, V24). Partitions are named <table>_y<year>; rows of a year without
+-- a partition land in <table>_default. ExpensePartitionService creates the partitions of coming
+-- years, and moves partitions past the archive horizon into the archive schema.
+--
+-- A primary key of a partitioned table must contain the partition key, so both keys become
+-- (id, expense_date); ids still come from the same sequences and stay unique on their own. No
+-- foreign key can reference expenses(id) alone any more, so expense_splits.expense_id loses its
+-- constraint: splits are only ever written and removed through their expense's JPA cascade.
+
+CREATE SCHEMA IF NOT EXISTS archive;
+
+ALTER TABLE expenses RENAME TO expenses_unpartitioned;
+ALTER TABLE expense_splits RENAME TO expense_splits_unpartitioned;
+-- The id sequences would be dropped together with the old tables
+ALTER SEQUENCE expenses_id_seq OWNED BY NONE;
+ALTER SEQUENCE expense_splits_id_seq OWNED BY NONE;
+
+CREATE TABLE expenses (
+    id BIGINT NOT NULL DEFAULT nextval('expenses_id_seq'),
+    group_id BIGINT NOT NULL,
+    description VARCHAR(255) NOT NULL,
+    amount DECIMAL(19, 2) NOT NULL,
+    currency VARCHAR(3) NOT NULL DEFAULT 'EUR',
+    paid_by BIGINT NOT NULL,
+    category_id BIGINT,
+    expense_date DATE NOT NULL,
+    notes TEXT,
+    receipt_url VARCHAR(255),
+    created_at TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP,
+    updated_at TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP,
+    last_modified_by_id BIGINT,
+    version INTEGER NOT NULL DEFAULT 0,
+    search_vector tsvector GENERATED ALWAYS AS (
+        to_tsvector('simple', coalesce(description, '') || ' ' || coalesce(notes, ''))
+    ) STORED,
+    CONSTRAINT pk_expenses PRIMARY KEY (id, expense_date),
+    CONSTRAINT fk_expense_group FOREIGN KEY (group_id) REFERENCES groups(id),
+    CONSTRAINT fk_expense_category FOREIGN KEY (category_id) REFERENCES categories(id)
+) PARTITION BY RANGE (expense_date);
+
+CREATE TABLE expense_splits (
+    id BIGINT NOT NULL DEFAULT nextval('expense_splits_id_seq'),
+    expense_id BIGINT NOT NULL,
+    expense_date DATE NOT NULL,
+    user_id BIGINT NOT NULL,
+    split_type VARCHAR(20) NOT NULL,
+    split_value DECIMAL(19, 2),
+    share_amount DECIMAL(19, 2) NOT NULL,
+    created_at TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP,
+    updated_at TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP,
+    CONSTRAINT pk_expense_splits PRIMARY KEY (id, expense_date)
+) PARTITION BY RANGE (expense_date);
+
+ALTER SEQUENCE expenses_id_seq OWNED BY expenses.id;
+ALTER SEQUENCE expense_splits_id_seq OWNED BY expense_splits.id;
+
+CREATE TABLE expenses_default PARTITION OF expenses DEFAULT;
+CREATE TABLE expense_splits_default PARTITION OF expense_splits DEFAULT;
+
+-- One partition per year that has expenses, plus the current and the next year
+DO $$
+DECLARE
+    partition_year INTEGER;
+BEGIN
+    FOR partition_year IN
+        SELECT DISTINCT EXTRACT(YEAR FROM expense_date)::INTEGER FROM expenses_unpartitioned
+        WHERE expense_date BETWEEN DATE '0001-01-01' AND DATE '9999-12-31'
+        UNION
+        SELECT EXTRACT(YEAR FROM CURRENT_DATE)::INTEGER
+        UNION
+        SELECT EXTRACT(YEAR FROM CURRENT_DATE)::INTEGER + 1
+    LOOP
+        EXECUTE format(
+            'CREATE TABLE %I PARTITION OF expenses FOR VALUES FROM (%L) TO (%L)',
+            'expenses_y' || partition_year,
+            make_date(partition_year, 1, 1),
+            make_date(partition_year + 1, 1, 1));
+        EXECUTE format(
+            'CREATE TABLE %I PARTITION OF expense_splits FOR VALUES FROM (%L) TO (%L)',
+            'expense_splits_y' || partition_year,
+            make_date(partition_year, 1, 1),
+            make_date(partition_year + 1, 1, 1));
+    END LOOP;
+END
+$$;
+
+INSERT INTO expenses (
+    id, group_id, description, amount, currency, paid_by, category_id, expense_date, notes,
+    receipt_url, created_at, updated_at, last_modified_by_id, version)
+SELECT id, group_id, description, amount, currency, paid_by, category_id, expense_date, notes,
+    receipt_url, created_at, updated_at, last_modified_by_id, version
+FROM expenses_unpartitioned;
+
+INSERT INTO expense_splits (
+    id, expense_id, expense_date, user_id, split_type, split_value, share_amount, created_at,
+    updated_at)
+SELECT id, expense_id, expense_date, user_id, split_type, split_value, share_amount, created_at,
+    updated_at
+FROM expense_splits_unpartitioned;
+
+DROP TABLE expense_splits_unpartitioned;
+DROP TABLE expenses_unpartitioned;
+
+-- Created on the parents, so every partition gets its own copy
+CREATE INDEX idx_expenses_group_date_id ON expenses(group_id, expense_date DESC, id DESC);
+CREATE INDEX idx_expense_paid_by ON expenses(paid_by);
+CREATE INDEX idx_expenses_search_vector ON expenses USING GIN (search_vector);
+CREATE INDEX idx_expense_splits_expense_id ON expense_splits(expense_id);
+CREATE INDEX idx_expense_splits_user_id ON expense_splits(user_id);
+
+ANALYZE expenses;
+ANALYZE expense_splits;
@@ -0,0 +1,7 @@
+-- The group activity feed pages on (timestamp, id) within a group. type and actor_id are carried
+-- in the index so the page keys of a filtered feed come from an index-only scan.
+CREATE INDEX idx_activity_logs_group_timestamp_id
+    ON activity_logs(group_id, timestamp DESC, id DESC) INCLUDE (type, actor_id);
+
+-- Covered by the leading column of idx_activity_logs_group_timestamp_id
+DROP INDEX idx_activity_logs_group_id;
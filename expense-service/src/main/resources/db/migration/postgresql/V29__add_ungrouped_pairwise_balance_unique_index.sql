@@ -0,0 +1,20 @@
+-- uk_pairwise_balance treats NULLs as distinct, so it never stopped two rows of the same pair
+-- outside of any group. Rows that raced in are merged into the oldest one before the index.
+UPDATE pairwise_balances p
+SET amount = (
+    SELECT SUM(q.amount) FROM pairwise_balances q
+    WHERE q.group_id IS NULL AND q.user_a = p.user_a AND q.user_b = p.user_b)
+WHERE p.group_id IS NULL
+  AND p.id = (
+    SELECT MIN(q.id) FROM pairwise_balances q
+    WHERE q.group_id IS NULL AND q.user_a = p.user_a AND q.user_b = p.user_b);
+
+DELETE FROM pairwise_balances p
+WHERE p.group_id IS NULL
+  AND EXISTS (
+    SELECT 1 FROM pairwise_balances q
+    WHERE q.group_id IS NULL AND q.user_a = p.user_a AND q.user_b = p.user_b AND q.id < p.id);
+
+-- Also the conflict target of the upsert of ungrouped rows
+CREATE UNIQUE INDEX uk_pairwise_balance_no_group ON pairwise_balances(user_a, user_b)
+    WHERE group_id IS NULL;
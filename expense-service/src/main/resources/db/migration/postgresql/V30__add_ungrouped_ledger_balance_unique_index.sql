@@ -0,0 +1,18 @@
+-- uk_ledger_balance treats NULLs as distinct, so it never stopped two accounts of the same user
+-- outside of any group. Accounts that raced in are merged into the oldest one before the index.
+UPDATE ledger_balances b
+SET balance = (
+    SELECT SUM(c.balance) FROM ledger_balances c
+    WHERE c.group_id IS NULL AND c.user_id = b.user_id)
+WHERE b.group_id IS NULL
+  AND b.id = (
+    SELECT MIN(c.id) FROM ledger_balances c WHERE c.group_id IS NULL AND c.user_id = b.user_id);
+
+DELETE FROM ledger_balances b
+WHERE b.group_id IS NULL
+  AND EXISTS (
+    SELECT 1 FROM ledger_balances c
+    WHERE c.group_id IS NULL AND c.user_id = b.user_id AND c.id < b.id);
+
+-- Also the conflict target of the upsert of ungrouped accounts
+CREATE UNIQUE INDEX uk_ledger_balance_no_group ON ledger_balances(user_id) WHERE group_id IS NULL;
@@ -0,0 +1,47 @@
+package com.splitz.expense.balance;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import com.splitz.expense.money.Money;
+import java.math.BigDecimal;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Random;
+import org.junit.jupiter.api.Test;
+
+class BalanceFoldTest {
+
+  @Test
+  void toMap_MatchesDecimalSumsAcrossTableGrowth() {
+    Random random = new Random(7);
+    BalanceFold fold = new BalanceFold(Money.BALANCE_SCALE);
+    Map<Long, BigDecimal> expected = new HashMap<>();
+    for (int i = 0; i < 2_000; i++) {
+      // Sparse and sequential ids, including negative ones
+      long userId = random.nextBoolean() ? random.nextInt(300) : random.nextLong();
+      BigDecimal amount = BigDecimal.valueOf(random.nextInt(1_000_000) - 500_000, 2);
+      if (random.nextBoolean()) {
+        fold.add(userId, amount);
+        expected.merge(userId, amount, BigDecimal::add);
+      } else {
+        fold.subtract(userId, amount);
+        expected.merge(userId, amount.negate(), BigDecimal::add);
+      }
+    }
+
+    assertThat(fold.toMap()).isEqualTo(expected);
+  }
+
+  @Test
+  void toMap_OverflowingSum_CarriesOnInDecimal() {
+    BalanceFold fold = new BalanceFold(Money.BALANCE_SCALE);
+    BigDecimal large = BigDecimal.valueOf(Long.MAX_VALUE - 1, 2);
+    fold.add(1L, new BigDecimal("5.00"));
+    fold.add(2L, large);
+    fold.add(2L, large);
+    fold.subtract(1L, new BigDecimal("0.005"));
+
+    assertThat(fold.toMap())
+        .containsOnly(Map.entry(1L, new BigDecimal("4.995")), Map.entry(2L, large.add(large)));
+  }
+}
@@ -0,0 +1,77 @@
+package com.splitz.expense.balance;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.math.BigDecimal;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import org.junit.jupiter.api.Test;
+
+class GreedyDebtSimplifierTest {
+
+  private final GreedyDebtSimplifier simplifier = new GreedyDebtSimplifier();
+
+  @Test
+  void simplify_SettlesLargestDebtorWithLargestCreditor() {
+    Map<Long, BigDecimal> balances = new HashMap<>();
+    balances.put(1L, new BigDecimal("60.00"));
+    balances.put(2L, new BigDecimal("-40.00"));
+    balances.put(3L, new BigDecimal("-20.00"));
+
+    List<Transfer> transfers = simplifier.simplify(balances);
+
+    assertThat(transfers)
+        .containsExactly(
+            new Transfer(2L, 1L, new BigDecimal("40.00")),
+            new Transfer(3L, 1L, new BigDecimal("20.00")));
+  }
+
+  @Test
+  void simplify_MatchesDecimalReferenceOnRandomBalances() {
+    Random random = new Random(42);
+    for (int round = 0; round < 200; round++) {
+      Map<Long, BigDecimal> balances = randomZeroSumBalances(random, 2 + random.nextInt(30));
+
+      List<Transfer> minor = simplifier.simplify(balances);
+      List<Transfer> decimal = GreedyDebtSimplifier.simplifyDecimal(balances);
+
+      assertThat(minor).hasSameSizeAs(decimal);
+      assertThat(settle(balances, minor)).allSatisfy((id, b) -> assertThat(b).isZero());
+    }
+  }
+
+  @Test
+  void simplify_FallsBackForBalancesWithExtraDecimals() {
+    Map<Long, BigDecimal> balances = new HashMap<>();
+    balances.put(1L, new BigDecimal("0.005"));
+    balances.put(2L, new BigDecimal("-0.005"));
+
+    assertThat(simplifier.simplify(balances))
+        .containsExactly(new Transfer(2L, 1L, new BigDecimal("0.005")));
+  }
+
+  static Map<Long, BigDecimal> randomZeroSumBalances(Random random, int members) {
+    Map<Long, BigDecimal> balances = new HashMap<>();
+    long sum = 0;
+    for (long id = 1; id < members; id++) {
+      long cents = random.nextInt(200_000) - 100_000;
+      sum += cents;
+      balances.put(id, BigDecimal.valueOf(cents, 2));
+    }
+    balances.put((long) members, BigDecimal.valueOf(-sum, 2));
+    return balances;
+  }
+
+  static Map<Long, Long> settle(Map<Long, BigDecimal> balances, List<Transfer> transfers) {
+    Map<Long, Long> remaining = new HashMap<>();
+    balances.forEach((id, b) -> remaining.put(id, b.movePointRight(2).longValueExact()));
+    for (Transfer t : transfers) {
+      long cents = t.amount().movePointRight(2).longValueExact();
+      remaining.merge(t.from(), cents, Long::sum);
+      remaining.merge(t.to(), -cents, Long::sum);
+    }
+    return remaining;
+  }
+}
@@ -0,0 +1,89 @@
+package com.splitz.expense.balance;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.math.BigDecimal;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+class MinTransferDebtSimplifierTest {
+
+  private final GreedyDebtSimplifier greedy = new GreedyDebtSimplifier();
+  private final MinTransferDebtSimplifier simplifier = new MinTransferDebtSimplifier(greedy);
+
+  @Test
+  void simplify_SettlesZeroSumSubsetsSeparately() {
+    // Greedy pairs 5.00 with -4.00 first and needs four transfers; {5,-3,-2} and {4,-4} need three
+    Map<Long, BigDecimal> balances = balances("5.00", "4.00", "-4.00", "-3.00", "-2.00");
+
+    List<Transfer> transfers = simplifier.simplify(balances);
+
+    assertThat(greedy.simplify(balances)).hasSize(4);
+    assertThat(transfers)
+        .containsExactlyInAnyOrder(
+            new Transfer(3L, 2L, new BigDecimal("4.00")),
+            new Transfer(4L, 1L, new BigDecimal("3.00")),
+            new Transfer(5L, 1L, new BigDecimal("2.00")));
+  }
+
+  @Test
+  void simplify_NeverUsesMoreTransfersThanGreedy() {
+    Random random = new Random(7);
+    for (int round = 0; round < 100; round++) {
+      Map<Long, BigDecimal> balances =
+          GreedyDebtSimplifierTest.randomZeroSumBalances(random, 2 + random.nextInt(11));
+
+      List<Transfer> transfers = simplifier.simplify(balances);
+
+      assertThat(transfers.size()).isLessThanOrEqualTo(greedy.simplify(balances).size());
+      assertThat(GreedyDebtSimplifierTest.settle(balances, transfers))
+          .allSatisfy((id, b) -> assertThat(b).isZero());
+    }
+  }
+
+  @Test
+  void simplify_FallsBackToGreedyAboveMaxMembers() {
+    ReflectionTestUtils.setField(simplifier, "maxMembers", 4);
+    Map<Long, BigDecimal> balances = balances("5.00", "4.00", "-4.00", "-3.00", "-2.00");
+
+    assertThat(simplifier.simplify(balances)).isEqualTo(greedy.simplify(balances));
+  }
+
+  @Test
+  void simplify_FallsBackToGreedyWhenBalancesDoNotSumToZero() {
+    Map<Long, BigDecimal> balances = balances("5.00", "-3.00");
+
+    assertThat(simplifier.simplify(balances))
+        .containsExactly(new Transfer(2L, 1L, new BigDecimal("3.00")));
+  }
+
+  @Test
+  void partition_ReturnsMaximalZeroSumSubsets() {
+    int[] subsets =
+        MinTransferDebtSimplifier.partition(
+            new long[] {500, 400, -400, -300, -200}, 5, Long.MAX_VALUE);
+
+    assertThat(subsets).containsExactlyInAnyOrder(0b11001, 0b00110);
+  }
+
+  @Test
+  void partition_GivesUpAfterDeadline() {
+    long[] amounts = new long[16];
+    amounts[0] = 1;
+    amounts[15] = -1;
+
+    assertThat(MinTransferDebtSimplifier.partition(amounts, 16, System.nanoTime() - 1)).isNull();
+  }
+
+  private static Map<Long, BigDecimal> balances(String... amounts) {
+    Map<Long, BigDecimal> balances = new HashMap<>();
+    for (int i = 0; i < amounts.length; i++) {
+      balances.put(i + 1L, new BigDecimal(amounts[i]));
+    }
+    return balances;
+  }
+}
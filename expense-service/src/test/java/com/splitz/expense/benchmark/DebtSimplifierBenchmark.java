@@ -0,0 +1,81 @@
+package com.splitz.expense.benchmark;
+
+import com.splitz.expense.balance.GreedyDebtSimplifier;
+import com.splitz.expense.balance.MinTransferDebtSimplifier;
+import com.splitz.expense.balance.Transfer;
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.springframework.test.util.ReflectionTestUtils;
+
+/** Greedy against the exact minimum-transfer solver on synthetic group balance vectors. */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class DebtSimplifierBenchmark {
+
+  @Param({"8", "14", "20"})
+  int members;
+
+  private final GreedyDebtSimplifier greedy = new GreedyDebtSimplifier();
+  private final MinTransferDebtSimplifier minTransfers = new MinTransferDebtSimplifier(greedy);
+
+  private Map<Long, BigDecimal> balances;
+
+  @Setup
+  public void setUp() {
+    // Measure the full DP rather than the greedy fallback
+    ReflectionTestUtils.setField(minTransfers, "timeBudgetMillis", 60_000L);
+    balances = balances(new Random(42), members);
+  }
+
+  @Benchmark
+  public List<Transfer> greedy() {
+    return greedy.simplify(balances);
+  }
+
+  @Benchmark
+  public List<Transfer> minTransfers() {
+    return minTransfers.simplify(balances);
+  }
+
+  /**
+   * Zero-sum vector built from small clusters of two to four members, shuffled, so the exact solver
+   * has subsets to find that greedy matching usually misses.
+   */
+  static Map<Long, BigDecimal> balances(Random random, int members) {
+    List<Long> cents = new ArrayList<>();
+    while (cents.size() < members) {
+      int size = Math.min(members - cents.size(), 2 + random.nextInt(3));
+      if (members - cents.size() - size == 1) {
+        size++;
+      }
+      long sum = 0;
+      for (int i = 1; i < size; i++) {
+        long amount = random.nextInt(20_000) - 10_000;
+        cents.add(amount == 0 ? 1 : amount);
+        sum += amount == 0 ? 1 : amount;
+      }
+      cents.add(-sum);
+    }
+    Collections.shuffle(cents, random);
+    Map<Long, BigDecimal> balances = new HashMap<>();
+    for (int i = 0; i < cents.size(); i++) {
+      balances.put(i + 1L, BigDecimal.valueOf(cents.get(i), 2));
+    }
+    return balances;
+  }
+}
@@ -0,0 +1,55 @@
+package com.splitz.expense.benchmark;
+
+import com.splitz.expense.balance.GreedyDebtSimplifier;
+import com.splitz.expense.balance.MinTransferDebtSimplifier;
+import java.math.BigDecimal;
+import java.util.Map;
+import java.util.Random;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.openjdk.jmh.runner.options.TimeValue;
+
+/**
+ * Prints the transfer counts of both solvers over random synthetic vectors, then runs {@link
+ * DebtSimplifierBenchmark} through JMH. Run with {@code mvn test -Pbenchmark}.
+ */
+@Tag("benchmark")
+class DebtSimplifierBenchmarkTest {
+
+  private static final int VECTORS = 50;
+
+  @Test
+  void runDebtSimplifierBenchmark() throws Exception {
+    GreedyDebtSimplifier greedy = new GreedyDebtSimplifier();
+    MinTransferDebtSimplifier minTransfers = new MinTransferDebtSimplifier(greedy);
+    Random random = new Random(1);
+    for (int members : new int[] {8, 14, 20}) {
+      long greedyTransfers = 0;
+      long minimalTransfers = 0;
+      for (int i = 0; i < VECTORS; i++) {
+        Map<Long, BigDecimal> balances = DebtSimplifierBenchmark.balances(random, members);
+        greedyTransfers += greedy.simplify(balances).size();
+        minimalTransfers += minTransfers.simplify(balances).size();
+      }
+      System.out.printf(
+          "members=%d avg transfers: greedy=%.2f minTransfers=%.2f%n",
+          members, (double) greedyTransfers / VECTORS, (double) minimalTransfers / VECTORS);
+    }
+
+    Options options =
+        new OptionsBuilder()
+            .include(DebtSimplifierBenchmark.class.getName())
+            .forks(1)
+            .warmupIterations(3)
+            .warmupTime(TimeValue.seconds(1))
+            .measurementIterations(5)
+            .measurementTime(TimeValue.seconds(1))
+            .addProfiler(GCProfiler.class)
+            .build();
+    new Runner(options).run();
+  }
+}
@@ -0,0 +1,130 @@
+package com.splitz.expense.benchmark;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import com.splitz.expense.balance.GroupBalanceSource;
+import com.splitz.expense.service.BalanceProjectionService;
+import com.splitz.expense.service.BalanceService;
+import java.lang.management.ManagementFactory;
+import java.math.BigDecimal;
+import java.sql.Date;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+
+/**
+ * Compares latency and heap allocation of the group balance sources. Excluded from the default
+ * build; run with {@code mvn test -Pbenchmark -Dbenchmark.expenses=10000,100000}.
+ */
+@SpringBootTest
+@ActiveProfiles("test")
+@Tag("benchmark")
+class GroupBalanceBenchmarkTest {
+
+  private static final long[] MEMBERS = {1001L, 1002L, 1003L, 1004L};
+  private static final int WARMUP = 3;
+  private static final int ITERATIONS = 10;
+
+  @Autowired private JdbcTemplate jdbcTemplate;
+  @Autowired private BalanceService balanceService;
+  @Autowired private BalanceProjectionService balanceProjectionService;
+
+  private final List<Long> groupIds = new ArrayList<>();
+
+  @AfterEach
+  void tearDown() {
+    for (Long groupId : groupIds) {
+      jdbcTemplate.update(
+          "DELETE FROM expense_splits WHERE expense_id IN (SELECT id FROM expenses WHERE group_id"
+              + " = ?)",
+          groupId);
+      jdbcTemplate.update("DELETE FROM expenses WHERE group_id = ?", groupId);
+      jdbcTemplate.update("DELETE FROM group_member_balances WHERE group_id = ?", groupId);
+      jdbcTemplate.update("DELETE FROM pairwise_balances WHERE group_id = ?", groupId);
+      jdbcTemplate.update("DELETE FROM groups WHERE id = ?", groupId);
+    }
+  }
+
+  @Test
+  void compareGroupBalanceSources() {
+    String sizes = System.getProperty("benchmark.expenses", "10000,100000");
+    for (String size : sizes.split(",")) {
+      int expenses = Integer.parseInt(size.trim());
+      Long groupId = seedGroup(expenses);
+
+      Map<Long, BigDecimal> expected =
+          balanceService.loadGroupBalances(groupId, GroupBalanceSource.ENTITIES);
+      for (GroupBalanceSource source : GroupBalanceSource.values()) {
+        Map<Long, BigDecimal> actual = balanceService.loadGroupBalances(groupId, source);
+        expected.forEach(
+            (userId, balance) ->
+                assertEquals(0, balance.compareTo(actual.get(userId)), source.name()));
+
+        long[] nanos = new long[ITERATIONS];
+        long[] bytes = new long[ITERATIONS];
+        for (int i = 0; i < WARMUP; i++) {
+          balanceService.loadGroupBalances(groupId, source);
+        }
+        for (int i = 0; i < ITERATIONS; i++) {
+          long allocatedBefore = allocatedBytes();
+          long start = System.nanoTime();
+          balanceService.loadGroupBalances(groupId, source);
+          nanos[i] = System.nanoTime() - start;
+          bytes[i] = allocatedBytes() - allocatedBefore;
+        }
+        System.out.printf(
+            "group-balances expenses=%d source=%-12s median=%8.2f ms allocated=%10d KB%n",
+            expenses, source, median(nanos) / 1_000_000.0, median(bytes) / 1024);
+      }
+    }
+  }
+
+  private Long seedGroup(int expenses) {
+    jdbcTemplate.update(
+        "INSERT INTO groups (name, created_by) VALUES (?, ?)", "benchmark-" + expenses, MEMBERS[0]);
+    Long groupId =
+        jdbcTemplate.queryForObject(
+            "SELECT MAX(id) FROM groups WHERE name = ?", Long.class, "benchmark-" + expenses);
+    groupIds.add(groupId);
+
+    List<Object[]> rows = new ArrayList<>(expenses);
+    Date today = Date.valueOf(LocalDate.now());
+    for (int i = 0; i < expenses; i++) {
+      rows.add(
+          new Object[] {groupId, "Expense " + i, new BigDecimal("40.00"), MEMBERS[i % 4], today});
+    }
+    jdbcTemplate.batchUpdate(
+        "INSERT INTO expenses (group_id, description, amount, paid_by, expense_date) VALUES (?, ?,"
+            + " ?, ?, ?)",
+        rows);
+    for (long member : MEMBERS) {
+      jdbcTemplate.update(
+          "INSERT INTO expense_splits (expense_id, expense_date, user_id, split_type, share_amount)"
+              + " SELECT id, expense_date, ?, 'EQUAL', 10.00 FROM expenses WHERE group_id = ?",
+          member,
+          groupId);
+    }
+    balanceProjectionService.rebuild(groupId);
+    return groupId;
+  }
+
+  private static long allocatedBytes() {
+    return ((com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean())
+        .getCurrentThreadAllocatedBytes();
+  }
+
+  private static long median(long[] samples) {
+    long[] sorted = samples.clone();
+    Arrays.sort(sorted);
+    return sorted[sorted.length / 2];
+  }
+}
@@ -0,0 +1,98 @@
+package com.splitz.expense.benchmark;
+
+import com.splitz.expense.balance.GreedyDebtSimplifier;
+import com.splitz.expense.balance.Transfer;
+import com.splitz.expense.calculator.AdjustmentSplitStrategy;
+import com.splitz.expense.calculator.EqualSplitStrategy;
+import com.splitz.expense.calculator.ExactSplitStrategy;
+import com.splitz.expense.calculator.PercentageSplitStrategy;
+import com.splitz.expense.calculator.RemainderHandler;
+import com.splitz.expense.calculator.SharesSplitStrategy;
+import com.splitz.expense.calculator.SplitCalculator;
+import com.splitz.expense.calculator.SplitResult;
+import com.splitz.expense.calculator.SplitStrategy;
+import com.splitz.expense.dto.SplitRequest;
+import com.splitz.expense.model.SplitType;
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+/** Minor-unit fast paths against the BigDecimal reference paths. */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class MoneyBenchmark {
+
+  @Param({"8", "64"})
+  int members;
+
+  private final GreedyDebtSimplifier greedy = new GreedyDebtSimplifier();
+  private final SplitStrategy shares = new SharesSplitStrategy();
+  private final RemainderHandler remainderHandler = new RemainderHandler();
+  private final SplitCalculator calculator =
+      new SplitCalculator(
+          List.of(
+              new EqualSplitStrategy(),
+              new ExactSplitStrategy(),
+              new PercentageSplitStrategy(),
+              shares,
+              new AdjustmentSplitStrategy()),
+          remainderHandler);
+
+  private BigDecimal total;
+  private List<SplitRequest> requests;
+  private Map<Long, BigDecimal> balances;
+
+  @Setup
+  public void setUp() {
+    Random random = new Random(42);
+    total = new BigDecimal("1234.56");
+    requests = new ArrayList<>();
+    balances = new HashMap<>();
+    long sum = 0;
+    for (long id = 1; id <= members; id++) {
+      requests.add(
+          SplitRequest.builder()
+              .userId(id)
+              .splitValue(BigDecimal.valueOf(1 + random.nextInt(30), 1))
+              .build());
+      long cents = id == members ? -sum : random.nextInt(200_000) - 100_000;
+      sum += cents;
+      balances.put(id, BigDecimal.valueOf(cents, 2));
+    }
+  }
+
+  @Benchmark
+  public List<SplitResult> sharesSplitMinor() {
+    return calculator.calculate(total, SplitType.SHARES, requests, "EUR");
+  }
+
+  @Benchmark
+  public List<SplitResult> sharesSplitDecimal() {
+    List<SplitResult> results = shares.calculate(total, requests, 2);
+    remainderHandler.handle(total, results);
+    return results;
+  }
+
+  @Benchmark
+  public List<Transfer> simplifyDebtsMinor() {
+    return greedy.simplify(balances);
+  }
+
+  @Benchmark
+  public List<Transfer> simplifyDebtsDecimal() {
+    return GreedyDebtSimplifier.simplifyDecimal(balances);
+  }
+}
@@ -0,0 +1,32 @@
+package com.splitz.expense.benchmark;
+
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.openjdk.jmh.runner.options.TimeValue;
+
+/**
+ * Runs {@link MoneyBenchmark} through JMH, including the GC profiler so {@code gc.alloc.rate.norm}
+ * shows bytes allocated per operation. Run with {@code mvn test -Pbenchmark}.
+ */
+@Tag("benchmark")
+class MoneyBenchmarkTest {
+
+  @Test
+  void runMoneyBenchmark() throws Exception {
+    Options options =
+        new OptionsBuilder()
+            .include(MoneyBenchmark.class.getName())
+            .forks(1)
+            .warmupIterations(3)
+            .warmupTime(TimeValue.seconds(1))
+            .measurementIterations(5)
+            .measurementTime(TimeValue.seconds(1))
+            .addProfiler(GCProfiler.class)
+            .build();
+    new Runner(options).run();
+  }
+}
@@ -5,7 +5,10 @@ import static org.assertj.core.api.Assertions.assertThat;
 import com.splitz.expense.dto.SplitRequest;
 import com.splitz.expense.model.SplitType;
 import java.math.BigDecimal;
+import java.util.ArrayList;
 import java.util.List;
+import java.util.Map;
+import java.util.Random;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 
@@ -185,4 +188,74 @@ class SplitCalculatorTest {
         results.stream().map(SplitResult::shareAmount).reduce(BigDecimal.ZERO, BigDecimal::add);
     assertThat(sum).isEqualByComparingTo("10.000");
   }
+
+  @Test
+  void calculate_MinorUnitPathMatchesDecimalPath() {
+    Random random = new Random(7);
+    Map<SplitType, SplitStrategy> strategies =
+        Map.of(
+            SplitType.EQUAL, new EqualSplitStrategy(),
+            SplitType.PERCENTAGE, new PercentageSplitStrategy(),
+            SplitType.SHARES, new SharesSplitStrategy(),
+            SplitType.ADJUSTMENT, new AdjustmentSplitStrategy());
+
+    for (int round = 0; round < 500; round++) {
+      int members = 1 + random.nextInt(8);
+      BigDecimal total = BigDecimal.valueOf(1 + random.nextInt(1_000_000), 2);
+      for (Map.Entry<SplitType, SplitStrategy> entry : strategies.entrySet()) {
+        List<SplitRequest> requests = randomRequests(random, entry.getKey(), members);
+
+        List<SplitResult> minor =
+            calculator.calculateMinor(entry.getValue(), total, entry.getKey(), requests, 2);
+        List<SplitResult> decimal =
+            calculator.calculateDecimal(entry.getValue(), total, entry.getKey(), requests, 2);
+
+        for (int i = 0; i < members; i++) {
+          assertThat(minor.get(i).shareAmount())
+              .as("%s %s round %d", entry.getKey(), total, round)
+              .isEqualByComparingTo(decimal.get(i).shareAmount());
+          assertThat(minor.get(i).splitValue()).isEqualTo(decimal.get(i).splitValue());
+        }
+      }
+    }
+  }
+
+  @Test
+  void calculate_FallsBackToDecimalWhenAmountHasExtraDecimals() {
+    BigDecimal totalAmount = new BigDecimal("10.005");
+    List<SplitRequest> requests =
+        List.of(
+            SplitRequest.builder().userId(1L).build(), SplitRequest.builder().userId(2L).build());
+
+    List<SplitResult> results = calculator.calculate(totalAmount, SplitType.EQUAL, requests, "USD");
+
+    BigDecimal sum =
+        results.stream().map(SplitResult::shareAmount).reduce(BigDecimal.ZERO, BigDecimal::add);
+    assertThat(sum).isEqualByComparingTo("10.005");
+  }
+
+  private static List<SplitRequest> randomRequests(Random random, SplitType type, int members) {
+    List<SplitRequest> requests = new ArrayList<>();
+    long remaining = 10_000;
+    long adjustmentSum = 0;
+    for (int i = 0; i < members; i++) {
+      BigDecimal value =
+          switch (type) {
+            case PERCENTAGE -> {
+              long part = i == members - 1 ? remaining : random.nextLong(remaining + 1);
+              remaining -= part;
+              yield BigDecimal.valueOf(part, 2);
+            }
+            case SHARES -> BigDecimal.valueOf(1 + random.nextInt(500), 1);
+            case ADJUSTMENT -> {
+              long part = i == members - 1 ? -adjustmentSum : random.nextInt(2_000) - 1_000;
+              adjustmentSum += part;
+              yield BigDecimal.valueOf(part, 2);
+            }
+            default -> null;
+          };
+      requests.add(SplitRequest.builder().userId((long) i + 1).splitValue(value).build());
+    }
+    return requests;
+  }
 }
@@ -0,0 +1,87 @@
+package com.splitz.expense.controller;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.when;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+import com.splitz.expense.service.BalanceCheckpointService;
+import com.splitz.expense.service.BalanceProjectionService;
+import com.splitz.expense.service.BalanceReconciliationService;
+import com.splitz.security.JwtRequestFilter;
+import com.splitz.security.JwtUtil;
+import com.splitz.security.authorization.SharedSecurityAuthorizer;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.ServletRequest;
+import jakarta.servlet.ServletResponse;
+import java.io.IOException;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.security.test.context.support.WithMockUser;
+import org.springframework.test.web.servlet.MockMvc;
+
+@WebMvcTest(BalanceAdminController.class)
+@AutoConfigureMockMvc(addFilters = false)
+class BalanceAdminControllerTest {
+
+  @Autowired private MockMvc mockMvc;
+
+  @MockBean private BalanceProjectionService balanceProjectionService;
+
+  @MockBean private BalanceCheckpointService balanceCheckpointService;
+
+  @MockBean private BalanceReconciliationService balanceReconciliationService;
+
+  @MockBean private JwtRequestFilter jwtRequestFilter;
+
+  @MockBean private JwtUtil jwtUtil;
+
+  @MockBean private SharedSecurityAuthorizer splitzAuthorizer;
+
+  @BeforeEach
+  void setUp() throws ServletException, IOException {
+    doAnswer(
+            invocation -> {
+              ServletRequest request = invocation.getArgument(0);
+              ServletResponse response = invocation.getArgument(1);
+              FilterChain chain = invocation.getArgument(2);
+              chain.doFilter(request, response);
+              return null;
+            })
+        .when(jwtRequestFilter)
+        .doFilter(any(), any(), any());
+
+    when(splitzAuthorizer.isAdmin()).thenReturn(true);
+  }
+
+  @Test
+  @WithMockUser(username = "1", roles = "ADMIN")
+  void reconcileAll_Started_ReturnsAccepted() throws Exception {
+    when(balanceReconciliationService.startReconcileAll()).thenReturn(true);
+
+    mockMvc
+        .perform(post("/admin/balances/reconciliation"))
+        .andExpect(status().isAccepted())
+        .andExpect(header().string("Location", "http://localhost/admin/balances/reconciliation"));
+  }
+
+  @Test
+  @WithMockUser(username = "1", roles = "ADMIN")
+  void reconcileAll_AlreadyRunning_ReturnsConflict() throws Exception {
+    when(balanceReconciliationService.startReconcileAll()).thenReturn(false);
+
+    mockMvc
+        .perform(post("/admin/balances/reconciliation"))
+        .andExpect(status().isConflict())
+        .andExpect(jsonPath("$.title").value("Conflict"))
+        .andExpect(header().doesNotExist("Location"));
+  }
+}
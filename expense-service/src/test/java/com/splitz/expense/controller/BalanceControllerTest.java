@@ -2,6 +2,7 @@ package com.splitz.expense.controller;
 
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.isNull;
 import static org.mockito.Mockito.doAnswer;
 import static org.mockito.Mockito.when;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
@@ -23,6 +24,7 @@ import jakarta.servlet.ServletRequest;
 import jakarta.servlet.ServletResponse;
 import java.io.IOException;
 import java.math.BigDecimal;
+import java.time.LocalDateTime;
 import java.util.Arrays;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
@@ -80,7 +82,7 @@ class BalanceControllerTest {
                     DebtDTO.builder().from(103L).to(101L).amount(new BigDecimal("20.00")).build()))
             .build();
 
-    when(balanceService.getGroupBalances(eq(1L))).thenReturn(response);
+    when(balanceService.getGroupBalances(eq(1L), isNull(), isNull())).thenReturn(response);
 
     mockMvc
         .perform(get("/groups/1/balances"))
@@ -107,7 +109,7 @@ class BalanceControllerTest {
                         2L, "Group 2", new BigDecimal("-10.00"))))
             .build();
 
-    when(balanceService.getUserBalances(eq(101L))).thenReturn(response);
+    when(balanceService.getUserBalances(eq(101L), isNull())).thenReturn(response);
 
     mockMvc
         .perform(get("/users/101/balances"))
@@ -118,6 +120,21 @@ class BalanceControllerTest {
         .andExpect(jsonPath("$.groupBalances[0].balance").value(25.00));
   }
 
+  @Test
+  @WithMockUser(username = "101")
+  void getUserBalances_PassesAsOf() throws Exception {
+    UserBalanceResponseDTO response =
+        UserBalanceResponseDTO.builder().userId(101L).totalBalance(new BigDecimal("-5.00")).build();
+
+    when(balanceService.getUserBalances(eq(101L), eq(LocalDateTime.of(2026, 3, 1, 0, 0))))
+        .thenReturn(response);
+
+    mockMvc
+        .perform(get("/users/101/balances").param("asOf", "2026-03-01T00:00:00"))
+        .andExpect(status().isOk())
+        .andExpect(jsonPath("$.totalBalance").value(-5.00));
+  }
+
   @Test
   @WithMockUser(username = "101")
   void getFriendBalance_ShouldReturnNetBalance() throws Exception {
@@ -2,25 +2,41 @@ package com.splitz.expense.controller;
 
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.isNull;
 import static org.mockito.Mockito.when;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.delete;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.put;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.splitz.expense.dto.CreateExpenseRequest;
 import com.splitz.expense.dto.ExpenseDTO;
+import com.splitz.expense.dto.ExpenseFilter;
+import com.splitz.expense.dto.ExpenseImportResultDTO;
+import com.splitz.expense.dto.ExpensePageDTO;
 import com.splitz.expense.dto.SplitRequest;
 import com.splitz.expense.dto.UpdateExpenseRequest;
+import com.splitz.expense.exception.PreconditionFailedException;
+import com.splitz.expense.importer.ExpenseImportFormat;
 import com.splitz.expense.model.SplitType;
+import com.splitz.expense.service.ExpenseImportService;
 import com.splitz.expense.service.ExpenseService;
+import com.splitz.expense.streaming.RowStream;
 import com.splitz.security.JwtRequestFilter;
 import com.splitz.security.authorization.SharedSecurityAuthorizer;
+import java.io.InputStream;
 import java.math.BigDecimal;
+import java.time.LocalDate;
 import java.util.List;
+import java.util.Optional;
+import java.util.function.Predicate;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -30,6 +46,7 @@ import org.springframework.boot.test.mock.mockito.MockBean;
 import org.springframework.http.MediaType;
 import org.springframework.security.test.context.support.WithMockUser;
 import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
 
 @WebMvcTest(ExpenseController.class)
 @AutoConfigureMockMvc(addFilters = false)
@@ -41,6 +58,8 @@ class ExpenseControllerTest {
 
   @MockBean private ExpenseService expenseService;
 
+  @MockBean private ExpenseImportService expenseImportService;
+
   @MockBean private JwtRequestFilter jwtRequestFilter;
 
   @MockBean private SharedSecurityAuthorizer splitzAuthorizer;
@@ -57,6 +76,7 @@ class ExpenseControllerTest {
             .description("Dinner")
             .amount(new BigDecimal("60.00"))
             .paidBy(100L)
+            .version(4)
             .build();
   }
 
@@ -100,9 +120,36 @@ class ExpenseControllerTest {
         .andExpect(status().isBadRequest());
   }
 
+  @Test
+  void importExpenses_Csv_DelegatesWithFormat() throws Exception {
+    when(expenseImportService.importExpenses(
+            eq(1L), eq(ExpenseImportFormat.CSV), any(InputStream.class), eq(100L)))
+        .thenReturn(
+            ExpenseImportResultDTO.builder().rowsRead(1).imported(1).errors(List.of()).build());
+
+    mockMvc
+        .perform(
+            post("/groups/1/expenses/import")
+                .contentType("text/csv; charset=UTF-8")
+                .content(
+                    "description,amount,paidBy,splitType,participants\n"
+                        + "Dinner,60.00,100,EQUAL,100\n"))
+        .andExpect(status().isOk())
+        .andExpect(jsonPath("$.imported").value(1));
+  }
+
+  @Test
+  void importExpenses_UnsupportedContentType_ReturnsUnsupportedMediaType() throws Exception {
+    mockMvc
+        .perform(post("/groups/1/expenses/import").contentType(MediaType.TEXT_PLAIN).content("x"))
+        .andExpect(status().isUnsupportedMediaType())
+        .andExpect(jsonPath("$.title").value("Unsupported Media Type"))
+        .andExpect(header().exists("Accept"));
+  }
+
   @Test
   void getExpense_Success() throws Exception {
-    when(expenseService.getExpense(1L, 100L)).thenReturn(expenseDTO);
+    when(expenseService.getExpense(eq(1L), eq(100L), any())).thenReturn(Optional.of(expenseDTO));
 
     mockMvc
         .perform(get("/expenses/1"))
@@ -110,9 +157,29 @@ class ExpenseControllerTest {
         .andExpect(jsonPath("$.id").value(1L));
   }
 
+  @Test
+  void getExpense_IfNoneMatchCurrentVersion_ReturnsNotModified() throws Exception {
+    when(expenseService.getExpense(eq(1L), eq(100L), any()))
+        .thenAnswer(
+            invocation -> {
+              Predicate<Integer> notModified = invocation.getArgument(2);
+              return notModified.test(4) ? Optional.empty() : Optional.of(expenseDTO);
+            });
+
+    mockMvc
+        .perform(get("/expenses/1").header("If-None-Match", "\"4\""))
+        .andExpect(status().isNotModified())
+        .andExpect(header().string("ETag", "\"4\""));
+    mockMvc
+        .perform(get("/expenses/1").header("If-None-Match", "\"3\""))
+        .andExpect(status().isOk())
+        .andExpect(header().string("ETag", "\"4\""))
+        .andExpect(jsonPath("$.id").value(1L));
+  }
+
   @Test
   void getExpense_NotFound_ReturnsNotFound() throws Exception {
-    when(expenseService.getExpense(1L, 100L))
+    when(expenseService.getExpense(eq(1L), eq(100L), any()))
         .thenThrow(new com.splitz.expense.exception.ResourceNotFoundException("Expense not found"));
 
     mockMvc.perform(get("/expenses/1")).andExpect(status().isNotFound());
@@ -120,18 +187,88 @@ class ExpenseControllerTest {
 
   @Test
   void getExpensesByGroup_Success() throws Exception {
-    when(expenseService.getExpensesByGroup(1L, 100L)).thenReturn(List.of(expenseDTO));
+    when(expenseService.getExpensesByGroup(eq(1L), any(), isNull(), eq(50), eq(100L)))
+        .thenReturn(ExpensePageDTO.builder().expenses(List.of(expenseDTO)).build());
 
     mockMvc
         .perform(get("/groups/1/expenses"))
         .andExpect(status().isOk())
+        .andExpect(header().doesNotExist(ExpenseController.NEXT_CURSOR_HEADER))
         .andExpect(jsonPath("$[0].id").value(1L));
   }
 
+  @Test
+  void getExpensesByGroup_BindsFiltersAndReturnsNextCursor() throws Exception {
+    ExpenseFilter filter =
+        ExpenseFilter.builder()
+            .from(LocalDate.of(2026, 1, 1))
+            .to(LocalDate.of(2026, 1, 31))
+            .paidBy(100L)
+            .participantId(101L)
+            .categoryId(3L)
+            .minAmount(new BigDecimal("10"))
+            .maxAmount(new BigDecimal("99.50"))
+            .build();
+    when(expenseService.getExpensesByGroup(1L, filter, "abc", 20, 100L))
+        .thenReturn(
+            ExpensePageDTO.builder().expenses(List.of(expenseDTO)).nextCursor("def").build());
+
+    mockMvc
+        .perform(
+            get("/groups/1/expenses")
+                .param("from", "2026-01-01")
+                .param("to", "2026-01-31")
+                .param("paidBy", "100")
+                .param("participantId", "101")
+                .param("categoryId", "3")
+                .param("minAmount", "10")
+                .param("maxAmount", "99.50")
+                .param("cursor", "abc")
+                .param("limit", "20"))
+        .andExpect(status().isOk())
+        .andExpect(header().string(ExpenseController.NEXT_CURSOR_HEADER, "def"))
+        .andExpect(jsonPath("$[0].id").value(1L));
+  }
+
+  @Test
+  void streamExpensesByGroup_NdjsonAccept_WritesOneExpensePerLine() throws Exception {
+    ExpenseDTO second = ExpenseDTO.builder().id(2L).groupId(1L).description("Taxi").build();
+    RowStream<ExpenseDTO> rows =
+        action -> {
+          action.accept(expenseDTO);
+          action.accept(second);
+        };
+    when(expenseService.streamExpensesByGroup(
+            1L, ExpenseFilter.builder().paidBy(100L).build(), 100L))
+        .thenReturn(rows);
+
+    MvcResult result =
+        mockMvc
+            .perform(
+                get("/groups/1/expenses")
+                    .param("paidBy", "100")
+                    .accept(MediaType.APPLICATION_NDJSON))
+            .andExpect(request().asyncStarted())
+            .andReturn();
+
+    mockMvc
+        .perform(asyncDispatch(result))
+        .andExpect(status().isOk())
+        .andExpect(content().contentTypeCompatibleWith(MediaType.APPLICATION_NDJSON))
+        .andExpect(
+            content()
+                .string(
+                    objectMapper.writeValueAsString(expenseDTO)
+                        + "\n"
+                        + objectMapper.writeValueAsString(second)
+                        + "\n"));
+  }
+
   @Test
   void getExpensesByGroupIds_Success() throws Exception {
-    when(expenseService.getExpensesByGroupIds(List.of(1L, 2L), 100L))
-        .thenReturn(List.of(expenseDTO));
+    when(expenseService.getExpensesByGroupIds(
+            eq(List.of(1L, 2L)), any(), isNull(), eq(50), eq(100L)))
+        .thenReturn(ExpensePageDTO.builder().expenses(List.of(expenseDTO)).build());
 
     mockMvc
         .perform(get("/groups/expenses/bulk?groupIds=1,2"))
@@ -139,13 +276,30 @@ class ExpenseControllerTest {
         .andExpect(jsonPath("$[0].id").value(1L));
   }
 
+  @Test
+  void searchExpenses_ReturnsPageWithNextCursor() throws Exception {
+    when(expenseService.searchExpenses("taxi airport", "abc", 10, 100L))
+        .thenReturn(
+            ExpensePageDTO.builder().expenses(List.of(expenseDTO)).nextCursor("def").build());
+
+    mockMvc
+        .perform(
+            get("/expenses/search")
+                .param("q", "taxi airport")
+                .param("cursor", "abc")
+                .param("limit", "10"))
+        .andExpect(status().isOk())
+        .andExpect(header().string(ExpenseController.NEXT_CURSOR_HEADER, "def"))
+        .andExpect(jsonPath("$[0].id").value(1L));
+  }
+
   @Test
   @WithMockUser(username = "100")
   void updateExpense_Success() throws Exception {
     UpdateExpenseRequest request =
         UpdateExpenseRequest.builder().description("Updated Dinner").build();
 
-    when(expenseService.updateExpense(eq(1L), any(UpdateExpenseRequest.class), eq(100L)))
+    when(expenseService.updateExpense(eq(1L), any(UpdateExpenseRequest.class), eq(100L), any()))
         .thenReturn(expenseDTO);
 
     mockMvc
@@ -153,14 +307,31 @@ class ExpenseControllerTest {
             put("/expenses/1")
                 .contentType(MediaType.APPLICATION_JSON)
                 .content(objectMapper.writeValueAsString(request)))
-        .andExpect(status().isOk());
+        .andExpect(status().isOk())
+        .andExpect(header().string("ETag", "\"4\""));
+  }
+
+  @Test
+  @WithMockUser(username = "100")
+  void updateExpense_StaleIfMatch_ReturnsPreconditionFailed() throws Exception {
+    UpdateExpenseRequest request = UpdateExpenseRequest.builder().description("Updated").build();
+    when(expenseService.updateExpense(eq(1L), any(UpdateExpenseRequest.class), eq(100L), any()))
+        .thenThrow(new PreconditionFailedException("Expense 1 has been modified"));
+
+    mockMvc
+        .perform(
+            put("/expenses/1")
+                .header("If-Match", "\"2\"")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(request)))
+        .andExpect(status().isPreconditionFailed());
   }
 
   @Test
   @WithMockUser(username = "100")
   void updateExpense_NotFound_ReturnsNotFound() throws Exception {
     UpdateExpenseRequest request = UpdateExpenseRequest.builder().description("Updated").build();
-    when(expenseService.updateExpense(eq(1L), any(UpdateExpenseRequest.class), eq(100L)))
+    when(expenseService.updateExpense(eq(1L), any(UpdateExpenseRequest.class), eq(100L), any()))
         .thenThrow(new com.splitz.expense.exception.ResourceNotFoundException("Expense not found"));
 
     mockMvc
@@ -7,16 +7,21 @@ import static org.springframework.test.web.servlet.request.MockMvcRequestBuilder
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.put;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.splitz.expense.dto.ActivityLogDTO;
+import com.splitz.expense.dto.ActivityLogFilter;
+import com.splitz.expense.dto.ActivityLogPageDTO;
 import com.splitz.expense.dto.AddMemberRequest;
 import com.splitz.expense.dto.CreateGroupRequest;
 import com.splitz.expense.dto.GroupDTO;
 import com.splitz.expense.dto.GroupMemberDTO;
 import com.splitz.expense.dto.UpdateGroupRequest;
 import com.splitz.expense.dto.UpdateMemberRoleRequest;
+import com.splitz.expense.model.ActivityLogType;
 import com.splitz.expense.model.GroupRole;
 import com.splitz.expense.service.ActivityLogService;
 import com.splitz.expense.service.GroupService;
@@ -52,8 +57,6 @@ class GroupControllerTest {
 
   @MockBean private ActivityLogService activityLogService;
 
-  @MockBean private com.splitz.expense.mapper.ActivityLogMapper activityLogMapper;
-
   @MockBean private JwtRequestFilter jwtRequestFilter;
 
   @MockBean private JwtUtil jwtUtil;
@@ -157,8 +160,9 @@ class GroupControllerTest {
     UpdateGroupRequest request = new UpdateGroupRequest();
     request.setName("Updated");
 
-    GroupDTO response = GroupDTO.builder().id(7L).name("Updated").build();
-    when(groupService.updateGroup(Mockito.eq(7L), any(UpdateGroupRequest.class), Mockito.eq(4L)))
+    GroupDTO response = GroupDTO.builder().id(7L).name("Updated").version(2).build();
+    when(groupService.updateGroup(
+            Mockito.eq(7L), any(UpdateGroupRequest.class), Mockito.eq(4L), any()))
         .thenReturn(response);
 
     mockMvc
@@ -204,29 +208,43 @@ class GroupControllerTest {
   @Test
   @WithMockUser(username = "1")
   void getGroupActivity_ShouldReturnActivityLogs() throws Exception {
-    com.splitz.expense.model.ActivityLog log =
-        com.splitz.expense.model.ActivityLog.builder()
+    ActivityLogDTO dto =
+        ActivityLogDTO.builder()
             .id(1L)
-            .groupId(1L)
-            .type(com.splitz.expense.model.ActivityLogType.EXPENSE_CREATED)
-            .actorId(1L)
+            .type(ActivityLogType.EXPENSE_CREATED)
             .entityName("Dinner")
-            .timestamp(java.time.LocalDateTime.now())
             .build();
-
-    com.splitz.expense.dto.ActivityLogDTO dto =
-        com.splitz.expense.dto.ActivityLogDTO.builder()
-            .id(1L)
-            .type(com.splitz.expense.model.ActivityLogType.EXPENSE_CREATED)
-            .entityName("Dinner")
-            .build();
-
-    when(activityLogService.getActivitiesByGroup(1L)).thenReturn(List.of(log));
-    when(activityLogMapper.toDTOList(any())).thenReturn(List.of(dto));
+    when(activityLogService.getGroupActivity(1L, new ActivityLogFilter(), null, 50, 1L))
+        .thenReturn(ActivityLogPageDTO.builder().activities(List.of(dto)).build());
 
     mockMvc
         .perform(get("/groups/1/activity"))
         .andExpect(status().isOk())
+        .andExpect(header().doesNotExist(ExpenseController.NEXT_CURSOR_HEADER))
         .andExpect(jsonPath("$[0].entityName").value("Dinner"));
   }
+
+  @Test
+  @WithMockUser(username = "1")
+  void getGroupActivity_BindsFiltersAndReturnsNextCursor() throws Exception {
+    ActivityLogFilter filter =
+        ActivityLogFilter.builder().type(ActivityLogType.EXPENSE_DELETED).actorId(2L).build();
+    when(activityLogService.getGroupActivity(1L, filter, "abc", 20, 1L))
+        .thenReturn(
+            ActivityLogPageDTO.builder()
+                .activities(List.of(ActivityLogDTO.builder().id(7L).build()))
+                .nextCursor("def")
+                .build());
+
+    mockMvc
+        .perform(
+            get("/groups/1/activity")
+                .param("type", "EXPENSE_DELETED")
+                .param("actorId", "2")
+                .param("cursor", "abc")
+                .param("limit", "20"))
+        .andExpect(status().isOk())
+        .andExpect(header().string(ExpenseController.NEXT_CURSOR_HEADER, "def"))
+        .andExpect(jsonPath("$[0].id").value(7L));
+  }
 }
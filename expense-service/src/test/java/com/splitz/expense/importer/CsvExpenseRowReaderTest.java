@@ -0,0 +1,90 @@
+package com.splitz.expense.importer;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import com.splitz.expense.dto.CreateExpenseRequest;
+import com.splitz.expense.model.SplitType;
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.StringReader;
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.List;
+import org.junit.jupiter.api.Test;
+
+class CsvExpenseRowReaderTest {
+
+  private static CsvExpenseRowReader reader(String csv) throws IOException {
+    return new CsvExpenseRowReader(new BufferedReader(new StringReader(csv)));
+  }
+
+  @Test
+  void next_ParsesColumnsInAnyOrder() throws IOException {
+    CsvExpenseRowReader reader =
+        reader(
+            "\uFEFFParticipants,splitType,Amount,paidBy,description,splitValues,expenseDate\n"
+                + "1;2,exact,60.00,1,\"Dinner, \"\"late\"\"\",40;20,2026-03-01\n");
+
+    ImportRow row = reader.next();
+
+    assertEquals(2, row.rowNumber());
+    assertNull(row.error());
+    CreateExpenseRequest request = row.request();
+    assertEquals("Dinner, \"late\"", request.getDescription());
+    assertEquals(new BigDecimal("60.00"), request.getAmount());
+    assertEquals(1L, request.getPaidBy());
+    assertEquals(SplitType.EXACT, request.getSplitType());
+    assertEquals("EUR", request.getCurrency());
+    assertEquals(LocalDate.of(2026, 3, 1), request.getExpenseDate());
+    assertEquals(2, request.getSplits().size());
+    assertEquals(2L, request.getSplits().get(1).getUserId());
+    assertEquals(new BigDecimal("20"), request.getSplits().get(1).getSplitValue());
+    assertNull(reader.next());
+  }
+
+  @Test
+  void next_MalformedRow_ReportsErrorAndContinues() throws IOException {
+    CsvExpenseRowReader reader =
+        reader(
+            "description,amount,paidBy,splitType,participants\n"
+                + "Taxi,abc,1,EQUAL,1;2\n"
+                + "\n"
+                + "Lunch,10,1,EQUAL,1;2\n");
+
+    ImportRow failed = reader.next();
+    ImportRow parsed = reader.next();
+
+    assertEquals(2, failed.rowNumber());
+    assertEquals("Invalid amount: 'abc'", failed.error());
+    assertEquals(4, parsed.rowNumber());
+    assertEquals("Lunch", parsed.request().getDescription());
+  }
+
+  @Test
+  void next_SplitValuesCountMismatch_ReportsError() throws IOException {
+    CsvExpenseRowReader reader =
+        reader(
+            "description,amount,paidBy,splitType,participants,splitValues\n"
+                + "Taxi,30,1,PERCENTAGE,1;2;3,50;50\n");
+
+    assertEquals("splitValues has 2 entries for 3 participants", reader.next().error());
+  }
+
+  @Test
+  void constructor_MissingRequiredColumn_Throws() {
+    IllegalArgumentException exception =
+        assertThrows(
+            IllegalArgumentException.class,
+            () -> reader("description,amount,paidBy,participants\n"));
+
+    assertEquals("CSV header is missing column: splittype", exception.getMessage());
+  }
+
+  @Test
+  void parseLine_UnterminatedQuote_Throws() {
+    assertThrows(IllegalArgumentException.class, () -> CsvExpenseRowReader.parseLine("a,\"b,c"));
+    assertEquals(List.of("a", "", "c"), CsvExpenseRowReader.parseLine("a,,c"));
+  }
+}
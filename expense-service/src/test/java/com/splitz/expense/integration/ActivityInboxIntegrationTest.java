@@ -0,0 +1,162 @@
+package com.splitz.expense.integration;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.splitz.expense.controller.ExpenseController;
+import com.splitz.expense.dto.ActivityLogDTO;
+import com.splitz.expense.model.ActivityLogType;
+import com.splitz.expense.model.Group;
+import com.splitz.expense.model.GroupMember;
+import com.splitz.expense.model.GroupRole;
+import com.splitz.expense.pagination.ActivityLogCursor;
+import com.splitz.expense.repository.GroupMemberRepository;
+import com.splitz.expense.repository.GroupRepository;
+import com.splitz.expense.repository.UserActivityInboxRepository;
+import com.splitz.expense.service.ActivityLogService;
+import com.splitz.expense.service.ActivityLogWriter;
+import com.splitz.expense.service.UserActivityInboxService;
+import com.splitz.security.JwtUtil;
+import java.util.ArrayList;
+import java.util.List;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.security.core.userdetails.User;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.util.AopTestUtils;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.test.web.servlet.MockMvc;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+public class ActivityInboxIntegrationTest {
+
+  private static final long MEMBER = 9101L;
+  private static final long OTHER_MEMBER = 9102L;
+  private static final long OUTSIDER = 9103L;
+
+  @Autowired private MockMvc mockMvc;
+  @Autowired private ObjectMapper objectMapper;
+  @Autowired private JwtUtil jwtUtil;
+  @Autowired private GroupRepository groupRepository;
+  @Autowired private GroupMemberRepository groupMemberRepository;
+  @Autowired private UserActivityInboxRepository userActivityInboxRepository;
+  @Autowired private ActivityLogService activityLogService;
+  @Autowired private ActivityLogWriter activityLogWriter;
+  @Autowired private UserActivityInboxService userActivityInboxService;
+
+  private Group group;
+
+  @BeforeEach
+  void setUp() {
+    userActivityInboxRepository.deleteAll();
+    group =
+        groupRepository.save(Group.builder().name("Flat").createdBy(MEMBER).active(true).build());
+    groupMemberRepository.save(
+        GroupMember.builder().group(group).userId(MEMBER).role(GroupRole.ADMIN).build());
+    groupMemberRepository.save(
+        GroupMember.builder().group(group).userId(OTHER_MEMBER).role(GroupRole.MEMBER).build());
+  }
+
+  @AfterEach
+  void tearDown() {
+    userActivityInboxRepository.deleteAll();
+    groupMemberRepository.deleteAll();
+    groupRepository.deleteAll();
+  }
+
+  private String tokenFor(long userId) {
+    var user =
+        User.withUsername(String.valueOf(userId)).password("").authorities(List.of()).build();
+    return "Bearer " + jwtUtil.generateToken(user);
+  }
+
+  private void logExpenses(String... names) {
+    for (String name : names) {
+      activityLogService.logActivity(
+          group.getId(), ActivityLogType.EXPENSE_CREATED, MEMBER, 1L, name, null);
+    }
+    activityLogWriter.flush();
+  }
+
+  private MockHttpServletResponse getInbox(long userId, String query) throws Exception {
+    return mockMvc
+        .perform(get("/activity/inbox" + query).header("Authorization", tokenFor(userId)))
+        .andExpect(status().isOk())
+        .andReturn()
+        .getResponse();
+  }
+
+  private List<String> namesOf(MockHttpServletResponse response) throws Exception {
+    return objectMapper
+        .readValue(response.getContentAsString(), new TypeReference<List<ActivityLogDTO>>() {})
+        .stream()
+        .map(ActivityLogDTO::getEntityName)
+        .toList();
+  }
+
+  @Test
+  void getInbox_PagesThroughEveryMembersEntriesNewestFirst() throws Exception {
+    logExpenses("Rent", "Groceries", "Internet");
+
+    List<String> names = new ArrayList<>();
+    String query = "?limit=2";
+    MockHttpServletResponse page;
+    do {
+      page = getInbox(OTHER_MEMBER, query);
+      names.addAll(namesOf(page));
+      query = "?limit=2&cursor=" + page.getHeader(ExpenseController.NEXT_CURSOR_HEADER);
+    } while (page.getHeader(ExpenseController.NEXT_CURSOR_HEADER) != null);
+
+    assertThat(names).containsExactly("Internet", "Groceries", "Rent");
+    assertThat(namesOf(getInbox(MEMBER, ""))).containsExactly("Internet", "Groceries", "Rent");
+    assertThat(namesOf(getInbox(OUTSIDER, ""))).isEmpty();
+  }
+
+  @Test
+  void trim_KeepsTheNewestEntriesOfEachInbox() throws Exception {
+    UserActivityInboxService target = AopTestUtils.getTargetObject(userActivityInboxService);
+    ReflectionTestUtils.setField(target, "maxEntriesPerUser", 2);
+    try {
+      logExpenses("Rent", "Groceries", "Internet");
+
+      userActivityInboxService.trim();
+
+      assertThat(namesOf(getInbox(OTHER_MEMBER, ""))).containsExactly("Internet", "Groceries");
+      List<ActivityLogCursor> rows =
+          userActivityInboxRepository.findPositions(MEMBER, PageRequest.of(0, 10));
+      assertThat(rows).hasSize(2);
+    } finally {
+      ReflectionTestUtils.setField(target, "maxEntriesPerUser", 500);
+    }
+  }
+
+  @Test
+  void sweep_TrimsInboxesLeftOverTheCap() throws Exception {
+    logExpenses("Rent", "Groceries", "Internet");
+    // As after a restart: the inboxes were never trimmed, and nothing tracks them any more
+    userActivityInboxService.trim();
+    UserActivityInboxService target = AopTestUtils.getTargetObject(userActivityInboxService);
+    ReflectionTestUtils.setField(target, "maxEntriesPerUser", 2);
+    try {
+      assertThat(userActivityInboxService.trim()).isZero();
+
+      assertThat(userActivityInboxService.sweep()).isEqualTo(2);
+
+      assertThat(namesOf(getInbox(MEMBER, ""))).containsExactly("Internet", "Groceries");
+      assertThat(namesOf(getInbox(OTHER_MEMBER, ""))).containsExactly("Internet", "Groceries");
+    } finally {
+      ReflectionTestUtils.setField(target, "maxEntriesPerUser", 500);
+    }
+  }
+}
@@ -1,31 +1,54 @@
 package com.splitz.expense.integration;
 
+import static org.hamcrest.Matchers.endsWith;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
 import static org.mockito.ArgumentMatchers.anyList;
 import static org.mockito.ArgumentMatchers.anyLong;
 import static org.mockito.Mockito.when;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.delete;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.put;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.splitz.expense.balance.GroupBalanceSource;
 import com.splitz.expense.client.UserClient;
 import com.splitz.expense.dto.CreateExpenseRequest;
+import com.splitz.expense.dto.CreateFriendshipSettlementRequest;
+import com.splitz.expense.dto.CreateSettlementRequest;
 import com.splitz.expense.dto.SplitRequest;
+import com.splitz.expense.dto.UpdateExpenseRequest;
 import com.splitz.expense.dto.UserResponse;
 import com.splitz.expense.model.Group;
 import com.splitz.expense.model.GroupMember;
 import com.splitz.expense.model.GroupRole;
 import com.splitz.expense.model.SplitType;
+import com.splitz.expense.repository.BalanceCheckpointRepository;
 import com.splitz.expense.repository.ExpenseRepository;
+import com.splitz.expense.repository.FriendshipSettlementRepository;
+import com.splitz.expense.repository.GroupMemberBalanceRepository;
 import com.splitz.expense.repository.GroupMemberRepository;
 import com.splitz.expense.repository.GroupRepository;
+import com.splitz.expense.repository.LedgerBalanceRepository;
+import com.splitz.expense.repository.LedgerEntryRepository;
+import com.splitz.expense.repository.PairwiseBalanceRepository;
 import com.splitz.expense.repository.SettlementRepository;
+import com.splitz.expense.service.BalanceCache;
+import com.splitz.expense.service.BalanceCheckpointService;
+import com.splitz.expense.service.BalanceReconciliationService;
+import com.splitz.expense.service.BalanceService;
+import com.splitz.expense.service.ExpenseImportService;
 import com.splitz.security.JwtUtil;
+import io.micrometer.core.instrument.MeterRegistry;
 import java.math.BigDecimal;
+import java.time.LocalDateTime;
 import java.util.Arrays;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 import org.junit.jupiter.api.AfterEach;
 import org.junit.jupiter.api.BeforeEach;
@@ -37,6 +60,8 @@ import org.springframework.boot.test.mock.mockito.MockBean;
 import org.springframework.http.MediaType;
 import org.springframework.security.core.userdetails.User;
 import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.util.AopTestUtils;
+import org.springframework.test.util.ReflectionTestUtils;
 import org.springframework.test.web.servlet.MockMvc;
 
 @SpringBootTest
@@ -51,6 +76,19 @@ public class BalanceIntegrationTest {
   @Autowired private GroupMemberRepository groupMemberRepository;
   @Autowired private ExpenseRepository expenseRepository;
   @Autowired private SettlementRepository settlementRepository;
+  @Autowired private GroupMemberBalanceRepository groupMemberBalanceRepository;
+  @Autowired private PairwiseBalanceRepository pairwiseBalanceRepository;
+  @Autowired private FriendshipSettlementRepository friendshipSettlementRepository;
+  @Autowired private LedgerEntryRepository ledgerEntryRepository;
+  @Autowired private LedgerBalanceRepository ledgerBalanceRepository;
+  @Autowired private BalanceReconciliationService balanceReconciliationService;
+
+  @Autowired private BalanceService balanceService;
+  @Autowired private BalanceCache balanceCache;
+  @Autowired private BalanceCheckpointRepository balanceCheckpointRepository;
+  @Autowired private BalanceCheckpointService balanceCheckpointService;
+  @Autowired private MeterRegistry meterRegistry;
+  @Autowired private ExpenseImportService expenseImportService;
 
   @MockBean private UserClient userClient;
 
@@ -62,6 +100,10 @@ public class BalanceIntegrationTest {
     return "Bearer " + jwtUtil.generateToken(user);
   }
 
+  private String adminToken() {
+    return "Bearer " + jwtUtil.generateToken("999", 999L, List.of("ROLE_ADMIN"));
+  }
+
   @BeforeEach
   void setUp() {
     cleanup();
@@ -85,9 +127,44 @@ public class BalanceIntegrationTest {
 
   private void cleanup() {
     settlementRepository.deleteAll();
+    friendshipSettlementRepository.deleteAll();
     expenseRepository.deleteAll();
+    groupMemberBalanceRepository.deleteAll();
+    pairwiseBalanceRepository.deleteAll();
     groupMemberRepository.deleteAll();
     groupRepository.deleteAll();
+    balanceCheckpointRepository.deleteAll();
+    ledgerEntryRepository.deleteAll();
+    ledgerBalanceRepository.deleteAll();
+    balanceCache.evictAll();
+  }
+
+  private Long createDinner() throws Exception {
+    CreateExpenseRequest expenseRequest =
+        CreateExpenseRequest.builder()
+            .description("Dinner")
+            .amount(new BigDecimal("90.00"))
+            .paidBy(100L)
+            .splitType(SplitType.EQUAL)
+            .splits(
+                Arrays.asList(
+                    SplitRequest.builder().userId(100L).build(),
+                    SplitRequest.builder().userId(101L).build(),
+                    SplitRequest.builder().userId(102L).build()))
+            .build();
+
+    String response =
+        mockMvc
+            .perform(
+                post("/groups/" + group.getId() + "/expenses")
+                    .header("Authorization", tokenFor(100L))
+                    .contentType(MediaType.APPLICATION_JSON)
+                    .content(objectMapper.writeValueAsString(expenseRequest)))
+            .andExpect(status().isCreated())
+            .andReturn()
+            .getResponse()
+            .getContentAsString();
+    return objectMapper.readTree(response).get("id").asLong();
   }
 
   @Test
@@ -204,4 +281,407 @@ public class BalanceIntegrationTest {
         .andExpect(jsonPath("$.balances[?(@.userId==100)].balance").value(0.0))
         .andExpect(jsonPath("$.balances[?(@.userId==101)].balance").value(0.0));
   }
+
+  @Test
+  void updateExpense_AdjustsMaterializedBalances() throws Exception {
+    Long expenseId = createDinner();
+
+    UpdateExpenseRequest update =
+        UpdateExpenseRequest.builder().amount(new BigDecimal("120.00")).build();
+    mockMvc
+        .perform(
+            put("/expenses/" + expenseId)
+                .header("Authorization", tokenFor(100L))
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(update)))
+        .andExpect(status().isOk());
+
+    mockMvc
+        .perform(
+            get("/groups/" + group.getId() + "/balances").header("Authorization", tokenFor(100L)))
+        .andExpect(status().isOk())
+        .andExpect(jsonPath("$.balances[?(@.userId==100)].balance").value(80.0))
+        .andExpect(jsonPath("$.balances[?(@.userId==101)].balance").value(-40.0))
+        .andExpect(jsonPath("$.balances[?(@.userId==102)].balance").value(-40.0));
+  }
+
+  @Test
+  void confirmedSettlement_UpdatesMaterializedBalances() throws Exception {
+    createDinner();
+
+    CreateSettlementRequest settlementRequest =
+        CreateSettlementRequest.builder()
+            .groupId(group.getId())
+            .payerId(101L)
+            .payeeId(100L)
+            .amount(new BigDecimal("30.00"))
+            .build();
+    String response =
+        mockMvc
+            .perform(
+                post("/settlements")
+                    .header("Authorization", tokenFor(101L))
+                    .contentType(MediaType.APPLICATION_JSON)
+                    .content(objectMapper.writeValueAsString(settlementRequest)))
+            .andExpect(status().isCreated())
+            .andReturn()
+            .getResponse()
+            .getContentAsString();
+    Long settlementId = objectMapper.readTree(response).get("id").asLong();
+
+    // Marked as paid only: balances must not move yet
+    mockMvc
+        .perform(
+            get("/groups/" + group.getId() + "/balances").header("Authorization", tokenFor(100L)))
+        .andExpect(jsonPath("$.balances[?(@.userId==101)].balance").value(-30.0));
+
+    mockMvc
+        .perform(
+            put("/settlements/" + settlementId + "/confirm")
+                .header("Authorization", tokenFor(100L)))
+        .andExpect(status().isOk());
+
+    mockMvc
+        .perform(
+            get("/groups/" + group.getId() + "/balances").header("Authorization", tokenFor(100L)))
+        .andExpect(jsonPath("$.balances[?(@.userId==100)].balance").value(30.0))
+        .andExpect(jsonPath("$.balances[?(@.userId==101)].balance").value(0.0));
+  }
+
+  @Test
+  void rebuild_RestoresBalancesFromHistory() throws Exception {
+    createDinner();
+    groupMemberBalanceRepository.deleteAll();
+
+    mockMvc
+        .perform(
+            post("/admin/balances/groups/" + group.getId() + "/rebuild")
+                .header("Authorization", tokenFor(100L)))
+        .andExpect(status().isForbidden());
+
+    mockMvc
+        .perform(
+            post("/admin/balances/groups/" + group.getId() + "/rebuild")
+                .header("Authorization", adminToken()))
+        .andExpect(status().isOk())
+        .andExpect(jsonPath("$.groupsRebuilt").value(1));
+
+    mockMvc
+        .perform(
+            get("/groups/" + group.getId() + "/balances").header("Authorization", tokenFor(100L)))
+        .andExpect(jsonPath("$.balances[?(@.userId==100)].balance").value(60.0))
+        .andExpect(jsonPath("$.balances[?(@.userId==102)].balance").value(-30.0));
+  }
+
+  @Test
+  void friendBalance_CombinesGroupDebtsAndDirectSettlements() throws Exception {
+    createDinner();
+
+    // 101 owes 100 thirty from the dinner, then pays ten back outside of the group
+    CreateFriendshipSettlementRequest settlementRequest =
+        CreateFriendshipSettlementRequest.builder()
+            .payerId(101L)
+            .payeeId(100L)
+            .amount(new BigDecimal("10.00"))
+            .build();
+    mockMvc
+        .perform(
+            post("/friendship-settlements")
+                .header("Authorization", tokenFor(100L))
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(settlementRequest)))
+        .andExpect(status().isCreated());
+
+    mockMvc
+        .perform(get("/users/100/balances/with/101").header("Authorization", tokenFor(100L)))
+        .andExpect(status().isOk())
+        .andExpect(jsonPath("$.netBalance").value(20.0))
+        .andExpect(jsonPath("$.groupBalances[0].groupId").value(group.getId()))
+        .andExpect(jsonPath("$.groupBalances[0].groupName").value("Test Group"))
+        .andExpect(jsonPath("$.groupBalances[0].balance").value(30.0));
+
+    mockMvc
+        .perform(get("/users/101/balances/with/100").header("Authorization", tokenFor(101L)))
+        .andExpect(status().isOk())
+        .andExpect(jsonPath("$.netBalance").value(-20.0));
+  }
+
+  @Test
+  void groupBalanceSources_AllAgree() throws Exception {
+    Long expenseId = createDinner();
+    UpdateExpenseRequest update =
+        UpdateExpenseRequest.builder().amount(new BigDecimal("60.00")).build();
+    mockMvc
+        .perform(
+            put("/expenses/" + expenseId)
+                .header("Authorization", tokenFor(100L))
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(update)))
+        .andExpect(status().isOk());
+    CreateFriendshipSettlementRequest settlementRequest =
+        CreateFriendshipSettlementRequest.builder()
+            .payerId(102L)
+            .payeeId(100L)
+            .groupId(group.getId())
+            .amount(new BigDecimal("5.00"))
+            .build();
+    mockMvc
+        .perform(
+            post("/friendship-settlements")
+                .header("Authorization", tokenFor(100L))
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(settlementRequest)))
+        .andExpect(status().isCreated());
+
+    Map<Long, BigDecimal> materialized =
+        balanceService.loadGroupBalances(group.getId(), GroupBalanceSource.MATERIALIZED);
+    for (GroupBalanceSource source : GroupBalanceSource.values()) {
+      Map<Long, BigDecimal> balances = balanceService.loadGroupBalances(group.getId(), source);
+      assertEquals(materialized.keySet(), balances.keySet(), source.name());
+      materialized.forEach(
+          (userId, balance) ->
+              assertEquals(0, balance.compareTo(balances.get(userId)), source + " " + userId));
+    }
+    assertEquals(0, new BigDecimal("-15.00").compareTo(materialized.get(102L)));
+  }
+
+  @Test
+  void getGroupBalances_SimplifyParameterSelectsSolver() throws Exception {
+    createDinner();
+    when(userClient.getUsersByIds(anyList())).thenReturn(List.of());
+
+    mockMvc
+        .perform(
+            get("/groups/" + group.getId() + "/balances")
+                .param("simplify", "MIN_TRANSFERS")
+                .header("Authorization", tokenFor(100L)))
+        .andExpect(status().isOk())
+        .andExpect(jsonPath("$.simplifiedDebts.length()").value(2));
+
+    mockMvc
+        .perform(
+            get("/groups/" + group.getId() + "/balances")
+                .param("simplify", "FASTEST")
+                .header("Authorization", tokenFor(100L)))
+        .andExpect(status().isBadRequest());
+  }
+
+  @Test
+  void cachedBalances_AreEvictedByWrites() throws Exception {
+    when(userClient.getUsersByIds(anyList())).thenReturn(List.of());
+    String balancesUrl = "/groups/" + group.getId() + "/balances";
+
+    mockMvc
+        .perform(get(balancesUrl).header("Authorization", tokenFor(100L)))
+        .andExpect(status().isOk())
+        .andExpect(jsonPath("$.simplifiedDebts.length()").value(0));
+    mockMvc
+        .perform(get(balancesUrl).header("Authorization", tokenFor(101L)))
+        .andExpect(status().isOk());
+    double hits =
+        meterRegistry
+            .get("cache.gets")
+            .tag("cache", BalanceCache.GROUP_BALANCES)
+            .tag("result", "hit")
+            .functionCounter()
+            .count();
+    assertEquals(true, hits >= 1, "expected a cache hit, got " + hits);
+
+    createDinner();
+
+    mockMvc
+        .perform(get(balancesUrl).header("Authorization", tokenFor(100L)))
+        .andExpect(status().isOk())
+        .andExpect(jsonPath("$.simplifiedDebts.length()").value(2));
+  }
+
+  @Test
+  void checkpointSource_ReplaysRowsAfterCheckpointAndIsInvalidatedByOldRowChanges()
+      throws Exception {
+    Long firstExpense = createDinner();
+    mockMvc
+        .perform(
+            post("/admin/balances/groups/" + group.getId() + "/checkpoint")
+                .header("Authorization", adminToken()))
+        .andExpect(status().isOk())
+        .andExpect(jsonPath("$.expenseIdMark").value(firstExpense))
+        .andExpect(jsonPath("$.members").value(3));
+    mockMvc
+        .perform(
+            post("/admin/balances/groups/" + group.getId() + "/checkpoint")
+                .header("Authorization", tokenFor(100L)))
+        .andExpect(status().isForbidden());
+
+    createDinner();
+    assertCheckpointSourceMatchesMaterialized();
+    assertEquals(true, balanceCheckpointRepository.existsById(group.getId()));
+
+    UpdateExpenseRequest update =
+        UpdateExpenseRequest.builder().amount(new BigDecimal("60.00")).build();
+    mockMvc
+        .perform(
+            put("/expenses/" + firstExpense)
+                .header("Authorization", tokenFor(100L))
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(update)))
+        .andExpect(status().isOk());
+    assertEquals(false, balanceCheckpointRepository.existsById(group.getId()));
+    assertCheckpointSourceMatchesMaterialized();
+  }
+
+  @Test
+  void checkpointDueGroups_CheckpointsGroupsWithEnoughNewExpenses() throws Exception {
+    createDinner();
+    BalanceCheckpointService target = AopTestUtils.getTargetObject(balanceCheckpointService);
+    ReflectionTestUtils.setField(target, "minNewExpenses", 2L);
+    try {
+      assertEquals(0, balanceCheckpointService.checkpointDueGroups());
+      createDinner();
+      assertEquals(1, balanceCheckpointService.checkpointDueGroups());
+      assertEquals(true, balanceCheckpointRepository.existsById(group.getId()));
+      assertEquals(0, balanceCheckpointService.checkpointDueGroups());
+    } finally {
+      ReflectionTestUtils.setField(target, "minNewExpenses", 500L);
+    }
+  }
+
+  @Test
+  void asOf_ReturnsBalancesFromBeforeLaterEdits() throws Exception {
+    when(userClient.getUsersByIds(anyList())).thenReturn(List.of());
+    when(userClient.getUserById(anyLong())).thenReturn(Optional.empty());
+    Long expenseId = createDinner();
+    Thread.sleep(5);
+    LocalDateTime afterDinner = LocalDateTime.now();
+    Thread.sleep(5);
+
+    UpdateExpenseRequest update =
+        UpdateExpenseRequest.builder().amount(new BigDecimal("120.00")).build();
+    mockMvc
+        .perform(
+            put("/expenses/" + expenseId)
+                .header("Authorization", tokenFor(100L))
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(update)))
+        .andExpect(status().isOk());
+
+    mockMvc
+        .perform(
+            get("/groups/" + group.getId() + "/balances")
+                .param("asOf", afterDinner.toString())
+                .header("Authorization", tokenFor(100L)))
+        .andExpect(status().isOk())
+        .andExpect(jsonPath("$.balances[?(@.userId==100)].balance").value(60.0))
+        .andExpect(jsonPath("$.balances[?(@.userId==101)].balance").value(-30.0));
+    mockMvc
+        .perform(
+            get("/users/101/balances")
+                .param("asOf", afterDinner.toString())
+                .header("Authorization", tokenFor(101L)))
+        .andExpect(status().isOk())
+        .andExpect(jsonPath("$.totalBalance").value(-30.0));
+    mockMvc
+        .perform(get("/users/101/balances").header("Authorization", tokenFor(101L)))
+        .andExpect(status().isOk())
+        .andExpect(jsonPath("$.totalBalance").value(-40.0));
+  }
+
+  /** Starts a reconciliation run and waits for it to publish its report. */
+  private void reconcileAll() throws Exception {
+    mockMvc
+        .perform(post("/admin/balances/reconciliation").header("Authorization", adminToken()))
+        .andExpect(status().isAccepted())
+        .andExpect(header().string("Location", endsWith("/admin/balances/reconciliation")));
+    for (int i = 0; i < 200 && balanceReconciliationService.isRunning(); i++) {
+      Thread.sleep(50);
+    }
+    assertFalse(balanceReconciliationService.isRunning());
+  }
+
+  @Test
+  void reconciliation_ReportsDriftedMaterializedBalances() throws Exception {
+    createDinner();
+
+    reconcileAll();
+    mockMvc
+        .perform(get("/admin/balances/reconciliation").header("Authorization", adminToken()))
+        .andExpect(status().isOk())
+        .andExpect(jsonPath("$.complete").value(true))
+        .andExpect(jsonPath("$.groupsDrifted").value(0));
+
+    groupMemberBalanceRepository.findByGroupId(group.getId()).stream()
+        .filter(row -> row.getUserId().equals(101L))
+        .forEach(
+            row -> {
+              row.setBalance(new BigDecimal("-25.00"));
+              groupMemberBalanceRepository.save(row);
+            });
+
+    reconcileAll();
+    mockMvc
+        .perform(get("/admin/balances/reconciliation").header("Authorization", adminToken()))
+        .andExpect(status().isOk())
+        .andExpect(jsonPath("$.groupsDrifted").value(1))
+        .andExpect(jsonPath("$.drifts[0].source").value("MATERIALIZED"))
+        .andExpect(jsonPath("$.drifts[0].userId").value(101))
+        .andExpect(jsonPath("$.drifts[0].expected").value(-30.0));
+    mockMvc
+        .perform(get("/admin/balances/reconciliation").header("Authorization", tokenFor(100L)))
+        .andExpect(status().isForbidden());
+  }
+
+  @Test
+  void importExpenses_ProjectsImportedRowsAndReportsInvalidOnes() throws Exception {
+    ReflectionTestUtils.setField(expenseImportService, "batchSize", 2);
+    try {
+      String csv =
+          "description,amount,paidBy,splitType,participants,splitValues\n"
+              + "Dinner,90.00,100,EQUAL,100;101;102,\n"
+              + "Taxi,30.00,101,EXACT,100;101,10;20\n"
+              + "Hotel,50.00,100,EQUAL,100;103,\n"
+              + "Snacks,abc,100,EQUAL,100,\n"
+              + "Museum,20.00,102,PERCENTAGE,101;102,50;50\n";
+
+      mockMvc
+          .perform(
+              post("/groups/" + group.getId() + "/expenses/import")
+                  .header("Authorization", tokenFor(100L))
+                  .contentType("text/csv")
+                  .content(csv))
+          .andExpect(status().isOk())
+          .andExpect(jsonPath("$.rowsRead").value(5))
+          .andExpect(jsonPath("$.imported").value(3))
+          .andExpect(jsonPath("$.failed").value(2))
+          .andExpect(jsonPath("$.errors[0].row").value(4))
+          .andExpect(
+              jsonPath("$.errors[0].message").value("Participant 103 is not a member of the group"))
+          .andExpect(jsonPath("$.errors[1].row").value(5))
+          .andExpect(jsonPath("$.errors[1].message").value("Invalid amount: 'abc'"));
+    } finally {
+      ReflectionTestUtils.setField(expenseImportService, "batchSize", 500);
+    }
+
+    assertEquals(3, expenseRepository.count());
+    Map<Long, BigDecimal> materialized =
+        balanceService.loadGroupBalances(group.getId(), GroupBalanceSource.MATERIALIZED);
+    // 100: +60 -10, 101: -30 +10 -10, 102: -30 +10
+    assertEquals(0, new BigDecimal("50.00").compareTo(materialized.get(100L)));
+    assertEquals(0, new BigDecimal("-30.00").compareTo(materialized.get(101L)));
+    assertEquals(0, new BigDecimal("-20.00").compareTo(materialized.get(102L)));
+    for (GroupBalanceSource source : GroupBalanceSource.values()) {
+      Map<Long, BigDecimal> balances = balanceService.loadGroupBalances(group.getId(), source);
+      materialized.forEach(
+          (userId, balance) ->
+              assertEquals(0, balance.compareTo(balances.get(userId)), source + " " + userId));
+    }
+  }
+
+  private void assertCheckpointSourceMatchesMaterialized() {
+    Map<Long, BigDecimal> materialized =
+        balanceService.loadGroupBalances(group.getId(), GroupBalanceSource.MATERIALIZED);
+    Map<Long, BigDecimal> checkpointed =
+        balanceService.loadGroupBalances(group.getId(), GroupBalanceSource.CHECKPOINT);
+    assertEquals(materialized.keySet(), checkpointed.keySet());
+    materialized.forEach(
+        (userId, balance) -> assertEquals(0, balance.compareTo(checkpointed.get(userId))));
+  }
 }
@@ -3,14 +3,17 @@ package com.splitz.expense.integration;
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.mockito.ArgumentMatchers.anyLong;
 import static org.mockito.Mockito.when;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.delete;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.put;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.splitz.expense.client.UserClient;
+import com.splitz.expense.controller.ExpenseController;
 import com.splitz.expense.dto.CreateExpenseRequest;
 import com.splitz.expense.dto.ExpenseDTO;
 import com.splitz.expense.dto.SplitRequest;
@@ -22,10 +25,13 @@ import com.splitz.expense.model.GroupMember;
 import com.splitz.expense.model.GroupRole;
 import com.splitz.expense.model.SplitType;
 import com.splitz.expense.repository.ExpenseRepository;
+import com.splitz.expense.repository.ExpenseSplitRepository;
 import com.splitz.expense.repository.GroupMemberRepository;
 import com.splitz.expense.repository.GroupRepository;
 import com.splitz.security.JwtUtil;
 import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.List;
 import org.junit.jupiter.api.AfterEach;
@@ -53,6 +59,7 @@ public class ExpenseIntegrationTest {
   @Autowired private GroupRepository groupRepository;
   @Autowired private GroupMemberRepository groupMemberRepository;
   @Autowired private ExpenseRepository expenseRepository;
+  @Autowired private ExpenseSplitRepository expenseSplitRepository;
 
   @MockBean private UserClient userClient;
 
@@ -211,6 +218,267 @@ public class ExpenseIntegrationTest {
         .andExpect(status().isForbidden());
   }
 
+  @Test
+  void getExpense_IfNoneMatch_ReturnsNotModified() throws Exception {
+    Expense expense = createTestExpense(100L);
+
+    String etag =
+        mockMvc
+            .perform(get("/expenses/" + expense.getId()).header("Authorization", tokenFor(101L)))
+            .andExpect(status().isOk())
+            .andExpect(header().string("ETag", "\"0\""))
+            .andReturn()
+            .getResponse()
+            .getHeader("ETag");
+
+    mockMvc
+        .perform(
+            get("/expenses/" + expense.getId())
+                .header("Authorization", tokenFor(101L))
+                .header("If-None-Match", etag))
+        .andExpect(status().isNotModified())
+        .andExpect(header().string("ETag", etag));
+  }
+
+  @Test
+  void updateExpense_IfMatch_RejectsStaleVersion() throws Exception {
+    Expense expense = createTestExpense(100L);
+    UpdateExpenseRequest first = UpdateExpenseRequest.builder().description("First").build();
+    UpdateExpenseRequest second = UpdateExpenseRequest.builder().description("Second").build();
+
+    mockMvc
+        .perform(
+            put("/expenses/" + expense.getId())
+                .header("Authorization", tokenFor(100L))
+                .header("If-Match", "\"0\"")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(first)))
+        .andExpect(status().isOk())
+        .andExpect(header().string("ETag", "\"1\""))
+        .andExpect(jsonPath("$.version").value(1));
+
+    // A client still holding version 0 must not overwrite the first update
+    mockMvc
+        .perform(
+            put("/expenses/" + expense.getId())
+                .header("Authorization", tokenFor(100L))
+                .header("If-Match", "\"0\"")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(second)))
+        .andExpect(status().isPreconditionFailed());
+    mockMvc
+        .perform(
+            delete("/expenses/" + expense.getId())
+                .header("Authorization", tokenFor(100L))
+                .header("If-Match", "\"0\""))
+        .andExpect(status().isPreconditionFailed());
+
+    assertThat(expenseRepository.findById(expense.getId()).orElseThrow().getDescription())
+        .isEqualTo("First");
+  }
+
+  @Test
+  void updateExpense_SplitsOnly_ChangesETag() throws Exception {
+    Expense expense =
+        createDatedExpense("Hotel", LocalDate.of(2026, 3, 1), "30.00", List.of(100L, 101L));
+    List<String> etags = new ArrayList<>();
+    for (String[] shares : new String[][] {{"10.00", "20.00"}, {"5.00", "25.00"}}) {
+      UpdateExpenseRequest request =
+          UpdateExpenseRequest.builder()
+              .splitType(SplitType.EXACT)
+              .splits(
+                  List.of(
+                      SplitRequest.builder()
+                          .userId(100L)
+                          .splitValue(new BigDecimal(shares[0]))
+                          .build(),
+                      SplitRequest.builder()
+                          .userId(101L)
+                          .splitValue(new BigDecimal(shares[1]))
+                          .build()))
+              .build();
+      etags.add(
+          mockMvc
+              .perform(
+                  put("/expenses/" + expense.getId())
+                      .header("Authorization", tokenFor(100L))
+                      .contentType(MediaType.APPLICATION_JSON)
+                      .content(objectMapper.writeValueAsString(request)))
+              .andExpect(status().isOk())
+              .andReturn()
+              .getResponse()
+              .getHeader("ETag"));
+    }
+
+    // Each edit wrote only split rows, yet a client holding the earlier ETag must see it is stale
+    assertThat(etags).doesNotContainNull().doesNotHaveDuplicates().doesNotContain("\"0\"");
+    mockMvc
+        .perform(
+            get("/expenses/" + expense.getId())
+                .header("Authorization", tokenFor(101L))
+                .header("If-None-Match", etags.get(0)))
+        .andExpect(status().isOk())
+        .andExpect(header().string("ETag", etags.get(1)))
+        .andExpect(jsonPath("$.splits[?(@.userId == 101)].shareAmount").value(25.0));
+  }
+
+  private Expense createDatedExpense(
+      String description, LocalDate date, String amount, List<Long> participants) {
+    Expense expense =
+        Expense.builder()
+            .group(group)
+            .description(description)
+            .amount(new BigDecimal(amount))
+            .paidBy(100L)
+            .expenseDate(date)
+            .build();
+    for (Long userId : participants) {
+      expense
+          .getSplits()
+          .add(
+              ExpenseSplit.builder()
+                  .expense(expense)
+                  .userId(userId)
+                  .splitType(SplitType.EQUAL)
+                  .shareAmount(new BigDecimal(amount).divide(new BigDecimal(participants.size())))
+                  .build());
+    }
+    return expenseRepository.save(expense);
+  }
+
+  @Test
+  void updateExpense_NewDate_IsCopiedToSplits() throws Exception {
+    Expense expense =
+        createDatedExpense("Hotel", LocalDate.of(2025, 12, 30), "90.00", List.of(100L, 101L));
+    assertThat(expenseSplitRepository.findByExpenseId(expense.getId()))
+        .extracting(ExpenseSplit::getExpenseDate)
+        .containsOnly(LocalDate.of(2025, 12, 30));
+
+    mockMvc
+        .perform(
+            put("/expenses/" + expense.getId())
+                .header("Authorization", tokenFor(100L))
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(
+                    objectMapper.writeValueAsString(
+                        UpdateExpenseRequest.builder()
+                            .expenseDate(LocalDate.of(2026, 1, 2))
+                            .build())))
+        .andExpect(status().isOk());
+
+    // Partitioned by date on Postgres: the splits move to the expense's new year
+    assertThat(expenseSplitRepository.findByExpenseId(expense.getId()))
+        .extracting(ExpenseSplit::getExpenseDate)
+        .containsOnly(LocalDate.of(2026, 1, 2));
+  }
+
+  @Test
+  void getExpensesByGroup_WalksPagesNewestFirst() throws Exception {
+    LocalDate march = LocalDate.of(2026, 3, 1);
+    createDatedExpense("a", march, "10.00", List.of(100L));
+    createDatedExpense("b", march.plusDays(2), "10.00", List.of(100L));
+    createDatedExpense("c", march.plusDays(1), "10.00", List.of(100L));
+    // Same date as "b": ties are broken by id
+    createDatedExpense("d", march.plusDays(2), "10.00", List.of(100L));
+    createDatedExpense("e", march.plusDays(3), "10.00", List.of(100L));
+
+    List<String> descriptions = new ArrayList<>();
+    String cursor = null;
+    int pages = 0;
+    do {
+      var request =
+          get("/groups/" + group.getId() + "/expenses")
+              .header("Authorization", tokenFor(101L))
+              .param("limit", "2");
+      if (cursor != null) {
+        request.param("cursor", cursor);
+      }
+      MvcResult result = mockMvc.perform(request).andExpect(status().isOk()).andReturn();
+      ExpenseDTO[] page =
+          objectMapper.readValue(result.getResponse().getContentAsString(), ExpenseDTO[].class);
+      Arrays.stream(page).map(ExpenseDTO::getDescription).forEach(descriptions::add);
+      cursor = result.getResponse().getHeader(ExpenseController.NEXT_CURSOR_HEADER);
+      pages++;
+    } while (cursor != null);
+
+    assertThat(descriptions).containsExactly("e", "d", "b", "c", "a");
+    assertThat(pages).isEqualTo(3);
+  }
+
+  @Test
+  void getExpensesByGroup_AppliesFilters() throws Exception {
+    LocalDate march = LocalDate.of(2026, 3, 1);
+    createDatedExpense("shared", march, "30.00", List.of(100L, 101L));
+    createDatedExpense("solo", march.plusDays(1), "30.00", List.of(100L));
+    createDatedExpense("big", march.plusDays(2), "300.00", List.of(100L, 101L));
+    createDatedExpense("old", march.minusMonths(1), "30.00", List.of(100L, 101L));
+
+    mockMvc
+        .perform(
+            get("/groups/" + group.getId() + "/expenses")
+                .header("Authorization", tokenFor(101L))
+                .param("participantId", "101")
+                .param("from", "2026-03-01")
+                .param("maxAmount", "100"))
+        .andExpect(status().isOk())
+        .andExpect(jsonPath("$.length()").value(1))
+        .andExpect(jsonPath("$[0].description").value("shared"))
+        .andExpect(jsonPath("$[0].splits.length()").value(2));
+
+    mockMvc
+        .perform(
+            get("/groups/" + group.getId() + "/expenses")
+                .header("Authorization", tokenFor(101L))
+                .param("cursor", "%%%"))
+        .andExpect(status().isBadRequest());
+  }
+
+  @Test
+  void searchExpenses_MatchesEveryWordInMemberGroups() throws Exception {
+    LocalDate march = LocalDate.of(2026, 3, 1);
+    createDatedExpense("Taxi to the airport", march, "40.00", List.of(100L, 101L));
+    Expense withNotes = createDatedExpense("Ride", march.plusDays(1), "20.00", List.of(100L));
+    withNotes.setNotes("Shared taxi back from the Airport");
+    expenseRepository.save(withNotes);
+    createDatedExpense("Taxi downtown", march.plusDays(2), "15.00", List.of(100L));
+    Group other =
+        groupRepository.save(Group.builder().name("Other").createdBy(102L).active(true).build());
+    groupMemberRepository.save(
+        GroupMember.builder().group(other).userId(102L).role(GroupRole.ADMIN).build());
+    expenseRepository.save(
+        Expense.builder()
+            .group(other)
+            .description("Airport taxi")
+            .amount(new BigDecimal("30.00"))
+            .paidBy(102L)
+            .build());
+
+    List<String> descriptions = new ArrayList<>();
+    String cursor = null;
+    do {
+      var request =
+          get("/expenses/search")
+              .header("Authorization", tokenFor(101L))
+              .param("q", "TAXI, airport")
+              .param("limit", "1");
+      if (cursor != null) {
+        request.param("cursor", cursor);
+      }
+      MvcResult result = mockMvc.perform(request).andExpect(status().isOk()).andReturn();
+      ExpenseDTO[] page =
+          objectMapper.readValue(result.getResponse().getContentAsString(), ExpenseDTO[].class);
+      Arrays.stream(page).map(ExpenseDTO::getDescription).forEach(descriptions::add);
+      cursor = result.getResponse().getHeader(ExpenseController.NEXT_CURSOR_HEADER);
+    } while (cursor != null);
+
+    // Another group's expense never shows up; without full-text ranking matches come newest first
+    assertThat(descriptions).containsExactly("Ride", "Taxi to the airport");
+
+    mockMvc
+        .perform(get("/expenses/search").header("Authorization", tokenFor(101L)).param("q", "  "))
+        .andExpect(status().isBadRequest());
+  }
+
   private Expense createTestExpense(Long paidBy) {
     Expense expense =
         Expense.builder()
@@ -0,0 +1,159 @@
+package com.splitz.expense.integration;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import com.splitz.expense.model.Group;
+import com.splitz.expense.repository.GroupRepository;
+import com.splitz.expense.service.ExpensePartitionService;
+import java.time.LocalDate;
+import java.util.List;
+import org.flywaydb.core.Flyway;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.testcontainers.containers.PostgreSQLContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+/**
+ * Runs the migrations and partition maintenance on Postgres: the vendor scripts differ from the H2
+ * ones that every other integration test runs.
+ */
+@SpringBootTest
+@ActiveProfiles("test")
+@Testcontainers(disabledWithoutDocker = true)
+public class ExpensePartitionIntegrationTest {
+
+  @Container
+  private static final PostgreSQLContainer<?> POSTGRES =
+      new PostgreSQLContainer<>("postgres:16-alpine");
+
+  @DynamicPropertySource
+  static void postgres(DynamicPropertyRegistry registry) {
+    registry.add("spring.datasource.url", POSTGRES::getJdbcUrl);
+    registry.add("spring.datasource.username", POSTGRES::getUsername);
+    registry.add("spring.datasource.password", POSTGRES::getPassword);
+    registry.add("spring.datasource.driverClassName", POSTGRES::getDriverClassName);
+  }
+
+  @Autowired private Flyway flyway;
+  @Autowired private JdbcTemplate jdbcTemplate;
+  @Autowired private GroupRepository groupRepository;
+  @Autowired private ExpensePartitionService expensePartitionService;
+
+  private String schemaOf(String table) {
+    return jdbcTemplate
+        .queryForList(
+            "SELECT n.nspname FROM pg_class c JOIN pg_namespace n ON n.oid = c.relnamespace"
+                + " WHERE c.relname = ?",
+            String.class,
+            table)
+        .stream()
+        .findFirst()
+        .orElse(null);
+  }
+
+  private void insertExpense(long groupId, LocalDate date) {
+    Long expenseId =
+        jdbcTemplate.queryForObject(
+            "INSERT INTO expenses (group_id, description, amount, currency, paid_by, expense_date)"
+                + " VALUES (?, 'Rent', 30.00, 'EUR', 100, ?) RETURNING id",
+            Long.class,
+            groupId,
+            date);
+    jdbcTemplate.update(
+        "INSERT INTO expense_splits (expense_id, expense_date, user_id, split_type, share_amount)"
+            + " VALUES (?, ?, 100, 'EQUAL', 30.00)",
+        expenseId,
+        date);
+  }
+
+  @Test
+  void migrate_AppliesEveryMigration() {
+    assertThat(flyway.info().pending()).isEmpty();
+    assertThat(schemaOf("expenses_default")).isEqualTo("public");
+    assertThat(schemaOf("expense_splits_default")).isEqualTo("public");
+  }
+
+  @Test
+  void migrate_CoversTheActivityFeedKeysWithOneIndex() {
+    List<String> indexes =
+        jdbcTemplate.queryForList(
+            "SELECT indexdef FROM pg_indexes WHERE tablename = 'activity_logs'", String.class);
+
+    assertThat(indexes)
+        .anySatisfy(
+            index ->
+                assertThat(index)
+                    .contains("idx_activity_logs_group_timestamp_id")
+                    .contains("INCLUDE (type, actor_id)"));
+    assertThat(indexes).noneMatch(index -> index.contains("idx_activity_logs_group_id "));
+  }
+
+  @Test
+  void migrate_KeepsOneUngroupedBalancePerPair() {
+    assertUniqueWithoutGroup("uk_pairwise_balance_no_group");
+  }
+
+  @Test
+  void migrate_KeepsOneUngroupedLedgerAccountPerUser() {
+    assertUniqueWithoutGroup("uk_ledger_balance_no_group");
+  }
+
+  private void assertUniqueWithoutGroup(String index) {
+    assertThat(
+            jdbcTemplate.queryForList(
+                "SELECT indexdef FROM pg_indexes WHERE indexname = ?", String.class, index))
+        .singleElement()
+        .asString()
+        .contains("UNIQUE INDEX")
+        .contains("WHERE (group_id IS NULL)");
+  }
+
+  @Test
+  void maintain_MovesDefaultPartitionRowsAndArchivesPastTheHorizon() {
+    long groupId =
+        groupRepository
+            .save(Group.builder().name("Flat").createdBy(100L).active(true).build())
+            .getId();
+    int thisYear = LocalDate.now().getYear();
+    // Neither year has a partition yet, so both rows land in the default partitions
+    int oldYear = thisYear - 5;
+    int farYear = thisYear + 5;
+    insertExpense(groupId, LocalDate.of(oldYear, 6, 1));
+    insertExpense(groupId, LocalDate.of(farYear, 6, 1));
+
+    expensePartitionService.maintain();
+
+    for (String table : new String[] {"expenses", "expense_splits"}) {
+      String oldPartition = table + "_y" + oldYear;
+      String farPartition = table + "_y" + farYear;
+      assertThat(schemaOf(oldPartition)).isEqualTo("archive");
+      assertThat(schemaOf(farPartition)).isEqualTo("public");
+      assertThat(schemaOf(table + "_y" + (thisYear + 1))).isEqualTo("public");
+      assertThat(count("archive." + oldPartition)).isEqualTo(1);
+      assertThat(count(farPartition)).isEqualTo(1);
+      assertThat(count(table + "_default")).isZero();
+      // Detached while the rows moved, and attached again
+      assertThat(
+              jdbcTemplate.queryForObject(
+                  "SELECT COUNT(*) FROM pg_inherits WHERE inhrelid = CAST(? AS regclass)",
+                  Integer.class,
+                  table + "_default"))
+          .isEqualTo(1);
+      assertThat(count(table)).isEqualTo(2);
+    }
+
+    // Nothing left to do on the next run
+    expensePartitionService.maintain();
+    assertThat(schemaOf("expenses_y" + oldYear)).isEqualTo("archive");
+  }
+
+  private int count(String table) {
+    return jdbcTemplate.queryForObject("SELECT COUNT(*) FROM " + table, Integer.class);
+  }
+}
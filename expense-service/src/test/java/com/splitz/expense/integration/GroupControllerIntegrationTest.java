@@ -8,6 +8,7 @@ import static org.springframework.test.web.servlet.request.MockMvcRequestBuilder
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.put;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 
@@ -17,6 +18,7 @@ import com.splitz.expense.dto.AddMemberRequest;
 import com.splitz.expense.dto.BulkAddMembersRequest;
 import com.splitz.expense.dto.CreateGroupRequest;
 import com.splitz.expense.dto.UpdateGroupRequest;
+import com.splitz.expense.dto.UpdateMemberRoleRequest;
 import com.splitz.expense.dto.UserResponse;
 import com.splitz.expense.model.Group;
 import com.splitz.expense.model.GroupMember;
@@ -344,4 +346,48 @@ public class GroupControllerIntegrationTest {
         .andExpect(status().isOk())
         .andExpect(jsonPath("$.length()").value(2));
   }
+
+  @Test
+  void getGroup_ETagChangesWithMemberRole() throws Exception {
+    Group g = Group.builder().name("Versioned").createdBy(100L).active(true).build();
+    g.addMember(GroupMember.builder().userId(100L).role(GroupRole.ADMIN).build());
+    g.addMember(GroupMember.builder().userId(200L).role(GroupRole.MEMBER).build());
+    Group saved = groupRepository.save(g);
+
+    mockMvc
+        .perform(
+            get("/groups/" + saved.getId())
+                .header("Authorization", tokenFor(200L))
+                .header("If-None-Match", "\"0\""))
+        .andExpect(status().isNotModified());
+
+    UpdateMemberRoleRequest promote = new UpdateMemberRoleRequest();
+    promote.setRole(GroupRole.ADMIN);
+    mockMvc
+        .perform(
+            put("/groups/" + saved.getId() + "/members/200/role")
+                .header("Authorization", tokenFor(100L))
+                .contentType(APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(promote)))
+        .andExpect(status().isOk());
+
+    mockMvc
+        .perform(
+            get("/groups/" + saved.getId())
+                .header("Authorization", tokenFor(200L))
+                .header("If-None-Match", "\"0\""))
+        .andExpect(status().isOk())
+        .andExpect(header().string("ETag", "\"1\""));
+
+    UpdateGroupRequest rename = new UpdateGroupRequest();
+    rename.setName("Renamed");
+    mockMvc
+        .perform(
+            put("/groups/" + saved.getId())
+                .header("Authorization", tokenFor(100L))
+                .header("If-Match", "\"0\"")
+                .contentType(APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(rename)))
+        .andExpect(status().isPreconditionFailed());
+  }
 }
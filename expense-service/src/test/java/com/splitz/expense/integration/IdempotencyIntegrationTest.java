@@ -0,0 +1,214 @@
+package com.splitz.expense.integration;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.when;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.splitz.expense.client.UserClient;
+import com.splitz.expense.dto.CreateExpenseRequest;
+import com.splitz.expense.dto.CreateSettlementRequest;
+import com.splitz.expense.dto.SplitRequest;
+import com.splitz.expense.model.Group;
+import com.splitz.expense.model.GroupMember;
+import com.splitz.expense.model.GroupRole;
+import com.splitz.expense.model.SplitType;
+import com.splitz.expense.repository.BalanceCheckpointRepository;
+import com.splitz.expense.repository.ExpenseRepository;
+import com.splitz.expense.repository.GroupMemberBalanceRepository;
+import com.splitz.expense.repository.GroupMemberRepository;
+import com.splitz.expense.repository.GroupRepository;
+import com.splitz.expense.repository.IdempotencyKeyRepository;
+import com.splitz.expense.repository.LedgerBalanceRepository;
+import com.splitz.expense.repository.LedgerEntryRepository;
+import com.splitz.expense.repository.PairwiseBalanceRepository;
+import com.splitz.expense.repository.SettlementRepository;
+import com.splitz.expense.service.BalanceCache;
+import com.splitz.security.JwtUtil;
+import java.math.BigDecimal;
+import java.util.List;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.http.MediaType;
+import org.springframework.security.core.userdetails.User;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.ResultActions;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+public class IdempotencyIntegrationTest {
+
+  @Autowired private MockMvc mockMvc;
+  @Autowired private ObjectMapper objectMapper;
+  @Autowired private JwtUtil jwtUtil;
+  @Autowired private GroupRepository groupRepository;
+  @Autowired private GroupMemberRepository groupMemberRepository;
+  @Autowired private ExpenseRepository expenseRepository;
+  @Autowired private SettlementRepository settlementRepository;
+  @Autowired private GroupMemberBalanceRepository groupMemberBalanceRepository;
+  @Autowired private PairwiseBalanceRepository pairwiseBalanceRepository;
+  @Autowired private BalanceCheckpointRepository balanceCheckpointRepository;
+  @Autowired private LedgerEntryRepository ledgerEntryRepository;
+  @Autowired private LedgerBalanceRepository ledgerBalanceRepository;
+  @Autowired private IdempotencyKeyRepository idempotencyKeyRepository;
+  @Autowired private BalanceCache balanceCache;
+
+  @MockBean private UserClient userClient;
+
+  private Group group;
+
+  private String tokenFor(long userId) {
+    var user =
+        User.withUsername(String.valueOf(userId)).password("").authorities(List.of()).build();
+    return "Bearer " + jwtUtil.generateToken(user);
+  }
+
+  @BeforeEach
+  void setUp() {
+    cleanup();
+    group = groupRepository.save(Group.builder().name("Trip").createdBy(100L).active(true).build());
+    groupMemberRepository.save(member(100L, GroupRole.ADMIN));
+    groupMemberRepository.save(member(101L, GroupRole.MEMBER));
+    when(userClient.existsById(anyLong())).thenReturn(true);
+  }
+
+  @AfterEach
+  void tearDown() {
+    cleanup();
+  }
+
+  private GroupMember member(Long userId, GroupRole role) {
+    return GroupMember.builder().group(group).userId(userId).role(role).build();
+  }
+
+  private void cleanup() {
+    idempotencyKeyRepository.deleteAll();
+    expenseRepository.deleteAll();
+    settlementRepository.deleteAll();
+    groupMemberBalanceRepository.deleteAll();
+    pairwiseBalanceRepository.deleteAll();
+    groupMemberRepository.deleteAll();
+    groupRepository.deleteAll();
+    balanceCheckpointRepository.deleteAll();
+    ledgerEntryRepository.deleteAll();
+    ledgerBalanceRepository.deleteAll();
+    balanceCache.evictAll();
+  }
+
+  private String expenseRequest(String amount) throws Exception {
+    return objectMapper.writeValueAsString(
+        CreateExpenseRequest.builder()
+            .description("Dinner")
+            .amount(new BigDecimal(amount))
+            .paidBy(100L)
+            .splitType(SplitType.EQUAL)
+            .splits(
+                List.of(
+                    SplitRequest.builder().userId(100L).build(),
+                    SplitRequest.builder().userId(101L).build()))
+            .build());
+  }
+
+  private ResultActions postExpense(String key, String body) throws Exception {
+    return mockMvc.perform(
+        post("/groups/" + group.getId() + "/expenses")
+            .header("Authorization", tokenFor(100L))
+            .header("Idempotency-Key", key)
+            .contentType(MediaType.APPLICATION_JSON)
+            .content(body));
+  }
+
+  @Test
+  void createExpense_RetriedWithSameKey_CreatesOneExpense() throws Exception {
+    String body = expenseRequest("60.00");
+
+    String first =
+        postExpense("retry-1", body)
+            .andExpect(status().isCreated())
+            .andExpect(header().doesNotExist("Idempotent-Replayed"))
+            .andReturn()
+            .getResponse()
+            .getContentAsString();
+    postExpense("retry-1", body)
+        .andExpect(status().isCreated())
+        .andExpect(header().string("Idempotent-Replayed", "true"))
+        .andExpect(content().json(first, true));
+
+    assertEquals(1, expenseRepository.count());
+  }
+
+  @Test
+  void createExpense_KeyReusedForDifferentBody_IsRejected() throws Exception {
+    postExpense("retry-2", expenseRequest("60.00")).andExpect(status().isCreated());
+
+    postExpense("retry-2", expenseRequest("80.00"))
+        .andExpect(status().isUnprocessableEntity())
+        .andExpect(content().contentTypeCompatibleWith(MediaType.APPLICATION_PROBLEM_JSON));
+
+    assertEquals(1, expenseRepository.count());
+  }
+
+  @Test
+  void createExpense_FailedRequest_ReleasesKey() throws Exception {
+    String invalid = expenseRequest("0.00");
+    postExpense("retry-3", invalid).andExpect(status().isBadRequest());
+
+    postExpense("retry-3", expenseRequest("60.00")).andExpect(status().isCreated());
+
+    assertEquals(1, expenseRepository.count());
+  }
+
+  @Test
+  void createExpense_KeysAreScopedPerUser() throws Exception {
+    String body = expenseRequest("60.00");
+    postExpense("shared-key", body).andExpect(status().isCreated());
+
+    mockMvc
+        .perform(
+            post("/groups/" + group.getId() + "/expenses")
+                .header("Authorization", tokenFor(101L))
+                .header("Idempotency-Key", "shared-key")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(body))
+        .andExpect(status().isCreated())
+        .andExpect(header().doesNotExist("Idempotent-Replayed"));
+
+    assertEquals(2, expenseRepository.count());
+  }
+
+  @Test
+  void createSettlement_RetriedWithSameKey_CreatesOneSettlement() throws Exception {
+    String body =
+        objectMapper.writeValueAsString(
+            CreateSettlementRequest.builder()
+                .groupId(group.getId())
+                .payerId(101L)
+                .payeeId(100L)
+                .amount(new BigDecimal("30.00"))
+                .build());
+
+    for (int attempt = 0; attempt < 2; attempt++) {
+      mockMvc
+          .perform(
+              post("/settlements")
+                  .header("Authorization", tokenFor(101L))
+                  .header("Idempotency-Key", "settle-1")
+                  .contentType(MediaType.APPLICATION_JSON)
+                  .content(body))
+          .andExpect(status().isCreated());
+    }
+
+    assertEquals(1, settlementRepository.count());
+  }
+}
@@ -0,0 +1,65 @@
+package com.splitz.expense.integration;
+
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+
+/**
+ * Counts the insert, update and delete statements Hibernate prepares per table, and the selects
+ * overall. A JDBC batch is prepared once however many rows it carries, so the count is the number
+ * of round trips. Registered for the test profile through {@code
+ * hibernate.session_factory.statement_inspector}.
+ */
+public class SqlStatementCounter implements StatementInspector {
+
+  private static final Pattern WRITE =
+      Pattern.compile(
+          "^\\s*(insert\\s+into|update|delete\\s+from)\\s+(\\w+)", Pattern.CASE_INSENSITIVE);
+  private static final Pattern SELECT =
+      Pattern.compile("^\\s*(with|select)\\b", Pattern.CASE_INSENSITIVE);
+  private static final Map<String, AtomicInteger> WRITES = new ConcurrentHashMap<>();
+  private static final AtomicInteger SELECTS = new AtomicInteger();
+
+  public static void reset() {
+    WRITES.clear();
+    SELECTS.set(0);
+  }
+
+  public static int selects() {
+    return SELECTS.get();
+  }
+
+  public static int inserts(String table) {
+    return count("insert", table);
+  }
+
+  public static int updates(String table) {
+    return count("update", table);
+  }
+
+  public static int deletes(String table) {
+    return count("delete", table);
+  }
+
+  private static int count(String operation, String table) {
+    AtomicInteger count = WRITES.get(operation + " " + table);
+    return count == null ? 0 : count.get();
+  }
+
+  @Override
+  public String inspect(String sql) {
+    Matcher matcher = WRITE.matcher(sql);
+    if (matcher.find()) {
+      String operation = matcher.group(1).split("\\s+")[0].toLowerCase(Locale.ROOT);
+      String table = matcher.group(2).toLowerCase(Locale.ROOT);
+      WRITES.computeIfAbsent(operation + " " + table, key -> new AtomicInteger()).incrementAndGet();
+    } else if (SELECT.matcher(sql).find()) {
+      SELECTS.incrementAndGet();
+    }
+    return sql;
+  }
+}
@@ -0,0 +1,350 @@
+package com.splitz.expense.integration;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.when;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.put;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.splitz.expense.client.UserClient;
+import com.splitz.expense.dto.BulkAddMembersRequest;
+import com.splitz.expense.dto.CreateExpenseRequest;
+import com.splitz.expense.dto.ExpenseDTO;
+import com.splitz.expense.dto.SplitRequest;
+import com.splitz.expense.dto.UpdateExpenseRequest;
+import com.splitz.expense.model.FriendshipSettlement;
+import com.splitz.expense.model.Group;
+import com.splitz.expense.model.GroupMember;
+import com.splitz.expense.model.GroupRole;
+import com.splitz.expense.model.Settlement;
+import com.splitz.expense.model.SettlementStatus;
+import com.splitz.expense.model.SplitType;
+import com.splitz.expense.repository.BalanceCheckpointRepository;
+import com.splitz.expense.repository.ExpenseRepository;
+import com.splitz.expense.repository.FriendshipSettlementRepository;
+import com.splitz.expense.repository.GroupMemberBalanceRepository;
+import com.splitz.expense.repository.GroupMemberRepository;
+import com.splitz.expense.repository.GroupRepository;
+import com.splitz.expense.repository.LedgerBalanceRepository;
+import com.splitz.expense.repository.LedgerEntryRepository;
+import com.splitz.expense.repository.PairwiseBalanceRepository;
+import com.splitz.expense.repository.SettlementRepository;
+import com.splitz.expense.service.ActivityLogWriter;
+import com.splitz.expense.service.BalanceCache;
+import com.splitz.security.JwtUtil;
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.LongStream;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.http.MediaType;
+import org.springframework.security.core.userdetails.User;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+
+/**
+ * Counts the write statements of expense and member changes: multi-row inserts go out as one JDBC
+ * batch per table, and split edits only touch the rows that changed. Also checks that the read
+ * endpoints issue as many selects for many rows as for a few, i.e. no select per row.
+ *
+ * <p>Batch fetching is off here: with it, a lazy load per row would be folded into one select per
+ * 50 rows, and the select counts could no longer tell the two apart.
+ */
+@SpringBootTest(properties = "spring.jpa.properties.hibernate.default_batch_fetch_size=1")
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+public class StatementCountIntegrationTest {
+
+  @Autowired private MockMvc mockMvc;
+  @Autowired private ObjectMapper objectMapper;
+  @Autowired private JwtUtil jwtUtil;
+  @Autowired private GroupRepository groupRepository;
+  @Autowired private GroupMemberRepository groupMemberRepository;
+  @Autowired private ExpenseRepository expenseRepository;
+  @Autowired private SettlementRepository settlementRepository;
+  @Autowired private FriendshipSettlementRepository friendshipSettlementRepository;
+  @Autowired private GroupMemberBalanceRepository groupMemberBalanceRepository;
+  @Autowired private PairwiseBalanceRepository pairwiseBalanceRepository;
+  @Autowired private BalanceCheckpointRepository balanceCheckpointRepository;
+  @Autowired private LedgerEntryRepository ledgerEntryRepository;
+  @Autowired private LedgerBalanceRepository ledgerBalanceRepository;
+  @Autowired private BalanceCache balanceCache;
+  @Autowired private ActivityLogWriter activityLogWriter;
+
+  @MockBean private UserClient userClient;
+
+  private Group group;
+
+  private String tokenFor(long userId) {
+    var user =
+        User.withUsername(String.valueOf(userId)).password("").authorities(List.of()).build();
+    return "Bearer " + jwtUtil.generateToken(user);
+  }
+
+  @BeforeEach
+  void setUp() {
+    cleanup();
+    group = groupRepository.save(Group.builder().name("Trip").createdBy(100L).active(true).build());
+    groupMemberRepository.save(member(100L, GroupRole.ADMIN));
+    when(userClient.existsById(anyLong())).thenReturn(true);
+  }
+
+  @AfterEach
+  void tearDown() {
+    cleanup();
+  }
+
+  private GroupMember member(Long userId, GroupRole role) {
+    return GroupMember.builder().group(group).userId(userId).role(role).build();
+  }
+
+  private void cleanup() {
+    expenseRepository.deleteAll();
+    settlementRepository.deleteAll();
+    friendshipSettlementRepository.deleteAll();
+    groupMemberBalanceRepository.deleteAll();
+    pairwiseBalanceRepository.deleteAll();
+    groupMemberRepository.deleteAll();
+    groupRepository.deleteAll();
+    balanceCheckpointRepository.deleteAll();
+    ledgerEntryRepository.deleteAll();
+    ledgerBalanceRepository.deleteAll();
+    balanceCache.evictAll();
+  }
+
+  private List<Long> addMembers(long firstUserId, long lastUserId) {
+    List<Long> userIds = LongStream.rangeClosed(firstUserId, lastUserId).boxed().toList();
+    groupMemberRepository.saveAll(
+        userIds.stream().map(userId -> member(userId, GroupRole.MEMBER)).toList());
+    return userIds;
+  }
+
+  private static List<SplitRequest> equalSplits(List<Long> userIds) {
+    return userIds.stream().map(userId -> SplitRequest.builder().userId(userId).build()).toList();
+  }
+
+  private Long createExpense(String amount, List<Long> participants) throws Exception {
+    CreateExpenseRequest request =
+        CreateExpenseRequest.builder()
+            .description("Team dinner")
+            .amount(new BigDecimal(amount))
+            .paidBy(100L)
+            .splitType(SplitType.EQUAL)
+            .splits(equalSplits(participants))
+            .build();
+    String body =
+        mockMvc
+            .perform(
+                post("/groups/" + group.getId() + "/expenses")
+                    .header("Authorization", tokenFor(100L))
+                    .contentType(MediaType.APPLICATION_JSON)
+                    .content(objectMapper.writeValueAsString(request)))
+            .andExpect(status().isCreated())
+            .andReturn()
+            .getResponse()
+            .getContentAsString();
+    return objectMapper.readValue(body, ExpenseDTO.class).getId();
+  }
+
+  private void updateExpense(Long expenseId, UpdateExpenseRequest request) throws Exception {
+    SqlStatementCounter.reset();
+    mockMvc
+        .perform(
+            put("/expenses/" + expenseId)
+                .header("Authorization", tokenFor(100L))
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(request)))
+        .andExpect(status().isOk());
+  }
+
+  private void addSettlements(int count) {
+    for (int i = 0; i < count; i++) {
+      settlementRepository.save(
+          Settlement.builder()
+              .group(group)
+              .payerId(101L)
+              .payeeId(100L)
+              .amount(new BigDecimal("10.00"))
+              .status(SettlementStatus.PENDING)
+              .build());
+    }
+  }
+
+  private void addFriendshipSettlements(int count) {
+    for (int i = 0; i < count; i++) {
+      friendshipSettlementRepository.save(
+          FriendshipSettlement.builder()
+              .payerId(100L)
+              .payeeId(102L)
+              .amount(new BigDecimal("5.00"))
+              .status(SettlementStatus.PENDING)
+              .build());
+    }
+  }
+
+  private int selectsOf(String path) throws Exception {
+    // Activity log entries of the setup would otherwise be written while counting
+    activityLogWriter.flush();
+    SqlStatementCounter.reset();
+    mockMvc.perform(get(path).header("Authorization", tokenFor(100L))).andExpect(status().isOk());
+    return SqlStatementCounter.selects();
+  }
+
+  @Test
+  void getExpensesByGroup_SelectCountDoesNotGrowWithRows() throws Exception {
+    List<Long> participants = new ArrayList<>(List.of(100L));
+    participants.addAll(addMembers(101, 103));
+    createExpense("40.00", participants);
+    String path = "/groups/" + group.getId() + "/expenses";
+    int selects = selectsOf(path);
+
+    for (int i = 0; i < 10; i++) {
+      createExpense("40.00", participants);
+    }
+
+    assertEquals(selects, selectsOf(path));
+  }
+
+  @Test
+  void getExpense_SelectCountDoesNotGrowWithSplits() throws Exception {
+    List<Long> participants = new ArrayList<>(List.of(100L));
+    participants.addAll(addMembers(101, 120));
+    Long fewSplits = createExpense("20.00", participants.subList(0, 2));
+    Long manySplits = createExpense("210.00", participants);
+
+    assertEquals(selectsOf("/expenses/" + fewSplits), selectsOf("/expenses/" + manySplits));
+  }
+
+  @Test
+  void getSettlementsByGroup_SelectCountDoesNotGrowWithRows() throws Exception {
+    addMembers(101, 101);
+    addSettlements(1);
+    String path = "/groups/" + group.getId() + "/settlements";
+    int selects = selectsOf(path);
+
+    addSettlements(10);
+
+    assertEquals(selects, selectsOf(path));
+  }
+
+  @Test
+  void getGlobalActivity_SelectCountDoesNotGrowWithRows() throws Exception {
+    List<Long> participants = new ArrayList<>(List.of(100L));
+    participants.addAll(addMembers(101, 103));
+    createExpense("40.00", participants);
+    addSettlements(1);
+    int selects = selectsOf("/activity");
+
+    for (int i = 0; i < 10; i++) {
+      createExpense("40.00", participants);
+    }
+    addSettlements(10);
+
+    assertEquals(selects, selectsOf("/activity"));
+  }
+
+  @Test
+  void getTimeline_SelectCountDoesNotGrowWithRows() throws Exception {
+    List<Long> participants = new ArrayList<>(List.of(100L));
+    participants.addAll(addMembers(101, 103));
+    createExpense("40.00", participants);
+    addSettlements(1);
+    addFriendshipSettlements(1);
+    int selects = selectsOf("/activity/timeline");
+
+    for (int i = 0; i < 10; i++) {
+      createExpense("40.00", participants);
+    }
+    addSettlements(10);
+    addFriendshipSettlements(10);
+
+    assertEquals(selects, selectsOf("/activity/timeline"));
+  }
+
+  @Test
+  void createExpense_InsertsAllSplitsInOneBatch() throws Exception {
+    List<Long> participants = new ArrayList<>(List.of(100L));
+    participants.addAll(addMembers(101, 129));
+
+    SqlStatementCounter.reset();
+    createExpense("300.00", participants);
+
+    assertEquals(1, SqlStatementCounter.inserts("expenses"));
+    assertEquals(1, SqlStatementCounter.inserts("expense_splits"));
+  }
+
+  @Test
+  void updateExpense_AmountOnly_UpdatesSplitsInPlace() throws Exception {
+    addMembers(101, 102);
+    Long expenseId = createExpense("90.00", List.of(100L, 101L, 102L));
+
+    updateExpense(
+        expenseId, UpdateExpenseRequest.builder().amount(new BigDecimal("120.00")).build());
+
+    assertEquals(0, SqlStatementCounter.inserts("expense_splits"));
+    assertEquals(0, SqlStatementCounter.deletes("expense_splits"));
+    assertEquals(1, SqlStatementCounter.updates("expense_splits"));
+  }
+
+  @Test
+  void updateExpense_AddParticipant_InsertsOnlyTheNewSplit() throws Exception {
+    addMembers(101, 102);
+    Long expenseId = createExpense("90.00", List.of(100L, 101L));
+
+    updateExpense(
+        expenseId,
+        UpdateExpenseRequest.builder()
+            .splitType(SplitType.EQUAL)
+            .splits(equalSplits(List.of(100L, 101L, 102L)))
+            .build());
+
+    assertEquals(1, SqlStatementCounter.inserts("expense_splits"));
+    assertEquals(0, SqlStatementCounter.deletes("expense_splits"));
+    // Both remaining shares drop from 45.00 to 30.00, in one batch
+    assertEquals(1, SqlStatementCounter.updates("expense_splits"));
+  }
+
+  @Test
+  void updateExpense_RemoveParticipant_DeletesOnlyTheDroppedSplit() throws Exception {
+    addMembers(101, 102);
+    Long expenseId = createExpense("90.00", List.of(100L, 101L, 102L));
+
+    updateExpense(
+        expenseId,
+        UpdateExpenseRequest.builder()
+            .splitType(SplitType.EQUAL)
+            .splits(equalSplits(List.of(100L, 101L)))
+            .build());
+
+    assertEquals(0, SqlStatementCounter.inserts("expense_splits"));
+    assertEquals(1, SqlStatementCounter.deletes("expense_splits"));
+    assertEquals(1, SqlStatementCounter.updates("expense_splits"));
+  }
+
+  @Test
+  void bulkAddMembers_InsertsFiftyMembersInOneBatch() throws Exception {
+    BulkAddMembersRequest request = new BulkAddMembersRequest();
+    request.setUserIds(LongStream.rangeClosed(200, 249).boxed().toList());
+
+    SqlStatementCounter.reset();
+    mockMvc
+        .perform(
+            post("/groups/" + group.getId() + "/members/bulk")
+                .header("Authorization", tokenFor(100L))
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(request)))
+        .andExpect(status().isOk());
+
+    assertEquals(1, SqlStatementCounter.inserts("group_members"));
+    assertEquals(51, groupMemberRepository.findByGroupId(group.getId()).size());
+  }
+}
@@ -0,0 +1,48 @@
+package com.splitz.expense.money;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import org.junit.jupiter.api.Test;
+
+class MoneyTest {
+
+  @Test
+  void toMinor_ConvertsExactly() {
+    assertThat(Money.toMinor(new BigDecimal("12.34"), 2)).isEqualTo(1234L);
+    assertThat(Money.toMinor(new BigDecimal("12"), 2)).isEqualTo(1200L);
+    assertThat(Money.toMinor(new BigDecimal("-0.5"), 3)).isEqualTo(-500L);
+  }
+
+  @Test
+  void toMinor_RejectsExtraDecimalsAndOverflow() {
+    assertThatThrownBy(() -> Money.toMinor(new BigDecimal("1.005"), 2))
+        .isInstanceOf(ArithmeticException.class);
+    assertThatThrownBy(() -> Money.toMinor(new BigDecimal("1E+30"), 2))
+        .isInstanceOf(ArithmeticException.class);
+  }
+
+  @Test
+  void divideHalfUp_MatchesBigDecimalRounding() {
+    for (long dividend = -25; dividend <= 25; dividend++) {
+      for (long divisor : new long[] {-4, -3, -2, 1, 2, 3, 4, 7}) {
+        long expected =
+            BigDecimal.valueOf(dividend)
+                .divide(BigDecimal.valueOf(divisor), 0, RoundingMode.HALF_UP)
+                .longValueExact();
+        assertThat(Money.divideHalfUp(dividend, divisor))
+            .as("%d / %d", dividend, divisor)
+            .isEqualTo(expected);
+      }
+    }
+  }
+
+  @Test
+  void scaleOf_FollowsCurrencyMinorUnits() {
+    assertThat(Money.scaleOf("JPY")).isZero();
+    assertThat(Money.scaleOf("KWD")).isEqualTo(3);
+    assertThat(Money.scaleOf(null)).isEqualTo(2);
+  }
+}
@@ -0,0 +1,129 @@
+package com.splitz.expense.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import com.splitz.expense.dto.ActivityLogDTO;
+import com.splitz.expense.dto.ActivityLogFilter;
+import com.splitz.expense.dto.ActivityLogPageDTO;
+import com.splitz.expense.exception.ResourceNotFoundException;
+import com.splitz.expense.exception.UnauthorizedException;
+import com.splitz.expense.mapper.ActivityLogMapper;
+import com.splitz.expense.model.ActivityLog;
+import com.splitz.expense.model.ActivityLogType;
+import com.splitz.expense.pagination.ActivityLogCursor;
+import com.splitz.expense.repository.ActivityLogRepository;
+import com.splitz.expense.repository.GroupMemberRepository;
+import com.splitz.expense.repository.GroupRepository;
+import java.time.LocalDateTime;
+import java.util.List;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+@ExtendWith(MockitoExtension.class)
+class ActivityLogServiceImplTest {
+
+  @Mock private ActivityLogRepository activityLogRepository;
+  @Mock private ActivityLogWriter activityLogWriter;
+  @Mock private ActivityLogMapper activityLogMapper;
+  @Mock private GroupRepository groupRepository;
+  @Mock private GroupMemberRepository groupMemberRepository;
+
+  @InjectMocks private ActivityLogServiceImpl activityLogService;
+
+  private static final LocalDateTime NOW = LocalDateTime.of(2026, 3, 1, 12, 0);
+
+  @Test
+  void getGroupActivity_MoreKeysThanLimit_ReturnsCursorOfLastEntry() {
+    ActivityLogFilter filter =
+        ActivityLogFilter.builder().type(ActivityLogType.EXPENSE_CREATED).build();
+    ActivityLogCursor after = new ActivityLogCursor(NOW.plusHours(1), 9L);
+    ActivityLogCursor last = new ActivityLogCursor(NOW.minusMinutes(1), 2L);
+    when(groupMemberRepository.existsByGroupIdAndUserId(1L, 100L)).thenReturn(true);
+    when(activityLogRepository.findFeedKeys(1L, filter, after, 3))
+        .thenReturn(
+            List.of(
+                new ActivityLogCursor(NOW, 1L), last, new ActivityLogCursor(NOW.minusDays(1), 3L)));
+    // Returned out of order: the page keeps the order of the keys
+    when(activityLogRepository.findAllById(List.of(1L, 2L)))
+        .thenReturn(
+            List.of(ActivityLog.builder().id(2L).build(), ActivityLog.builder().id(1L).build()));
+    when(activityLogMapper.toDTO(any(ActivityLog.class)))
+        .thenAnswer(
+            invocation ->
+                ActivityLogDTO.builder()
+                    .id(invocation.<ActivityLog>getArgument(0).getId())
+                    .build());
+
+    ActivityLogPageDTO page =
+        activityLogService.getGroupActivity(1L, filter, after.encode(), 2, 100L);
+
+    assertEquals(
+        List.of(1L, 2L), page.getActivities().stream().map(ActivityLogDTO::getId).toList());
+    assertEquals(last, ActivityLogCursor.decode(page.getNextCursor()));
+  }
+
+  @Test
+  void getGroupActivity_LastPage_HasNoCursor() {
+    when(groupMemberRepository.existsByGroupIdAndUserId(1L, 100L)).thenReturn(true);
+    when(activityLogRepository.findFeedKeys(1L, new ActivityLogFilter(), null, 51))
+        .thenReturn(List.of(new ActivityLogCursor(NOW, 1L)));
+    ActivityLog entry = ActivityLog.builder().id(1L).build();
+    ActivityLogDTO dto = ActivityLogDTO.builder().id(1L).build();
+    when(activityLogRepository.findAllById(List.of(1L))).thenReturn(List.of(entry));
+    when(activityLogMapper.toDTO(entry)).thenReturn(dto);
+
+    ActivityLogPageDTO page =
+        activityLogService.getGroupActivity(1L, new ActivityLogFilter(), null, 50, 100L);
+
+    assertEquals(List.of(dto), page.getActivities());
+    assertNull(page.getNextCursor());
+  }
+
+  @Test
+  void getGroupActivity_NotAMember_ThrowsUnauthorized() {
+    when(groupMemberRepository.existsByGroupIdAndUserId(1L, 100L)).thenReturn(false);
+    when(groupRepository.existsById(1L)).thenReturn(true);
+
+    assertThrows(
+        UnauthorizedException.class,
+        () -> activityLogService.getGroupActivity(1L, new ActivityLogFilter(), null, 50, 100L));
+    verify(activityLogRepository, never()).findFeedKeys(any(), any(), any(), anyInt());
+  }
+
+  @Test
+  void getGroupActivity_GroupNotFound_ThrowsNotFound() {
+    when(groupMemberRepository.existsByGroupIdAndUserId(1L, 100L)).thenReturn(false);
+    when(groupRepository.existsById(1L)).thenReturn(false);
+
+    assertThrows(
+        ResourceNotFoundException.class,
+        () -> activityLogService.getGroupActivity(1L, new ActivityLogFilter(), null, 50, 100L));
+  }
+
+  @Test
+  void getGroupActivity_InvalidPageRequest_ThrowsIllegalArgument() {
+    when(groupMemberRepository.existsByGroupIdAndUserId(1L, 100L)).thenReturn(true);
+
+    assertThrows(
+        IllegalArgumentException.class,
+        () -> activityLogService.getGroupActivity(1L, new ActivityLogFilter(), null, 0, 100L));
+    assertThrows(
+        IllegalArgumentException.class,
+        () -> activityLogService.getGroupActivity(1L, new ActivityLogFilter(), null, 201, 100L));
+    assertThrows(
+        IllegalArgumentException.class,
+        () ->
+            activityLogService.getGroupActivity(
+                1L, new ActivityLogFilter(), "not-a-cursor", 50, 100L));
+  }
+}
@@ -0,0 +1,191 @@
+package com.splitz.expense.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import com.splitz.expense.model.ActivityLog;
+import com.splitz.expense.model.ActivityLogType;
+import com.splitz.expense.repository.ActivityLogRepository;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.LongStream;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.Spy;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+@ExtendWith(MockitoExtension.class)
+class ActivityLogWriterTest {
+
+  @Mock private ActivityLogRepository activityLogRepository;
+  @Mock private UserActivityInboxService userActivityInboxService;
+  @Mock private PlatformTransactionManager transactionManager;
+  @Spy private MeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+  @InjectMocks private ActivityLogWriter activityLogWriter;
+
+  private final List<List<ActivityLog>> batches = new CopyOnWriteArrayList<>();
+
+  @AfterEach
+  void tearDown() {
+    activityLogWriter.stop();
+  }
+
+  private static ActivityLog entry(long entityId) {
+    return ActivityLog.builder()
+        .groupId(1L)
+        .type(ActivityLogType.EXPENSE_CREATED)
+        .actorId(100L)
+        .entityId(entityId)
+        .build();
+  }
+
+  /** Records every batch written; the worker thread waits for {@code release} first. */
+  private void recordBatches(CountDownLatch workerWriting, CountDownLatch release) {
+    when(activityLogRepository.saveAll(any()))
+        .thenAnswer(
+            invocation -> {
+              if (Thread.currentThread().getName().equals("activity-log-writer")) {
+                workerWriting.countDown();
+                release.await(5, TimeUnit.SECONDS);
+              }
+              batches.add(List.copyOf(invocation.<List<ActivityLog>>getArgument(0)));
+              return List.of();
+            });
+  }
+
+  private void recordBatches() {
+    recordBatches(new CountDownLatch(1), new CountDownLatch(0));
+  }
+
+  private double fallbackWrites() {
+    return meterRegistry.counter("activity.log.fallback.writes").count();
+  }
+
+  @Test
+  void submit_WritesInBatchesOfAtMostBatchSize() {
+    ReflectionTestUtils.setField(activityLogWriter, "batchSize", 2);
+    activityLogWriter.initQueue();
+    recordBatches();
+    List<ActivityLog> entries =
+        LongStream.rangeClosed(1, 5).mapToObj(ActivityLogWriterTest::entry).toList();
+
+    activityLogWriter.start();
+    entries.forEach(activityLogWriter::submit);
+    activityLogWriter.stop();
+
+    assertEquals(entries, batches.stream().flatMap(List::stream).toList());
+    assertTrue(batches.stream().allMatch(batch -> batch.size() <= 2));
+    assertEquals(0, fallbackWrites());
+    verify(userActivityInboxService, times(batches.size())).deliver(any());
+  }
+
+  @Test
+  void submit_InsideTransaction_WaitsForCommit() {
+    activityLogWriter.initQueue();
+    recordBatches();
+    ActivityLog committed = entry(1);
+
+    TransactionSynchronizationManager.initSynchronization();
+    try {
+      activityLogWriter.submit(committed);
+      assertEquals(List.of(), batches);
+      TransactionSynchronizationManager.getSynchronizations()
+          .forEach(TransactionSynchronization::afterCommit);
+    } finally {
+      TransactionSynchronizationManager.clearSynchronization();
+    }
+
+    assertEquals(List.of(List.of(committed)), batches);
+  }
+
+  @Test
+  void submit_InsideRolledBackTransaction_IsDropped() {
+    activityLogWriter.initQueue();
+
+    TransactionSynchronizationManager.initSynchronization();
+    try {
+      activityLogWriter.submit(entry(1));
+      TransactionSynchronizationManager.getSynchronizations()
+          .forEach(
+              synchronization ->
+                  synchronization.afterCompletion(TransactionSynchronization.STATUS_ROLLED_BACK));
+    } finally {
+      TransactionSynchronizationManager.clearSynchronization();
+    }
+    activityLogWriter.flush();
+
+    verify(activityLogRepository, never()).saveAll(any());
+  }
+
+  @Test
+  void submit_QueueFull_WritesOnCallingThread() throws Exception {
+    ReflectionTestUtils.setField(activityLogWriter, "queueCapacity", 1);
+    ReflectionTestUtils.setField(activityLogWriter, "batchSize", 1);
+    ReflectionTestUtils.setField(activityLogWriter, "offerTimeout", Duration.ofMillis(10));
+    activityLogWriter.initQueue();
+    CountDownLatch workerWriting = new CountDownLatch(1);
+    CountDownLatch release = new CountDownLatch(1);
+    recordBatches(workerWriting, release);
+    ActivityLog overflow = entry(3);
+
+    activityLogWriter.start();
+    activityLogWriter.submit(entry(1));
+    assertTrue(workerWriting.await(5, TimeUnit.SECONDS));
+    // The worker is busy with the first entry: the second fills the queue
+    activityLogWriter.submit(entry(2));
+    activityLogWriter.submit(overflow);
+
+    assertEquals(List.of(List.of(overflow)), batches);
+    assertEquals(1, fallbackWrites());
+    assertEquals(1, meterRegistry.get("activity.log.queue.depth").gauge().value());
+
+    release.countDown();
+    activityLogWriter.stop();
+    assertEquals(3, batches.size());
+  }
+
+  @Test
+  void submit_WriterStopped_WritesOnCallingThread() {
+    activityLogWriter.initQueue();
+    recordBatches();
+    ActivityLog entry = entry(1);
+
+    activityLogWriter.submit(entry);
+
+    assertEquals(List.of(List.of(entry)), batches);
+    assertEquals(1, fallbackWrites());
+  }
+
+  @Test
+  void write_FailedBatch_RetriesRowByRow() {
+    activityLogWriter.initQueue();
+    ActivityLog entry = entry(1);
+    entry.setId(42L);
+    when(activityLogRepository.saveAll(any())).thenThrow(new IllegalStateException("boom"));
+
+    activityLogWriter.submit(entry);
+
+    verify(activityLogRepository).save(entry);
+    verify(userActivityInboxService).deliver(List.of(entry));
+    assertNull(entry.getId());
+  }
+}
@@ -0,0 +1,153 @@
+package com.splitz.expense.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import com.splitz.expense.dto.ActivityItemDTO;
+import com.splitz.expense.dto.ActivityTimelinePageDTO;
+import com.splitz.expense.dto.ExpenseDTO;
+import com.splitz.expense.dto.SettlementDTO;
+import com.splitz.expense.mapper.ExpenseMapper;
+import com.splitz.expense.mapper.FriendshipSettlementMapper;
+import com.splitz.expense.mapper.SettlementMapper;
+import com.splitz.expense.model.Expense;
+import com.splitz.expense.model.Settlement;
+import com.splitz.expense.pagination.ExpenseCursor;
+import com.splitz.expense.pagination.TimelineCursor;
+import com.splitz.expense.repository.ExpenseRepository;
+import com.splitz.expense.repository.ExpenseSplitRepository;
+import com.splitz.expense.repository.FriendshipSettlementRepository;
+import com.splitz.expense.repository.SettlementRepository;
+import com.splitz.expense.repository.TimelineKey;
+import com.splitz.expense.streaming.RowStreamer;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.PageRequest;
+
+@ExtendWith(MockitoExtension.class)
+class ActivityServiceImplTest {
+
+  @Mock private ExpenseRepository expenseRepository;
+  @Mock private ExpenseSplitRepository expenseSplitRepository;
+  @Mock private SettlementRepository settlementRepository;
+  @Mock private FriendshipSettlementRepository friendshipSettlementRepository;
+  @Mock private ExpenseMapper expenseMapper;
+  @Mock private SettlementMapper settlementMapper;
+  @Mock private FriendshipSettlementMapper friendshipSettlementMapper;
+  @Mock private RowStreamer rowStreamer;
+
+  @InjectMocks private ActivityServiceImpl activityService;
+
+  private static final LocalDate DAY = LocalDate.of(2026, 3, 2);
+  private static final LocalDateTime TEN_AM = DAY.atTime(10, 0);
+
+  private static TimelineKey key(LocalDateTime createdAt, long id) {
+    return new TimelineKey() {
+      @Override
+      public LocalDateTime getCreatedAt() {
+        return createdAt;
+      }
+
+      @Override
+      public Long getId() {
+        return id;
+      }
+    };
+  }
+
+  private static TimelineCursor expense(LocalDate date, long id) {
+    return new TimelineCursor(date.atStartOfDay(), ActivityItemDTO.Type.EXPENSE, id);
+  }
+
+  @Test
+  void merge_KeepsTimelineOrderAndDropsRepeats() {
+    TimelineCursor settlement = new TimelineCursor(TEN_AM, ActivityItemDTO.Type.SETTLEMENT, 7L);
+    TimelineCursor friendship =
+        new TimelineCursor(DAY.atStartOfDay(), ActivityItemDTO.Type.FRIENDSHIP_SETTLEMENT, 9L);
+
+    List<TimelineCursor> merged =
+        ActivityServiceImpl.merge(
+            List.of(
+                List.of(expense(DAY, 5L), expense(DAY.minusDays(1), 4L)),
+                List.of(expense(DAY, 5L), expense(DAY, 3L)),
+                List.of(settlement, friendship)),
+            10);
+
+    assertEquals(
+        List.of(
+            settlement,
+            expense(DAY, 5L),
+            expense(DAY, 3L),
+            friendship,
+            expense(DAY.minusDays(1), 4L)),
+        merged);
+  }
+
+  @Test
+  void getTimeline_MoreItemsThanLimit_ReturnsCursorOfLastItem() {
+    when(expenseRepository.findTimelineKeysPaidBy(eq(100L), any(), anyLong(), any()))
+        .thenReturn(List.of(new ExpenseCursor(DAY, 5L)));
+    when(expenseSplitRepository.findTimelineKeysOwedBy(eq(100L), any(), anyLong(), any()))
+        .thenReturn(List.of(new ExpenseCursor(DAY, 5L), new ExpenseCursor(DAY.minusDays(1), 4L)));
+    when(settlementRepository.findTimelineKeysReceivedBy(eq(100L), any(), anyLong(), any()))
+        .thenReturn(List.of(key(TEN_AM, 7L)));
+    Expense expense = Expense.builder().id(5L).build();
+    Settlement settlement = Settlement.builder().id(7L).build();
+    when(expenseRepository.findWithSplitsByIdIn(List.of(5L))).thenReturn(List.of(expense));
+    when(settlementRepository.findAllById(List.of(7L))).thenReturn(List.of(settlement));
+    ExpenseDTO expenseDTO = ExpenseDTO.builder().id(5L).build();
+    SettlementDTO settlementDTO = SettlementDTO.builder().id(7L).build();
+    when(expenseMapper.toDTO(expense)).thenReturn(expenseDTO);
+    when(settlementMapper.toDTO(settlement)).thenReturn(settlementDTO);
+
+    ActivityTimelinePageDTO page = activityService.getTimeline(100L, null, 2);
+
+    assertEquals(
+        List.of(ActivityItemDTO.of(settlementDTO), ActivityItemDTO.of(expenseDTO)),
+        page.getItems());
+    assertEquals(expense(DAY, 5L), TimelineCursor.decode(page.getNextCursor()));
+    verify(friendshipSettlementRepository, never()).findAllById(any());
+  }
+
+  @Test
+  void getTimeline_FromCursor_ReadsEachSourceAfterIt() {
+    TimelineCursor after = new TimelineCursor(TEN_AM, ActivityItemDTO.Type.SETTLEMENT, 7L);
+    PageRequest keys = PageRequest.of(0, 3);
+
+    ActivityTimelinePageDTO page = activityService.getTimeline(100L, after.encode(), 2);
+
+    assertEquals(List.of(), page.getItems());
+    // Expenses of the day happened at midnight, before the cursor: all of them follow it
+    verify(expenseRepository).findTimelineKeysPaidBy(100L, DAY, Long.MAX_VALUE, keys);
+    verify(expenseSplitRepository).findTimelineKeysOwedBy(100L, DAY, Long.MAX_VALUE, keys);
+    verify(settlementRepository).findTimelineKeysPaidBy(100L, TEN_AM, 7L, keys);
+    verify(settlementRepository).findTimelineKeysReceivedBy(100L, TEN_AM, 7L, keys);
+    // Friendship settlements sort after settlements of the same time
+    verify(friendshipSettlementRepository)
+        .findTimelineKeysPaidBy(100L, TEN_AM, Long.MAX_VALUE, keys);
+    verify(friendshipSettlementRepository)
+        .findTimelineKeysReceivedBy(100L, TEN_AM, Long.MAX_VALUE, keys);
+  }
+
+  @Test
+  void getTimeline_InvalidPageRequest_ThrowsIllegalArgument() {
+    assertThrows(IllegalArgumentException.class, () -> activityService.getTimeline(100L, null, 0));
+    assertThrows(
+        IllegalArgumentException.class, () -> activityService.getTimeline(100L, null, 201));
+    assertThrows(
+        IllegalArgumentException.class,
+        () -> activityService.getTimeline(100L, "not-a-cursor", 50));
+  }
+}
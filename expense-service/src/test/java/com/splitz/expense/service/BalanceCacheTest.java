@@ -0,0 +1,82 @@
+package com.splitz.expense.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import com.splitz.expense.balance.SimplificationStrategy;
+import com.splitz.expense.balance.UserPair;
+import com.splitz.expense.dto.FriendBalanceResponseDTO;
+import com.splitz.expense.dto.GroupBalanceResponseDTO;
+import com.splitz.expense.dto.UserBalanceResponseDTO;
+import com.splitz.expense.exception.ResourceNotFoundException;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.junit.jupiter.api.Test;
+import org.springframework.cache.concurrent.ConcurrentMapCacheManager;
+
+class BalanceCacheTest {
+
+  private final BalanceCache balanceCache =
+      new BalanceCache(
+          new ConcurrentMapCacheManager(BalanceCache.CACHE_NAMES.toArray(String[]::new)));
+
+  @Test
+  void groupBalances_KeyedByGroupAndStrategy() {
+    AtomicInteger loads = new AtomicInteger();
+
+    GroupBalanceResponseDTO greedy =
+        balanceCache.groupBalances(1L, SimplificationStrategy.GREEDY, () -> load(loads, 1L));
+    balanceCache.groupBalances(1L, SimplificationStrategy.MIN_TRANSFERS, () -> load(loads, 1L));
+
+    assertSame(
+        greedy,
+        balanceCache.groupBalances(1L, SimplificationStrategy.GREEDY, () -> load(loads, 1L)));
+    assertEquals(2, loads.get());
+
+    balanceCache.evictGroup(1L);
+    balanceCache.groupBalances(1L, SimplificationStrategy.GREEDY, () -> load(loads, 1L));
+    balanceCache.groupBalances(1L, SimplificationStrategy.MIN_TRANSFERS, () -> load(loads, 1L));
+    assertEquals(4, loads.get());
+  }
+
+  @Test
+  void evictPairs_EvictsBothDirections() {
+    AtomicInteger loads = new AtomicInteger();
+    balanceCache.friendBalance(1L, 2L, () -> friend(loads));
+    balanceCache.friendBalance(2L, 1L, () -> friend(loads));
+    balanceCache.friendBalance(1L, 3L, () -> friend(loads));
+
+    balanceCache.evictPairs(List.of(UserPair.of(2L, 1L)));
+    balanceCache.friendBalance(1L, 2L, () -> friend(loads));
+    balanceCache.friendBalance(2L, 1L, () -> friend(loads));
+    balanceCache.friendBalance(1L, 3L, () -> friend(loads));
+
+    assertEquals(5, loads.get());
+  }
+
+  @Test
+  void userBalances_LoaderExceptionsAreRethrownUnwrapped() {
+    assertThrows(
+        ResourceNotFoundException.class,
+        () ->
+            balanceCache.userBalances(
+                1L,
+                () -> {
+                  throw new ResourceNotFoundException("User not found");
+                }));
+
+    UserBalanceResponseDTO loaded = UserBalanceResponseDTO.builder().userId(1L).build();
+    assertSame(loaded, balanceCache.userBalances(1L, () -> loaded));
+  }
+
+  private static GroupBalanceResponseDTO load(AtomicInteger loads, Long groupId) {
+    loads.incrementAndGet();
+    return GroupBalanceResponseDTO.builder().groupId(groupId).build();
+  }
+
+  private static FriendBalanceResponseDTO friend(AtomicInteger loads) {
+    loads.incrementAndGet();
+    return FriendBalanceResponseDTO.builder().build();
+  }
+}
@@ -0,0 +1,147 @@
+package com.splitz.expense.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.argThat;
+import static org.mockito.Mockito.inOrder;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
+
+import com.splitz.expense.exception.ResourceNotFoundException;
+import com.splitz.expense.model.BalanceCheckpoint;
+import com.splitz.expense.model.Group;
+import com.splitz.expense.repository.BalanceCheckpointRepository;
+import com.splitz.expense.repository.ExpenseRepository;
+import com.splitz.expense.repository.FriendshipSettlementRepository;
+import com.splitz.expense.repository.GroupRepository;
+import com.splitz.expense.repository.SettlementRepository;
+import java.math.BigDecimal;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InOrder;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.transaction.PlatformTransactionManager;
+
+@ExtendWith(MockitoExtension.class)
+class BalanceCheckpointServiceTest {
+
+  @Mock private BalanceCheckpointRepository balanceCheckpointRepository;
+  @Mock private ExpenseRepository expenseRepository;
+  @Mock private SettlementRepository settlementRepository;
+  @Mock private FriendshipSettlementRepository friendshipSettlementRepository;
+  @Mock private GroupRepository groupRepository;
+  @Mock private PlatformTransactionManager transactionManager;
+
+  @InjectMocks private BalanceCheckpointService balanceCheckpointService;
+
+  private BalanceCheckpoint checkpoint() {
+    Map<Long, BigDecimal> balances = new HashMap<>();
+    balances.put(1L, new BigDecimal("30.00"));
+    balances.put(2L, new BigDecimal("-30.00"));
+    return BalanceCheckpoint.builder()
+        .groupId(1L)
+        .expenseIdMark(10)
+        .settlementIdMark(3)
+        .friendshipSettlementIdMark(0)
+        .balances(balances)
+        .build();
+  }
+
+  private static Object[] row(long userId, String paid, String owed) {
+    return new Object[] {userId, new BigDecimal(paid), new BigDecimal(owed), null, null};
+  }
+
+  @Test
+  void currentBalances_ReplaysOnlyRowsAfterTheMarks() {
+    when(balanceCheckpointRepository.findById(1L)).thenReturn(Optional.of(checkpoint()));
+    when(expenseRepository.aggregateMemberTotalsBetween(
+            1L, 10, Long.MAX_VALUE, 3, Long.MAX_VALUE, 0, Long.MAX_VALUE))
+        .thenReturn(List.of(row(1L, "20.00", "10.00"), row(3L, "0", "10.00")));
+
+    Map<Long, BigDecimal> balances = balanceCheckpointService.currentBalances(1L);
+
+    assertEquals(0, new BigDecimal("40.00").compareTo(balances.get(1L)));
+    assertEquals(0, new BigDecimal("-30.00").compareTo(balances.get(2L)));
+    assertEquals(0, new BigDecimal("-10.00").compareTo(balances.get(3L)));
+  }
+
+  @Test
+  void currentBalances_WithoutCheckpointFoldsEverything() {
+    when(balanceCheckpointRepository.findById(1L)).thenReturn(Optional.empty());
+    when(expenseRepository.aggregateMemberTotalsBetween(
+            1L, 0, Long.MAX_VALUE, 0, Long.MAX_VALUE, 0, Long.MAX_VALUE))
+        .thenReturn(List.<Object[]>of(row(1L, "5.00", "5.00")));
+
+    assertEquals(
+        0, BigDecimal.ZERO.compareTo(balanceCheckpointService.currentBalances(1L).get(1L)));
+  }
+
+  @Test
+  void checkpoint_FoldsRowsBetweenOldAndNewMarks() {
+    when(groupRepository.findByIdForCheckpoint(1L))
+        .thenReturn(Optional.of(Group.builder().id(1L).build()));
+    when(balanceCheckpointRepository.findById(1L)).thenReturn(Optional.of(checkpoint()));
+    when(expenseRepository.findMaxIdByGroupId(1L)).thenReturn(15L);
+    when(settlementRepository.findMaxIdByGroupId(1L)).thenReturn(3L);
+    when(friendshipSettlementRepository.findMaxIdByGroupId(1L)).thenReturn(2L);
+    when(expenseRepository.aggregateMemberTotalsBetween(1L, 10, 15, 3, 3, 0, 2))
+        .thenReturn(List.of(row(2L, "30.00", "0"), row(3L, "0", "12.00")));
+    when(balanceCheckpointRepository.save(any(BalanceCheckpoint.class)))
+        .thenAnswer(invocation -> invocation.getArgument(0));
+
+    BalanceCheckpoint saved = balanceCheckpointService.checkpoint(1L);
+
+    assertEquals(15, saved.getExpenseIdMark());
+    assertEquals(3, saved.getSettlementIdMark());
+    assertEquals(2, saved.getFriendshipSettlementIdMark());
+    // Member 2 settled up to zero and is dropped
+    assertEquals(
+        Map.of(1L, new BigDecimal("30.00"), 3L, new BigDecimal("-12.00")), saved.getBalances());
+  }
+
+  @Test
+  void checkpoint_UnknownGroup() {
+    when(groupRepository.findByIdForCheckpoint(9L)).thenReturn(Optional.empty());
+
+    assertThrows(ResourceNotFoundException.class, () -> balanceCheckpointService.checkpoint(9L));
+    verifyNoInteractions(balanceCheckpointRepository);
+  }
+
+  @Test
+  void checkpointDueGroups_SkipsAFailingGroupAndGoesOn() {
+    when(balanceCheckpointRepository.findGroupsDueForCheckpoint(500)).thenReturn(List.of(9L, 1L));
+    when(groupRepository.findByIdForCheckpoint(9L)).thenReturn(Optional.empty());
+    when(groupRepository.findByIdForCheckpoint(1L))
+        .thenReturn(Optional.of(Group.builder().id(1L).build()));
+    when(balanceCheckpointRepository.save(any(BalanceCheckpoint.class)))
+        .thenAnswer(invocation -> invocation.getArgument(0));
+
+    assertEquals(1, balanceCheckpointService.checkpointDueGroups());
+    verify(balanceCheckpointRepository)
+        .save(argThat((BalanceCheckpoint checkpoint) -> checkpoint.getGroupId().equals(1L)));
+  }
+
+  @Test
+  void expenseChanged_LocksGroupBeforeInvalidating() {
+    balanceCheckpointService.expenseChanged(1L, 5L);
+
+    InOrder order = inOrder(groupRepository, balanceCheckpointRepository);
+    order.verify(groupRepository).findByIdForBalanceWrite(1L);
+    order.verify(balanceCheckpointRepository).deleteCoveringExpense(1L, 5L);
+  }
+
+  @Test
+  void friendshipSettlementChanged_IgnoresSettlementsOutsideGroups() {
+    balanceCheckpointService.friendshipSettlementChanged(null, 5L);
+
+    verifyNoInteractions(groupRepository, balanceCheckpointRepository);
+  }
+}
@@ -0,0 +1,251 @@
+package com.splitz.expense.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.verifyNoMoreInteractions;
+import static org.mockito.Mockito.when;
+
+import com.splitz.expense.balance.ExpenseSnapshot;
+import com.splitz.expense.balance.UserPair;
+import com.splitz.expense.model.Expense;
+import com.splitz.expense.model.ExpenseSplit;
+import com.splitz.expense.model.FriendshipSettlement;
+import com.splitz.expense.model.Group;
+import com.splitz.expense.model.GroupMemberBalance;
+import com.splitz.expense.model.LedgerEntryType;
+import com.splitz.expense.model.Settlement;
+import com.splitz.expense.repository.GroupMemberBalanceRepository;
+import com.splitz.expense.repository.PairwiseBalanceRepository;
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+@ExtendWith(MockitoExtension.class)
+class BalanceProjectionServiceTest {
+
+  @Mock private GroupMemberBalanceRepository groupMemberBalanceRepository;
+  @Mock private PairwiseBalanceRepository pairwiseBalanceRepository;
+  @Mock private BalanceService balanceService;
+  @Mock private BalanceCache balanceCache;
+  @Mock private BalanceCheckpointService balanceCheckpointService;
+  @Mock private LedgerService ledgerService;
+
+  @InjectMocks private BalanceProjectionService balanceProjectionService;
+
+  private Expense expense(Long paidBy, String amount, Object... shares) {
+    Expense expense =
+        Expense.builder()
+            .group(Group.builder().id(1L).build())
+            .paidBy(paidBy)
+            .amount(new BigDecimal(amount))
+            .splits(new ArrayList<>())
+            .build();
+    for (int i = 0; i < shares.length; i += 2) {
+      expense
+          .getSplits()
+          .add(
+              ExpenseSplit.builder()
+                  .userId((Long) shares[i])
+                  .shareAmount(new BigDecimal((String) shares[i + 1]))
+                  .build());
+    }
+    return expense;
+  }
+
+  @Test
+  void expenseCreated_CreditsPayerAndDebitsParticipants() {
+
+    balanceProjectionService.expenseCreated(expense(1L, "90.00", 1L, "30.00", 2L, "60.00"));
+
+    verify(groupMemberBalanceRepository).upsertBalance(1L, 1L, new BigDecimal("60.00"));
+    verify(groupMemberBalanceRepository).upsertBalance(1L, 2L, new BigDecimal("-60.00"));
+  }
+
+  @Test
+  void expensesImported_WritesEachRowOncePerBatch() {
+    Expense dinner = expense(1L, "90.00", 1L, "30.00", 2L, "60.00");
+    dinner.setId(7L);
+    Expense taxi = expense(2L, "30.00", 1L, "30.00");
+    taxi.setId(8L);
+
+    balanceProjectionService.expensesImported(1L, List.of(dinner, taxi));
+
+    verify(groupMemberBalanceRepository).upsertBalance(1L, 1L, new BigDecimal("30.00"));
+    verify(groupMemberBalanceRepository).upsertBalance(1L, 2L, new BigDecimal("-30.00"));
+    verify(pairwiseBalanceRepository, times(1))
+        .upsertAmount(anyLong(), anyLong(), anyLong(), any());
+    verify(ledgerService)
+        .postAll(
+            1L,
+            LedgerEntryType.EXPENSE,
+            Map.of(
+                7L,
+                Map.of(1L, new BigDecimal("60.00"), 2L, new BigDecimal("-60.00")),
+                8L,
+                Map.of(1L, new BigDecimal("-30.00"), 2L, new BigDecimal("30.00"))));
+    verify(balanceCheckpointService).expenseChanged(1L, 7L);
+  }
+
+  @Test
+  void expenseUpdated_AppliesOnlyTheDifference() {
+    Expense expense = expense(1L, "90.00", 1L, "45.00", 2L, "45.00");
+    ExpenseSnapshot before = ExpenseSnapshot.of(expense);
+
+    expense.getSplits().get(0).setShareAmount(new BigDecimal("30.00"));
+    expense.getSplits().get(1).setShareAmount(new BigDecimal("60.00"));
+    balanceProjectionService.expenseUpdated(before, expense);
+
+    verify(groupMemberBalanceRepository).upsertBalance(1L, 1L, new BigDecimal("15.00"));
+    verify(groupMemberBalanceRepository).upsertBalance(1L, 2L, new BigDecimal("-15.00"));
+  }
+
+  @Test
+  void expenseDeleted_ReversesContribution() {
+
+    balanceProjectionService.expenseDeleted(expense(1L, "50.00", 2L, "50.00"));
+
+    verify(groupMemberBalanceRepository).upsertBalance(1L, 1L, new BigDecimal("-50.00"));
+    verify(groupMemberBalanceRepository).upsertBalance(1L, 2L, new BigDecimal("50.00"));
+  }
+
+  @Test
+  void expenseChanges_PostLedgerEntriesAndCompensations() {
+    Expense expense = expense(1L, "90.00", 1L, "45.00", 2L, "45.00");
+    expense.setId(5L);
+
+    balanceProjectionService.expenseCreated(expense);
+    ExpenseSnapshot before = ExpenseSnapshot.of(expense);
+    expense.getSplits().get(1).setShareAmount(new BigDecimal("60.00"));
+    expense.getSplits().get(0).setShareAmount(new BigDecimal("30.00"));
+    balanceProjectionService.expenseUpdated(before, expense);
+    balanceProjectionService.expenseDeleted(expense);
+
+    verify(ledgerService)
+        .post(
+            1L,
+            LedgerEntryType.EXPENSE,
+            5L,
+            Map.of(1L, new BigDecimal("45.00"), 2L, new BigDecimal("-45.00")));
+    verify(ledgerService)
+        .post(
+            1L,
+            LedgerEntryType.EXPENSE_ADJUSTMENT,
+            5L,
+            Map.of(1L, new BigDecimal("15.00"), 2L, new BigDecimal("-15.00")));
+    verify(ledgerService)
+        .post(
+            1L,
+            LedgerEntryType.EXPENSE_REVERSAL,
+            5L,
+            Map.of(1L, new BigDecimal("-60.00"), 2L, new BigDecimal("60.00")));
+  }
+
+  @Test
+  void expenseCreated_UpdatesPairwiseFromLowerUserPointOfView() {
+    // Payer 2 is owed 30 by user 1 and 20 by user 3
+    balanceProjectionService.expenseCreated(
+        expense(2L, "80.00", 1L, "30.00", 2L, "30.00", 3L, "20.00"));
+
+    verify(pairwiseBalanceRepository).upsertAmount(1L, 1L, 2L, new BigDecimal("-30.00"));
+    verify(pairwiseBalanceRepository).upsertAmount(1L, 2L, 3L, new BigDecimal("20.00"));
+    verifyNoMoreInteractions(pairwiseBalanceRepository);
+  }
+
+  @Test
+  void settlementCompleted_UpdatesBothProjections() {
+    balanceProjectionService.settlementCompleted(1L, 2L, 1L, new BigDecimal("10.00"));
+
+    verify(groupMemberBalanceRepository).upsertBalance(1L, 2L, new BigDecimal("10.00"));
+    verify(groupMemberBalanceRepository).upsertBalance(1L, 1L, new BigDecimal("-10.00"));
+    verify(pairwiseBalanceRepository).upsertAmount(1L, 1L, 2L, new BigDecimal("-10.00"));
+  }
+
+  @Test
+  void settlementCompleted_WithoutGroupOnlyUpdatesPairwise() {
+    balanceProjectionService.settlementCompleted(null, 1L, 2L, new BigDecimal("10.00"));
+
+    verifyNoInteractions(groupMemberBalanceRepository);
+    verify(pairwiseBalanceRepository).upsertAmount(null, 1L, 2L, new BigDecimal("10.00"));
+    verify(balanceCache, never()).evictGroup(any());
+    verify(balanceCache).evictPairs(List.of(UserPair.of(1L, 2L)));
+  }
+
+  @Test
+  void settlementCompleted_InvalidatesCheckpointCoveringTheSettlement() {
+    Settlement settlement =
+        Settlement.builder()
+            .id(7L)
+            .group(Group.builder().id(1L).build())
+            .payerId(2L)
+            .payeeId(1L)
+            .amount(new BigDecimal("10.00"))
+            .build();
+
+    balanceProjectionService.settlementCompleted(settlement);
+
+    verify(groupMemberBalanceRepository).upsertBalance(1L, 2L, new BigDecimal("10.00"));
+    verify(balanceCheckpointService).settlementChanged(1L, 7L);
+  }
+
+  @Test
+  void friendshipSettlementCompleted_InvalidatesCheckpointCoveringTheSettlement() {
+    FriendshipSettlement settlement =
+        FriendshipSettlement.builder()
+            .id(9L)
+            .payerId(1L)
+            .payeeId(2L)
+            .amount(new BigDecimal("10.00"))
+            .build();
+
+    balanceProjectionService.settlementCompleted(settlement);
+
+    verify(pairwiseBalanceRepository).upsertAmount(null, 1L, 2L, new BigDecimal("10.00"));
+    verify(ledgerService)
+        .post(
+            null,
+            LedgerEntryType.FRIENDSHIP_SETTLEMENT,
+            9L,
+            Map.of(1L, new BigDecimal("10.00"), 2L, new BigDecimal("-10.00")));
+    verify(balanceCheckpointService).friendshipSettlementChanged(null, 9L);
+  }
+
+  @Test
+  void expenseCreated_EvictsAffectedCacheEntries() {
+    balanceProjectionService.expenseCreated(expense(1L, "90.00", 2L, "45.00", 3L, "45.00"));
+
+    verify(balanceCheckpointService).expenseChanged(1L, null);
+    verify(balanceCache).evictGroup(1L);
+    verify(balanceCache).evictUsers(Set.of(1L, 2L, 3L));
+    verify(balanceCache).evictPairs(Set.of(UserPair.of(1L, 2L), UserPair.of(1L, 3L)));
+  }
+
+  @Test
+  void rebuild_ReplacesRowsWithHistory() {
+    when(balanceService.calculateGroupBalancesFromHistory(1L))
+        .thenReturn(Map.of(1L, new BigDecimal("10.00"), 2L, new BigDecimal("-10.00")));
+
+    balanceProjectionService.rebuild(1L);
+
+    verify(groupMemberBalanceRepository).deleteByGroupId(1L);
+    @SuppressWarnings("unchecked")
+    ArgumentCaptor<List<GroupMemberBalance>> captor = ArgumentCaptor.forClass(List.class);
+    verify(groupMemberBalanceRepository).saveAll(captor.capture());
+    assertEquals(2, captor.getValue().size());
+    verify(pairwiseBalanceRepository).deleteByGroupId(1L);
+    verify(balanceCheckpointService).invalidate(1L);
+    verify(balanceCache).evictAll();
+  }
+}
@@ -0,0 +1,156 @@
+package com.splitz.expense.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.when;
+
+import com.splitz.expense.balance.GroupBalanceSource;
+import com.splitz.expense.dto.BalanceDriftDTO;
+import com.splitz.expense.dto.BalanceReconciliationReportDTO;
+import com.splitz.expense.repository.GroupRepository;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import javax.sql.DataSource;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.Spy;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.PlatformTransactionManager;
+
+@ExtendWith(MockitoExtension.class)
+class BalanceReconciliationServiceTest {
+
+  @Mock private GroupRepository groupRepository;
+  @Mock private BalanceService balanceService;
+  @Mock private PlatformTransactionManager transactionManager;
+  @Mock private DataSource dataSource;
+
+  @Spy private MeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+  @InjectMocks private BalanceReconciliationService balanceReconciliationService;
+
+  @BeforeEach
+  void setUp() {
+    ReflectionTestUtils.setField(balanceReconciliationService, "batchSize", 1);
+    ReflectionTestUtils.setField(balanceReconciliationService, "batchPauseMs", 0L);
+    balanceReconciliationService.registerMetrics();
+  }
+
+  @AfterEach
+  void tearDown() {
+    balanceReconciliationService.stopRunner();
+  }
+
+  private void history(Long groupId, Map<Long, BigDecimal> balances) {
+    when(balanceService.loadGroupBalances(groupId, GroupBalanceSource.ENTITIES))
+        .thenReturn(balances);
+  }
+
+  private void stored(Long groupId, GroupBalanceSource source, Map<Long, BigDecimal> balances) {
+    when(balanceService.loadGroupBalances(groupId, source)).thenReturn(balances);
+  }
+
+  @Test
+  void reconcile_ReportsMismatchedMembersPerSource() {
+    history(1L, Map.of(1L, new BigDecimal("30.00"), 2L, new BigDecimal("-30.00")));
+    stored(
+        1L,
+        GroupBalanceSource.MATERIALIZED,
+        Map.of(1L, new BigDecimal("30.00"), 2L, new BigDecimal("-30.00"), 3L, BigDecimal.ZERO));
+    stored(
+        1L,
+        GroupBalanceSource.LEDGER,
+        Map.of(1L, new BigDecimal("40.00"), 2L, new BigDecimal("-30.00")));
+
+    List<BalanceDriftDTO> drifts = balanceReconciliationService.reconcile(1L);
+
+    assertEquals(1, drifts.size());
+    assertEquals(GroupBalanceSource.LEDGER, drifts.get(0).getSource());
+    assertEquals(1L, drifts.get(0).getUserId());
+    assertEquals(0, new BigDecimal("40.00").compareTo(drifts.get(0).getActual()));
+  }
+
+  @Test
+  void reconcile_ReportsZeroSumViolation() {
+    Map<Long, BigDecimal> balances = Map.of(1L, new BigDecimal("30.00"));
+    history(1L, balances);
+    stored(1L, GroupBalanceSource.MATERIALIZED, balances);
+    stored(1L, GroupBalanceSource.LEDGER, balances);
+
+    List<BalanceDriftDTO> drifts = balanceReconciliationService.reconcile(1L);
+
+    assertEquals(1, drifts.size());
+    assertEquals(GroupBalanceSource.ENTITIES, drifts.get(0).getSource());
+    assertEquals(null, drifts.get(0).getUserId());
+    assertEquals(0, new BigDecimal("30.00").compareTo(drifts.get(0).getActual()));
+  }
+
+  @Test
+  void reconcileAll_WalksGroupsInBatchesAndPublishesDrift() {
+    when(groupRepository.findIdsAfter(eq(0L), any())).thenReturn(List.of(1L));
+    when(groupRepository.findIdsAfter(eq(1L), any())).thenReturn(List.of(2L));
+    when(groupRepository.findIdsAfter(eq(2L), any())).thenReturn(List.of());
+    Map<Long, BigDecimal> balanced =
+        Map.of(1L, new BigDecimal("10.00"), 2L, new BigDecimal("-10.00"));
+    history(1L, balanced);
+    stored(1L, GroupBalanceSource.MATERIALIZED, balanced);
+    stored(1L, GroupBalanceSource.LEDGER, balanced);
+    history(2L, balanced);
+    stored(2L, GroupBalanceSource.MATERIALIZED, Map.of());
+    stored(2L, GroupBalanceSource.LEDGER, balanced);
+
+    BalanceReconciliationReportDTO report = balanceReconciliationService.reconcileAll();
+
+    assertTrue(report.isComplete());
+    assertEquals(2, report.getGroupsChecked());
+    assertEquals(1, report.getGroupsDrifted());
+    assertEquals(2, report.getDrifts().size());
+    assertEquals(report, balanceReconciliationService.lastReport().orElseThrow());
+    assertEquals(1.0, meterRegistry.get("balances.reconciliation.drifted.groups").gauge().value());
+    assertEquals(
+        2.0,
+        meterRegistry
+            .get("balances.reconciliation.drifts")
+            .tag("source", "MATERIALIZED")
+            .counter()
+            .count());
+  }
+
+  @Test
+  void startReconcileAll_RunsInTheBackgroundOneAtATime() throws InterruptedException {
+    CountDownLatch walking = new CountDownLatch(1);
+    CountDownLatch release = new CountDownLatch(1);
+    when(groupRepository.findIdsAfter(eq(0L), any()))
+        .thenAnswer(
+            invocation -> {
+              walking.countDown();
+              release.await();
+              return List.of();
+            });
+
+    assertTrue(balanceReconciliationService.startReconcileAll());
+    assertTrue(walking.await(5, TimeUnit.SECONDS));
+    assertFalse(balanceReconciliationService.startReconcileAll());
+    assertTrue(balanceReconciliationService.lastReport().isEmpty());
+    release.countDown();
+
+    for (int i = 0; i < 100 && balanceReconciliationService.isRunning(); i++) {
+      Thread.sleep(50);
+    }
+    assertFalse(balanceReconciliationService.isRunning());
+    assertEquals(0, balanceReconciliationService.lastReport().orElseThrow().getGroupsChecked());
+  }
+}
@@ -3,10 +3,17 @@ package com.splitz.expense.service;
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.Mockito.*;
 
+import com.splitz.expense.balance.DebtSimplifierRegistry;
+import com.splitz.expense.balance.GreedyDebtSimplifier;
+import com.splitz.expense.balance.GroupBalanceSource;
+import com.splitz.expense.balance.MinTransferDebtSimplifier;
+import com.splitz.expense.balance.SimplificationStrategy;
+import com.splitz.expense.balance.UserPair;
 import com.splitz.expense.client.UserClient;
 import com.splitz.expense.dto.BalanceDTO;
 import com.splitz.expense.dto.DebtDTO;
 import com.splitz.expense.dto.FriendBalanceResponseDTO;
+import com.splitz.expense.dto.FriendGroupBalanceDTO;
 import com.splitz.expense.dto.GroupBalanceResponseDTO;
 import com.splitz.expense.dto.UserBalanceResponseDTO;
 import com.splitz.expense.dto.UserResponse;
@@ -14,41 +21,69 @@ import com.splitz.expense.model.Expense;
 import com.splitz.expense.model.ExpenseSplit;
 import com.splitz.expense.model.Group;
 import com.splitz.expense.model.GroupMember;
+import com.splitz.expense.model.GroupMemberBalance;
+import com.splitz.expense.model.Settlement;
+import com.splitz.expense.model.SettlementStatus;
 import com.splitz.expense.repository.ExpenseRepository;
 import com.splitz.expense.repository.FriendshipSettlementRepository;
+import com.splitz.expense.repository.GroupAmount;
+import com.splitz.expense.repository.GroupMemberBalanceRepository;
 import com.splitz.expense.repository.GroupMemberRepository;
 import com.splitz.expense.repository.GroupRepository;
+import com.splitz.expense.repository.PairwiseBalanceRepository;
 import com.splitz.expense.repository.SettlementRepository;
 import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collections;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
+import org.mockito.Spy;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.cache.concurrent.ConcurrentMapCacheManager;
+import org.springframework.transaction.PlatformTransactionManager;
 
 @ExtendWith(MockitoExtension.class)
 class BalanceServiceTest {
 
   @Mock private ExpenseRepository expenseRepository;
   @Mock private GroupMemberRepository groupMemberRepository;
+  @Mock private GroupMemberBalanceRepository groupMemberBalanceRepository;
+  @Mock private PairwiseBalanceRepository pairwiseBalanceRepository;
   @Mock private GroupRepository groupRepository;
   @Mock private SettlementRepository settlementRepository;
   @Mock private FriendshipSettlementRepository friendshipSettlementRepository;
   @Mock private UserClient userClient;
+  @Mock private BalanceCheckpointService balanceCheckpointService;
+  @Mock private LedgerService ledgerService;
   @Mock private com.splitz.security.authorization.SharedSecurityAuthorizer splitzAuthorizer;
 
+  @Spy
+  private DebtSimplifierRegistry debtSimplifierRegistry =
+      new DebtSimplifierRegistry(
+          List.of(
+              new GreedyDebtSimplifier(),
+              new MinTransferDebtSimplifier(new GreedyDebtSimplifier())));
+
+  @Spy private BalanceCache balanceCache = new BalanceCache(new ConcurrentMapCacheManager());
+
+  @Spy private ReadFanOut readFanOut = new ReadFanOut(mock(PlatformTransactionManager.class), 1);
+
   @InjectMocks private BalanceService balanceService;
 
   private Group group;
 
   @BeforeEach
   void setUp() {
-    when(splitzAuthorizer.getCurrentUserId()).thenReturn(101L);
+    lenient().when(splitzAuthorizer.getCurrentUserId()).thenReturn(101L);
     group = Group.builder().id(1L).name("Test Group").build();
   }
 
@@ -61,14 +96,19 @@ class BalanceServiceTest {
     when(groupRepository.existsById(1L)).thenReturn(true);
     when(groupMemberRepository.findByGroupId(1L)).thenReturn(Arrays.asList(m1, m2));
 
-    Expense e1 = Expense.builder().paidBy(1L).amount(new BigDecimal("100.00")).build();
-    e1.setSplits(
-        Arrays.asList(
-            ExpenseSplit.builder().userId(1L).shareAmount(new BigDecimal("50.00")).build(),
-            ExpenseSplit.builder().userId(2L).shareAmount(new BigDecimal("50.00")).build()));
-    when(expenseRepository.findByGroupId(1L)).thenReturn(Collections.singletonList(e1));
-
-    when(settlementRepository.findByGroupId(1L)).thenReturn(Collections.emptyList());
+    when(groupMemberBalanceRepository.findByGroupId(1L))
+        .thenReturn(
+            Arrays.asList(
+                GroupMemberBalance.builder()
+                    .groupId(1L)
+                    .userId(1L)
+                    .balance(new BigDecimal("50.00"))
+                    .build(),
+                GroupMemberBalance.builder()
+                    .groupId(1L)
+                    .userId(2L)
+                    .balance(new BigDecimal("-50.00"))
+                    .build()));
 
     UserResponse u1 = UserResponse.builder().id(1L).username("user1").build();
     UserResponse u2 = UserResponse.builder().id(2L).username("user2").build();
@@ -94,6 +134,120 @@ class BalanceServiceTest {
     assertEquals(0, new BigDecimal("50.00").compareTo(debt.getAmount()));
   }
 
+  @Test
+  void getGroupBalances_MemberWithoutBalanceRowIsZero() {
+    GroupMember m1 = GroupMember.builder().userId(1L).group(group).build();
+    GroupMember m2 = GroupMember.builder().userId(2L).group(group).build();
+    when(groupMemberRepository.existsByGroupIdAndUserId(1L, 101L)).thenReturn(true);
+    when(groupRepository.existsById(1L)).thenReturn(true);
+    when(groupMemberRepository.findByGroupId(1L)).thenReturn(Arrays.asList(m1, m2));
+    when(groupMemberBalanceRepository.findByGroupId(1L)).thenReturn(Collections.emptyList());
+    when(userClient.getUsersByIds(anyList())).thenReturn(Collections.emptyList());
+
+    GroupBalanceResponseDTO response = balanceService.getGroupBalances(1L);
+
+    assertEquals(2, response.getBalances().size());
+    assertEquals(
+        0, BigDecimal.ZERO.compareTo(findBalance(response.getBalances(), 2L).getBalance()));
+    assertTrue(response.getSimplifiedDebts().isEmpty());
+    verifyNoInteractions(expenseRepository);
+  }
+
+  @Test
+  void getGroupBalances_SecondCallIsServedFromCache() {
+    when(groupMemberRepository.existsByGroupIdAndUserId(1L, 101L)).thenReturn(true);
+    when(groupRepository.existsById(1L)).thenReturn(true);
+    when(groupMemberRepository.findByGroupId(1L)).thenReturn(Collections.emptyList());
+    when(groupMemberBalanceRepository.findByGroupId(1L)).thenReturn(Collections.emptyList());
+    when(userClient.getUsersByIds(anyList())).thenReturn(Collections.emptyList());
+
+    GroupBalanceResponseDTO first = balanceService.getGroupBalances(1L);
+    GroupBalanceResponseDTO second = balanceService.getGroupBalances(1L);
+
+    assertSame(first, second);
+    verify(groupMemberBalanceRepository, times(1)).findByGroupId(1L);
+    // Membership is still checked on every call
+    verify(groupMemberRepository, times(2)).existsByGroupIdAndUserId(1L, 101L);
+
+    balanceCache.evictGroup(1L);
+    balanceService.getGroupBalances(1L);
+    verify(groupMemberBalanceRepository, times(2)).findByGroupId(1L);
+  }
+
+  @Test
+  void getGroupBalances_MinTransfersStrategy() {
+    when(groupMemberRepository.existsByGroupIdAndUserId(1L, 101L)).thenReturn(true);
+    when(groupRepository.existsById(1L)).thenReturn(true);
+    when(groupMemberRepository.findByGroupId(1L)).thenReturn(Collections.emptyList());
+    String[] amounts = {"5.00", "4.00", "-4.00", "-3.00", "-2.00"};
+    List<GroupMemberBalance> rows = new ArrayList<>();
+    for (int i = 0; i < amounts.length; i++) {
+      rows.add(
+          GroupMemberBalance.builder()
+              .groupId(1L)
+              .userId(i + 1L)
+              .balance(new BigDecimal(amounts[i]))
+              .build());
+    }
+    when(groupMemberBalanceRepository.findByGroupId(1L)).thenReturn(rows);
+    when(userClient.getUsersByIds(anyList())).thenReturn(Collections.emptyList());
+
+    assertEquals(4, balanceService.getGroupBalances(1L).getSimplifiedDebts().size());
+    assertEquals(
+        3,
+        balanceService
+            .getGroupBalances(1L, SimplificationStrategy.MIN_TRANSFERS)
+            .getSimplifiedDebts()
+            .size());
+  }
+
+  @Test
+  void loadGroupBalances_AggregateSourceNetsDatabaseTotals() {
+    when(expenseRepository.aggregateMemberTotals(1L))
+        .thenReturn(
+            Arrays.asList(
+                new Object[] {1L, new BigDecimal("100.00"), new BigDecimal("50.00"), 0, 20},
+                new Object[] {2L, 0, new BigDecimal("50.00"), new BigDecimal("20.00"), 0}));
+
+    Map<Long, BigDecimal> balances =
+        balanceService.loadGroupBalances(1L, GroupBalanceSource.AGGREGATE);
+
+    assertEquals(0, new BigDecimal("30.00").compareTo(balances.get(1L)));
+    assertEquals(0, new BigDecimal("-30.00").compareTo(balances.get(2L)));
+    verifyNoInteractions(groupMemberBalanceRepository);
+  }
+
+  @Test
+  void calculateGroupBalancesFromHistory_FoldsExpensesAndCompletedSettlements() {
+    Expense e1 = Expense.builder().paidBy(1L).amount(new BigDecimal("100.00")).build();
+    e1.setSplits(
+        Arrays.asList(
+            ExpenseSplit.builder().userId(1L).shareAmount(new BigDecimal("50.00")).build(),
+            ExpenseSplit.builder().userId(2L).shareAmount(new BigDecimal("50.00")).build()));
+    when(expenseRepository.findByGroupId(1L)).thenReturn(Collections.singletonList(e1));
+    when(settlementRepository.findByGroupId(1L))
+        .thenReturn(
+            Arrays.asList(
+                Settlement.builder()
+                    .payerId(2L)
+                    .payeeId(1L)
+                    .amount(new BigDecimal("20.00"))
+                    .status(SettlementStatus.COMPLETED)
+                    .build(),
+                Settlement.builder()
+                    .payerId(2L)
+                    .payeeId(1L)
+                    .amount(new BigDecimal("30.00"))
+                    .status(SettlementStatus.PENDING)
+                    .build()));
+    when(friendshipSettlementRepository.findByGroupId(1L)).thenReturn(Collections.emptyList());
+
+    Map<Long, BigDecimal> balances = balanceService.calculateGroupBalancesFromHistory(1L);
+
+    assertEquals(0, new BigDecimal("30.00").compareTo(balances.get(1L)));
+    assertEquals(0, new BigDecimal("-30.00").compareTo(balances.get(2L)));
+  }
+
   @Test
   void getGroupBalances_Unauthorized() {
     when(splitzAuthorizer.getCurrentUserId()).thenReturn(999L);
@@ -112,35 +266,22 @@ class BalanceServiceTest {
     GroupMember m1 = GroupMember.builder().userId(101L).group(g1).build();
     GroupMember m2 = GroupMember.builder().userId(101L).group(g2).build();
 
-    when(groupMemberRepository.findByUserId(101L)).thenReturn(Arrays.asList(m1, m2));
-
-    // Group 1: User has +25.00 balance
-    when(expenseRepository.calculateTotalPaidByUserInGroup(101L, 1L))
-        .thenReturn(new BigDecimal("50.00"));
-    when(expenseRepository.calculateTotalShareForUserInGroup(101L, 1L))
-        .thenReturn(new BigDecimal("25.00"));
-    when(settlementRepository.calculateTotalSettlementsPaidByUserInGroup(eq(101L), eq(1L), any()))
-        .thenReturn(BigDecimal.ZERO);
-    when(settlementRepository.calculateTotalSettlementsReceivedByUserInGroup(
-            eq(101L), eq(1L), any()))
-        .thenReturn(BigDecimal.ZERO);
-
-    // Group 2: User has -10.00 balance
-    when(expenseRepository.calculateTotalPaidByUserInGroup(101L, 2L)).thenReturn(BigDecimal.ZERO);
-    when(expenseRepository.calculateTotalShareForUserInGroup(101L, 2L))
-        .thenReturn(new BigDecimal("10.00"));
-    when(settlementRepository.calculateTotalSettlementsPaidByUserInGroup(eq(101L), eq(2L), any()))
-        .thenReturn(BigDecimal.ZERO);
-    when(settlementRepository.calculateTotalSettlementsReceivedByUserInGroup(
-            eq(101L), eq(2L), any()))
-        .thenReturn(BigDecimal.ZERO);
+    when(groupMemberRepository.findWithGroupByUserId(101L)).thenReturn(Arrays.asList(m1, m2));
+
+    // Group 1: User has +25.00 balance, Group 2: User has -10.00 balance
+    when(expenseRepository.sumPaidByUserPerGroup(101L))
+        .thenReturn(Collections.singletonList(groupAmount(1L, "50.00")));
+    when(expenseRepository.sumShareForUserPerGroup(101L))
+        .thenReturn(Arrays.asList(groupAmount(1L, "25.00"), groupAmount(2L, "10.00")));
+    when(settlementRepository.sumNetSettledByUserPerGroup(101L, SettlementStatus.COMPLETED))
+        .thenReturn(Collections.emptyList());
+    when(friendshipSettlementRepository.sumNetSettledByUserPerGroup(
+            101L, SettlementStatus.COMPLETED))
+        .thenReturn(Collections.emptyList());
 
     when(userClient.getUserById(101L))
         .thenReturn(Optional.of(UserResponse.builder().id(101L).username("testuser").build()));
 
-    when(friendshipSettlementRepository.findByPayerIdOrPayeeId(101L, 101L))
-        .thenReturn(Collections.emptyList());
-
     UserBalanceResponseDTO response = balanceService.getUserBalances(101L);
 
     assertEquals(101L, response.getUserId());
@@ -154,6 +295,75 @@ class BalanceServiceTest {
     assertEquals(0, new BigDecimal("-10.00").compareTo(gb2.getBalance()));
   }
 
+  @Test
+  void getUserBalances_FriendshipSettlementsCountedOnce() {
+    Group g1 = Group.builder().id(1L).name("Group 1").build();
+    when(groupMemberRepository.findWithGroupByUserId(101L))
+        .thenReturn(
+            Collections.singletonList(GroupMember.builder().userId(101L).group(g1).build()));
+    when(expenseRepository.sumPaidByUserPerGroup(101L)).thenReturn(Collections.emptyList());
+    when(expenseRepository.sumShareForUserPerGroup(101L))
+        .thenReturn(Collections.singletonList(groupAmount(1L, "40.00")));
+    when(settlementRepository.sumNetSettledByUserPerGroup(101L, SettlementStatus.COMPLETED))
+        .thenReturn(Collections.singletonList(groupAmount(1L, "10.00")));
+    // 15 settled against group 1 and 5 settled outside of any group
+    when(friendshipSettlementRepository.sumNetSettledByUserPerGroup(
+            101L, SettlementStatus.COMPLETED))
+        .thenReturn(Arrays.asList(groupAmount(1L, "15.00"), groupAmount(null, "5.00")));
+    when(userClient.getUserById(101L)).thenReturn(Optional.empty());
+
+    UserBalanceResponseDTO response = balanceService.getUserBalances(101L);
+
+    assertEquals(
+        0, new BigDecimal("-15.00").compareTo(response.getGroupBalances().get(0).getBalance()));
+    assertEquals(0, new BigDecimal("-10.00").compareTo(response.getTotalBalance()));
+  }
+
+  @Test
+  void getUserBalances_AsOfReadsLedger() {
+    LocalDateTime asOf = LocalDateTime.of(2026, 3, 1, 0, 0);
+    Group g1 = Group.builder().id(1L).name("Group 1").build();
+    when(groupMemberRepository.findWithGroupByUserId(101L))
+        .thenReturn(
+            Collections.singletonList(GroupMember.builder().userId(101L).group(g1).build()));
+    Map<Long, BigDecimal> ledgerBalances = new HashMap<>();
+    ledgerBalances.put(1L, new BigDecimal("-20.00"));
+    ledgerBalances.put(null, new BigDecimal("5.00"));
+    when(ledgerService.userBalancesAsOf(101L, asOf)).thenReturn(ledgerBalances);
+    when(userClient.getUserById(101L)).thenReturn(Optional.empty());
+
+    UserBalanceResponseDTO response = balanceService.getUserBalances(101L, asOf);
+
+    assertEquals(
+        0, new BigDecimal("-20.00").compareTo(response.getGroupBalances().get(0).getBalance()));
+    assertEquals(0, new BigDecimal("-15.00").compareTo(response.getTotalBalance()));
+    verifyNoInteractions(expenseRepository, settlementRepository, friendshipSettlementRepository);
+    verify(balanceCache, never()).userBalances(anyLong(), any());
+  }
+
+  @Test
+  void getGroupBalances_AsOfReadsLedgerAndSkipsCache() {
+    LocalDateTime asOf = LocalDateTime.of(2026, 3, 1, 0, 0);
+    when(groupMemberRepository.existsByGroupIdAndUserId(1L, 101L)).thenReturn(true);
+    when(groupRepository.existsById(1L)).thenReturn(true);
+    when(groupMemberRepository.findByGroupId(1L))
+        .thenReturn(
+            Arrays.asList(
+                GroupMember.builder().userId(1L).group(group).build(),
+                GroupMember.builder().userId(2L).group(group).build()));
+    when(ledgerService.groupBalancesAsOf(1L, asOf))
+        .thenReturn(Map.of(1L, new BigDecimal("10.00"), 2L, new BigDecimal("-10.00")));
+    when(userClient.getUsersByIds(anyList())).thenReturn(List.of());
+
+    GroupBalanceResponseDTO response = balanceService.getGroupBalances(1L, null, asOf);
+
+    assertEquals(
+        0, new BigDecimal("10.00").compareTo(findBalance(response.getBalances(), 1L).getBalance()));
+    assertEquals(1, response.getSimplifiedDebts().size());
+    verifyNoInteractions(groupMemberBalanceRepository);
+    verify(balanceCache, never()).groupBalances(anyLong(), any(), any());
+  }
+
   @Test
   void getUserBalances_Unauthorized() {
     when(splitzAuthorizer.getCurrentUserId()).thenReturn(999L);
@@ -166,48 +376,61 @@ class BalanceServiceTest {
 
   @Test
   void getNetBalanceWithFriend_Success() {
-    // Shared Group 1
-    Group group1 = Group.builder().id(1L).build();
-    GroupMember m1 = GroupMember.builder().group(group1).userId(101L).build();
-    GroupMember m2 = GroupMember.builder().group(group1).userId(102L).build();
-
-    when(groupMemberRepository.findByUserId(101L)).thenReturn(Collections.singletonList(m1));
-    when(groupMemberRepository.findByUserId(102L)).thenReturn(Collections.singletonList(m2));
-
-    // Mocks for calculateTotalOwedBetweenUsers
-    when(expenseRepository.calculateTotalOwedBetweenUsers(eq(101L), eq(102L), anySet()))
-        .thenReturn(new BigDecimal("15.00"));
-    when(expenseRepository.calculateTotalOwedBetweenUsers(eq(102L), eq(101L), anySet()))
-        .thenReturn(BigDecimal.ZERO);
-
-    // Mocks for calculateTotalSettledBetweenUsers (Group)
-    when(settlementRepository.calculateTotalSettledBetweenUsers(
-            eq(101L), eq(102L), anySet(), any()))
-        .thenReturn(BigDecimal.ZERO);
-    when(settlementRepository.calculateTotalSettledBetweenUsers(
-            eq(102L), eq(101L), anySet(), any()))
-        .thenReturn(BigDecimal.ZERO);
-
-    // Mocks for calculateTotalSettledBetweenUsersInGroup (Group)
-    when(friendshipSettlementRepository.calculateTotalSettledBetweenUsersInGroup(
-            eq(101L), eq(102L), eq(1L), any()))
-        .thenReturn(BigDecimal.ZERO);
-    when(friendshipSettlementRepository.calculateTotalSettledBetweenUsersInGroup(
-            eq(102L), eq(101L), eq(1L), any()))
-        .thenReturn(BigDecimal.ZERO);
-
-    // Mocks for calculateTotalSettledBetweenUsersInGroup (Global)
-    when(friendshipSettlementRepository.calculateTotalSettledBetweenUsersInGroup(
-            eq(101L), eq(102L), eq(null), any()))
-        .thenReturn(BigDecimal.ZERO);
-    when(friendshipSettlementRepository.calculateTotalSettledBetweenUsersInGroup(
-            eq(102L), eq(101L), eq(null), any()))
-        .thenReturn(new BigDecimal("10.00"));
+    when(pairwiseBalanceRepository.findBalancesBetween(101L, 102L))
+        .thenReturn(
+            Arrays.asList(
+                new FriendGroupBalanceDTO(1L, "Trip", new BigDecimal("15.00")),
+                new FriendGroupBalanceDTO(2L, "Flat", new BigDecimal("0.00")),
+                new FriendGroupBalanceDTO(null, null, new BigDecimal("-10.00"))));
 
     FriendBalanceResponseDTO result = balanceService.getNetBalanceWithFriend(101L, 102L);
 
-    // Expected: 15 (owed from expense) - 10 (settled globally) = 5
+    // Expected: 15 (owed in group 1) - 10 (settled outside of any group) = 5
     assertEquals(0, new BigDecimal("5.00").compareTo(result.getNetBalance()));
+    assertEquals(1, result.getGroupBalances().size());
+    assertEquals("Trip", result.getGroupBalances().get(0).getGroupName());
+    verifyNoInteractions(expenseRepository, settlementRepository, friendshipSettlementRepository);
+  }
+
+  @Test
+  void getNetBalanceWithFriend_FromHigherUserIdIsNegated() {
+    when(splitzAuthorizer.getCurrentUserId()).thenReturn(102L);
+    when(pairwiseBalanceRepository.findBalancesBetween(101L, 102L))
+        .thenReturn(
+            Collections.singletonList(
+                new FriendGroupBalanceDTO(1L, "Trip", new BigDecimal("15.00"))));
+
+    FriendBalanceResponseDTO result = balanceService.getNetBalanceWithFriend(102L, 101L);
+
+    assertEquals(0, new BigDecimal("-15.00").compareTo(result.getNetBalance()));
+    assertEquals(
+        0, new BigDecimal("-15.00").compareTo(result.getGroupBalances().get(0).getBalance()));
+  }
+
+  @Test
+  void calculatePairwiseBalancesFromHistory_CanonicalisesPairs() {
+    Expense e1 = Expense.builder().paidBy(2L).amount(new BigDecimal("100.00")).build();
+    e1.setSplits(
+        Arrays.asList(
+            ExpenseSplit.builder().userId(1L).shareAmount(new BigDecimal("50.00")).build(),
+            ExpenseSplit.builder().userId(2L).shareAmount(new BigDecimal("50.00")).build()));
+    when(expenseRepository.findByGroupId(1L)).thenReturn(Collections.singletonList(e1));
+    when(settlementRepository.findByGroupId(1L))
+        .thenReturn(
+            Collections.singletonList(
+                Settlement.builder()
+                    .payerId(1L)
+                    .payeeId(2L)
+                    .amount(new BigDecimal("20.00"))
+                    .status(SettlementStatus.COMPLETED)
+                    .build()));
+    when(friendshipSettlementRepository.findByGroupId(1L)).thenReturn(Collections.emptyList());
+
+    Map<UserPair, BigDecimal> balances = balanceService.calculatePairwiseBalancesFromHistory(1L);
+
+    // User 1 owes user 2 fifty, paid back twenty: -30 from user 1's point of view
+    assertEquals(1, balances.size());
+    assertEquals(0, new BigDecimal("-30.00").compareTo(balances.get(new UserPair(1L, 2L))));
   }
 
   @Test
@@ -220,6 +443,20 @@ class BalanceServiceTest {
         () -> balanceService.getNetBalanceWithFriend(101L, 102L));
   }
 
+  private GroupAmount groupAmount(Long groupId, String amount) {
+    return new GroupAmount() {
+      @Override
+      public Long getGroupId() {
+        return groupId;
+      }
+
+      @Override
+      public BigDecimal getAmount() {
+        return new BigDecimal(amount);
+      }
+    };
+  }
+
   private BalanceDTO findBalance(List<BalanceDTO> balances, Long userId) {
     return balances.stream().filter(b -> b.getUserId().equals(userId)).findFirst().orElseThrow();
   }
@@ -0,0 +1,37 @@
+package com.splitz.expense.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.time.LocalDate;
+import java.time.Period;
+import org.junit.jupiter.api.Test;
+
+class ExpensePartitionServiceTest {
+
+  @Test
+  void partitionYear_ParsesOwnPartitionsOnly() {
+    assertEquals(
+        2024,
+        ExpensePartitionService.partitionYear(
+            "expenses", ExpensePartitionService.partitionName("expenses", 2024)));
+    assertEquals(
+        2024, ExpensePartitionService.partitionYear("expense_splits", "expense_splits_y2024"));
+    assertNull(ExpensePartitionService.partitionYear("expenses", "expenses_default"));
+    // expense_splits partitions are not partitions of expenses
+    assertNull(ExpensePartitionService.partitionYear("expenses", "expense_splits_y2024"));
+  }
+
+  @Test
+  void isPastHorizon_OnlyOnceTheWholeYearIsOlder() {
+    Period horizon = Period.ofYears(3);
+
+    assertTrue(ExpensePartitionService.isPastHorizon(2022, LocalDate.of(2026, 1, 1), horizon));
+    assertTrue(ExpensePartitionService.isPastHorizon(2022, LocalDate.of(2026, 10, 17), horizon));
+    // December 2022 is within three years of 30 December 2025
+    assertFalse(ExpensePartitionService.isPastHorizon(2022, LocalDate.of(2025, 12, 30), horizon));
+    assertFalse(ExpensePartitionService.isPastHorizon(2026, LocalDate.of(2026, 10, 17), horizon));
+  }
+}
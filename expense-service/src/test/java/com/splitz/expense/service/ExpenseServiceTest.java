@@ -1,17 +1,24 @@
 package com.splitz.expense.service;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
-import static org.junit.jupiter.api.Assertions.assertFalse;
 import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
 import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.isNull;
 import static org.mockito.Mockito.lenient;
+import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
 import com.splitz.expense.calculator.SplitCalculator;
 import com.splitz.expense.dto.CreateExpenseRequest;
 import com.splitz.expense.dto.ExpenseDTO;
+import com.splitz.expense.dto.ExpenseFilter;
+import com.splitz.expense.dto.ExpensePageDTO;
 import com.splitz.expense.dto.SplitRequest;
 import com.splitz.expense.dto.UpdateExpenseRequest;
 import com.splitz.expense.exception.ResourceNotFoundException;
@@ -23,12 +30,17 @@ import com.splitz.expense.model.ExpenseSplit;
 import com.splitz.expense.model.Group;
 import com.splitz.expense.model.GroupMember;
 import com.splitz.expense.model.SplitType;
+import com.splitz.expense.pagination.ExpenseCursor;
+import com.splitz.expense.pagination.ExpenseSearchCursor;
 import com.splitz.expense.repository.CategoryRepository;
 import com.splitz.expense.repository.ExpenseRepository;
 import com.splitz.expense.repository.GroupMemberRepository;
 import com.splitz.expense.repository.GroupRepository;
+import com.splitz.expense.streaming.RowStreamer;
 import com.splitz.security.authorization.SharedSecurityAuthorizer;
 import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.List;
 import java.util.Optional;
@@ -70,6 +82,10 @@ class ExpenseServiceTest {
 
   @Mock private ActivityLogService activityLogService;
 
+  @Mock private BalanceProjectionService balanceProjectionService;
+
+  @Mock private RowStreamer rowStreamer;
+
   @InjectMocks private ExpenseService expenseService;
 
   private Group group;
@@ -465,13 +481,62 @@ class ExpenseServiceTest {
   void getExpensesByGroup_Success() {
     when(groupMemberRepository.existsByGroupIdAndUserId(1L, 100L)).thenReturn(true);
     when(groupRepository.existsById(1L)).thenReturn(true);
-    when(expenseRepository.findByGroupId(1L)).thenReturn(List.of(expense));
+    when(expenseRepository.findPageKeys(eq(List.of(1L)), any(), isNull(), eq(51)))
+        .thenReturn(List.of(new ExpenseCursor(LocalDate.of(2026, 3, 1), 1L)));
+    when(expenseRepository.findWithSplitsByIdIn(List.of(1L))).thenReturn(List.of(expense));
     when(expenseMapper.toDTO(expense)).thenReturn(expenseDTO);
 
-    List<ExpenseDTO> result = expenseService.getExpensesByGroup(1L, 100L);
+    ExpensePageDTO result =
+        expenseService.getExpensesByGroup(1L, new ExpenseFilter(), null, 50, 100L);
+
+    assertEquals(List.of(expenseDTO), result.getExpenses());
+    assertNull(result.getNextCursor());
+  }
+
+  @Test
+  void getExpensesByGroup_MoreRowsThanLimit_ReturnsCursorOfLastRow() {
+    Expense second = Expense.builder().id(2L).build();
+    ExpenseCursor first = new ExpenseCursor(LocalDate.of(2026, 3, 2), 1L);
+    ExpenseCursor last = new ExpenseCursor(LocalDate.of(2026, 3, 1), 2L);
+    when(groupMemberRepository.existsByGroupIdAndUserId(1L, 100L)).thenReturn(true);
+    when(groupRepository.existsById(1L)).thenReturn(true);
+    ExpenseCursor after = new ExpenseCursor(LocalDate.of(2026, 3, 5), 9L);
+    when(expenseRepository.findPageKeys(eq(List.of(1L)), any(), eq(after), eq(3)))
+        .thenReturn(List.of(first, last, new ExpenseCursor(LocalDate.of(2026, 2, 28), 3L)));
+    // Returned out of order: the page keeps the order of the keys
+    when(expenseRepository.findWithSplitsByIdIn(List.of(1L, 2L)))
+        .thenReturn(List.of(second, expense));
+    when(expenseMapper.toDTO(any(Expense.class)))
+        .thenAnswer(
+            invocation ->
+                ExpenseDTO.builder().id(invocation.<Expense>getArgument(0).getId()).build());
+
+    ExpensePageDTO result =
+        expenseService.getExpensesByGroup(1L, new ExpenseFilter(), after.encode(), 2, 100L);
+
+    assertEquals(List.of(1L, 2L), result.getExpenses().stream().map(ExpenseDTO::getId).toList());
+    assertEquals(last, ExpenseCursor.decode(result.getNextCursor()));
+  }
+
+  @Test
+  void getExpensesByGroup_InvalidPageRequest_ThrowsIllegalArgument() {
+    when(groupMemberRepository.existsByGroupIdAndUserId(1L, 100L)).thenReturn(true);
+    when(groupRepository.existsById(1L)).thenReturn(true);
+    ExpenseFilter inverted =
+        ExpenseFilter.builder()
+            .minAmount(new BigDecimal("50.00"))
+            .maxAmount(new BigDecimal("10.00"))
+            .build();
 
-    assertFalse(result.isEmpty());
-    assertEquals(1, result.size());
+    assertThrows(
+        IllegalArgumentException.class,
+        () -> expenseService.getExpensesByGroup(1L, new ExpenseFilter(), null, 0, 100L));
+    assertThrows(
+        IllegalArgumentException.class,
+        () -> expenseService.getExpensesByGroup(1L, inverted, null, 50, 100L));
+    assertThrows(
+        IllegalArgumentException.class,
+        () -> expenseService.getExpensesByGroup(1L, new ExpenseFilter(), "not-a-cursor", 50, 100L));
   }
 
   @Test
@@ -526,6 +591,47 @@ class ExpenseServiceTest {
     verify(expenseRepository).save(any(Expense.class));
   }
 
+  @Test
+  void updateExpense_WithSplits_KeepsRowsOfRemainingParticipants() {
+    ExpenseSplit split1 =
+        ExpenseSplit.builder()
+            .id(11L)
+            .userId(100L)
+            .splitType(SplitType.EQUAL)
+            .shareAmount(new BigDecimal("30.00"))
+            .build();
+    ExpenseSplit split2 =
+        ExpenseSplit.builder()
+            .id(12L)
+            .userId(101L)
+            .splitType(SplitType.EQUAL)
+            .shareAmount(new BigDecimal("30.00"))
+            .build();
+    expense.setSplits(new java.util.ArrayList<>(List.of(split1, split2)));
+    UpdateExpenseRequest request =
+        UpdateExpenseRequest.builder()
+            .splitType(SplitType.EQUAL)
+            .splits(
+                Arrays.asList(
+                    SplitRequest.builder().userId(102L).build(),
+                    SplitRequest.builder().userId(100L).build()))
+            .build();
+
+    when(expenseRepository.findById(1L)).thenReturn(Optional.of(expense));
+    lenient().when(groupService.canManageExpenses(any(), any(), any())).thenReturn(true);
+    when(expenseRepository.save(any(Expense.class))).thenAnswer(i -> i.getArgument(0));
+    when(expenseMapper.toDTO(any(Expense.class))).thenReturn(expenseDTO);
+
+    expenseService.updateExpense(1L, request, 100L);
+
+    List<ExpenseSplit> splits = expense.getSplits();
+    assertEquals(2, splits.size());
+    assertEquals(102L, splits.get(0).getUserId());
+    assertNull(splits.get(0).getId());
+    assertSame(split1, splits.get(1));
+    assertEquals(0, new BigDecimal("30.00").compareTo(split1.getShareAmount()));
+  }
+
   @Test
   void updateExpense_AmountOnly_RecalculatesSplits() {
     // Current expense is 60.00, let's say it has 2 equal splits of 30.00
@@ -664,7 +770,8 @@ class ExpenseServiceTest {
     when(groupRepository.existsById(1L)).thenReturn(false);
 
     assertThrows(
-        ResourceNotFoundException.class, () -> expenseService.getExpensesByGroup(1L, 100L));
+        ResourceNotFoundException.class,
+        () -> expenseService.getExpensesByGroup(1L, new ExpenseFilter(), null, 50, 100L));
   }
 
   @Test
@@ -676,13 +783,15 @@ class ExpenseServiceTest {
             List.of(
                 GroupMember.builder().group(group).build(),
                 GroupMember.builder().group(group2).build()));
-    when(expenseRepository.findByGroupIdIn(groupIds)).thenReturn(List.of(expense));
+    when(expenseRepository.findPageKeys(eq(groupIds), any(), isNull(), anyInt()))
+        .thenReturn(List.of(new ExpenseCursor(LocalDate.of(2026, 3, 1), 1L)));
+    when(expenseRepository.findWithSplitsByIdIn(List.of(1L))).thenReturn(List.of(expense));
     when(expenseMapper.toDTO(expense)).thenReturn(expenseDTO);
 
-    List<ExpenseDTO> result = expenseService.getExpensesByGroupIds(groupIds, 100L);
+    ExpensePageDTO result =
+        expenseService.getExpensesByGroupIds(groupIds, new ExpenseFilter(), null, 50, 100L);
 
-    assertFalse(result.isEmpty());
-    assertEquals(1, result.size());
+    assertEquals(1, result.getExpenses().size());
   }
 
   @Test
@@ -694,7 +803,77 @@ class ExpenseServiceTest {
 
     assertThrows(
         com.splitz.expense.exception.UnauthorizedException.class,
-        () -> expenseService.getExpensesByGroupIds(groupIds, 100L));
+        () -> expenseService.getExpensesByGroupIds(groupIds, new ExpenseFilter(), null, 50, 100L));
+  }
+
+  @Test
+  void streamExpensesByGroup_NotMember_ThrowsBeforeStreaming() {
+    when(groupMemberRepository.existsByGroupIdAndUserId(1L, 101L)).thenReturn(false);
+    when(splitzAuthorizer.isAdmin()).thenReturn(false);
+
+    assertThrows(
+        UnauthorizedException.class,
+        () -> expenseService.streamExpensesByGroup(1L, new ExpenseFilter(), 101L));
+    verify(rowStreamer, never()).byIds(any(), any(), any(), any());
+  }
+
+  @Test
+  void streamExpensesByGroupIds_NoGroups_StreamsNothing() {
+    when(splitzAuthorizer.isAdmin()).thenReturn(false);
+    when(groupMemberRepository.findByUserId(100L)).thenReturn(List.of());
+    List<ExpenseDTO> streamed = new ArrayList<>();
+
+    expenseService
+        .streamExpensesByGroupIds(List.of(), new ExpenseFilter(), 100L)
+        .forEach(streamed::add);
+
+    assertEquals(List.of(), streamed);
+    verify(rowStreamer, never()).byIds(any(), any(), any(), any());
+  }
+
+  @Test
+  void searchExpenses_SearchesMemberGroupsForEachWord() {
+    Group group2 = Group.builder().id(2L).name("Group 2").build();
+    when(groupMemberRepository.findByUserId(100L))
+        .thenReturn(
+            List.of(
+                GroupMember.builder().group(group).build(),
+                GroupMember.builder().group(group2).build()));
+    ExpenseSearchCursor first = new ExpenseSearchCursor(0.6f, LocalDate.of(2026, 3, 1), 1L);
+    when(expenseRepository.searchPageKeys(List.of(1L, 2L), List.of("taxi", "airport"), null, 2))
+        .thenReturn(List.of(first, new ExpenseSearchCursor(0.3f, LocalDate.of(2026, 3, 2), 2L)));
+    when(expenseRepository.findWithSplitsByIdIn(List.of(1L))).thenReturn(List.of(expense));
+    when(expenseMapper.toDTO(expense)).thenReturn(expenseDTO);
+
+    ExpensePageDTO result = expenseService.searchExpenses("  Taxi, AIRPORT taxi!", null, 1, 100L);
+
+    assertEquals(List.of(expenseDTO), result.getExpenses());
+    assertEquals(first, ExpenseSearchCursor.decode(result.getNextCursor()));
+  }
+
+  @Test
+  void searchExpenses_NoGroups_ReturnsEmptyPage() {
+    when(groupMemberRepository.findByUserId(100L)).thenReturn(List.of());
+
+    ExpensePageDTO result = expenseService.searchExpenses("taxi", null, 20, 100L);
+
+    assertEquals(List.of(), result.getExpenses());
+    verify(expenseRepository, never()).searchPageKeys(any(), any(), any(), anyInt());
+  }
+
+  @Test
+  void searchExpenses_InvalidRequest_ThrowsIllegalArgument() {
+    assertThrows(
+        IllegalArgumentException.class,
+        () -> expenseService.searchExpenses(" ?! ", null, 20, 100L));
+    assertThrows(
+        IllegalArgumentException.class,
+        () -> expenseService.searchExpenses("a b c d e f g h i j k", null, 20, 100L));
+    assertThrows(
+        IllegalArgumentException.class, () -> expenseService.searchExpenses("taxi", null, 0, 100L));
+    assertThrows(
+        IllegalArgumentException.class,
+        () -> expenseService.searchExpenses("taxi", "not-a-cursor", 20, 100L));
   }
 
   @Test
@@ -24,6 +24,7 @@ class FriendshipSettlementServiceTest {
   @Mock private FriendshipSettlementRepository friendshipSettlementRepository;
   @Mock private FriendshipSettlementMapper friendshipSettlementMapper;
   @Mock private com.splitz.security.authorization.SharedSecurityAuthorizer splitzAuthorizer;
+  @Mock private BalanceProjectionService balanceProjectionService;
 
   @org.mockito.InjectMocks private FriendshipSettlementService friendshipSettlementService;
 
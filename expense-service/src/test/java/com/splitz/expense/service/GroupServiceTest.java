@@ -3,6 +3,7 @@ package com.splitz.expense.service;
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.argThat;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
@@ -38,6 +39,8 @@ class GroupServiceTest {
 
   @Mock private UserClient userClient;
 
+  @Mock private BalanceCache balanceCache;
+
   @InjectMocks private GroupService groupService;
 
   private Group group;
@@ -116,6 +119,19 @@ class GroupServiceTest {
     verify(groupMemberRepository).delete(member);
   }
 
+  @Test
+  void deleteGroup_ShouldEvictBalancesShowingTheGroup() {
+    group.addMember(GroupMember.builder().userId(2L).role(GroupRole.MEMBER).build());
+    when(groupRepository.findById(2L)).thenReturn(Optional.of(group));
+
+    groupService.deleteGroup(2L, 1L);
+
+    assertEquals(false, group.isActive());
+    verify(balanceCache).evictGroup(2L);
+    verify(balanceCache).evictUsers(argThat(userIds -> Set.copyOf(userIds).equals(Set.of(1L, 2L))));
+    verify(balanceCache).evictAllPairs();
+  }
+
   @Test
   void canManageExpenses_Admin_ShouldReturnTrue() {
     group.setAllowMembersToEditExpenses(false);
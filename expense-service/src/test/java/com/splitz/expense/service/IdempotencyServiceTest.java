@@ -0,0 +1,239 @@
+package com.splitz.expense.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.argThat;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import com.splitz.expense.model.IdempotencyKey;
+import com.splitz.expense.model.IdempotencyKeyStatus;
+import com.splitz.expense.repository.IdempotencyKeyRepository;
+import com.splitz.expense.service.IdempotencyService.Claim;
+import com.splitz.expense.service.IdempotencyService.Decision;
+import com.splitz.expense.service.IdempotencyService.StoredResponse;
+import java.time.LocalDateTime;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Optional;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.transaction.PlatformTransactionManager;
+
+@ExtendWith(MockitoExtension.class)
+class IdempotencyServiceTest {
+
+  @Mock private IdempotencyKeyRepository idempotencyKeyRepository;
+  @Mock private PlatformTransactionManager transactionManager;
+
+  @InjectMocks private IdempotencyService idempotencyService;
+
+  private static final StoredResponse CREATED =
+      new StoredResponse(201, "application/json", "{\"id\":7}");
+
+  @BeforeEach
+  void setUp() {
+    idempotencyService.initCache();
+  }
+
+  private static IdempotencyKey row(
+      IdempotencyKeyStatus status, String requestHash, LocalDateTime createdAt) {
+    return IdempotencyKey.builder()
+        .id(1L)
+        .userId(100L)
+        .idempotencyKey("key-1")
+        .requestHash(requestHash)
+        .status(status)
+        .responseStatus(status == IdempotencyKeyStatus.COMPLETED ? 201 : null)
+        .responseContentType(status == IdempotencyKeyStatus.COMPLETED ? "application/json" : null)
+        .responseBody(status == IdempotencyKeyStatus.COMPLETED ? "{\"id\":7}" : null)
+        .createdAt(createdAt)
+        .heartbeatAt(createdAt)
+        .expiresAt(createdAt.plusHours(24))
+        .build();
+  }
+
+  /** Inserted claims get the given ids, in order. */
+  private void insertsClaims(Long... ids) {
+    Iterator<Long> nextId = List.of(ids).iterator();
+    when(idempotencyKeyRepository.saveAndFlush(any()))
+        .thenAnswer(
+            invocation -> {
+              IdempotencyKey key = invocation.getArgument(0);
+              key.setId(nextId.next());
+              return key;
+            });
+  }
+
+  @Test
+  void claim_NewKey_InsertsInProgressRow() {
+    when(idempotencyKeyRepository.findByUserIdAndIdempotencyKey(100L, "key-1"))
+        .thenReturn(Optional.empty());
+    insertsClaims(7L);
+
+    Claim claim = idempotencyService.claim(100L, "key-1", "hash-a");
+
+    assertEquals(Decision.PROCEED, claim.decision());
+    assertEquals(7L, claim.id());
+    verify(idempotencyKeyRepository)
+        .saveAndFlush(
+            argThat(
+                key ->
+                    key.getStatus() == IdempotencyKeyStatus.IN_PROGRESS
+                        && key.getRequestHash().equals("hash-a")));
+  }
+
+  @Test
+  void claim_AfterComplete_ReplaysFromMemory() {
+    when(idempotencyKeyRepository.findByUserIdAndIdempotencyKey(100L, "key-1"))
+        .thenReturn(Optional.empty());
+    insertsClaims(7L);
+    when(idempotencyKeyRepository.complete(
+            7L,
+            201,
+            "application/json",
+            "{\"id\":7}",
+            IdempotencyKeyStatus.IN_PROGRESS,
+            IdempotencyKeyStatus.COMPLETED))
+        .thenReturn(1);
+    idempotencyService.claim(100L, "key-1", "hash-a");
+    idempotencyService.complete(100L, "key-1", 7L, "hash-a", CREATED);
+
+    Claim replay = idempotencyService.claim(100L, "key-1", "hash-a");
+    Claim mismatch = idempotencyService.claim(100L, "key-1", "hash-b");
+
+    assertEquals(Decision.REPLAY, replay.decision());
+    assertEquals(CREATED, replay.response());
+    assertEquals(Decision.MISMATCH, mismatch.decision());
+    verify(idempotencyKeyRepository, times(1)).findByUserIdAndIdempotencyKey(100L, "key-1");
+  }
+
+  @Test
+  void claim_CompletedRow_ReplaysStoredResponse() {
+    when(idempotencyKeyRepository.findByUserIdAndIdempotencyKey(100L, "key-1"))
+        .thenReturn(
+            Optional.of(row(IdempotencyKeyStatus.COMPLETED, "hash-a", LocalDateTime.now())));
+
+    Claim claim = idempotencyService.claim(100L, "key-1", "hash-a");
+
+    assertEquals(Decision.REPLAY, claim.decision());
+    assertEquals(CREATED, claim.response());
+    verify(idempotencyKeyRepository, never()).saveAndFlush(any());
+  }
+
+  @Test
+  void claim_DifferentRequestHash_IsMismatch() {
+    when(idempotencyKeyRepository.findByUserIdAndIdempotencyKey(100L, "key-1"))
+        .thenReturn(
+            Optional.of(row(IdempotencyKeyStatus.COMPLETED, "hash-a", LocalDateTime.now())));
+
+    Claim claim = idempotencyService.claim(100L, "key-1", "hash-b");
+
+    assertEquals(Decision.MISMATCH, claim.decision());
+    assertNull(claim.response());
+  }
+
+  @Test
+  void claim_RecentClaimOnAnotherInstance_IsInProgress() {
+    when(idempotencyKeyRepository.findByUserIdAndIdempotencyKey(100L, "key-1"))
+        .thenReturn(Optional.empty())
+        .thenReturn(
+            Optional.of(row(IdempotencyKeyStatus.IN_PROGRESS, "hash-a", LocalDateTime.now())));
+    when(idempotencyKeyRepository.saveAndFlush(any()))
+        .thenThrow(new DataIntegrityViolationException("uk_idempotency_key"));
+
+    Claim claim = idempotencyService.claim(100L, "key-1", "hash-a");
+
+    assertEquals(Decision.IN_PROGRESS, claim.decision());
+  }
+
+  @Test
+  void claim_LongRunningClaimWithRecentHeartbeat_IsInProgress() {
+    IdempotencyKey running =
+        row(IdempotencyKeyStatus.IN_PROGRESS, "hash-a", LocalDateTime.now().minusMinutes(5));
+    running.setHeartbeatAt(LocalDateTime.now());
+    when(idempotencyKeyRepository.findByUserIdAndIdempotencyKey(100L, "key-1"))
+        .thenReturn(Optional.of(running));
+
+    Claim claim = idempotencyService.claim(100L, "key-1", "hash-a");
+
+    assertEquals(Decision.IN_PROGRESS, claim.decision());
+    verify(idempotencyKeyRepository, never()).deleteClaim(any());
+  }
+
+  @Test
+  void claim_StaleClaim_IsTakenOver() {
+    when(idempotencyKeyRepository.findByUserIdAndIdempotencyKey(100L, "key-1"))
+        .thenReturn(
+            Optional.of(
+                row(
+                    IdempotencyKeyStatus.IN_PROGRESS,
+                    "hash-a",
+                    LocalDateTime.now().minusMinutes(5))))
+        .thenReturn(Optional.empty());
+    insertsClaims(2L);
+
+    Claim claim = idempotencyService.claim(100L, "key-1", "hash-a");
+
+    assertEquals(Decision.PROCEED, claim.decision());
+    verify(idempotencyKeyRepository).deleteClaim(1L);
+  }
+
+  @Test
+  void complete_ClaimTakenOver_DoesNotReplay() {
+    when(idempotencyKeyRepository.findByUserIdAndIdempotencyKey(100L, "key-1"))
+        .thenReturn(Optional.empty());
+    insertsClaims(7L, 8L);
+    idempotencyService.claim(100L, "key-1", "hash-a");
+
+    // The update matches no row: the claim was deleted and taken over by another request
+    idempotencyService.complete(100L, "key-1", 7L, "hash-a", CREATED);
+    idempotencyService.claim(100L, "key-1", "hash-a");
+
+    verify(idempotencyKeyRepository, times(2)).findByUserIdAndIdempotencyKey(100L, "key-1");
+  }
+
+  @Test
+  void release_DeletesTheClaimAndAllowsRetry() {
+    when(idempotencyKeyRepository.findByUserIdAndIdempotencyKey(100L, "key-1"))
+        .thenReturn(Optional.empty());
+    insertsClaims(7L, 8L);
+    idempotencyService.claim(100L, "key-1", "hash-a");
+
+    idempotencyService.release(100L, "key-1", 7L);
+    Claim retry = idempotencyService.claim(100L, "key-1", "hash-a");
+
+    verify(idempotencyKeyRepository).deleteClaim(7L);
+    assertEquals(Decision.PROCEED, retry.decision());
+  }
+
+  @Test
+  void refreshClaims_RefreshesClaimsStillRunning() {
+    when(idempotencyKeyRepository.findByUserIdAndIdempotencyKey(any(), any()))
+        .thenReturn(Optional.empty());
+    insertsClaims(7L, 8L);
+    idempotencyService.claim(100L, "key-1", "hash-a");
+    idempotencyService.claim(100L, "key-2", "hash-a");
+    idempotencyService.release(100L, "key-2", 8L);
+
+    idempotencyService.refreshClaims();
+
+    verify(idempotencyKeyRepository)
+        .heartbeat(eq(List.of(7L)), any(), eq(IdempotencyKeyStatus.IN_PROGRESS));
+  }
+
+  @Test
+  void refreshClaims_NothingRunning_SkipsTheUpdate() {
+    assertEquals(0, idempotencyService.refreshClaims());
+    verify(idempotencyKeyRepository, never()).heartbeat(any(), any(), any());
+  }
+}
@@ -0,0 +1,99 @@
+package com.splitz.expense.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import com.splitz.expense.model.LedgerEntry;
+import com.splitz.expense.model.LedgerEntryType;
+import com.splitz.expense.repository.LedgerBalanceRepository;
+import com.splitz.expense.repository.LedgerEntryRepository;
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+@ExtendWith(MockitoExtension.class)
+class LedgerServiceTest {
+
+  @Mock private LedgerEntryRepository ledgerEntryRepository;
+  @Mock private LedgerBalanceRepository ledgerBalanceRepository;
+
+  @InjectMocks private LedgerService ledgerService;
+
+  @Test
+  void post_AppendsEntriesWithRunningBalances() {
+    when(ledgerBalanceRepository.findBalance(1L, 1L)).thenReturn(new BigDecimal("75.00"));
+    when(ledgerBalanceRepository.findBalance(1L, 2L)).thenReturn(new BigDecimal("-60.00"));
+
+    ledgerService.post(
+        1L,
+        LedgerEntryType.EXPENSE,
+        5L,
+        Map.of(2L, new BigDecimal("-60.00"), 1L, new BigDecimal("60.00"), 3L, BigDecimal.ZERO));
+
+    List<LedgerEntry> saved = savedEntries();
+    assertEquals(2, saved.size());
+    assertEquals(1L, saved.get(0).getUserId());
+    assertEquals(LedgerEntryType.EXPENSE, saved.get(0).getEntryType());
+    assertEquals(5L, saved.get(0).getSourceId());
+    assertEquals(0, new BigDecimal("75.00").compareTo(saved.get(0).getRunningBalance()));
+    assertEquals(2L, saved.get(1).getUserId());
+    assertEquals(0, new BigDecimal("-60.00").compareTo(saved.get(1).getRunningBalance()));
+    verify(ledgerBalanceRepository).upsertBalance(1L, 1L, new BigDecimal("60.00"));
+    verify(ledgerBalanceRepository).upsertBalance(1L, 2L, new BigDecimal("-60.00"));
+    verify(ledgerBalanceRepository, never()).upsertBalance(1L, 3L, BigDecimal.ZERO);
+  }
+
+  @Test
+  void postAll_UpdatesEachAccountOnceAndChainsRunningBalances() {
+    when(ledgerBalanceRepository.findBalance(1L, 1L)).thenReturn(new BigDecimal("130.00"));
+    when(ledgerBalanceRepository.findBalance(1L, 2L)).thenReturn(new BigDecimal("-30.00"));
+    Map<Long, Map<Long, BigDecimal>> postings = new LinkedHashMap<>();
+    postings.put(7L, Map.of(1L, new BigDecimal("10.00"), 2L, new BigDecimal("-10.00")));
+    postings.put(8L, Map.of(1L, new BigDecimal("20.00"), 2L, new BigDecimal("-20.00")));
+
+    ledgerService.postAll(1L, LedgerEntryType.EXPENSE, postings);
+
+    List<LedgerEntry> saved = savedEntries();
+    assertEquals(4, saved.size());
+    assertEquals(0, new BigDecimal("110.00").compareTo(saved.get(0).getRunningBalance()));
+    assertEquals(0, new BigDecimal("-10.00").compareTo(saved.get(1).getRunningBalance()));
+    assertEquals(8L, saved.get(2).getSourceId());
+    assertEquals(0, new BigDecimal("130.00").compareTo(saved.get(2).getRunningBalance()));
+    assertEquals(0, new BigDecimal("-30.00").compareTo(saved.get(3).getRunningBalance()));
+    verify(ledgerBalanceRepository, times(2)).upsertBalance(any(), any(), any());
+    verify(ledgerBalanceRepository).upsertBalance(1L, 1L, new BigDecimal("30.00"));
+  }
+
+  @SuppressWarnings("unchecked")
+  private List<LedgerEntry> savedEntries() {
+    ArgumentCaptor<List<LedgerEntry>> entries = ArgumentCaptor.forClass(List.class);
+    verify(ledgerEntryRepository).saveAll(entries.capture());
+    return entries.getValue();
+  }
+
+  @Test
+  void groupBalancesAsOf_UsesLatestEntryPerMember() {
+    LocalDateTime asOf = LocalDateTime.of(2026, 3, 1, 0, 0);
+    when(ledgerEntryRepository.findLatestByGroupIdAsOf(1L, asOf))
+        .thenReturn(
+            List.of(
+                LedgerEntry.builder().userId(1L).runningBalance(new BigDecimal("20.00")).build(),
+                LedgerEntry.builder().userId(2L).runningBalance(new BigDecimal("-20.00")).build()));
+
+    Map<Long, BigDecimal> balances = ledgerService.groupBalancesAsOf(1L, asOf);
+
+    assertEquals(Map.of(1L, new BigDecimal("20.00"), 2L, new BigDecimal("-20.00")), balances);
+  }
+}
@@ -0,0 +1,142 @@
+package com.splitz.expense.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.argThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+
+import com.splitz.expense.exception.ResourceNotFoundException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+
+class ReadFanOutTest {
+
+  private final PlatformTransactionManager transactionManager =
+      mock(PlatformTransactionManager.class);
+
+  @AfterEach
+  void tearDown() {
+    SecurityContextHolder.clearContext();
+  }
+
+  @Test
+  void sequential_RunsInlineInReadOnlyTransaction() {
+    ReadFanOut fanOut = new ReadFanOut(transactionManager, 1);
+    Thread caller = Thread.currentThread();
+
+    assertSame(caller, ReadFanOut.join(fanOut.read(Thread::currentThread)));
+    assertSame(caller, ReadFanOut.join(fanOut.call(Thread::currentThread)));
+    verify(transactionManager, times(1))
+        .getTransaction(argThat(definition -> definition.isReadOnly()));
+  }
+
+  @Test
+  void snapshot_Sequential_RunsReadsInOneRepeatableReadTransaction() {
+    ReadFanOut fanOut = new ReadFanOut(transactionManager, 1);
+
+    assertEquals(3, fanOut.snapshot(() -> ReadFanOut.join(fanOut.read(() -> 3))));
+    verify(transactionManager)
+        .getTransaction(
+            argThat(
+                definition ->
+                    definition.isReadOnly()
+                        && definition.getIsolationLevel()
+                            == TransactionDefinition.ISOLATION_REPEATABLE_READ));
+  }
+
+  @Test
+  void snapshot_Parallel_HoldsNoTransaction() {
+    ReadFanOut fanOut = new ReadFanOut(transactionManager, 2);
+
+    try {
+      assertEquals(3, fanOut.snapshot(() -> ReadFanOut.join(fanOut.read(() -> 3))));
+      // Only the read's own
+      verify(transactionManager, times(1)).getTransaction(any());
+    } finally {
+      fanOut.destroy();
+    }
+  }
+
+  @Test
+  void parallel_PropagatesSecurityContext() {
+    ReadFanOut fanOut = new ReadFanOut(transactionManager, 2);
+    Authentication authentication = new UsernamePasswordAuthenticationToken("101", null, List.of());
+    SecurityContextHolder.getContext().setAuthentication(authentication);
+
+    try {
+      CompletableFuture<Authentication> seen =
+          fanOut.read(() -> SecurityContextHolder.getContext().getAuthentication());
+      CompletableFuture<Thread> thread = fanOut.call(Thread::currentThread);
+
+      assertSame(authentication, ReadFanOut.join(seen));
+      assertNotEquals(Thread.currentThread(), ReadFanOut.join(thread));
+    } finally {
+      fanOut.destroy();
+    }
+  }
+
+  @Test
+  void parallel_RespectsLimitAndKeepsSubmissionOrder() {
+    ReadFanOut fanOut = new ReadFanOut(transactionManager, 2);
+    AtomicInteger running = new AtomicInteger();
+    AtomicInteger peak = new AtomicInteger();
+
+    try {
+      List<CompletableFuture<Integer>> futures = new ArrayList<>();
+      for (int i = 0; i < 8; i++) {
+        int index = i;
+        futures.add(
+            fanOut.read(
+                () -> {
+                  peak.accumulateAndGet(running.incrementAndGet(), Math::max);
+                  try {
+                    Thread.sleep(20);
+                  } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                  } finally {
+                    running.decrementAndGet();
+                  }
+                  return index;
+                }));
+      }
+
+      List<Integer> results = futures.stream().map(ReadFanOut::join).toList();
+      assertEquals(List.of(0, 1, 2, 3, 4, 5, 6, 7), results);
+      assertTrue(peak.get() <= 2, "at most two reads should run at once, saw " + peak.get());
+    } finally {
+      fanOut.destroy();
+    }
+  }
+
+  @Test
+  void join_RethrowsTaskException() {
+    ReadFanOut fanOut = new ReadFanOut(transactionManager, 2);
+
+    try {
+      CompletableFuture<Object> failed =
+          fanOut.call(
+              () -> {
+                throw new ResourceNotFoundException("User not found");
+              });
+
+      assertThrows(ResourceNotFoundException.class, () -> ReadFanOut.join(failed));
+    } finally {
+      fanOut.destroy();
+    }
+  }
+}
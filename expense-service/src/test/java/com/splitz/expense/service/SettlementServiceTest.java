@@ -2,6 +2,7 @@ package com.splitz.expense.service;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.argThat;
 import static org.mockito.Mockito.*;
 
 import com.splitz.expense.dto.CreateSettlementRequest;
@@ -15,6 +16,7 @@ import com.splitz.expense.model.SettlementStatus;
 import com.splitz.expense.repository.GroupMemberRepository;
 import com.splitz.expense.repository.GroupRepository;
 import com.splitz.expense.repository.SettlementRepository;
+import com.splitz.expense.streaming.RowStreamer;
 import java.math.BigDecimal;
 import java.util.Optional;
 import org.junit.jupiter.api.BeforeEach;
@@ -37,6 +39,10 @@ class SettlementServiceTest {
 
   @Mock private com.splitz.security.authorization.SharedSecurityAuthorizer splitzAuthorizer;
 
+  @Mock private BalanceProjectionService balanceProjectionService;
+
+  @Mock private RowStreamer rowStreamer;
+
   @InjectMocks private SettlementService settlementService;
 
   private Group group;
@@ -106,6 +112,13 @@ class SettlementServiceTest {
     SettlementDTO result = settlementService.createSettlement(request);
 
     assertEquals(SettlementStatus.COMPLETED, result.getStatus());
+    verify(balanceProjectionService)
+        .settlementCompleted(
+            argThat(
+                (Settlement s) ->
+                    s.getPayerId().equals(101L)
+                        && s.getPayeeId().equals(102L)
+                        && s.getAmount().equals(new BigDecimal("50.00"))));
   }
 
   @Test
@@ -123,6 +136,7 @@ class SettlementServiceTest {
     SettlementDTO result = settlementService.createSettlement(request);
 
     assertEquals(SettlementStatus.MARKED_PAID, result.getStatus());
+    verifyNoInteractions(balanceProjectionService);
   }
 
   @Test
@@ -189,6 +203,7 @@ class SettlementServiceTest {
     assertNotNull(result);
     assertEquals(SettlementStatus.COMPLETED, result.getStatus());
     verify(settlementRepository).save(settlement);
+    verify(balanceProjectionService).settlementCompleted(settlement);
   }
 
   @Test
@@ -0,0 +1,148 @@
+package com.splitz.expense.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import com.splitz.expense.dto.ActivityLogDTO;
+import com.splitz.expense.dto.ActivityLogPageDTO;
+import com.splitz.expense.mapper.ActivityLogMapper;
+import com.splitz.expense.model.ActivityLog;
+import com.splitz.expense.model.Group;
+import com.splitz.expense.model.GroupMember;
+import com.splitz.expense.model.UserActivityInboxEntry;
+import com.splitz.expense.pagination.ActivityLogCursor;
+import com.splitz.expense.repository.GroupMemberRepository;
+import com.splitz.expense.repository.UserActivityInboxRepository;
+import java.time.LocalDateTime;
+import java.util.List;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.PlatformTransactionManager;
+
+@ExtendWith(MockitoExtension.class)
+class UserActivityInboxServiceTest {
+
+  @Mock private UserActivityInboxRepository userActivityInboxRepository;
+  @Mock private GroupMemberRepository groupMemberRepository;
+  @Mock private ActivityLogMapper activityLogMapper;
+  @Mock private PlatformTransactionManager transactionManager;
+
+  @InjectMocks private UserActivityInboxService userActivityInboxService;
+
+  private static final LocalDateTime NOW = LocalDateTime.of(2026, 3, 1, 12, 0);
+
+  private static GroupMember member(long groupId, long userId) {
+    return GroupMember.builder().group(Group.builder().id(groupId).build()).userId(userId).build();
+  }
+
+  private static ActivityLog entry(long id, long groupId) {
+    return ActivityLog.builder().id(id).groupId(groupId).timestamp(NOW).build();
+  }
+
+  @SuppressWarnings("unchecked")
+  private List<UserActivityInboxEntry> delivered() {
+    ArgumentCaptor<List<UserActivityInboxEntry>> rows = ArgumentCaptor.forClass(List.class);
+    verify(userActivityInboxRepository).saveAll(rows.capture());
+    return rows.getValue();
+  }
+
+  @Test
+  void deliver_CopiesEachEntryToEveryMemberOfItsGroup() {
+    when(groupMemberRepository.findByGroupIdIn(List.of(1L, 2L)))
+        .thenReturn(List.of(member(1L, 100L), member(1L, 101L), member(2L, 100L)));
+
+    userActivityInboxService.deliver(List.of(entry(10L, 1L), entry(11L, 2L), entry(12L, 1L)));
+
+    assertEquals(
+        List.of("100:10", "101:10", "100:11", "100:12", "101:12"),
+        delivered().stream().map(row -> row.getUserId() + ":" + row.getActivityLogId()).toList());
+    assertEquals(NOW, delivered().get(0).getTimestamp());
+    assertEquals(1L, delivered().get(0).getGroupId());
+  }
+
+  @Test
+  void trim_OnlyVisitsUsersDeliveredToAndDeletesPastTheCap() {
+    ReflectionTestUtils.setField(userActivityInboxService, "maxEntriesPerUser", 2);
+    when(groupMemberRepository.findByGroupIdIn(List.of(1L)))
+        .thenReturn(List.of(member(1L, 100L), member(1L, 101L)));
+    userActivityInboxService.deliver(List.of(entry(10L, 1L)));
+    ActivityLogCursor firstDropped = new ActivityLogCursor(NOW.minusDays(1), 3L);
+    when(userActivityInboxRepository.findPositions(100L, PageRequest.of(2, 1)))
+        .thenReturn(List.of(firstDropped));
+    // 101 has no more rows than the cap
+    when(userActivityInboxRepository.findPositions(101L, PageRequest.of(2, 1)))
+        .thenReturn(List.of());
+    when(userActivityInboxRepository.deleteFrom(100L, firstDropped.timestamp(), 3L)).thenReturn(4);
+
+    assertEquals(4, userActivityInboxService.trim());
+    // Nothing was delivered since
+    assertEquals(0, userActivityInboxService.trim());
+    verify(userActivityInboxRepository, never()).deleteFrom(eq(101L), any(), anyLong());
+  }
+
+  @Test
+  void sweep_TrimsInboxesOverTheCapThatWereNotDeliveredTo() {
+    ReflectionTestUtils.setField(userActivityInboxService, "maxEntriesPerUser", 2);
+    when(userActivityInboxRepository.findUserIdsWithMoreThan(2)).thenReturn(List.of(100L));
+    ActivityLogCursor firstDropped = new ActivityLogCursor(NOW.minusDays(1), 3L);
+    when(userActivityInboxRepository.findPositions(100L, PageRequest.of(2, 1)))
+        .thenReturn(List.of(firstDropped));
+    when(userActivityInboxRepository.deleteFrom(100L, firstDropped.timestamp(), 3L)).thenReturn(1);
+
+    assertEquals(1, userActivityInboxService.sweep());
+  }
+
+  @Test
+  void getInbox_MoreEntriesThanLimit_ReturnsCursorOfLastEntry() {
+    ActivityLogCursor after = new ActivityLogCursor(NOW.plusHours(1), 20L);
+    ActivityLog last = ActivityLog.builder().id(11L).timestamp(NOW).build();
+    when(userActivityInboxRepository.findEntriesAfter(
+            100L, after.timestamp(), 20L, PageRequest.of(0, 3)))
+        .thenReturn(List.of(entry(12L, 1L), last, entry(10L, 2L)));
+    when(activityLogMapper.toDTO(any(ActivityLog.class)))
+        .thenAnswer(
+            invocation ->
+                ActivityLogDTO.builder()
+                    .id(invocation.<ActivityLog>getArgument(0).getId())
+                    .build());
+
+    ActivityLogPageDTO page = userActivityInboxService.getInbox(100L, after.encode(), 2);
+
+    assertEquals(
+        List.of(12L, 11L), page.getActivities().stream().map(ActivityLogDTO::getId).toList());
+    assertEquals(new ActivityLogCursor(NOW, 11L), ActivityLogCursor.decode(page.getNextCursor()));
+  }
+
+  @Test
+  void getInbox_LastPage_HasNoCursor() {
+    when(userActivityInboxRepository.findFirstEntries(100L, PageRequest.of(0, 51)))
+        .thenReturn(List.of(entry(10L, 1L)));
+
+    ActivityLogPageDTO page = userActivityInboxService.getInbox(100L, null, 50);
+
+    assertEquals(1, page.getActivities().size());
+    assertNull(page.getNextCursor());
+  }
+
+  @Test
+  void getInbox_InvalidPageRequest_ThrowsIllegalArgument() {
+    assertThrows(
+        IllegalArgumentException.class, () -> userActivityInboxService.getInbox(100L, null, 0));
+    assertThrows(
+        IllegalArgumentException.class,
+        () -> userActivityInboxService.getInbox(100L, "not-a-cursor", 50));
+  }
+}
@@ -0,0 +1,73 @@
+package com.splitz.expense.streaming;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+
+import jakarta.persistence.EntityManager;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.LongStream;
+import java.util.stream.Stream;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.PlatformTransactionManager;
+
+@ExtendWith(MockitoExtension.class)
+class RowStreamerTest {
+
+  @Mock private PlatformTransactionManager transactionManager;
+
+  @Mock private EntityManager entityManager;
+
+  private RowStreamer rowStreamer;
+
+  @BeforeEach
+  void setUp() {
+    rowStreamer = new RowStreamer(transactionManager);
+    ReflectionTestUtils.setField(rowStreamer, "entityManager", entityManager);
+  }
+
+  @Test
+  void byIds_LoadsInChunksKeepingIdOrderAndSkippingDeletedRows() {
+    int rows = 2 * RowStreamer.FETCH_SIZE + 1;
+    List<Integer> chunkSizes = new ArrayList<>();
+    RowStream<String> stream =
+        rowStreamer.byIds(
+            () -> LongStream.rangeClosed(1, rows).boxed(),
+            ids -> {
+              chunkSizes.add(ids.size());
+              // Returned in reverse, and without id 2, which was deleted meanwhile
+              List<Long> r = new ArrayList<>(ids); java.util.Collections.reverse(r); return r.stream().filter(id -> id != 2L).toList();
+            },
+            id -> id,
+            id -> "row-" + id);
+
+    List<String> streamed = new ArrayList<>();
+    stream.forEach(streamed::add);
+
+    assertEquals(List.of(RowStreamer.FETCH_SIZE, RowStreamer.FETCH_SIZE, 1), chunkSizes);
+    assertEquals(rows - 1, streamed.size());
+    assertEquals(List.of("row-1", "row-3", "row-4"), streamed.subList(0, 3));
+    assertEquals("row-" + rows, streamed.get(streamed.size() - 1));
+    verify(entityManager, times(3)).clear();
+  }
+
+  @Test
+  void entities_DetachesEachRowOnceMapped() {
+    List<String> streamed = new ArrayList<>();
+
+    rowStreamer
+        .entities(() -> Stream.of("a", "b"), String::toUpperCase)
+        .followedBy(action -> action.accept("C"))
+        .forEach(streamed::add);
+
+    assertEquals(List.of("A", "B", "C"), streamed);
+    verify(entityManager).detach("a");
+    verify(entityManager).detach("b");
+  }
+}
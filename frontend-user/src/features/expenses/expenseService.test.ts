@@ -28,10 +28,31 @@ describe("expenseService", () => {
 
     const result = await expenseService.getGroupExpenses(groupId);
 
-    expect(expenseApi.get).toHaveBeenCalledWith(`/groups/${groupId}/expenses`);
+    expect(expenseApi.get).toHaveBeenCalledWith(`/groups/${groupId}/expenses`, {
+      params: { limit: 200, cursor: undefined },
+    });
     expect(result).toEqual(mockExpenses);
   });
 
+  it("follows the next-page cursor until the last page", async () => {
+    vi.mocked(expenseApi.get)
+      .mockResolvedValueOnce({
+        data: [{ id: 2, description: "Taxi", amount: 20, splits: [] }],
+        headers: { "x-next-cursor": "next" },
+      })
+      .mockResolvedValueOnce({
+        data: [{ id: 1, description: "Lunch", amount: 30, splits: [] }],
+        headers: {},
+      });
+
+    const result = await expenseService.getGroupExpenses(1);
+
+    expect(expenseApi.get).toHaveBeenLastCalledWith(`/groups/1/expenses`, {
+      params: { limit: 200, cursor: "next" },
+    });
+    expect(result.map((expense) => expense.id)).toEqual([2, 1]);
+  });
+
   it("creates a new expense", async () => {
     const groupId = 1;
     const newExpense = {
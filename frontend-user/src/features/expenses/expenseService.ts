@@ -5,20 +5,32 @@ import type {
   UpdateExpenseRequest,
 } from "../../types/expense";
 
+const PAGE_SIZE = 200;
+
+// Expense listings are paginated; the next page's cursor comes back in a header
+const fetchAllPages = async (url: string): Promise<Expense[]> => {
+  const expenses: Expense[] = [];
+  let cursor: string | undefined;
+  do {
+    const response = await expenseApi.get<Expense[]>(url, {
+      params: { limit: PAGE_SIZE, cursor },
+    });
+    expenses.push(...response.data);
+    cursor = response.headers?.["x-next-cursor"];
+  } while (cursor);
+  return expenses;
+};
+
 export const expenseService = {
   getGroupExpenses: async (groupId: number): Promise<Expense[]> => {
-    const response = await expenseApi.get<Expense[]>(
-      `/groups/${groupId}/expenses`,
-    );
-    return response.data;
+    return fetchAllPages(`/groups/${groupId}/expenses`);
   },
 
   getBulkGroupExpenses: async (groupIds: number[]): Promise<Expense[]> => {
     if (groupIds.length === 0) return [];
-    const response = await expenseApi.get<Expense[]>(
+    return fetchAllPages(
       `/groups/expenses/bulk?groupIds=${groupIds.join(",")}`,
     );
-    return response.data;
   },
 
   createExpense: async (
@@ -11,6 +11,7 @@ import jakarta.persistence.GenerationType;
 import jakarta.persistence.Id;
 import jakarta.persistence.JoinColumn;
 import jakarta.persistence.ManyToOne;
+import jakarta.persistence.SequenceGenerator;
 import jakarta.persistence.Table;
 import jakarta.persistence.UniqueConstraint;
 import java.time.LocalDateTime;
@@ -40,7 +41,11 @@ import org.springframework.data.jpa.domain.support.AuditingEntityListener;
 public class Friendship {
 
   @Id
-  @GeneratedValue(strategy = GenerationType.IDENTITY)
+  @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "friendships_id_seq")
+  @SequenceGenerator(
+      name = "friendships_id_seq",
+      sequenceName = "friendships_id_seq",
+      allocationSize = 50)
   private Long id;
 
   /** The user who initiated the friend request. */
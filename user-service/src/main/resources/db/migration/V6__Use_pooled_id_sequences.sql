@@ -0,0 +1,11 @@
+-- V6__Use_pooled_id_sequences.sql
+-- Switches users and friendships from IDENTITY to sequence ids reserved in blocks of 50, so
+-- Hibernate can batch their inserts. On PostgreSQL the BIGSERIAL sequences already exist and only
+-- their increment changes; H2 keeps BIGSERIAL on an internal identity sequence, so the named
+-- sequences are created there.
+
+CREATE SEQUENCE IF NOT EXISTS users_id_seq START WITH 1 INCREMENT BY 50;
+ALTER SEQUENCE users_id_seq INCREMENT BY 50;
+
+CREATE SEQUENCE IF NOT EXISTS friendships_id_seq START WITH 1 INCREMENT BY 50;
+ALTER SEQUENCE friendships_id_seq INCREMENT BY 50;